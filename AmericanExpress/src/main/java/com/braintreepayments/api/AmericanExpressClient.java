@@ -3,9 +3,12 @@ package com.braintreepayments.api;
 import android.net.Uri;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 
 import org.json.JSONException;
 
+import java.util.List;
+
 /**
  * Used to integrate with Braintree's American Express API
  */
@@ -14,10 +17,67 @@ public class AmericanExpressClient {
     private static final String AMEX_REWARDS_BALANCE_PATH =
         ApiClient.versionedPath("payment_methods/amex_rewards_balance");
 
+    private static final int REWARDS_BALANCE_CACHE_MAX_ENTRIES = 16;
+
     private final BraintreeClient braintreeClient;
+    private final ExpiringLruCache<AmericanExpressRewardsBalance> rewardsBalanceCache;
+
+    // callbacks waiting on an in flight rewards balance request, keyed by nonce and currency
+    private final PendingCallbacks<AmericanExpressGetRewardsBalanceCallback> pendingCallbacks = new PendingCallbacks<>();
+
+    private long rewardsBalanceCacheMillis = 0;
 
     public AmericanExpressClient(@NonNull BraintreeClient braintreeClient) {
+        this(braintreeClient, new ExpiringLruCache<AmericanExpressRewardsBalance>(REWARDS_BALANCE_CACHE_MAX_ENTRIES));
+    }
+
+    @VisibleForTesting
+    AmericanExpressClient(BraintreeClient braintreeClient, ExpiringLruCache<AmericanExpressRewardsBalance> rewardsBalanceCache) {
         this.braintreeClient = braintreeClient;
+        this.rewardsBalanceCache = rewardsBalanceCache;
+    }
+
+    /**
+     * Cache rewards balances returned by
+     * {@link AmericanExpressClient#getRewardsBalance(String, String, AmericanExpressGetRewardsBalanceCallback)}
+     * in memory.
+     * <p>
+     * When set, a rewards balance is reused for the same nonce and currency for
+     * {@code timeToLiveMillis}, and concurrent requests for the same nonce and currency share a
+     * single request. Balances that contain an error code are not cached. Defaults to 0, which
+     * disables caching.
+     *
+     * @param timeToLiveMillis how long a rewards balance is cached, in milliseconds
+     */
+    public void setRewardsBalanceCacheDuration(long timeToLiveMillis) {
+        rewardsBalanceCacheMillis = Math.max(timeToLiveMillis, 0);
+        if (rewardsBalanceCacheMillis == 0) {
+            rewardsBalanceCache.clear();
+        }
+    }
+
+    /**
+     * Remove the cached rewards balance for a nonce and currency, e.g. after the rewards have been
+     * redeemed. The next call to
+     * {@link AmericanExpressClient#getRewardsBalance(String, String, AmericanExpressGetRewardsBalanceCallback)}
+     * fetches a fresh balance.
+     *
+     * @param nonce A nonce representing a card
+     * @param currencyIsoCode The currencyIsoCode of the cached balance. Example: 'USD'
+     */
+    public void invalidateRewardsBalance(@NonNull String nonce, @NonNull String currencyIsoCode) {
+        String cacheKey = getCacheKey(nonce, currencyIsoCode);
+        rewardsBalanceCache.remove(cacheKey);
+        // later requests must not join a request that was sent before the balance changed
+        pendingCallbacks.remove(cacheKey);
+    }
+
+    /**
+     * Remove all cached rewards balances.
+     */
+    public void clearRewardsBalanceCache() {
+        rewardsBalanceCache.clear();
+        pendingCallbacks.clear();
     }
 
     /**
@@ -27,6 +87,44 @@ public class AmericanExpressClient {
      * @param callback {@link AmericanExpressGetRewardsBalanceCallback}
      */
     public void getRewardsBalance(@NonNull String nonce, @NonNull String currencyIsoCode, @NonNull final AmericanExpressGetRewardsBalanceCallback callback) {
+        if (rewardsBalanceCacheMillis <= 0) {
+            fetchRewardsBalance(nonce, currencyIsoCode, callback);
+            return;
+        }
+
+        final String cacheKey = getCacheKey(nonce, currencyIsoCode);
+        AmericanExpressRewardsBalance cachedRewardsBalance =
+                rewardsBalanceCache.get(cacheKey, rewardsBalanceCacheMillis, System.currentTimeMillis());
+        if (cachedRewardsBalance != null) {
+            braintreeClient.sendAnalyticsEvent("amex.rewards-balance.cache-hit");
+            callback.onResult(cachedRewardsBalance, null);
+            return;
+        }
+
+        final List<AmericanExpressGetRewardsBalanceCallback> requestCallbacks = pendingCallbacks.add(cacheKey, callback);
+        if (requestCallbacks == null) {
+            return;
+        }
+
+        final long cacheGeneration = rewardsBalanceCache.getGeneration();
+        fetchRewardsBalance(nonce, currencyIsoCode, new AmericanExpressGetRewardsBalanceCallback() {
+            @Override
+            public void onResult(AmericanExpressRewardsBalance rewardsBalance, Exception error) {
+                if (rewardsBalance != null && rewardsBalance.getErrorCode() == null) {
+                    rewardsBalanceCache.put(cacheKey, rewardsBalance, System.currentTimeMillis(), cacheGeneration);
+                }
+                for (AmericanExpressGetRewardsBalanceCallback pendingCallback : pendingCallbacks.complete(cacheKey, requestCallbacks)) {
+                    pendingCallback.onResult(rewardsBalance, error);
+                }
+            }
+        });
+    }
+
+    private static String getCacheKey(String nonce, String currencyIsoCode) {
+        return nonce + "|" + currencyIsoCode;
+    }
+
+    private void fetchRewardsBalance(String nonce, String currencyIsoCode, final AmericanExpressGetRewardsBalanceCallback callback) {
         String getRewardsBalanceUrl = Uri.parse(AMEX_REWARDS_BALANCE_PATH)
                 .buildUpon()
                 .appendQueryParameter("paymentMethodNonce", nonce)
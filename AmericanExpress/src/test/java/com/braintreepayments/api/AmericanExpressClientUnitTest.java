@@ -4,8 +4,12 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import org.junit.Before;
@@ -149,4 +153,192 @@ public class AmericanExpressClientUnitTest {
         verify(braintreeClient).sendAnalyticsEvent("amex.rewards-balance.start");
         verify(braintreeClient).sendAnalyticsEvent("amex.rewards-balance.parse.failed");
     }
+
+    @Test
+    public void getRewardsBalance_whenCacheIsDisabled_sendsRequestEveryTime() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent("amex.rewards-balance.cache-hit");
+    }
+
+    @Test
+    public void getRewardsBalance_whenCacheIsEnabled_returnsCachedRewardsBalance() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.setRewardsBalanceCacheDuration(60000);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        AmericanExpressGetRewardsBalanceCallback secondCallback =
+                mock(AmericanExpressGetRewardsBalanceCallback.class);
+        sut.getRewardsBalance("fake-nonce", "USD", secondCallback);
+
+        ArgumentCaptor<AmericanExpressRewardsBalance> amexRewardsCaptor =
+                ArgumentCaptor.forClass(AmericanExpressRewardsBalance.class);
+        verify(amexRewardsCallback).onResult(amexRewardsCaptor.capture(), (Exception) isNull());
+        verify(secondCallback).onResult(same(amexRewardsCaptor.getValue()), (Exception) isNull());
+
+        verify(braintreeClient, times(1)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(braintreeClient, times(1)).sendAnalyticsEvent("amex.rewards-balance.start");
+        verify(braintreeClient).sendAnalyticsEvent("amex.rewards-balance.cache-hit");
+    }
+
+    @Test
+    public void getRewardsBalance_whenCacheIsEnabled_sendsRequestForDifferentCurrency() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.setRewardsBalanceCacheDuration(60000);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "EUR", amexRewardsCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void getRewardsBalance_whenRequestIsInFlight_sharesRequest() {
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.setRewardsBalanceCacheDuration(60000);
+
+        AmericanExpressGetRewardsBalanceCallback secondCallback =
+                mock(AmericanExpressGetRewardsBalanceCallback.class);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "USD", secondCallback);
+
+        ArgumentCaptor<HttpResponseCallback> httpCallbackCaptor =
+                ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient, times(1)).sendGET(anyString(), httpCallbackCaptor.capture());
+
+        httpCallbackCaptor.getValue().onResult(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS, null);
+
+        verify(amexRewardsCallback).onResult(any(AmericanExpressRewardsBalance.class), (Exception) isNull());
+        verify(secondCallback).onResult(any(AmericanExpressRewardsBalance.class), (Exception) isNull());
+    }
+
+    @Test
+    public void getRewardsBalance_whenRequestFails_doesNotCacheError() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETErrorResponse(new AuthorizationException("Bad fingerprint"))
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.setRewardsBalanceCacheDuration(60000);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void getRewardsBalance_whenBalanceHasErrorCode_doesNotCacheBalance() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_INSUFFICIENT_POINTS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.setRewardsBalanceCacheDuration(60000);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void invalidateRewardsBalance_removesCachedRewardsBalance() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.setRewardsBalanceCacheDuration(60000);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.invalidateRewardsBalance("fake-nonce", "USD");
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent("amex.rewards-balance.cache-hit");
+    }
+
+    @Test
+    public void clearRewardsBalanceCache_removesAllCachedRewardsBalances() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.setRewardsBalanceCacheDuration(60000);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("other-nonce", "USD", amexRewardsCallback);
+        sut.clearRewardsBalanceCache();
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("other-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(4)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void invalidateRewardsBalance_whileRequestIsInFlight_doesNotCacheStaleRewardsBalance() {
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.setRewardsBalanceCacheDuration(60000);
+
+        AmericanExpressGetRewardsBalanceCallback secondCallback =
+                mock(AmericanExpressGetRewardsBalanceCallback.class);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.invalidateRewardsBalance("fake-nonce", "USD");
+        sut.getRewardsBalance("fake-nonce", "USD", secondCallback);
+
+        ArgumentCaptor<HttpResponseCallback> httpCallbackCaptor =
+                ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient, times(2)).sendGET(anyString(), httpCallbackCaptor.capture());
+
+        httpCallbackCaptor.getAllValues().get(0).onResult(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS, null);
+        verify(amexRewardsCallback).onResult(any(AmericanExpressRewardsBalance.class), (Exception) isNull());
+        verify(secondCallback, never()).onResult(any(AmericanExpressRewardsBalance.class), any(Exception.class));
+
+        // joins the request sent after invalidation instead of reading the stale balance
+        AmericanExpressGetRewardsBalanceCallback thirdCallback =
+                mock(AmericanExpressGetRewardsBalanceCallback.class);
+        sut.getRewardsBalance("fake-nonce", "USD", thirdCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent("amex.rewards-balance.cache-hit");
+
+        httpCallbackCaptor.getAllValues().get(1).onResult(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS, null);
+        verify(secondCallback).onResult(any(AmericanExpressRewardsBalance.class), (Exception) isNull());
+        verify(thirdCallback).onResult(any(AmericanExpressRewardsBalance.class), (Exception) isNull());
+    }
+
+    @Test
+    public void clearRewardsBalanceCache_whileRequestIsInFlight_doesNotCacheStaleRewardsBalance() {
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.setRewardsBalanceCacheDuration(60000);
+
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.clearRewardsBalanceCache();
+
+        ArgumentCaptor<HttpResponseCallback> httpCallbackCaptor =
+                ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendGET(anyString(), httpCallbackCaptor.capture());
+        httpCallbackCaptor.getValue().onResult(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS, null);
+        verify(amexRewardsCallback).onResult(any(AmericanExpressRewardsBalance.class), (Exception) isNull());
+
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent("amex.rewards-balance.cache-hit");
+    }
 }
@@ -18,6 +18,8 @@ abstract class AnalyticsBaseWorker(
 ) : Worker(context, workerParams) {
 
     internal open fun createAnalyticsClientFromInputData(): AnalyticsClient {
-        return AnalyticsClient(applicationContext)
+        val useAnalyticsJournal =
+            inputData.getBoolean(AnalyticsClient.WORK_INPUT_KEY_USE_ANALYTICS_JOURNAL, false)
+        return AnalyticsClient(applicationContext, useAnalyticsJournal = useAnalyticsJournal)
     }
 }
@@ -7,7 +7,6 @@ import androidx.work.ExistingWorkPolicy
 import androidx.work.ListenableWorker
 import androidx.work.OneTimeWorkRequest
 import androidx.work.WorkManager
-import com.braintreepayments.api.AnalyticsDatabase.Companion.getInstance
 import org.json.JSONArray
 import org.json.JSONException
 import org.json.JSONObject
@@ -17,17 +16,27 @@ import java.util.concurrent.TimeUnit
 @Suppress("SwallowedException", "TooGenericExceptionCaught")
 internal class AnalyticsClient @VisibleForTesting constructor(
     private val httpClient: BraintreeHttpClient,
-    private val analyticsDatabase: AnalyticsDatabase,
+    private val analyticsStore: AnalyticsStore,
     private val workManager: WorkManager,
-    private val deviceInspector: DeviceInspector
+    private val deviceInspector: DeviceInspector,
+    private val eventLimiter: AnalyticsEventLimiter = AnalyticsEventLimiter()
 ) {
     private var lastKnownAnalyticsUrl: String? = null
 
-    constructor(context: Context) : this(
+    @JvmOverloads
+    constructor(
+        context: Context,
+        useAnalyticsJournal: Boolean = false
+    ) : this(
         BraintreeHttpClient(),
-        getInstance(context.applicationContext),
+        if (useAnalyticsJournal) {
+            AnalyticsJournal.getInstance(context.applicationContext)
+        } else {
+            AnalyticsDatabase.getInstance(context.applicationContext)
+        },
         WorkManager.getInstance(context.applicationContext),
-        DeviceInspector()
+        DeviceInspector(),
+        AnalyticsEventLimiter.getInstance()
     )
 
     fun sendEvent(
@@ -35,10 +44,23 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         eventName: String?,
         sessionId: String?,
         integration: String?,
-        authorization: Authorization
+        authorization: Authorization,
+        duration: Long? = null,
+        endpoint: String? = null,
+        attributes: JSONObject? = null
     ) {
         val timestamp = System.currentTimeMillis()
-        sendEvent(configuration, eventName, sessionId, integration, timestamp, authorization)
+        sendEvent(
+            configuration,
+            eventName,
+            sessionId,
+            integration,
+            timestamp,
+            authorization,
+            duration,
+            endpoint,
+            attributes
+        )
     }
 
     @VisibleForTesting
@@ -48,21 +70,46 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         sessionId: String?,
         integration: String?,
         timestamp: Long,
-        authorization: Authorization
+        authorization: Authorization,
+        duration: Long? = null,
+        endpoint: String? = null,
+        attributes: JSONObject? = null
     ): UUID {
         lastKnownAnalyticsUrl = configuration.analyticsUrl
-        scheduleAnalyticsWrite("android.$eventName", timestamp, authorization)
-        return scheduleAnalyticsUpload(configuration, authorization, sessionId, integration)
+        val policy = eventName?.let { configuration.analyticsEventPolicies[it] }
+        val weight = eventLimiter.admit(eventName.orEmpty(), policy, timestamp)
+        if (weight > 0.0) {
+            val event = AnalyticsEvent(
+                "android.$eventName", timestamp, weight, duration, endpoint, attributes?.toString()
+            )
+            if (analyticsStore.isInsertNonBlocking) {
+                analyticsStore.insertEvent(
+                    event.name,
+                    event.timestamp,
+                    event.weight,
+                    event.duration,
+                    event.endpoint,
+                    event.attributes
+                )
+            } else {
+                scheduleAnalyticsWrite(event, authorization)
+            }
+        }
+        return scheduleAnalyticsUpload(
+            configuration.analyticsUrl, authorization, sessionId, integration
+        )
     }
 
-    private fun scheduleAnalyticsWrite(
-        eventName: String, timestamp: Long, authorization: Authorization
-    ) {
-        val inputData = Data.Builder()
+    private fun scheduleAnalyticsWrite(event: AnalyticsEvent, authorization: Authorization) {
+        val inputDataBuilder = Data.Builder()
             .putString(WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(WORK_INPUT_KEY_EVENT_NAME, eventName)
-            .putLong(WORK_INPUT_KEY_TIMESTAMP, timestamp)
-            .build()
+            .putString(WORK_INPUT_KEY_EVENT_NAME, event.name)
+            .putLong(WORK_INPUT_KEY_TIMESTAMP, event.timestamp)
+            .putDouble(WORK_INPUT_KEY_WEIGHT, event.weight)
+        event.duration?.let { inputDataBuilder.putLong(WORK_INPUT_KEY_DURATION, it) }
+        event.endpoint?.let { inputDataBuilder.putString(WORK_INPUT_KEY_ENDPOINT, it) }
+        event.attributes?.let { inputDataBuilder.putString(WORK_INPUT_KEY_ATTRIBUTES, it) }
+        val inputData = inputDataBuilder.build()
 
         val analyticsWorkRequest =
             OneTimeWorkRequest.Builder(AnalyticsWriteToDbWorker::class.java)
@@ -80,24 +127,35 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         return if (eventName == null || timestamp == INVALID_TIMESTAMP) {
             ListenableWorker.Result.failure()
         } else {
-            val event = AnalyticsEvent(eventName, timestamp)
-            val analyticsEventDao = analyticsDatabase.analyticsEventDao()
-            analyticsEventDao.insertEvent(event)
+            val weight = inputData.getDouble(WORK_INPUT_KEY_WEIGHT, DEFAULT_WEIGHT)
+            val duration = inputData.getLong(WORK_INPUT_KEY_DURATION, INVALID_DURATION)
+                .takeIf { it != INVALID_DURATION }
+            analyticsStore.insertEvent(
+                eventName,
+                timestamp,
+                weight,
+                duration,
+                inputData.getString(WORK_INPUT_KEY_ENDPOINT),
+                inputData.getString(WORK_INPUT_KEY_ATTRIBUTES)
+            )
             ListenableWorker.Result.success()
         }
     }
 
     private fun scheduleAnalyticsUpload(
-        configuration: Configuration,
+        analyticsUrl: String?,
         authorization: Authorization,
         sessionId: String?,
         integration: String?
     ): UUID {
+        // only the analytics url is needed from configuration; embedding the full configuration
+        // document risks exceeding the WorkManager Data size limit for large merchant configs
         val inputData = Data.Builder()
             .putString(WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(WORK_INPUT_KEY_ANALYTICS_URL, analyticsUrl)
             .putString(WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(WORK_INPUT_KEY_INTEGRATION, integration)
+            .putBoolean(WORK_INPUT_KEY_USE_ANALYTICS_JOURNAL, analyticsStore is AnalyticsJournal)
             .build()
 
         val analyticsWorkRequest = OneTimeWorkRequest.Builder(AnalyticsUploadWorker::class.java)
@@ -111,26 +169,31 @@ internal class AnalyticsClient @VisibleForTesting constructor(
     }
 
     fun uploadAnalytics(context: Context?, inputData: Data): ListenableWorker.Result {
-        val configuration = getConfigurationFromData(inputData)
+        val analyticsUrl = getAnalyticsUrlFromData(inputData)
         val authorization = getAuthorizationFromData(inputData)
         val sessionId = inputData.getString(WORK_INPUT_KEY_SESSION_ID)
         val integration = inputData.getString(WORK_INPUT_KEY_INTEGRATION)
         val isMissingInputData =
-            listOf(configuration, authorization, sessionId, integration).contains(null)
+            listOf(analyticsUrl, authorization, sessionId, integration).contains(null)
         return if (isMissingInputData) {
             ListenableWorker.Result.failure()
         } else {
             try {
-                val analyticsEventDao = analyticsDatabase.analyticsEventDao()
-                val events = analyticsEventDao.getAllEvents()
+                val storedEvents = analyticsStore.getAllEvents()
+                val suppressedEvents = drainSuppressedEvents()
+                val events = storedEvents + suppressedEvents
                 if (events.isNotEmpty()) {
-                    val metadata = deviceInspector.getDeviceMetadata(context, sessionId, integration)
-                    val analyticsRequest = serializeEvents(authorization, events, metadata)
-                    configuration?.analyticsUrl?.let { analyticsUrl ->
-                        httpClient.post(
-                            analyticsUrl, analyticsRequest.toString(), configuration, authorization
-                        )
-                        analyticsEventDao.deleteEvents(events)
+                    try {
+                        val metadata =
+                            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+                        val analyticsRequest = serializeEvents(authorization, events, metadata)
+                        analyticsUrl?.let {
+                            httpClient.post(it, analyticsRequest.toString(), null, authorization)
+                            analyticsStore.deleteEvents(storedEvents)
+                        }
+                    } catch (e: Exception) {
+                        storeEvents(suppressedEvents)
+                        throw e
                     }
                 }
                 ListenableWorker.Result.success()
@@ -140,6 +203,21 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         }
     }
 
+    /**
+     * Weight still held back by rate limiting would otherwise never be reported if no later event
+     * of the same name is admitted. It is uploaded with the stored events, and only stored if the
+     * upload fails, since a store write may not be visible to a read that follows it.
+     */
+    private fun drainSuppressedEvents() = eventLimiter.drainSuppressedEvents().map {
+        AnalyticsEvent("android.${it.name}", it.timestamp, it.weight)
+    }
+
+    private fun storeEvents(events: List<AnalyticsEvent>) {
+        for (event in events) {
+            analyticsStore.insertEvent(event.name, event.timestamp, event.weight)
+        }
+    }
+
     fun reportCrash(
         context: Context?, sessionId: String?, integration: String?, authorization: Authorization?
     ) {
@@ -195,6 +273,12 @@ internal class AnalyticsClient @VisibleForTesting constructor(
             eventObject = JSONObject()
                 .put(KIND_KEY, analyticsEvent.name)
                 .put(TIMESTAMP_KEY, analyticsEvent.timestamp)
+            if (analyticsEvent.weight != DEFAULT_WEIGHT) {
+                eventObject.put(WEIGHT_KEY, analyticsEvent.weight)
+            }
+            analyticsEvent.duration?.let { eventObject.put(DURATION_KEY, it) }
+            eventObject.putOpt(ENDPOINT_KEY, analyticsEvent.endpoint)
+            analyticsEvent.attributes?.let { eventObject.put(ATTRIBUTES_KEY, JSONObject(it)) }
             eventObjects.put(eventObject)
         }
         requestObject.put(ANALYTICS_KEY, eventObjects)
@@ -205,18 +289,30 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         private const val ANALYTICS_KEY = "analytics"
         private const val KIND_KEY = "kind"
         private const val TIMESTAMP_KEY = "timestamp"
+        private const val WEIGHT_KEY = "weight"
+        private const val DURATION_KEY = "duration"
+        private const val ENDPOINT_KEY = "endpoint"
+        private const val ATTRIBUTES_KEY = "attributes"
         private const val META_KEY = "_meta"
         private const val TOKENIZATION_KEY = "tokenization_key"
         private const val AUTHORIZATION_FINGERPRINT_KEY = "authorization_fingerprint"
         private const val INVALID_TIMESTAMP: Long = -1
+        private const val INVALID_DURATION: Long = -1
+        private const val DEFAULT_WEIGHT = 1.0
         const val WORK_NAME_ANALYTICS_UPLOAD = "uploadAnalytics"
         const val WORK_NAME_ANALYTICS_WRITE = "writeAnalyticsToDb"
+        const val WORK_INPUT_KEY_ANALYTICS_URL = "analyticsUrl"
+        const val WORK_INPUT_KEY_ATTRIBUTES = "attributes"
         const val WORK_INPUT_KEY_AUTHORIZATION = "authorization"
         const val WORK_INPUT_KEY_CONFIGURATION = "configuration"
+        const val WORK_INPUT_KEY_DURATION = "duration"
+        const val WORK_INPUT_KEY_ENDPOINT = "endpoint"
         const val WORK_INPUT_KEY_EVENT_NAME = "eventName"
         const val WORK_INPUT_KEY_INTEGRATION = "integration"
         const val WORK_INPUT_KEY_SESSION_ID = "sessionId"
         const val WORK_INPUT_KEY_TIMESTAMP = "timestamp"
+        const val WORK_INPUT_KEY_USE_ANALYTICS_JOURNAL = "useAnalyticsJournal"
+        const val WORK_INPUT_KEY_WEIGHT = "weight"
         private const val DELAY_TIME_SECONDS = 30L
 
         private fun getAuthorizationFromData(inputData: Data?): Authorization? =
@@ -224,6 +320,11 @@ internal class AnalyticsClient @VisibleForTesting constructor(
                 Authorization.fromString(it)
             }
 
+        private fun getAnalyticsUrlFromData(inputData: Data?): String? =
+            inputData?.getString(WORK_INPUT_KEY_ANALYTICS_URL)
+                ?: getConfigurationFromData(inputData)?.analyticsUrl
+
+        // uploads enqueued by previous SDK versions embed the full configuration
         private fun getConfigurationFromData(inputData: Data?): Configuration? =
             inputData?.getString(WORK_INPUT_KEY_CONFIGURATION)?.let {
                 try {
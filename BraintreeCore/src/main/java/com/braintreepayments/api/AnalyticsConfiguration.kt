@@ -6,11 +6,16 @@ import org.json.JSONObject
 /**
  * Contains configuration for Braintree analytics calls
  * @property url url of the Braintree analytics service.
+ * @property eventPolicies sampling and rate limiting policies keyed by event name.
  */
-internal data class AnalyticsConfiguration(val url: String) {
+internal data class AnalyticsConfiguration(
+    val url: String,
+    val eventPolicies: Map<String, AnalyticsEventPolicy> = emptyMap()
+) {
 
     constructor(json: JSONObject?) : this(
-        Json.optString(json, URL_KEY, "")
+        Json.optString(json, URL_KEY, ""),
+        parseEventPolicies(json?.optJSONObject(EVENT_POLICIES_KEY))
     )
 
     /**
@@ -20,5 +25,16 @@ internal data class AnalyticsConfiguration(val url: String) {
 
     companion object {
         private const val URL_KEY = "url"
+        private const val EVENT_POLICIES_KEY = "eventPolicies"
+
+        private fun parseEventPolicies(json: JSONObject?): Map<String, AnalyticsEventPolicy> {
+            val result = mutableMapOf<String, AnalyticsEventPolicy>()
+            json?.keys()?.forEach { eventName ->
+                json.optJSONObject(eventName)?.let { policyJson ->
+                    result[eventName] = AnalyticsEventPolicy(policyJson)
+                }
+            }
+            return result
+        }
     }
 }
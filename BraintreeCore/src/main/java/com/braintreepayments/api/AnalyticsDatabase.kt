@@ -4,14 +4,54 @@ import android.content.Context
 import androidx.room.Database
 import androidx.room.Room
 import androidx.room.RoomDatabase
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
 
-@Database(entities = [AnalyticsEvent::class], version = 1)
-internal abstract class AnalyticsDatabase : RoomDatabase() {
+@Database(entities = [AnalyticsEvent::class], version = 3)
+internal abstract class AnalyticsDatabase : RoomDatabase(), AnalyticsStore {
 
     abstract fun analyticsEventDao(): AnalyticsEventDao
 
+    // Room disallows queries on the main thread
+    override val isInsertNonBlocking: Boolean
+        get() = false
+
+    override fun insertEvent(
+        name: String,
+        timestamp: Long,
+        weight: Double,
+        duration: Long?,
+        endpoint: String?,
+        attributes: String?
+    ) = analyticsEventDao().insertEvent(
+        AnalyticsEvent(name, timestamp, weight, duration, endpoint, attributes)
+    )
+
+    override fun getAllEvents(): List<AnalyticsEvent> = analyticsEventDao().getAllEvents()
+
+    override fun deleteEvents(events: List<AnalyticsEvent>) =
+        analyticsEventDao().deleteEvents(events)
+
     companion object {
 
+        @JvmField
+        val MIGRATION_1_2 = object : Migration(1, 2) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                database.execSQL(
+                    "ALTER TABLE analytics_event ADD COLUMN weight REAL NOT NULL DEFAULT 1"
+                )
+            }
+        }
+
+        @JvmField
+        val MIGRATION_2_3 = object : Migration(2, 3) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                database.execSQL("ALTER TABLE analytics_event ADD COLUMN duration INTEGER")
+                database.execSQL("ALTER TABLE analytics_event ADD COLUMN endpoint TEXT")
+                database.execSQL("ALTER TABLE analytics_event ADD COLUMN attributes TEXT")
+            }
+        }
+
         @Volatile
         private var INSTANCE: AnalyticsDatabase? = null
 
@@ -23,7 +63,8 @@ internal abstract class AnalyticsDatabase : RoomDatabase() {
                     context.applicationContext,
                     AnalyticsDatabase::class.java,
                     "analytics_database"
-                ).build()
+                ).addMigrations(MIGRATION_1_2, MIGRATION_2_3)
+                    .build()
                 INSTANCE = instance
                 // return instance
                 instance
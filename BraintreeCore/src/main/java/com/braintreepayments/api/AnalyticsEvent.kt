@@ -13,7 +13,15 @@ import androidx.room.Entity
 @Entity(tableName = "analytics_event")
 open class AnalyticsEvent internal constructor(
     open val name: String,
-    open val timestamp: Long
+    open val timestamp: Long,
+    // number of occurrences this event represents after sampling and rate limiting
+    @ColumnInfo(defaultValue = "1")
+    open val weight: Double = 1.0,
+    // elapsed milliseconds for events recorded by an AnalyticsSpan
+    open val duration: Long? = null,
+    open val endpoint: String? = null,
+    // JSON object of additional event attributes
+    open val attributes: String? = null
 ) {
     @JvmField
     @PrimaryKey(autoGenerate = true)
@@ -0,0 +1,107 @@
+package com.braintreepayments.api
+
+import androidx.annotation.VisibleForTesting
+import java.util.Random
+import java.util.concurrent.TimeUnit
+
+/**
+ * Applies [AnalyticsEventPolicy] sampling and token-bucket rate limiting to analytics events.
+ *
+ * The weight of every event that is suppressed is accumulated per event name and attached to the
+ * next event of that name that is admitted. Weight that is still pending when analytics are
+ * uploaded is handed out by [drainSuppressedEvents], so uploaded weights still add up to the number
+ * of events that occurred in this process.
+ *
+ * Suppressed weight is only held in memory, so there is one instance per process that the
+ * [AnalyticsClient] recording events and the one uploading them share.
+ */
+internal class AnalyticsEventLimiter @VisibleForTesting constructor(
+    private val random: Random
+) {
+
+    constructor() : this(Random())
+
+    private val buckets = mutableMapOf<String, Bucket>()
+
+    /**
+     * @return the weight to record for this occurrence of [eventName], or 0 if the event should
+     * not be recorded.
+     */
+    @Synchronized
+    fun admit(eventName: String, policy: AnalyticsEventPolicy?, timestamp: Long): Double {
+        if (policy == null) {
+            return 1.0
+        }
+        if (policy.sampleRate <= 0.0) {
+            return 0.0
+        }
+
+        if (policy.isSampled && random.nextDouble() >= policy.sampleRate) {
+            // unsampled events are accounted for by the 1 / sampleRate weight of sampled ones
+            return 0.0
+        }
+        val weight = if (policy.isSampled) 1.0 / policy.sampleRate else 1.0
+
+        if (!policy.isRateLimited) {
+            return weight
+        }
+
+        val bucket = buckets.getOrPut(eventName) { Bucket(policy.burstCapacity.toDouble(), timestamp) }
+        bucket.refill(policy, timestamp)
+        return if (bucket.tokens >= 1.0) {
+            bucket.tokens -= 1.0
+            val admittedWeight = weight + bucket.suppressedWeight
+            bucket.suppressedWeight = 0.0
+            admittedWeight
+        } else {
+            bucket.suppressedWeight += weight
+            bucket.lastSuppressedTimestamp = timestamp
+            0.0
+        }
+    }
+
+    /**
+     * Removes and returns the weight of suppressed events that has not yet been carried by an
+     * admitted event, as one event per event name timestamped with its latest suppressed
+     * occurrence.
+     */
+    @Synchronized
+    fun drainSuppressedEvents(): List<AnalyticsEvent> {
+        val suppressedEvents = mutableListOf<AnalyticsEvent>()
+        for ((eventName, bucket) in buckets) {
+            if (bucket.suppressedWeight > 0.0) {
+                suppressedEvents.add(
+                    AnalyticsEvent(eventName, bucket.lastSuppressedTimestamp, bucket.suppressedWeight)
+                )
+                bucket.suppressedWeight = 0.0
+            }
+        }
+        return suppressedEvents
+    }
+
+    private class Bucket(var tokens: Double, var lastRefill: Long) {
+        var suppressedWeight = 0.0
+        var lastSuppressedTimestamp = 0L
+
+        fun refill(policy: AnalyticsEventPolicy, timestamp: Long) {
+            val elapsed = timestamp - lastRefill
+            if (elapsed > 0) {
+                val refill = elapsed * policy.refillPerMinute / MILLIS_PER_MINUTE
+                tokens = (tokens + refill).coerceAtMost(policy.burstCapacity.toDouble())
+                lastRefill = timestamp
+            }
+        }
+    }
+
+    companion object {
+        private val MILLIS_PER_MINUTE = TimeUnit.MINUTES.toMillis(1).toDouble()
+
+        @Volatile
+        private var INSTANCE: AnalyticsEventLimiter? = null
+
+        fun getInstance(): AnalyticsEventLimiter =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: AnalyticsEventLimiter().also { INSTANCE = it }
+            }
+    }
+}
@@ -0,0 +1,43 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+import org.json.JSONObject
+
+/**
+ * Volume controls applied to a single analytics event before it is persisted.
+ *
+ * Events that are dropped by sampling or rate limiting are not lost from the reported totals:
+ * sampled events carry the weight of unsampled ones, and the weight of rate limited events is
+ * carried by the next recorded event of the same name, or by an event of its own at upload time.
+ *
+ * @property sampleRate fraction of events to record, between 0 (exclusive) and 1 (inclusive).
+ * Each recorded event is weighted by `1 / sampleRate`.
+ * @property burstCapacity maximum number of events that may be recorded back to back before rate
+ * limiting starts. A value of 0 disables rate limiting.
+ * @property refillPerMinute number of events the rate limiter allows per minute once the burst
+ * capacity has been used up.
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+data class AnalyticsEventPolicy @JvmOverloads constructor(
+    val sampleRate: Double = 1.0,
+    val burstCapacity: Int = 0,
+    val refillPerMinute: Int = 0,
+) {
+
+    internal constructor(json: JSONObject) : this(
+        json.optDouble(SAMPLE_RATE_KEY, 1.0),
+        json.optInt(BURST_CAPACITY_KEY, 0),
+        json.optInt(REFILL_PER_MINUTE_KEY, 0)
+    )
+
+    internal val isSampled: Boolean = sampleRate > 0.0 && sampleRate < 1.0
+
+    internal val isRateLimited: Boolean = burstCapacity > 0
+
+    companion object {
+        private const val SAMPLE_RATE_KEY = "sampleRate"
+        private const val BURST_CAPACITY_KEY = "burstCapacity"
+        private const val REFILL_PER_MINUTE_KEY = "refillPerMinute"
+    }
+}
@@ -0,0 +1,166 @@
+package com.braintreepayments.api
+
+/**
+ * Registry of analytics event names that are known at compile time, used to store events as small
+ * integer codes instead of repeating their full names.
+ *
+ * Codes are derived from each name's position in [EVENT_NAMES] and are persisted, so new names
+ * must only ever be appended to the end of the list. Names that are built at runtime from merchant
+ * input (e.g. local payment types) are not registered and are stored as strings.
+ *
+ * Codes are only used by the opt-in [AnalyticsJournal]; the default Room backed
+ * [AnalyticsDatabase] always stores full names and ignores this registry. A unit test checks that
+ * every event name the SDK modules send as a string literal is registered, since an unregistered
+ * name is still stored correctly but loses the compact encoding.
+ */
+internal object AnalyticsEventRegistry {
+
+    /**
+     * Code returned by [codeOf] for names that are not registered.
+     */
+    const val UNKNOWN_CODE = 0
+
+    private const val EVENT_NAME_PREFIX = "android."
+
+    // Append only: codes are persisted.
+    private val EVENT_NAMES = listOf(
+        "amex.rewards-balance.error",
+        "amex.rewards-balance.parse.failed",
+        "amex.rewards-balance.start",
+        "amex.rewards-balance.success",
+        "android.pay-with-venmo.app-store.invoked",
+        "card.graphql.tokenization.failure",
+        "card.graphql.tokenization.started",
+        "card.graphql.tokenization.success",
+        "card.nonce-failed",
+        "card.nonce-received",
+        "card.rest.tokenization.failure",
+        "card.rest.tokenization.started",
+        "card.rest.tokenization.success",
+        "google-payment.authorized",
+        "google-payment.canceled",
+        "google-payment.failed",
+        "google-payment.nonce-received",
+        "google-payment.selected",
+        "google-payment.started",
+        "pay-with-venmo.app-switch.canceled",
+        "pay-with-venmo.app-switch.failed",
+        "pay-with-venmo.app-switch.failure",
+        "pay-with-venmo.app-switch.started",
+        "pay-with-venmo.app-switch.success",
+        "pay-with-venmo.selected",
+        "pay-with-venmo.vault.failed",
+        "pay-with-venmo.vault.success",
+        "paypal-native.billing-agreement.credit.offered",
+        "paypal-native.billing-agreement.selected",
+        "paypal-native.billing-agreement.started",
+        "paypal-native.billing-agreement.succeeded",
+        "paypal-native.canceled",
+        "paypal-native.on-approve.failed",
+        "paypal-native.on-approve.started",
+        "paypal-native.on-approve.succeeded",
+        "paypal-native.on-error.failed",
+        "paypal-native.single-payment.paylater.offered",
+        "paypal-native.single-payment.selected",
+        "paypal-native.single-payment.started",
+        "paypal-native.single-payment.succeeded",
+        "paypal-native.tokenize.invalid-request.failed",
+        "paypal-native.tokenize.started",
+        "paypal-native.tokenize.succeeded",
+        "paypal.billing-agreement.browser-switch.canceled",
+        "paypal.billing-agreement.browser-switch.failed",
+        "paypal.billing-agreement.browser-switch.started",
+        "paypal.billing-agreement.browser-switch.succeeded",
+        "paypal.billing-agreement.credit.offered",
+        "paypal.billing-agreement.selected",
+        "paypal.credit.accepted",
+        "paypal.invalid-manifest",
+        "paypal.single-payment.browser-switch.canceled",
+        "paypal.single-payment.browser-switch.failed",
+        "paypal.single-payment.browser-switch.started",
+        "paypal.single-payment.browser-switch.succeeded",
+        "paypal.single-payment.paylater.offered",
+        "paypal.single-payment.selected",
+        "samsung-pay.activate-samsung-pay",
+        "samsung-pay.create-payment-info.success",
+        "samsung-pay.create-payment-manager.success",
+        "samsung-pay.goto-update-page",
+        "samsung-pay.is-ready-to-pay.device-not-supported",
+        "samsung-pay.is-ready-to-pay.not-ready",
+        "samsung-pay.is-ready-to-pay.ready",
+        "samsung-pay.request-card-info.no-supported-cards-in-wallet",
+        "sepa-direct-debit.browser-switch.canceled",
+        "sepa-direct-debit.browser-switch.failure",
+        "sepa-direct-debit.browser-switch.started",
+        "sepa-direct-debit.browser-switch.success",
+        "sepa-direct-debit.create-mandate.failure",
+        "sepa-direct-debit.create-mandate.requested",
+        "sepa-direct-debit.create-mandate.success",
+        "sepa-direct-debit.selected.started",
+        "sepa-direct-debit.tokenize.failure",
+        "sepa-direct-debit.tokenize.requested",
+        "sepa-direct-debit.tokenize.success",
+        "three-d-secure.cardinal-sdk.init.failed",
+        "three-d-secure.cardinal-sdk.init.setup-completed",
+        "three-d-secure.cardinal-sdk.init.setup-failed",
+        "three-d-secure.initialized",
+        "three-d-secure.verification-flow.canceled",
+        "three-d-secure.verification-flow.cardinal-sdk.action-code.cancel",
+        "three-d-secure.verification-flow.cardinal-sdk.action-code.error",
+        "three-d-secure.verification-flow.cardinal-sdk.action-code.failure",
+        "three-d-secure.verification-flow.cardinal-sdk.action-code.noaction",
+        "three-d-secure.verification-flow.cardinal-sdk.action-code.success",
+        "three-d-secure.verification-flow.cardinal-sdk.action-code.timeout",
+        "three-d-secure.verification-flow.challenge-presented.false",
+        "three-d-secure.verification-flow.challenge-presented.true",
+        "three-d-secure.verification-flow.completed",
+        "three-d-secure.verification-flow.failed",
+        "three-d-secure.verification-flow.liability-shift-possible.false",
+        "three-d-secure.verification-flow.liability-shift-possible.true",
+        "three-d-secure.verification-flow.liability-shifted.false",
+        "three-d-secure.verification-flow.liability-shifted.true",
+        "three-d-secure.verification-flow.started",
+        "three-d-secure.verification-flow.upgrade-payment-method.errored",
+        "three-d-secure.verification-flow.upgrade-payment-method.failure.returned-lookup-nonce",
+        "three-d-secure.verification-flow.upgrade-payment-method.started",
+        "three-d-secure.verification-flow.upgrade-payment-method.succeeded",
+        "union-pay.capabilities-failed",
+        "union-pay.capabilities-received",
+        "union-pay.enrollment-failed",
+        "union-pay.enrollment-succeeded",
+        "union-pay.nonce-failed",
+        "union-pay.nonce-received",
+        "visacheckout.tokenize.failed",
+        "visacheckout.tokenize.succeeded",
+        "paypal.create-payment-resource.failed",
+        "paypal.create-payment-resource.succeeded",
+        "pay-with-venmo.create-payment-context.failed",
+        "pay-with-venmo.create-payment-context.succeeded",
+        "pay-with-venmo.payment-context-query.failed",
+        "pay-with-venmo.payment-context-query.succeeded",
+        "three-d-secure.authenticate-jwt.failed",
+        "three-d-secure.authenticate-jwt.succeeded",
+        "three-d-secure.lookup.failed",
+        "three-d-secure.lookup.succeeded",
+        "amex.rewards-balance.cache-hit",
+        "card.local-validation.failed",
+        "paypal.prepared-response.used",
+        "pay-with-venmo.prepared-payment-context.used",
+        "pay-with-venmo.vault-payment-context.succeeded",
+        "pay-with-venmo.vault-payment-context.failed"
+    )
+
+    private val storedNames = EVENT_NAMES.map { "$EVENT_NAME_PREFIX$it" }
+    private val codesByName = storedNames.withIndex().associate { it.value to it.index + 1 }
+
+    /**
+     * @param name the stored event name, including the `android.` prefix
+     * @return the code for [name], or [UNKNOWN_CODE] if the name is not registered
+     */
+    fun codeOf(name: String): Int = codesByName[name] ?: UNKNOWN_CODE
+
+    /**
+     * @return the stored event name for [code], or `null` if the code is not registered
+     */
+    fun nameOf(code: Int): String? = storedNames.getOrNull(code - 1)
+}
@@ -0,0 +1,519 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import androidx.annotation.VisibleForTesting
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.zip.CRC32
+
+/**
+ * Append-only [AnalyticsStore] backed by fixed size, memory-mapped segment files.
+ *
+ * Each segment starts with a header holding a magic number and the number of records that have
+ * been acknowledged (uploaded). Records are laid out back to back after the header as
+ * `[payload length][crc32][timestamp][weight][name length][name (UTF-8)]`, optionally followed by
+ * `[duration][endpoint length][endpoint (UTF-8)][attributes length][attributes (UTF-8)]` for
+ * events that carry span data; the extension is detected from the payload length so records
+ * written without it remain readable. Event names known to
+ * [AnalyticsEventRegistry] are stored as a negative registry code in the name length field with no
+ * name bytes, which keeps records for the common events small. The payload length field is
+ * written last, so a record only becomes visible once it is complete; a zero length marks the end
+ * of a segment. Before the journal is first read or written every segment is scanned and the
+ * first record that fails its checksum truncates the segment, which recovers from a write that
+ * was interrupted by a crash.
+ *
+ * [insertEvent] only hands the event to [writeExecutor], so recording an event never maps or
+ * scans segment files on the calling thread; recovery runs on whichever background thread first
+ * touches the journal. Once every record in a segment has been acknowledged the segment file is
+ * deleted. When the journal grows past `maxSegments` the oldest segment is dropped, and the
+ * combined weight of its unacknowledged events is recorded as a
+ * [DROPPED_EVENTS_EVENT_NAME] event so the loss shows up in the uploaded totals.
+ */
+@Suppress("TooManyFunctions")
+internal class AnalyticsJournal @VisibleForTesting constructor(
+    private val directory: File,
+    private val segmentSize: Int,
+    private val maxSegments: Int,
+    private val writeExecutor: Executor = Executor { it.run() }
+) : AnalyticsStore {
+
+    private val crc = CRC32()
+    private val segments = mutableListOf<Segment>()
+    private var nextSequence = 0L
+    private var isRecovered = false
+
+    override val isInsertNonBlocking: Boolean
+        get() = true
+
+    override fun insertEvent(
+        name: String,
+        timestamp: Long,
+        weight: Double,
+        duration: Long?,
+        endpoint: String?,
+        attributes: String?
+    ) {
+        writeExecutor.execute {
+            writeEvent(name, timestamp, weight, duration, endpoint, attributes)
+        }
+    }
+
+    @Synchronized
+    private fun writeEvent(
+        name: String,
+        timestamp: Long,
+        weight: Double,
+        duration: Long?,
+        endpoint: String?,
+        attributes: String?
+    ) {
+        recoverIfNeeded()
+        val code = AnalyticsEventRegistry.codeOf(name)
+        val nameLength = if (code == AnalyticsEventRegistry.UNKNOWN_CODE) utf8Length(name) else 0
+        val extension = if (duration != null || endpoint != null || attributes != null) {
+            SpanExtension(duration, endpoint, attributes)
+        } else {
+            null
+        }
+        val recordLength =
+            RECORD_HEADER_SIZE + PAYLOAD_FIXED_SIZE + nameLength + (extension?.size ?: 0)
+        if (nameLength > Short.MAX_VALUE || extension?.isTooLong == true ||
+            recordLength > segmentSize - SEGMENT_HEADER_SIZE
+        ) {
+            return
+        }
+        try {
+            var segment = segments.lastOrNull()
+            if (segment == null || segment.remaining() < recordLength ||
+                segment.recordCount >= MAX_RECORDS_PER_SEGMENT
+            ) {
+                segment = openSegment(nextSequence++)
+                segments.add(segment)
+                val droppedWeight = trimSegments()
+                if (droppedWeight > 0.0) {
+                    appendDroppedEvents(segment, droppedWeight, timestamp, recordLength)
+                }
+            }
+            append(segment, name, code, nameLength, timestamp, weight, extension)
+        } catch (ignored: IOException) {
+            // analytics are best effort; drop the event if the journal cannot be written
+        }
+    }
+
+    @Synchronized
+    override fun getAllEvents(): List<AnalyticsEvent> {
+        recoverIfNeeded()
+        val events = mutableListOf<AnalyticsEvent>()
+        for (segment in segments) {
+            val acknowledged = segment.acknowledged
+            scan(segment) { position, index ->
+                if (index >= acknowledged) {
+                    events.add(readEvent(segment, position, index))
+                }
+            }
+        }
+        return events
+    }
+
+    @Synchronized
+    override fun deleteEvents(events: List<AnalyticsEvent>) {
+        recoverIfNeeded()
+        val acknowledgedBySegment = mutableMapOf<Int, Int>()
+        for (event in events) {
+            val key = event.id ushr INDEX_BITS
+            val acknowledged = (event.id and INDEX_MASK) + 1
+            acknowledgedBySegment[key] = maxOf(acknowledgedBySegment[key] ?: 0, acknowledged)
+        }
+
+        for (segment in segments.toList()) {
+            val acknowledged = acknowledgedBySegment[segment.key] ?: continue
+            if (acknowledged > segment.acknowledged) {
+                segment.acknowledged = acknowledged
+            }
+            if (segment.acknowledged >= segment.recordCount) {
+                if (segment === segments.last()) {
+                    segment.reset()
+                } else {
+                    segments.remove(segment)
+                    segment.file.delete()
+                }
+            }
+        }
+    }
+
+    private fun recoverIfNeeded() {
+        if (!isRecovered) {
+            isRecovered = true
+            recover()
+        }
+    }
+
+    private fun recover() {
+        directory.mkdirs()
+        val files = directory.listFiles()?.filter { it.name.startsWith(SEGMENT_PREFIX) }
+            ?: emptyList()
+        val sequencedFiles = files.mapNotNull { file ->
+            file.name.removePrefix(SEGMENT_PREFIX).toLongOrNull()?.let { it to file }
+        }.sortedBy { it.first }
+
+        for ((sequence, file) in sequencedFiles) {
+            try {
+                val segment = openSegment(sequence)
+                var end = SEGMENT_HEADER_SIZE
+                var count = 0
+                scan(segment) { position, index ->
+                    end = position + RECORD_HEADER_SIZE + segment.buffer.getInt(position)
+                    count = index + 1
+                }
+                segment.writePosition = end
+                segment.recordCount = count
+                // discard any partially written record
+                segment.zero(end, segmentSize)
+                if (segment.acknowledged > count) {
+                    segment.acknowledged = count
+                }
+                segments.add(segment)
+            } catch (ignored: IOException) {
+                file.delete()
+            }
+            nextSequence = sequence + 1
+        }
+
+        // remove fully acknowledged segments, keeping the newest one open for appends
+        segments.dropLast(1)
+            .filter { it.acknowledged >= it.recordCount }
+            .forEach {
+                segments.remove(it)
+                it.file.delete()
+            }
+    }
+
+    /**
+     * @return the combined weight of the unacknowledged events in the segments that were dropped
+     */
+    private fun trimSegments(): Double {
+        var droppedWeight = 0.0
+        while (segments.size > maxSegments) {
+            val segment = segments.removeAt(0)
+            val acknowledged = segment.acknowledged
+            scan(segment) { position, index ->
+                if (index >= acknowledged) {
+                    droppedWeight += segment.buffer.getDouble(
+                        position + RECORD_HEADER_SIZE + Long.SIZE_BYTES
+                    )
+                }
+            }
+            segment.file.delete()
+        }
+        return droppedWeight
+    }
+
+    private fun appendDroppedEvents(
+        segment: Segment,
+        droppedWeight: Double,
+        timestamp: Long,
+        pendingRecordLength: Int
+    ) {
+        val nameLength = utf8Length(DROPPED_EVENTS_EVENT_NAME)
+        val recordLength = RECORD_HEADER_SIZE + PAYLOAD_FIXED_SIZE + nameLength
+        // the event that caused the roll over takes precedence over the dropped events record
+        if (segment.remaining() >= recordLength + pendingRecordLength) {
+            append(
+                segment,
+                DROPPED_EVENTS_EVENT_NAME,
+                AnalyticsEventRegistry.UNKNOWN_CODE,
+                nameLength,
+                timestamp,
+                droppedWeight,
+                null
+            )
+        }
+    }
+
+    @Throws(IOException::class)
+    private fun openSegment(sequence: Long): Segment {
+        val file = File(directory, "$SEGMENT_PREFIX$sequence")
+        val buffer = RandomAccessFile(file, "rw").use { randomAccessFile ->
+            randomAccessFile.channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize.toLong())
+        }
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            buffer.putInt(ACKNOWLEDGED_OFFSET, 0)
+            buffer.putInt(MAGIC_OFFSET, MAGIC)
+        }
+        return Segment(sequence, file, buffer)
+    }
+
+    private fun append(
+        segment: Segment,
+        name: String,
+        code: Int,
+        nameLength: Int,
+        timestamp: Long,
+        weight: Double,
+        extension: SpanExtension?
+    ) {
+        val buffer = segment.buffer
+        val position = segment.writePosition
+        val payloadStart = position + RECORD_HEADER_SIZE
+        var offset = payloadStart
+        buffer.putLong(offset, timestamp)
+        offset += Long.SIZE_BYTES
+        buffer.putDouble(offset, weight)
+        offset += Double.SIZE_BYTES
+        if (code == AnalyticsEventRegistry.UNKNOWN_CODE) {
+            buffer.putShort(offset, nameLength.toShort())
+            offset += Short.SIZE_BYTES
+            offset = writeUtf8(buffer, offset, name)
+        } else {
+            buffer.putShort(offset, (-code).toShort())
+            offset += Short.SIZE_BYTES
+        }
+        if (extension != null) {
+            buffer.putLong(offset, extension.duration ?: NO_DURATION)
+            offset += Long.SIZE_BYTES
+            offset = writeOptionalString(buffer, offset, extension.endpoint, extension.endpointLength)
+            offset = writeOptionalString(
+                buffer, offset, extension.attributes, extension.attributesLength
+            )
+        }
+
+        val payloadLength = offset - payloadStart
+        buffer.putInt(position + CRC_OFFSET, checksum(buffer, payloadStart, payloadLength))
+        // commit the record
+        buffer.putInt(position, payloadLength)
+
+        segment.writePosition = offset
+        segment.recordCount++
+    }
+
+    private inline fun scan(segment: Segment, visitor: (position: Int, index: Int) -> Unit) {
+        val buffer = segment.buffer
+        var position = SEGMENT_HEADER_SIZE
+        var index = 0
+        while (position + RECORD_HEADER_SIZE <= segmentSize) {
+            val payloadLength = buffer.getInt(position)
+            val payloadStart = position + RECORD_HEADER_SIZE
+            if (payloadLength < PAYLOAD_FIXED_SIZE || payloadStart + payloadLength > segmentSize) {
+                break
+            }
+            if (checksum(buffer, payloadStart, payloadLength) != buffer.getInt(position + CRC_OFFSET)) {
+                break
+            }
+            visitor(position, index)
+            position = payloadStart + payloadLength
+            index++
+        }
+    }
+
+    private fun readEvent(segment: Segment, position: Int, index: Int): AnalyticsEvent {
+        val buffer = segment.buffer
+        val payloadEnd = position + RECORD_HEADER_SIZE + buffer.getInt(position)
+        var offset = position + RECORD_HEADER_SIZE
+        val timestamp = buffer.getLong(offset)
+        offset += Long.SIZE_BYTES
+        val weight = buffer.getDouble(offset)
+        offset += Double.SIZE_BYTES
+        val nameLength = buffer.getShort(offset).toInt()
+        offset += Short.SIZE_BYTES
+        val name = if (nameLength < 0) {
+            AnalyticsEventRegistry.nameOf(-nameLength) ?: UNREGISTERED_EVENT_NAME
+        } else {
+            readUtf8(buffer, offset, nameLength).also { offset += nameLength }
+        }
+
+        var duration: Long? = null
+        var endpoint: String? = null
+        var attributes: String? = null
+        if (offset < payloadEnd) {
+            duration = buffer.getLong(offset).takeIf { it != NO_DURATION }
+            offset += Long.SIZE_BYTES
+            val endpointLength = buffer.getShort(offset).toInt()
+            offset += Short.SIZE_BYTES
+            if (endpointLength >= 0) {
+                endpoint = readUtf8(buffer, offset, endpointLength)
+                offset += endpointLength
+            }
+            val attributesLength = buffer.getShort(offset).toInt()
+            offset += Short.SIZE_BYTES
+            if (attributesLength >= 0) {
+                attributes = readUtf8(buffer, offset, attributesLength)
+            }
+        }
+        return AnalyticsEvent(name, timestamp, weight, duration, endpoint, attributes).apply {
+            id = (segment.key shl INDEX_BITS) or index
+        }
+    }
+
+    private fun writeOptionalString(
+        buffer: MappedByteBuffer,
+        start: Int,
+        value: String?,
+        length: Int
+    ): Int {
+        if (value == null) {
+            buffer.putShort(start, ABSENT_LENGTH)
+            return start + Short.SIZE_BYTES
+        }
+        buffer.putShort(start, length.toShort())
+        return writeUtf8(buffer, start + Short.SIZE_BYTES, value)
+    }
+
+    private fun readUtf8(buffer: MappedByteBuffer, start: Int, length: Int): String {
+        val bytes = ByteArray(length)
+        for (i in 0 until length) {
+            bytes[i] = buffer.get(start + i)
+        }
+        return String(bytes, Charsets.UTF_8)
+    }
+
+    private fun checksum(buffer: MappedByteBuffer, start: Int, length: Int): Int {
+        crc.reset()
+        for (i in start until start + length) {
+            crc.update(buffer.get(i).toInt())
+        }
+        return crc.value.toInt()
+    }
+
+    private class SpanExtension(
+        val duration: Long?,
+        val endpoint: String?,
+        val attributes: String?
+    ) {
+        val endpointLength = endpoint?.let { utf8Length(it) } ?: 0
+        val attributesLength = attributes?.let { utf8Length(it) } ?: 0
+        val size = Long.SIZE_BYTES + Short.SIZE_BYTES * 2 + endpointLength + attributesLength
+        val isTooLong = endpointLength > Short.MAX_VALUE || attributesLength > Short.MAX_VALUE
+    }
+
+    private inner class Segment(
+        sequence: Long,
+        val file: File,
+        val buffer: MappedByteBuffer
+    ) {
+        val key: Int = (sequence and SEGMENT_KEY_MASK).toInt()
+        var writePosition = SEGMENT_HEADER_SIZE
+        var recordCount = 0
+
+        var acknowledged: Int
+            get() = buffer.getInt(ACKNOWLEDGED_OFFSET)
+            set(value) {
+                buffer.putInt(ACKNOWLEDGED_OFFSET, value)
+            }
+
+        fun remaining() = segmentSize - writePosition
+
+        fun reset() {
+            // clearing the first record's length makes the segment read as empty before the
+            // acknowledged count is reset; recovery clamps the count if we crash in between
+            buffer.putInt(SEGMENT_HEADER_SIZE, 0)
+            acknowledged = 0
+            zero(SEGMENT_HEADER_SIZE, writePosition)
+            writePosition = SEGMENT_HEADER_SIZE
+            recordCount = 0
+        }
+
+        fun zero(start: Int, end: Int) {
+            for (i in start until end) {
+                buffer.put(i, 0)
+            }
+        }
+    }
+
+    companion object {
+        private const val SEGMENT_PREFIX = "segment-"
+        @VisibleForTesting
+        const val DROPPED_EVENTS_EVENT_NAME = "android.analytics-journal.events-dropped"
+        // used if a record's registry code is unknown, e.g. after an SDK downgrade
+        private const val UNREGISTERED_EVENT_NAME = "android.unregistered-event"
+        private const val DIRECTORY_NAME = "braintree_analytics_journal"
+        private const val DEFAULT_SEGMENT_SIZE = 64 * 1024
+        private const val DEFAULT_MAX_SEGMENTS = 16
+
+        private const val MAGIC = 0x42544a31 // "BTJ1"
+        private const val MAGIC_OFFSET = 0
+        private const val ACKNOWLEDGED_OFFSET = 4
+        private const val SEGMENT_HEADER_SIZE = 8
+
+        private const val CRC_OFFSET = 4
+        private const val RECORD_HEADER_SIZE = 8
+        private const val PAYLOAD_FIXED_SIZE = Long.SIZE_BYTES + Double.SIZE_BYTES + Short.SIZE_BYTES
+        private const val NO_DURATION = Long.MIN_VALUE
+        private const val ABSENT_LENGTH: Short = -1
+
+        // event ids encode the segment in the upper bits and the record index in the lower bits
+        private const val INDEX_BITS = 16
+        private const val INDEX_MASK = (1 shl INDEX_BITS) - 1
+        private const val MAX_RECORDS_PER_SEGMENT = INDEX_MASK
+        private const val SEGMENT_KEY_MASK = 0x7FFFL
+
+        @Volatile
+        private var INSTANCE: AnalyticsJournal? = null
+
+        @JvmStatic
+        fun getInstance(context: Context): AnalyticsJournal =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: AnalyticsJournal(
+                    File(context.applicationContext.filesDir, DIRECTORY_NAME),
+                    DEFAULT_SEGMENT_SIZE,
+                    DEFAULT_MAX_SEGMENTS,
+                    Executors.newSingleThreadExecutor()
+                ).also { INSTANCE = it }
+            }
+
+        @Suppress("MagicNumber")
+        private fun utf8Length(value: String): Int {
+            var length = 0
+            var i = 0
+            while (i < value.length) {
+                val c = value[i]
+                length += when {
+                    c.code < 0x80 -> 1
+                    c.code < 0x800 -> 2
+                    Character.isHighSurrogate(c) && i + 1 < value.length -> {
+                        i++
+                        4
+                    }
+                    else -> 3
+                }
+                i++
+            }
+            return length
+        }
+
+        @Suppress("MagicNumber")
+        private fun writeUtf8(buffer: MappedByteBuffer, start: Int, value: String): Int {
+            var offset = start
+            var i = 0
+            while (i < value.length) {
+                val c = value[i]
+                val code = c.code
+                when {
+                    code < 0x80 -> buffer.put(offset++, code.toByte())
+                    code < 0x800 -> {
+                        buffer.put(offset++, (0xC0 or (code shr 6)).toByte())
+                        buffer.put(offset++, (0x80 or (code and 0x3F)).toByte())
+                    }
+                    Character.isHighSurrogate(c) && i + 1 < value.length -> {
+                        val codePoint = Character.toCodePoint(c, value[++i])
+                        buffer.put(offset++, (0xF0 or (codePoint shr 18)).toByte())
+                        buffer.put(offset++, (0x80 or ((codePoint shr 12) and 0x3F)).toByte())
+                        buffer.put(offset++, (0x80 or ((codePoint shr 6) and 0x3F)).toByte())
+                        buffer.put(offset++, (0x80 or (codePoint and 0x3F)).toByte())
+                    }
+                    else -> {
+                        buffer.put(offset++, (0xE0 or (code shr 12)).toByte())
+                        buffer.put(offset++, (0x80 or ((code shr 6) and 0x3F)).toByte())
+                        buffer.put(offset++, (0x80 or (code and 0x3F)).toByte())
+                    }
+                }
+                i++
+            }
+            return offset
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+import androidx.annotation.VisibleForTesting
+import org.json.JSONObject
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the latency of a single flow step, e.g. a tokenization request, and records it as one
+ * analytics event when the step completes.
+ *
+ * The span starts timing when it is created. Calling [end] sends the given event with the elapsed
+ * time, the measured endpoint and any attributes that have been added.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class AnalyticsSpan @VisibleForTesting internal constructor(
+    private val braintreeClient: BraintreeClient,
+    private val endpoint: String?,
+    private val nanoTime: () -> Long
+) {
+
+    private val startTime = nanoTime()
+    private var attributes: JSONObject? = null
+
+    @JvmOverloads
+    constructor(braintreeClient: BraintreeClient, endpoint: String? = null) :
+        this(braintreeClient, endpoint, System::nanoTime)
+
+    /**
+     * Attach an attribute that is sent with the event recorded by [end].
+     */
+    fun putAttribute(key: String, value: String?): AnalyticsSpan {
+        attributes = (attributes ?: JSONObject()).putOpt(key, value)
+        return this
+    }
+
+    /**
+     * Record [eventName] with the time elapsed since this span was created.
+     */
+    fun end(eventName: String) {
+        val duration = TimeUnit.NANOSECONDS.toMillis(nanoTime() - startTime)
+        braintreeClient.sendAnalyticsEvent(eventName, duration, endpoint, attributes)
+    }
+}
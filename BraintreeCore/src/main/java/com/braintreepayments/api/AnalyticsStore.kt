@@ -0,0 +1,36 @@
+package com.braintreepayments.api
+
+/**
+ * Persistent FIFO storage for analytics events awaiting upload.
+ */
+internal interface AnalyticsStore {
+
+    /**
+     * `true` if [insertEvent] returns without blocking on storage, e.g. because it hands the write
+     * to a background executor, so it can be called from the thread that records the event.
+     * `false` if writes must be deferred to a background worker.
+     */
+    val isInsertNonBlocking: Boolean
+
+    /**
+     * @param duration elapsed milliseconds measured by an [AnalyticsSpan], if any
+     * @param endpoint the endpoint the span measured, if any
+     * @param attributes a JSON object of additional event attributes, if any
+     */
+    fun insertEvent(
+        name: String,
+        timestamp: Long,
+        weight: Double,
+        duration: Long? = null,
+        endpoint: String? = null,
+        attributes: String? = null
+    )
+
+    fun getAllEvents(): List<AnalyticsEvent>
+
+    /**
+     * Remove events that have been successfully uploaded.
+     * @param events events previously returned by [getAllEvents]
+     */
+    fun deleteEvents(events: List<AnalyticsEvent>)
+}
@@ -10,41 +10,62 @@ import org.json.JSONObject
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 class ApiClient(private val braintreeClient: BraintreeClient) {
 
+    /**
+     * Tokenize with a GraphQL document built at runtime, which is always sent as full text.
+     */
     fun tokenizeGraphQL(tokenizePayload: JSONObject, callback: TokenizeCallback) =
         braintreeClient.run {
             sendAnalyticsEvent("card.graphql.tokenization.started")
-            sendGraphQLPOST(tokenizePayload.toString(), object : HttpResponseCallback {
-                override fun onResult(responseBody: String?, httpError: Exception?) {
-                    parseResponseToJSON(responseBody)?.let { json ->
-                        sendAnalyticsEvent("card.graphql.tokenization.success")
-                        callback.onResult(json, null)
-                    } ?: httpError?.let { error ->
-                        sendAnalyticsEvent("card.graphql.tokenization.failure")
-                        callback.onResult(null, error)
-                    }
-                }
-            })
+            val span = AnalyticsSpan(this, GRAPHQL_ENDPOINT)
+            sendGraphQLPOST(tokenizePayload.toString(), createGraphQLResponseCallback(span, callback))
         }
 
+    /**
+     * Tokenize with a registered [operation], which can be sent as a persisted query.
+     */
+    fun tokenizeGraphQL(
+        operation: GraphQLOperation,
+        tokenizePayload: JSONObject,
+        callback: TokenizeCallback
+    ) = braintreeClient.run {
+        sendAnalyticsEvent("card.graphql.tokenization.started")
+        val span = AnalyticsSpan(this, GRAPHQL_ENDPOINT)
+        sendGraphQLPOST(operation, tokenizePayload, createGraphQLResponseCallback(span, callback))
+    }
+
     fun tokenizeREST(paymentMethod: PaymentMethod, callback: TokenizeCallback) =
         braintreeClient.run {
             val url = versionedPath("$PAYMENT_METHOD_ENDPOINT/${paymentMethod.apiPath}")
             paymentMethod.setSessionId(braintreeClient.sessionId)
 
             sendAnalyticsEvent("card.rest.tokenization.started")
+            val span = AnalyticsSpan(this, url)
             sendPOST(url, paymentMethod.buildJSON().toString(), object : HttpResponseCallback {
                 override fun onResult(responseBody: String?, httpError: Exception?) {
                     parseResponseToJSON(responseBody)?.let { json ->
-                        sendAnalyticsEvent("card.rest.tokenization.success")
+                        span.end("card.rest.tokenization.success")
                         callback.onResult(json, null)
                     } ?: httpError?.let { error ->
-                        sendAnalyticsEvent("card.rest.tokenization.failure")
+                        span.end("card.rest.tokenization.failure")
                         callback.onResult(null, error)
                     }
                 }
             })
         }
 
+    private fun createGraphQLResponseCallback(span: AnalyticsSpan, callback: TokenizeCallback) =
+        object : HttpResponseCallback {
+            override fun onResult(responseBody: String?, httpError: Exception?) {
+                parseResponseToJSON(responseBody)?.let { json ->
+                    span.end("card.graphql.tokenization.success")
+                    callback.onResult(json, null)
+                } ?: httpError?.let { error ->
+                    span.end("card.graphql.tokenization.failure")
+                    callback.onResult(null, error)
+                }
+            }
+        }
+
     private fun parseResponseToJSON(responseBody: String?): JSONObject? =
         responseBody?.let {
             try {
@@ -56,6 +77,7 @@ class ApiClient(private val braintreeClient: BraintreeClient) {
 
     companion object {
         const val PAYMENT_METHOD_ENDPOINT = "payment_methods"
+        private const val GRAPHQL_ENDPOINT = "graphql"
 
         @JvmStatic
         fun versionedPath(path: String): String {
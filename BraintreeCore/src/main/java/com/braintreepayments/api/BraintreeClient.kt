@@ -8,6 +8,7 @@ import androidx.annotation.RestrictTo
 import androidx.annotation.VisibleForTesting
 import androidx.fragment.app.FragmentActivity
 import com.braintreepayments.api.IntegrationType.Integration
+import org.json.JSONObject
 
 /**
  * Core Braintree class that handles network requests.
@@ -38,6 +39,7 @@ open class BraintreeClient @VisibleForTesting internal constructor(
     private val httpClient: BraintreeHttpClient,
     private val graphQLClient: BraintreeGraphQLClient,
     private val browserSwitchClient: BrowserSwitchClient,
+    private val browserWarmer: BrowserWarmer,
     private val configurationLoader: ConfigurationLoader,
     private val manifestValidator: ManifestValidator,
     private val returnUrlScheme: String,
@@ -57,6 +59,7 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         httpClient = params.httpClient,
         graphQLClient = params.graphQLClient,
         browserSwitchClient = params.browserSwitchClient,
+        browserWarmer = params.browserWarmer,
         configurationLoader = params.configurationLoader,
         manifestValidator = params.manifestValidator,
         returnUrlScheme = params.returnUrlScheme,
@@ -220,10 +223,36 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         }
     }
 
+    /**
+     * Send an analytics event that carries the latency measured by an [AnalyticsSpan].
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendAnalyticsEvent(
+        eventName: String,
+        duration: Long,
+        endpoint: String?,
+        attributes: JSONObject?
+    ) {
+        getAuthorization { authorization, _ ->
+            if (authorization != null) {
+                getConfiguration { configuration, _ ->
+                    sendAnalyticsEvent(
+                        eventName, configuration, authorization, duration, endpoint, attributes
+                    )
+                }
+            }
+        }
+    }
+
     private fun sendAnalyticsEvent(
         eventName: String,
         configuration: Configuration?,
-        authorization: Authorization
+        authorization: Authorization,
+        duration: Long? = null,
+        endpoint: String? = null,
+        attributes: JSONObject? = null
     ) {
         if (isAnalyticsEnabled(configuration)) {
             analyticsClient.sendEvent(
@@ -231,7 +260,10 @@ open class BraintreeClient @VisibleForTesting internal constructor(
                 eventName,
                 sessionId,
                 integrationType,
-                authorization
+                authorization,
+                duration,
+                endpoint,
+                attributes
             )
         }
     }
@@ -282,6 +314,35 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         }
     }
 
+    /**
+     * Send a POST request whose body was written by a [JsonWriter]. As with the [String] overload,
+     * the authorization fingerprint is added to [body] for requests authorized with a client token.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendPOST(url: String, body: JsonWriter, responseCallback: HttpResponseCallback) {
+        getAuthorization { authorization, authError ->
+            if (authorization != null) {
+                getConfiguration { configuration, configError ->
+                    if (configuration != null) {
+                        httpClient.post(
+                            url,
+                            body,
+                            configuration,
+                            authorization,
+                            responseCallback
+                        )
+                    } else {
+                        responseCallback.onResult(null, configError)
+                    }
+                }
+            } else {
+                responseCallback.onResult(null, authError)
+            }
+        }
+    }
+
     /**
      * @suppress
      */
@@ -307,6 +368,39 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         }
     }
 
+    /**
+     * Send a registered GraphQL [operation]. The document, or its persisted query hash, is added
+     * to [payload] before sending.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGraphQLPOST(
+        operation: GraphQLOperation,
+        payload: JSONObject,
+        responseCallback: HttpResponseCallback
+    ) {
+        getAuthorization { authorization, authError ->
+            if (authorization != null) {
+                getConfiguration { configuration, configError ->
+                    if (configuration != null) {
+                        graphQLClient.post(
+                            operation,
+                            payload,
+                            configuration,
+                            authorization,
+                            responseCallback
+                        )
+                    } else {
+                        responseCallback.onResult(null, configError)
+                    }
+                }
+            } else {
+                responseCallback.onResult(null, authError)
+            }
+        }
+    }
+
     /**
      * @suppress
      */
@@ -321,6 +415,29 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         }
     }
 
+    /**
+     * Start the browser that will be used for a browser switch ahead of time.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun warmUpBrowser() {
+        browserWarmer.warmUp(applicationContext)
+    }
+
+    /**
+     * Hint to the browser that [url] is likely to be opened by the next browser switch, so that it
+     * can start loading the page.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun mayLaunchBrowserUrl(url: Uri?) {
+        if (url != null) {
+            browserWarmer.mayLaunchUrl(applicationContext, url)
+        }
+    }
+
     /**
      * @suppress
      */
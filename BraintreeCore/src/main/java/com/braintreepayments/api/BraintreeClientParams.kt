@@ -13,6 +13,7 @@ internal data class BraintreeClientParams @VisibleForTesting constructor(
     val graphQLClient: BraintreeGraphQLClient = BraintreeGraphQLClient(),
     val analyticsClient: AnalyticsClient = AnalyticsClient(context),
     val browserSwitchClient: BrowserSwitchClient = BrowserSwitchClient(),
+    val browserWarmer: BrowserWarmer = BrowserWarmer.getInstance(),
     val manifestValidator: ManifestValidator = ManifestValidator(),
     val uuidHelper: UUIDHelper = UUIDHelper(),
     val configurationLoader: ConfigurationLoader = ConfigurationLoader(context, httpClient),
@@ -26,6 +27,7 @@ internal data class BraintreeClientParams @VisibleForTesting constructor(
         },
         sessionId = options.sessionId ?: createUniqueSessionId(),
         returnUrlScheme = options.returnUrlScheme ?: createDefaultReturnUrlScheme(options.context),
+        analyticsClient = AnalyticsClient(options.context, options.useAnalyticsJournal),
         integrationType = options.integrationType ?: IntegrationType.CUSTOM
     )
 
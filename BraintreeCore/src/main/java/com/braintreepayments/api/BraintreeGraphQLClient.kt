@@ -1,11 +1,19 @@
 package com.braintreepayments.api
 
+import com.braintreepayments.api.GraphQLConstants.ErrorMessages.PERSISTED_QUERY_NOT_FOUND
+import com.braintreepayments.api.GraphQLConstants.ErrorMessages.PERSISTED_QUERY_NOT_SUPPORTED
+import org.json.JSONException
+import org.json.JSONObject
 import java.util.Locale
 
 internal class BraintreeGraphQLClient(
     private val httpClient: HttpClient = createDefaultHttpClient()
 ) {
 
+    // cleared if the GraphQL server reports that it does not support persisted queries
+    @Volatile
+    private var persistedQueriesSupported = true
+
     fun post(
         path: String?,
         data: String?,
@@ -53,6 +61,52 @@ internal class BraintreeGraphQLClient(
         httpClient.sendRequest(request, callback)
     }
 
+    /**
+     * Send a registered [operation]. When the persisted queries GraphQL feature is enabled, only
+     * the document hash is sent, and the full document is sent in a follow up request if the
+     * server has not seen the hash before.
+     *
+     * @param payload the request body without the `query` key, e.g. variables and metadata
+     */
+    fun post(
+        operation: GraphQLOperation,
+        payload: JSONObject,
+        configuration: Configuration,
+        authorization: Authorization,
+        callback: HttpResponseCallback
+    ) {
+        val usePersistedQuery = persistedQueriesSupported &&
+            configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.PERSISTED_QUERIES)
+        if (!usePersistedQuery) {
+            post(
+                buildOperationBody(operation, payload, includeDocument = true, includeHash = false),
+                configuration,
+                authorization,
+                callback
+            )
+            return
+        }
+
+        val hashOnlyBody =
+            buildOperationBody(operation, payload, includeDocument = false, includeHash = true)
+        post(hashOnlyBody, configuration, authorization, object : HttpResponseCallback {
+            override fun onResult(responseBody: String?, httpError: Exception?) {
+                if (!isPersistedQueryMiss(httpError)) {
+                    callback.onResult(responseBody, httpError)
+                    return
+                }
+                if (httpError?.message == PERSISTED_QUERY_NOT_SUPPORTED) {
+                    persistedQueriesSupported = false
+                }
+                // sending the document with its hash registers it for later requests
+                val fullBody = buildOperationBody(
+                    operation, payload, includeDocument = true, includeHash = true
+                )
+                post(fullBody, configuration, authorization, callback)
+            }
+        })
+    }
+
     @Throws(Exception::class)
     fun post(
         path: String?,
@@ -78,6 +132,40 @@ internal class BraintreeGraphQLClient(
 
     companion object {
 
+        private const val PERSISTED_QUERY_VERSION = 1
+        private val PERSISTED_QUERY_MISS_MESSAGES =
+            setOf(PERSISTED_QUERY_NOT_FOUND, PERSISTED_QUERY_NOT_SUPPORTED)
+
+        private fun isPersistedQueryMiss(error: Exception?) =
+            error is UnexpectedException && error.message in PERSISTED_QUERY_MISS_MESSAGES
+
+        @Throws(JSONException::class)
+        private fun buildOperationBody(
+            operation: GraphQLOperation,
+            payload: JSONObject,
+            includeDocument: Boolean,
+            includeHash: Boolean
+        ): String {
+            val body = JSONObject()
+            payload.keys().forEach { key -> body.put(key, payload.get(key)) }
+            body.put(GraphQLConstants.Keys.OPERATION_NAME, operation.name)
+            if (includeDocument) {
+                body.put(GraphQLConstants.Keys.QUERY, operation.document)
+            } else {
+                body.remove(GraphQLConstants.Keys.QUERY)
+            }
+            if (includeHash) {
+                val persistedQuery = JSONObject()
+                    .put(GraphQLConstants.Keys.VERSION, PERSISTED_QUERY_VERSION)
+                    .put(GraphQLConstants.Keys.SHA256_HASH, operation.sha256Hash)
+                body.put(
+                    GraphQLConstants.Keys.EXTENSIONS,
+                    JSONObject().put(GraphQLConstants.Keys.PERSISTED_QUERY, persistedQuery)
+                )
+            }
+            return body.toString()
+        }
+
         private fun createDefaultHttpClient(): HttpClient {
             val socketFactory = TLSSocketFactory(TLSCertificatePinning.certInputStream)
             return HttpClient(socketFactory, BraintreeGraphQLResponseParser())
@@ -127,6 +127,56 @@ internal class BraintreeHttpClient(
         httpClient.sendRequest(request, callback)
     }
 
+    /**
+     * Make a HTTP POST request to Braintree with a body written by a [JsonWriter]. As with the
+     * [String] overload, the authorization fingerprint of a [ClientToken] is added to [body], which
+     * must be a completed JSON object. The fingerprint is appended to the buffer already written.
+     * @param path The path or url to request from the server via HTTP POST
+     * @param body The body of the POST request
+     * @param configuration configuration for the Braintree Android SDK.
+     * @param authorization
+     * @param callback [HttpResponseCallback]
+     */
+    fun post(
+        path: String,
+        body: JsonWriter,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        callback: HttpResponseCallback
+    ) {
+        if (authorization is InvalidAuthorization) {
+            val message = authorization.errorMessage
+            callback.onResult(null, BraintreeException(message))
+            return
+        }
+        val isRelativeURL = !path.startsWith("http")
+        if (configuration == null && isRelativeURL) {
+            val message =
+                "Braintree HTTP POST request without configuration cannot have a relative path."
+            callback.onResult(null, BraintreeException(message))
+            return
+        }
+        if (authorization is ClientToken) {
+            try {
+                body.reopenObject()
+                    .field(AUTHORIZATION_FINGERPRINT_KEY, authorization.authorizationFingerprint)
+                    .endObject()
+            } catch (e: IllegalStateException) {
+                callback.onResult(null, e)
+                return
+            }
+        }
+        val request = HttpRequest().method("POST").path(path).data(body)
+            .addHeader(USER_AGENT_HEADER, "braintree/android/" + BuildConfig.VERSION_NAME)
+        if (isRelativeURL && configuration != null) {
+            request.baseUrl(configuration.clientApiUrl)
+        }
+        if (authorization is TokenizationKey) {
+            request.addHeader(CLIENT_KEY_HEADER, authorization.bearer)
+        }
+        httpClient.sendRequest(request, callback)
+    }
+
     /**
      * Makes a synchronous HTTP POST request to Braintree.
      *
@@ -14,4 +14,5 @@ data class BraintreeOptions @JvmOverloads constructor(
     val initialAuthString: String? = null,
     val clientTokenProvider: ClientTokenProvider? = null,
     @IntegrationType.Integration val integrationType: String? = null,
+    val useAnalyticsJournal: Boolean = false,
 )
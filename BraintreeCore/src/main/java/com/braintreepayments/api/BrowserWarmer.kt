@@ -0,0 +1,89 @@
+package com.braintreepayments.api
+
+import android.content.ComponentName
+import android.content.Context
+import android.net.Uri
+import androidx.annotation.VisibleForTesting
+import androidx.browser.customtabs.CustomTabsClient
+import androidx.browser.customtabs.CustomTabsServiceConnection
+import androidx.browser.customtabs.CustomTabsSession
+
+/**
+ * Warms up the device's Custom Tabs browser ahead of a browser switch, so that the browser process
+ * is started and the page at an approval URL can start loading while the SDK is still working.
+ *
+ * The Custom Tabs service is bound once per process. If no browser supports Custom Tabs, or the
+ * service cannot be bound, warming up does nothing and the browser switch starts cold.
+ */
+internal class BrowserWarmer {
+
+    private var isBindRequested = false
+    private var session: CustomTabsSession? = null
+    private var pendingUrl: Uri? = null
+
+    @VisibleForTesting
+    internal val connection = object : CustomTabsServiceConnection() {
+        override fun onCustomTabsServiceConnected(name: ComponentName, client: CustomTabsClient) {
+            client.warmup(0)
+            val newSession = client.newSession(null)
+            val url = synchronized(this@BrowserWarmer) {
+                session = newSession
+                pendingUrl.also { pendingUrl = null }
+            }
+            url?.let { newSession?.mayLaunchUrl(it, null, null) }
+        }
+
+        override fun onServiceDisconnected(name: ComponentName?) {
+            // the binding is kept, so the service is reconnected when the browser restarts
+            synchronized(this@BrowserWarmer) {
+                session = null
+            }
+        }
+    }
+
+    /**
+     * Bind the Custom Tabs service and start the browser process, if that has not been done yet.
+     */
+    fun warmUp(context: Context) {
+        synchronized(this) {
+            if (isBindRequested) {
+                return
+            }
+            isBindRequested = true
+        }
+
+        val applicationContext = context.applicationContext ?: context
+        val packageName = CustomTabsClient.getPackageName(applicationContext, null) ?: return
+        try {
+            CustomTabsClient.bindCustomTabsService(applicationContext, packageName, connection)
+        } catch (ignored: SecurityException) {
+            // the browser does not allow binding; the browser switch starts cold
+        }
+    }
+
+    /**
+     * Tell the browser that [url] is likely to be opened next, so it can connect to its host and
+     * start loading the page. If the Custom Tabs service is not connected yet, the hint is given
+     * once it connects.
+     */
+    fun mayLaunchUrl(context: Context, url: Uri) {
+        warmUp(context)
+        val currentSession = synchronized(this) {
+            session.also {
+                if (it == null) {
+                    pendingUrl = url
+                }
+            }
+        }
+        currentSession?.mayLaunchUrl(url, null, null)
+    }
+
+    companion object {
+        @Volatile
+        private var INSTANCE: BrowserWarmer? = null
+        fun getInstance(): BrowserWarmer =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: BrowserWarmer().also { INSTANCE = it }
+            }
+    }
+}
@@ -291,6 +291,11 @@ open class Configuration internal constructor(configurationString: String?) {
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val visaCheckoutSupportedNetworks: List<String>
 
+    /**
+     * @return sampling and rate limiting policies for analytics events, keyed by event name.
+     */
+    internal val analyticsEventPolicies: Map<String, AnalyticsEventPolicy>
+
     private val analyticsConfiguration: AnalyticsConfiguration
     private val braintreeApiConfiguration: BraintreeApiConfiguration
     private val cardConfiguration: CardConfiguration
@@ -354,6 +359,7 @@ open class Configuration internal constructor(configurationString: String?) {
         payPalUserAgreementUrl = payPalConfiguration.userAgreementUrl
 
         analyticsUrl = analyticsConfiguration.url
+        analyticsEventPolicies = analyticsConfiguration.eventPolicies
         braintreeApiAccessToken = braintreeApiConfiguration.accessToken
         braintreeApiUrl = braintreeApiConfiguration.url
         googlePayAuthorizationFingerprint = googlePayConfiguration.googleAuthorizationFingerprint
@@ -18,11 +18,13 @@ class DeviceInspector @VisibleForTesting internal constructor(
     private val appHelper: AppHelper,
     private val uuidHelper: UUIDHelper,
     private val signatureVerifier: SignatureVerifier,
+    private val packageCheckCache: PackageCheckCache = PackageCheckCache(),
 ) {
     constructor() : this(
         AppHelper(),
         UUIDHelper(),
         SignatureVerifier(),
+        PackageCheckCache.getInstance(),
     )
 
     internal fun getDeviceMetadata(
@@ -54,22 +56,25 @@ class DeviceInspector @VisibleForTesting internal constructor(
     /**
      * @param context A context to access the installed packages.
      * @return boolean depending on if the Venmo app is installed, and has a valid signature.
+     * The result is cached until the Venmo app is installed, updated or removed.
      */
-    fun isVenmoAppSwitchAvailable(context: Context?): Boolean {
-        val isVenmoIntentAvailable = appHelper.isIntentAvailable(context, venmoIntent)
-        val isVenmoSignatureValid = signatureVerifier.isSignatureValid(
-            context, VENMO_APP_PACKAGE, VENMO_BASE_64_ENCODED_SIGNATURE
-        )
-        return isVenmoIntentAvailable && isVenmoSignatureValid
-    }
+    fun isVenmoAppSwitchAvailable(context: Context?): Boolean =
+        packageCheckCache.getOrCheck(context, VENMO_APP_PACKAGE, CHECK_APP_SWITCH_AVAILABLE) {
+            appHelper.isIntentAvailable(context, venmoIntent) &&
+                signatureVerifier.isSignatureValid(
+                    context, VENMO_APP_PACKAGE, VENMO_BASE_64_ENCODED_SIGNATURE
+                )
+        }
 
-    fun isPayPalInstalled(context: Context?): Boolean {
-        return appHelper.isAppInstalled(context, PAYPAL_APP_PACKAGE)
-    }
+    fun isPayPalInstalled(context: Context?): Boolean =
+        packageCheckCache.getOrCheck(context, PAYPAL_APP_PACKAGE, CHECK_INSTALLED) {
+            appHelper.isAppInstalled(context, PAYPAL_APP_PACKAGE)
+        }
 
-    fun isVenmoInstalled(context: Context?): Boolean {
-        return appHelper.isAppInstalled(context, VENMO_APP_PACKAGE)
-    }
+    fun isVenmoInstalled(context: Context?): Boolean =
+        packageCheckCache.getOrCheck(context, VENMO_APP_PACKAGE, CHECK_INSTALLED) {
+            appHelper.isAppInstalled(context, VENMO_APP_PACKAGE)
+        }
 
     private val isDeviceEmulator: Boolean
         get() = "google_sdk".equals(Build.PRODUCT, ignoreCase = true) ||
@@ -127,6 +132,8 @@ class DeviceInspector @VisibleForTesting internal constructor(
         private const val PAYPAL_APP_PACKAGE = "com.paypal.android.p2pmobile"
         private const val VENMO_APP_PACKAGE = "com.venmo"
         private const val VENMO_APP_SWITCH_ACTIVITY = "controller.SetupMerchantActivity"
+        private const val CHECK_INSTALLED = "installed"
+        private const val CHECK_APP_SWITCH_AVAILABLE = "app-switch-available"
 
         @VisibleForTesting
         const val VENMO_BASE_64_ENCODED_SIGNATURE = "x34mMawEUcCG8l95riWCOK+kAJYejVmdt44l6tzcyUc=\n"
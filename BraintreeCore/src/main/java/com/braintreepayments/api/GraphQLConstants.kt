@@ -21,6 +21,9 @@ object GraphQLConstants {
         const val URL = "url"
         const val FEATURES = "features"
         const val OPERATION_NAME = "operationName"
+        const val PERSISTED_QUERY = "persistedQuery"
+        const val SHA256_HASH = "sha256Hash"
+        const val VERSION = "version"
     }
 
     object ErrorTypes {
@@ -30,6 +33,8 @@ object GraphQLConstants {
     object ErrorMessages {
         const val UNKNOWN = "An unknown error occurred."
         const val USER = "Input is invalid."
+        const val PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound"
+        const val PERSISTED_QUERY_NOT_SUPPORTED = "PersistedQueryNotSupported"
     }
 
     object LegacyErrorCodes {
@@ -42,5 +47,7 @@ object GraphQLConstants {
 
     object Features {
         const val TOKENIZE_CREDIT_CARDS = "tokenize_credit_cards"
+        const val PERSISTED_QUERIES = "persisted_queries"
+        const val VAULT_VENMO_PAYMENT_CONTEXT = "vault_venmo_payment_context"
     }
 }
@@ -0,0 +1,39 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+import java.security.MessageDigest
+
+/**
+ * A GraphQL document that is known at compile time, together with the SHA-256 hash used to
+ * reference it as an automatic persisted query.
+ *
+ * @property name the GraphQL operation name declared in [document]
+ * @property document the full GraphQL document
+ * @property sha256Hash the lowercase hex encoded SHA-256 hash of [document]
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class GraphQLOperation internal constructor(
+    val name: String,
+    val document: String
+) {
+
+    val sha256Hash: String = sha256Hex(document)
+
+    companion object {
+
+        @Suppress("MagicNumber")
+        private fun sha256Hex(value: String): String {
+            val digest = MessageDigest.getInstance("SHA-256").digest(value.toByteArray())
+            val hex = StringBuilder(digest.size * 2)
+            for (byte in digest) {
+                val unsigned = byte.toInt() and 0xFF
+                hex.append(HEX_DIGITS[unsigned ushr 4]).append(HEX_DIGITS[unsigned and 0x0F])
+            }
+            return hex.toString()
+        }
+
+        private const val HEX_DIGITS = "0123456789abcdef"
+    }
+}
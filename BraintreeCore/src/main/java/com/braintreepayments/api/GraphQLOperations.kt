@@ -0,0 +1,108 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * Registry of the GraphQL operations sent by the SDK.
+ *
+ * Documents and their hashes are built once when the registry is first used, so sending an
+ * operation never assembles query text at runtime. Operations whose documents depend on runtime
+ * input (e.g. batch card tokenization) are not registered and are always sent as full text.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+object GraphQLOperations {
+
+    /**
+     * Selection set returned for each tokenized credit card.
+     */
+    const val TOKENIZE_CREDIT_CARD_FIELDS = "" +
+        "    token" +
+        "    creditCard {" +
+        "      bin" +
+        "      brand" +
+        "      expirationMonth" +
+        "      expirationYear" +
+        "      cardholderName" +
+        "      last4" +
+        "      binData {" +
+        "        prepaid" +
+        "        healthcare" +
+        "        debit" +
+        "        durbinRegulated" +
+        "        commercial" +
+        "        payroll" +
+        "        issuingBank" +
+        "        countryOfIssuance" +
+        "        productId" +
+        "      }" +
+        "    }"
+
+    /**
+     * Selection set for the authentication insight of a tokenized credit card, without the field
+     * name and arguments.
+     */
+    const val AUTHENTICATION_INSIGHT_FIELDS = "" +
+        "      customerAuthenticationRegulationEnvironment" +
+        "    }"
+
+    @JvmField
+    val TOKENIZE_CREDIT_CARD = GraphQLOperation(
+        "TokenizeCreditCard",
+        "mutation TokenizeCreditCard(\$input: TokenizeCreditCardInput!) {" +
+            "  tokenizeCreditCard(input: \$input) {" +
+            TOKENIZE_CREDIT_CARD_FIELDS +
+            "  }" +
+            "}"
+    )
+
+    @JvmField
+    val TOKENIZE_CREDIT_CARD_WITH_AUTHENTICATION_INSIGHT = GraphQLOperation(
+        "TokenizeCreditCard",
+        "mutation TokenizeCreditCard(\$input: TokenizeCreditCardInput!, " +
+            "\$authenticationInsightInput: AuthenticationInsightInput!) {" +
+            "  tokenizeCreditCard(input: \$input) {" +
+            TOKENIZE_CREDIT_CARD_FIELDS +
+            "    authenticationInsight(input: \$authenticationInsightInput) {" +
+            AUTHENTICATION_INSIGHT_FIELDS +
+            "  }" +
+            "}"
+    )
+
+    @JvmField
+    val CREATE_VENMO_PAYMENT_CONTEXT = GraphQLOperation(
+        "CreateVenmoPaymentContext",
+        "mutation CreateVenmoPaymentContext(\$input: CreateVenmoPaymentContextInput!) { " +
+            "createVenmoPaymentContext(input: \$input) { venmoPaymentContext { id } } }"
+    )
+
+    /**
+     * Selection set returned for a Venmo payment context.
+     */
+    private const val VENMO_PAYMENT_CONTEXT_FIELDS = "" +
+        "paymentMethodId userName payerInfo { firstName lastName phoneNumber email " +
+        "externalId userName shippingAddress { fullName addressLine1 addressLine2 " +
+        "adminArea1 adminArea2 postalCode countryCode } billingAddress { fullName " +
+        "addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } }"
+
+    @JvmField
+    val VENMO_PAYMENT_CONTEXT = GraphQLOperation(
+        "PaymentContext",
+        "query PaymentContext(\$id: ID!) { node(id: \$id) { ... on VenmoPaymentContext { " +
+            VENMO_PAYMENT_CONTEXT_FIELDS + " } } }"
+    )
+
+    /**
+     * Vaults the payment method of a Venmo payment context and returns the payment context with
+     * the vaulted payment method ID. Only sent when the
+     * [GraphQLConstants.Features.VAULT_VENMO_PAYMENT_CONTEXT] feature is enabled.
+     */
+    @JvmField
+    val VAULT_VENMO_PAYMENT_CONTEXT = GraphQLOperation(
+        "VaultVenmoPaymentContext",
+        "mutation VaultVenmoPaymentContext(\$input: VaultVenmoPaymentContextInput!) { " +
+            "vaultVenmoPaymentContext(input: \$input) { venmoPaymentContext { " +
+            VENMO_PAYMENT_CONTEXT_FIELDS + " } } }"
+    )
+}
@@ -5,6 +5,7 @@ import android.content.res.Resources
 import androidx.annotation.RestrictTo
 import java.io.IOException
 import java.io.InputStream
+import java.util.concurrent.ConcurrentHashMap
 
 // NEXT_MAJOR_VERSION: remove class once its added to drop in
 /**
@@ -12,15 +13,22 @@ import java.io.InputStream
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 object GraphQLQueryHelper {
+
+    // raw resources are immutable for the lifetime of the process, so each is read only once
+    private val queriesByResource = ConcurrentHashMap<Int, String>()
+
     @JvmStatic
     @Throws(Resources.NotFoundException::class, IOException::class)
     fun getQuery(context: Context, queryResource: Int): String {
+        queriesByResource[queryResource]?.let { return it }
         var inputStream: InputStream? = null
-        return try {
+        val query = try {
             inputStream = context.resources.openRawResource(queryResource)
             StreamHelper.getString(inputStream)
         } finally {
             inputStream?.close()
         }
+        queriesByResource[queryResource] = query
+        return query
     }
 }
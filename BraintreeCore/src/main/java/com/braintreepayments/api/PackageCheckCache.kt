@@ -0,0 +1,129 @@
+package com.braintreepayments.api
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import android.content.pm.PackageManager
+import androidx.annotation.VisibleForTesting
+
+/**
+ * Caches the results of checks [DeviceInspector] makes against other apps' packages, such as
+ * whether an app is installed or signed with the expected certificate, so that repeated checks,
+ * e.g. when rendering payment buttons, are memory lookups instead of [PackageManager] queries.
+ *
+ * Results for a package are cleared when it is installed, replaced or removed. If the package
+ * broadcast receiver cannot be registered, results are stored with the package's
+ * `lastUpdateTime` and are only reused while it is unchanged.
+ */
+internal class PackageCheckCache {
+
+    private val entries = HashMap<String, Entry>()
+
+    // incremented whenever results are cleared, so that a check that was running at the time
+    // does not store a result for the previous install of the package
+    private var generation = 0
+
+    @Volatile
+    private var isReceiverRegistered = false
+    private var hasAttemptedRegistration = false
+
+    @VisibleForTesting
+    internal val packageReceiver = object : BroadcastReceiver() {
+        override fun onReceive(context: Context?, intent: Intent?) {
+            intent?.data?.schemeSpecificPart?.let { invalidate(it) }
+        }
+    }
+
+    /**
+     * @return the cached result of [checkName] for [packageName], or the result of [check] if
+     * there is none
+     */
+    fun getOrCheck(
+        context: Context?,
+        packageName: String,
+        checkName: String,
+        check: () -> Boolean
+    ): Boolean {
+        if (context == null) {
+            return check()
+        }
+        registerPackageReceiver(context)
+
+        val lastUpdateTime = if (isReceiverRegistered) null else getLastUpdateTime(context, packageName)
+        val checkGeneration: Int
+        synchronized(this) {
+            val entry = entries[packageName]
+            if (entry != null && entry.lastUpdateTime == lastUpdateTime) {
+                entry.results[checkName]?.let { return it }
+            }
+            checkGeneration = generation
+        }
+
+        val result = check()
+        synchronized(this) {
+            if (checkGeneration == generation) {
+                var entry = entries[packageName]
+                if (entry == null || entry.lastUpdateTime != lastUpdateTime) {
+                    entry = Entry(lastUpdateTime)
+                    entries[packageName] = entry
+                }
+                entry.results[checkName] = result
+            }
+        }
+        return result
+    }
+
+    @Synchronized
+    fun invalidate(packageName: String) {
+        entries.remove(packageName)
+        generation++
+    }
+
+    private fun registerPackageReceiver(context: Context) {
+        synchronized(this) {
+            if (hasAttemptedRegistration) {
+                return
+            }
+            hasAttemptedRegistration = true
+        }
+
+        val filter = IntentFilter().apply {
+            addAction(Intent.ACTION_PACKAGE_ADDED)
+            addAction(Intent.ACTION_PACKAGE_REPLACED)
+            addAction(Intent.ACTION_PACKAGE_REMOVED)
+            addDataScheme("package")
+        }
+        isReceiverRegistered = try {
+            // package broadcasts are sent by the system, so the receiver does not need to be exported
+            (context.applicationContext ?: context).registerReceiver(packageReceiver, filter)
+            true
+        } catch (ignored: SecurityException) {
+            false
+        } catch (ignored: IllegalArgumentException) {
+            false
+        }
+    }
+
+    private fun getLastUpdateTime(context: Context, packageName: String): Long =
+        try {
+            context.packageManager.getPackageInfo(packageName, 0)?.lastUpdateTime ?: NOT_INSTALLED
+        } catch (ignored: PackageManager.NameNotFoundException) {
+            NOT_INSTALLED
+        }
+
+    private class Entry(val lastUpdateTime: Long?) {
+        val results = HashMap<String, Boolean>()
+    }
+
+    companion object {
+        private const val NOT_INSTALLED = -1L
+
+        @Volatile
+        private var INSTANCE: PackageCheckCache? = null
+        fun getInstance(): PackageCheckCache =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: PackageCheckCache().also { INSTANCE = it }
+            }
+    }
+}
@@ -9,6 +9,8 @@ import io.mockk.*
 import org.json.JSONException
 import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
 import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
@@ -29,8 +31,7 @@ class AnalyticsClientUnitTest {
     private lateinit var sessionId: String
     private lateinit var integration: String
     private lateinit var workManager: WorkManager
-    private lateinit var analyticsDatabase: AnalyticsDatabase
-    private lateinit var analyticsEventDao: AnalyticsEventDao
+    private lateinit var analyticsStore: AnalyticsStore
 
     private var timestamp: Long = 0
 
@@ -45,11 +46,8 @@ class AnalyticsClientUnitTest {
         context = ApplicationProvider.getApplicationContext()
         httpClient = mockk(relaxed = true)
         deviceInspector = mockk(relaxed = true)
-        analyticsDatabase = mockk(relaxed = true)
-        analyticsEventDao = mockk(relaxed = true)
+        analyticsStore = mockk(relaxed = true)
         workManager = mockk(relaxed = true)
-
-        every { analyticsDatabase.analyticsEventDao() } returns analyticsEventDao
     }
 
     @Test
@@ -65,7 +63,7 @@ class AnalyticsClientUnitTest {
         } returns mockk()
 
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         sut.sendEvent(configuration, eventName, sessionId, integration, 123, authorization)
 
         val workSpec = workRequestSlot.captured.workSpec
@@ -75,6 +73,38 @@ class AnalyticsClientUnitTest {
         assertEquals(123, workSpec.input.getLong("timestamp", 0))
     }
 
+    @Test
+    @Throws(JSONException::class)
+    fun sendEvent_withSpanData_addsSpanDataToAnalyticsWriteToDbWorkerInput() {
+        val workRequestSlot = slot<OneTimeWorkRequest>()
+        every {
+            workManager.enqueueUniqueWork(
+                "writeAnalyticsToDb",
+                ExistingWorkPolicy.APPEND_OR_REPLACE,
+                capture(workRequestSlot)
+            )
+        } returns mockk()
+
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
+        sut.sendEvent(
+            configuration,
+            eventName,
+            sessionId,
+            integration,
+            123,
+            authorization,
+            250,
+            "graphql",
+            JSONObject().put("key", "value")
+        )
+
+        val input = workRequestSlot.captured.workSpec.input
+        assertEquals(250, input.getLong("duration", -1))
+        assertEquals("graphql", input.getString("endpoint"))
+        assertEquals("{\"key\":\"value\"}", input.getString("attributes"))
+    }
+
     @Test
     @Throws(JSONException::class)
     fun sendEvent_enqueuesAnalyticsUploadWorker() {
@@ -88,36 +118,131 @@ class AnalyticsClientUnitTest {
         } returns mockk()
 
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         sut.sendEvent(configuration, eventName, sessionId, integration, 123, authorization)
 
         val workSpec = workRequestSlot.captured.workSpec
         assertEquals(30000, workSpec.initialDelay)
         assertEquals(AnalyticsUploadWorker::class.java.name, workSpec.workerClassName)
-        assertEquals(configuration.toJson(), workSpec.input.getString("configuration"))
+        assertEquals("analytics_url", workSpec.input.getString("analyticsUrl"))
+        assertNull(workSpec.input.getString("configuration"))
         assertEquals(authorization.toString(), workSpec.input.getString("authorization"))
         assertEquals("sample-session-id", workSpec.input.getString("sessionId"))
         assertEquals("sample-integration", workSpec.input.getString("integration"))
     }
 
+    @Test
+    @Throws(JSONException::class)
+    fun sendEvent_whenEventIsAdmittedByPolicy_enqueuesWriteWithWeight() {
+        val workRequestSlot = slot<OneTimeWorkRequest>()
+        every {
+            workManager.enqueueUniqueWork(
+                "writeAnalyticsToDb",
+                ExistingWorkPolicy.APPEND_OR_REPLACE,
+                capture(workRequestSlot)
+            )
+        } returns mockk()
+
+        val policy = AnalyticsEventPolicy(sampleRate = 0.5)
+        val eventLimiter = mockk<AnalyticsEventLimiter>()
+        every { eventLimiter.admit(eventName, policy, 123) } returns 2.0
+
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val sut = AnalyticsClient(
+            httpClient, analyticsStore, workManager, deviceInspector,
+            eventLimiter, mapOf(eventName to policy)
+        )
+        sut.sendEvent(configuration, eventName, sessionId, integration, 123, authorization)
+
+        val workSpec = workRequestSlot.captured.workSpec
+        assertEquals(2.0, workSpec.input.getDouble("weight", 0.0), 0.0)
+    }
+
+    @Test
+    @Throws(JSONException::class)
+    fun sendEvent_whenEventIsSuppressedByPolicy_doesNotEnqueueWrite() {
+        val eventLimiter = mockk<AnalyticsEventLimiter>()
+        every { eventLimiter.admit(eventName, any(), 123) } returns 0.0
+
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val sut = AnalyticsClient(
+            httpClient, analyticsStore, workManager, deviceInspector, eventLimiter
+        )
+        sut.sendEvent(configuration, eventName, sessionId, integration, 123, authorization)
+
+        verify(exactly = 0) {
+            workManager.enqueueUniqueWork("writeAnalyticsToDb", any(), any<OneTimeWorkRequest>())
+        }
+        verify {
+            workManager.enqueueUniqueWork("uploadAnalytics", any(), any<OneTimeWorkRequest>())
+        }
+    }
+
+    @Test
+    @Throws(JSONException::class)
+    fun sendEvent_whenStoreInsertIsNonBlocking_insertsEventDirectly() {
+        every { analyticsStore.isInsertNonBlocking } returns true
+
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
+        sut.sendEvent(configuration, eventName, sessionId, integration, 123, authorization)
+
+        verify { analyticsStore.insertEvent("android.sample-event-name", 123, 1.0) }
+        verify(exactly = 0) {
+            workManager.enqueueUniqueWork("writeAnalyticsToDb", any(), any<OneTimeWorkRequest>())
+        }
+    }
+
     @Test
     fun writeAnalytics_whenEventNameAndTimestampArePresent_returnsSuccess() {
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
             .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
             .build()
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val result = sut.writeAnalytics(inputData)
         assertTrue(result is ListenableWorker.Result.Success)
     }
 
+    @Test
+    fun writeAnalytics_persistsEventWeight() {
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
+            .putDouble(AnalyticsClient.WORK_INPUT_KEY_WEIGHT, 4.0)
+            .build()
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
+        sut.writeAnalytics(inputData)
+
+        verify { analyticsStore.insertEvent("sample-event-name", 123, 4.0) }
+    }
+
+    @Test
+    fun writeAnalytics_persistsSpanData() {
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_DURATION, 250)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENDPOINT, "graphql")
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ATTRIBUTES, "{\"key\":\"value\"}")
+            .build()
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
+        sut.writeAnalytics(inputData)
+
+        verify {
+            analyticsStore.insertEvent(
+                "sample-event-name", 123, 1.0, 250, "graphql", "{\"key\":\"value\"}"
+            )
+        }
+    }
+
     @Test
     fun writeAnalytics_whenEventNameIsMissing_returnsFailure() {
         val inputData = Data.Builder()
             .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
             .build()
         val sut =
-            AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+            AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val result = sut.writeAnalytics(inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
     }
@@ -128,26 +253,22 @@ class AnalyticsClientUnitTest {
             .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
             .build()
         val sut =
-            AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+            AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val result = sut.writeAnalytics(inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
     }
 
     @Test
-    fun writeAnalytics_addsEventToAnalyticsDatabaseAndReturnsSuccess() {
-        val analyticsEventSlot = slot<AnalyticsEvent>()
-        every { analyticsEventDao.insertEvent(capture(analyticsEventSlot)) } returns Unit
-
+    fun writeAnalytics_addsEventToAnalyticsStoreAndReturnsSuccess() {
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
             .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
             .build()
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
-        sut.writeAnalytics(inputData)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
+        val result = sut.writeAnalytics(inputData)
 
-        val event = analyticsEventSlot.captured
-        assertEquals("sample-event-name", event.name)
-        assertEquals(123, event.timestamp)
+        verify { analyticsStore.insertEvent("sample-event-name", 123, 1.0) }
+        assertTrue(result is ListenableWorker.Result.Success)
     }
 
     @Test
@@ -156,24 +277,90 @@ class AnalyticsClientUnitTest {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         sut.uploadAnalytics(context, inputData)
 
         // or confirmVerified(httpClient)
         verify { httpClient wasNot Called }
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_sendsSuppressedEventsWithStoredEvents() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val storedEvents = listOf(AnalyticsEvent("event0", 123))
+        every { analyticsStore.getAllEvents() } returns storedEvents
+        val eventLimiter = mockk<AnalyticsEventLimiter>()
+        every { eventLimiter.drainSuppressedEvents() } returns
+            listOf(AnalyticsEvent(eventName, 456, 3.0))
+
+        val analyticsJSONSlot = slot<String>()
+        every { httpClient.post(any(), capture(analyticsJSONSlot), any(), any()) }
+
+        val sut = AnalyticsClient(
+            httpClient, analyticsStore, workManager, deviceInspector, eventLimiter
+        )
+        sut.uploadAnalytics(context, inputData)
+
+        val array = JSONObject(analyticsJSONSlot.captured).getJSONArray("analytics")
+        assertEquals(2, array.length())
+        val suppressedEvent = array.getJSONObject(1)
+        assertEquals("android.sample-event-name", suppressedEvent.getString("kind"))
+        assertEquals(3.0, suppressedEvent.getDouble("weight"), 0.0)
+        verify { analyticsStore.deleteEvents(storedEvents) }
+        verify(exactly = 0) { analyticsStore.insertEvent(any(), any(), any(), any(), any(), any()) }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_whenUploadFails_storesSuppressedEventsForNextUpload() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val eventLimiter = mockk<AnalyticsEventLimiter>()
+        every { eventLimiter.drainSuppressedEvents() } returns
+            listOf(AnalyticsEvent(eventName, 456, 3.0))
+        every { httpClient.post(any(), any(), any(), any()) } throws Exception("error")
+
+        val sut = AnalyticsClient(
+            httpClient, analyticsStore, workManager, deviceInspector, eventLimiter
+        )
+        val result = sut.uploadAnalytics(context, inputData)
+
+        assertTrue(result is ListenableWorker.Result.Failure)
+        verify { analyticsStore.insertEvent("android.sample-event-name", 456, 3.0) }
+        verify(exactly = 0) { analyticsStore.deleteEvents(any()) }
+    }
+
     @Test
     @Throws(Exception::class)
     fun uploadAnalytics_whenEventsExist_sendsAllEvents() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
@@ -186,12 +373,12 @@ class AnalyticsClientUnitTest {
         val events: MutableList<AnalyticsEvent> = ArrayList()
         events.add(AnalyticsEvent("event0", 123))
         events.add(AnalyticsEvent("event1", 456))
-        every { analyticsEventDao.getAllEvents() } returns events
+        every { analyticsStore.getAllEvents() } returns events
 
         val analyticsJSONSlot = slot<String>()
         every { httpClient.post(any(), capture(analyticsJSONSlot), any(), any()) }
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         sut.uploadAnalytics(context, inputData)
 
         val analyticsJson = JSONObject(analyticsJSONSlot.captured)
@@ -211,14 +398,100 @@ class AnalyticsClientUnitTest {
     }
 
     @Test
-    fun uploadAnalytics_whenConfigurationIsNull_doesNothing() {
+    @Throws(Exception::class)
+    fun uploadAnalytics_includesWeightForWeightedEvents() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val events = listOf(AnalyticsEvent("event0", 123), AnalyticsEvent("event1", 456, 4.0))
+        every { analyticsStore.getAllEvents() } returns events
+
+        val analyticsJSONSlot = slot<String>()
+        every { httpClient.post(any(), capture(analyticsJSONSlot), any(), any()) }
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
+        sut.uploadAnalytics(context, inputData)
+
+        val array = JSONObject(analyticsJSONSlot.captured).getJSONArray("analytics")
+        assertFalse(array.getJSONObject(0).has("weight"))
+        assertEquals(4.0, array.getJSONObject(1).getDouble("weight"), 0.0)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_includesSpanDataForSpanEvents() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val events = listOf(
+            AnalyticsEvent("event0", 123),
+            AnalyticsEvent("event1", 456, 1.0, 250, "graphql", "{\"key\":\"value\"}")
+        )
+        every { analyticsStore.getAllEvents() } returns events
+
+        val analyticsJSONSlot = slot<String>()
+        every { httpClient.post(any(), capture(analyticsJSONSlot), any(), any()) }
+
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
+        sut.uploadAnalytics(context, inputData)
+
+        val array = JSONObject(analyticsJSONSlot.captured).getJSONArray("analytics")
+        assertFalse(array.getJSONObject(0).has("duration"))
+        assertFalse(array.getJSONObject(0).has("endpoint"))
+        assertFalse(array.getJSONObject(0).has("attributes"))
+        val spanEvent = array.getJSONObject(1)
+        assertEquals(250, spanEvent.getLong("duration"))
+        assertEquals("graphql", spanEvent.getString("endpoint"))
+        assertEquals("value", spanEvent.getJSONObject("attributes").getString("key"))
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_whenInputDataContainsLegacyConfiguration_sendsEventsToAnalyticsUrl() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+        every { analyticsStore.getAllEvents() } returns listOf(AnalyticsEvent("event0", 123))
+
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
+        val result = sut.uploadAnalytics(context, inputData)
+
+        assertTrue(result is ListenableWorker.Result.Success)
+        verify { httpClient.post("analytics_url", any(), isNull(), any()) }
+    }
+
+    @Test
+    fun uploadAnalytics_whenAnalyticsUrlIsNull_doesNothing() {
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
 
@@ -231,12 +504,12 @@ class AnalyticsClientUnitTest {
     fun uploadAnalytics_whenAuthorizationIsNull_doesNothing() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         val inputData = Data.Builder()
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
 
@@ -250,11 +523,11 @@ class AnalyticsClientUnitTest {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
 
@@ -268,11 +541,11 @@ class AnalyticsClientUnitTest {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .build()
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
 
@@ -286,7 +559,7 @@ class AnalyticsClientUnitTest {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
@@ -303,12 +576,12 @@ class AnalyticsClientUnitTest {
         val events: MutableList<AnalyticsEvent> = ArrayList()
         events.add(AnalyticsEvent("event0", 123))
         events.add(AnalyticsEvent("event1", 456))
-        every { analyticsEventDao.getAllEvents() } returns events
+        every { analyticsStore.getAllEvents() } returns events
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         sut.uploadAnalytics(context, inputData)
 
-        verify { analyticsEventDao.deleteEvents(events) }
+        verify { analyticsStore.deleteEvents(events) }
     }
 
     @Test
@@ -317,7 +590,7 @@ class AnalyticsClientUnitTest {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ANALYTICS_URL, configuration.analyticsUrl)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
@@ -330,12 +603,12 @@ class AnalyticsClientUnitTest {
         val events: MutableList<AnalyticsEvent> = ArrayList()
         events.add(AnalyticsEvent("event0", 123))
         events.add(AnalyticsEvent("event1", 456))
-        every { analyticsEventDao.getAllEvents() } returns events
+        every { analyticsStore.getAllEvents() } returns events
 
         val httpError = Exception("error")
         every { httpClient.post(any(), any(), any(), any()) } throws httpError
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
     }
@@ -359,7 +632,7 @@ class AnalyticsClientUnitTest {
             )
         } returns Unit
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         sut.sendEvent(configuration, eventName, sessionId, integration, authorization)
 
@@ -385,7 +658,7 @@ class AnalyticsClientUnitTest {
             deviceInspector.getDeviceMetadata(context, sessionId, integration)
         } returns metadata
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         sut.reportCrash(context, sessionId, integration, 123, authorization)
 
         // or confirmVerified(httpClient)
@@ -400,7 +673,7 @@ class AnalyticsClientUnitTest {
             deviceInspector.getDeviceMetadata(context, sessionId, integration)
         } returns metadata
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(httpClient, analyticsStore, workManager, deviceInspector)
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         sut.sendEvent(configuration, eventName, sessionId, integration, authorization)
 
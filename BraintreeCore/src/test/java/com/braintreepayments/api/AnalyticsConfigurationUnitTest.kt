@@ -17,11 +17,30 @@ class AnalyticsConfigurationUnitTest {
         assertEquals("https://example.com/analytics", sut.url)
     }
 
+    @Test
+    fun fromJson_parsesEventPolicies() {
+        val input = JSONObject()
+            .put("url", "https://example.com/analytics")
+            .put("eventPolicies", JSONObject()
+                .put("card.nonce-received", JSONObject()
+                    .put("sampleRate", 0.5)
+                    .put("burstCapacity", 10)
+                    .put("refillPerMinute", 2)
+                )
+            )
+        val sut = AnalyticsConfiguration(input)
+        assertEquals(
+            AnalyticsEventPolicy(sampleRate = 0.5, burstCapacity = 10, refillPerMinute = 2),
+            sut.eventPolicies["card.nonce-received"]
+        )
+    }
+
     @Test
     fun fromJson_whenInputNull_returnsConfigWithDefaultValues() {
         val sut = AnalyticsConfiguration(null)
         assertFalse(sut.isEnabled)
         assertTrue(sut.url == "")
+        assertTrue(sut.eventPolicies.isEmpty())
     }
 
     @Test
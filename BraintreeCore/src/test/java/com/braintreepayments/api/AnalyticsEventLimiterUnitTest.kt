@@ -0,0 +1,106 @@
+package com.braintreepayments.api
+
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.Random
+
+class AnalyticsEventLimiterUnitTest {
+
+    private lateinit var random: Random
+
+    @Before
+    fun beforeEach() {
+        random = mockk(relaxed = true)
+    }
+
+    @Test
+    fun admit_whenPolicyIsNull_returnsWeightOfOne() {
+        val sut = AnalyticsEventLimiter(random)
+        assertEquals(1.0, sut.admit("event", null, 0), 0.0)
+    }
+
+    @Test
+    fun admit_whenSampleRateIsZero_dropsEvent() {
+        val sut = AnalyticsEventLimiter(random)
+        val policy = AnalyticsEventPolicy(sampleRate = 0.0)
+        assertEquals(0.0, sut.admit("event", policy, 0), 0.0)
+    }
+
+    @Test
+    fun admit_whenEventIsSampled_returnsInverseSampleRateAsWeight() {
+        every { random.nextDouble() } returns 0.1
+        val sut = AnalyticsEventLimiter(random)
+        val policy = AnalyticsEventPolicy(sampleRate = 0.25)
+        assertEquals(4.0, sut.admit("event", policy, 0), 0.0)
+    }
+
+    @Test
+    fun admit_whenEventIsNotSampled_dropsEvent() {
+        every { random.nextDouble() } returns 0.5
+        val sut = AnalyticsEventLimiter(random)
+        val policy = AnalyticsEventPolicy(sampleRate = 0.25)
+        assertEquals(0.0, sut.admit("event", policy, 0), 0.0)
+    }
+
+    @Test
+    fun admit_whenBurstCapacityIsExhausted_suppressesEvents() {
+        val sut = AnalyticsEventLimiter(random)
+        val policy = AnalyticsEventPolicy(burstCapacity = 2, refillPerMinute = 1)
+        assertEquals(1.0, sut.admit("event", policy, 0), 0.0)
+        assertEquals(1.0, sut.admit("event", policy, 0), 0.0)
+        assertEquals(0.0, sut.admit("event", policy, 0), 0.0)
+        assertEquals(0.0, sut.admit("event", policy, 0), 0.0)
+    }
+
+    @Test
+    fun admit_afterRefill_carriesSuppressedWeightOnNextAdmittedEvent() {
+        val sut = AnalyticsEventLimiter(random)
+        val policy = AnalyticsEventPolicy(burstCapacity = 1, refillPerMinute = 1)
+        assertEquals(1.0, sut.admit("event", policy, 0), 0.0)
+        assertEquals(0.0, sut.admit("event", policy, 1000), 0.0)
+        assertEquals(0.0, sut.admit("event", policy, 2000), 0.0)
+        assertEquals(3.0, sut.admit("event", policy, 60000), 0.0)
+    }
+
+    @Test
+    fun admit_rateLimitsEachEventNameIndependently() {
+        val sut = AnalyticsEventLimiter(random)
+        val policy = AnalyticsEventPolicy(burstCapacity = 1, refillPerMinute = 1)
+        assertEquals(1.0, sut.admit("event-a", policy, 0), 0.0)
+        assertEquals(1.0, sut.admit("event-b", policy, 0), 0.0)
+        assertEquals(0.0, sut.admit("event-a", policy, 0), 0.0)
+    }
+
+    @Test
+    fun drainSuppressedEvents_returnsPendingWeightPerEventName_andResetsIt() {
+        val sut = AnalyticsEventLimiter(random)
+        val policy = AnalyticsEventPolicy(burstCapacity = 1, refillPerMinute = 1)
+        sut.admit("event-a", policy, 0)
+        sut.admit("event-a", policy, 1000)
+        sut.admit("event-a", policy, 2000)
+        sut.admit("event-b", policy, 0)
+
+        val suppressedEvents = sut.drainSuppressedEvents()
+        assertEquals(1, suppressedEvents.size)
+        assertEquals("event-a", suppressedEvents[0].name)
+        assertEquals(2000, suppressedEvents[0].timestamp)
+        assertEquals(2.0, suppressedEvents[0].weight, 0.0)
+
+        assertTrue(sut.drainSuppressedEvents().isEmpty())
+    }
+
+    @Test
+    fun drainSuppressedEvents_doesNotCarryDrainedWeightOnNextAdmittedEvent() {
+        val sut = AnalyticsEventLimiter(random)
+        val policy = AnalyticsEventPolicy(burstCapacity = 1, refillPerMinute = 1)
+        sut.admit("event", policy, 0)
+        sut.admit("event", policy, 1000)
+        sut.drainSuppressedEvents()
+
+        assertEquals(1.0, sut.admit("event", policy, 60000), 0.0)
+    }
+}
@@ -0,0 +1,71 @@
+package com.braintreepayments.api
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+
+class AnalyticsEventRegistryUnitTest {
+
+    @Test
+    fun codeOf_whenNameIsRegistered_returnsCodeThatMapsBackToName() {
+        val code = AnalyticsEventRegistry.codeOf("android.card.nonce-received")
+        assertNotEquals(AnalyticsEventRegistry.UNKNOWN_CODE, code)
+        assertEquals("android.card.nonce-received", AnalyticsEventRegistry.nameOf(code))
+    }
+
+    @Test
+    fun codeOf_whenNameIsMissingPrefix_returnsUnknownCode() {
+        assertEquals(
+            AnalyticsEventRegistry.UNKNOWN_CODE,
+            AnalyticsEventRegistry.codeOf("card.nonce-received")
+        )
+    }
+
+    @Test
+    fun codeOf_whenNameIsNotRegistered_returnsUnknownCode() {
+        assertEquals(
+            AnalyticsEventRegistry.UNKNOWN_CODE,
+            AnalyticsEventRegistry.codeOf("android.ideal.local-payment.create.succeeded")
+        )
+    }
+
+    @Test
+    fun codeOf_isStableForExistingNames() {
+        assertEquals(1, AnalyticsEventRegistry.codeOf("android.amex.rewards-balance.error"))
+    }
+
+    @Test
+    fun nameOf_whenCodeIsNotRegistered_returnsNull() {
+        assertNull(AnalyticsEventRegistry.nameOf(AnalyticsEventRegistry.UNKNOWN_CODE))
+        assertNull(AnalyticsEventRegistry.nameOf(Short.MAX_VALUE.toInt()))
+    }
+
+    @Test
+    fun codeOf_registersEveryLiteralEventNameSentBySdkModules() {
+        // event names passed as string literals, skipping names built at runtime
+        val eventNamePattern =
+            Regex("""(?:sendAnalyticsEvent|\bspan\.end)\(\s*"([^"$%]+)"\s*\)""")
+        val sourceFiles = findProjectRoot().listFiles()!!
+            .map { File(it, "src/main/java") }
+            .filter { it.isDirectory }
+            .flatMap { it.walk().filter { file -> file.extension in listOf("java", "kt") }.toList() }
+        assertTrue(sourceFiles.isNotEmpty())
+
+        val unregisteredNames = sourceFiles
+            .flatMap { file -> eventNamePattern.findAll(file.readText()).map { it.groupValues[1] }.toList() }
+            .toSortedSet()
+            .filter { AnalyticsEventRegistry.codeOf("android.$it") == AnalyticsEventRegistry.UNKNOWN_CODE }
+        assertEquals(emptyList<String>(), unregisteredNames)
+    }
+
+    private fun findProjectRoot(): File {
+        var directory: File? = File(System.getProperty("user.dir")!!).absoluteFile
+        while (directory != null && !File(directory, "settings.gradle").exists()) {
+            directory = directory.parentFile
+        }
+        return directory!!
+    }
+}
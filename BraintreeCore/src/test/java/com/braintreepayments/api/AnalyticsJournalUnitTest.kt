@@ -0,0 +1,212 @@
+package com.braintreepayments.api
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.RandomAccessFile
+
+class AnalyticsJournalUnitTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private lateinit var directory: File
+
+    @Before
+    fun beforeEach() {
+        directory = temporaryFolder.newFolder("journal")
+    }
+
+    @Test
+    fun insertEvent_appendsEventsInOrder() {
+        val sut = AnalyticsJournal(directory, 1024, 4)
+        sut.insertEvent("android.event0", 123, 1.0)
+        sut.insertEvent("android.event1", 456, 2.5)
+
+        val events = sut.getAllEvents()
+        assertEquals(2, events.size)
+        assertEquals("android.event0", events[0].name)
+        assertEquals(123, events[0].timestamp)
+        assertEquals(1.0, events[0].weight, 0.0)
+        assertEquals("android.event1", events[1].name)
+        assertEquals(456, events[1].timestamp)
+        assertEquals(2.5, events[1].weight, 0.0)
+    }
+
+    @Test
+    fun insertEvent_preservesNonAsciiEventNames() {
+        val sut = AnalyticsJournal(directory, 1024, 4)
+        sut.insertEvent("android.évènement-😀", 123, 1.0)
+
+        assertEquals("android.évènement-😀", sut.getAllEvents()[0].name)
+    }
+
+    @Test
+    fun insertEvent_storesRegisteredEventNamesAsCodes() {
+        val sut = AnalyticsJournal(directory, 64, 4)
+        val eventName = "android.three-d-secure.verification-flow.upgrade-payment-method.started"
+        // two records only fit in a 64 byte segment when their names are stored as codes
+        sut.insertEvent(eventName, 123, 1.0)
+        sut.insertEvent(eventName, 456, 1.0)
+
+        assertEquals(1, segmentFiles().size)
+        val events = sut.getAllEvents()
+        assertEquals(2, events.size)
+        assertEquals(eventName, events[0].name)
+        assertEquals(456, events[1].timestamp)
+    }
+
+    @Test
+    fun insertEvent_preservesSpanData() {
+        val sut = AnalyticsJournal(directory, 1024, 4)
+        sut.insertEvent("android.card.rest.tokenization.success", 123, 1.0, 250, "/v1/cards", null)
+        sut.insertEvent("android.event1", 456, 1.0, null, "graphql", "{\"key\":\"value\"}")
+        sut.insertEvent("android.event2", 789, 1.0)
+
+        val events = sut.getAllEvents()
+        assertEquals(250L, events[0].duration)
+        assertEquals("/v1/cards", events[0].endpoint)
+        assertNull(events[0].attributes)
+        assertNull(events[1].duration)
+        assertEquals("graphql", events[1].endpoint)
+        assertEquals("{\"key\":\"value\"}", events[1].attributes)
+        assertNull(events[2].duration)
+        assertNull(events[2].endpoint)
+        assertNull(events[2].attributes)
+    }
+
+    @Test
+    fun insertEvent_whenSegmentIsFull_rollsOverToNewSegment() {
+        val sut = AnalyticsJournal(directory, 128, 4)
+        for (i in 0 until 5) {
+            sut.insertEvent("android.event$i", i.toLong(), 1.0)
+        }
+
+        assertTrue(segmentFiles().size > 1)
+        assertEquals((0 until 5).map { "android.event$it" }, sut.getAllEvents().map { it.name })
+    }
+
+    @Test
+    fun insertEvent_whenMaxSegmentsExceeded_dropsOldestSegment() {
+        val sut = AnalyticsJournal(directory, 128, 2)
+        for (i in 0 until 20) {
+            sut.insertEvent("android.event$i", i.toLong(), 1.0)
+        }
+
+        assertEquals(2, segmentFiles().size)
+        assertEquals("android.event19", sut.getAllEvents().last().name)
+    }
+
+    @Test
+    fun insertEvent_whenMaxSegmentsExceeded_recordsWeightOfDroppedEvents() {
+        val sut = AnalyticsJournal(directory, 128, 2)
+        for (i in 0 until 20) {
+            sut.insertEvent("android.event$i", i.toLong(), 1.0)
+        }
+
+        val events = sut.getAllEvents()
+        val droppedWeight = events
+            .filter { it.name == AnalyticsJournal.DROPPED_EVENTS_EVENT_NAME }
+            .sumOf { it.weight }
+        val retainedEvents = events.count { it.name != AnalyticsJournal.DROPPED_EVENTS_EVENT_NAME }
+        assertEquals(20.0, droppedWeight + retainedEvents, 0.0)
+    }
+
+    @Test
+    fun insertEvent_writesOnWriteExecutor() {
+        val pendingWrites = mutableListOf<Runnable>()
+        val sut = AnalyticsJournal(directory, 1024, 4) { pendingWrites.add(it) }
+        sut.insertEvent("android.event0", 123, 1.0)
+
+        assertTrue(segmentFiles().isEmpty())
+
+        pendingWrites.forEach { it.run() }
+        assertEquals(listOf("android.event0"), sut.getAllEvents().map { it.name })
+    }
+
+    @Test
+    fun constructor_doesNotTouchJournalDirectory() {
+        val journalDirectory = File(directory, "not-yet-created")
+        AnalyticsJournal(journalDirectory, 1024, 4)
+
+        assertFalse(journalDirectory.exists())
+    }
+
+    @Test
+    fun deleteEvents_removesAcknowledgedEvents() {
+        val sut = AnalyticsJournal(directory, 1024, 4)
+        sut.insertEvent("android.event0", 123, 1.0)
+        sut.insertEvent("android.event1", 456, 1.0)
+
+        sut.deleteEvents(sut.getAllEvents().take(1))
+
+        val events = sut.getAllEvents()
+        assertEquals(1, events.size)
+        assertEquals("android.event1", events[0].name)
+    }
+
+    @Test
+    fun deleteEvents_deletesFullyAcknowledgedSegments() {
+        val sut = AnalyticsJournal(directory, 128, 4)
+        for (i in 0 until 5) {
+            sut.insertEvent("android.event$i", i.toLong(), 1.0)
+        }
+
+        sut.deleteEvents(sut.getAllEvents())
+
+        assertEquals(1, segmentFiles().size)
+        assertTrue(sut.getAllEvents().isEmpty())
+
+        sut.insertEvent("android.event5", 5, 1.0)
+        assertEquals(listOf("android.event5"), sut.getAllEvents().map { it.name })
+    }
+
+    @Test
+    fun constructor_recoversEventsFromExistingSegments() {
+        val journal = AnalyticsJournal(directory, 1024, 4)
+        journal.insertEvent("android.event0", 123, 1.0)
+        journal.insertEvent("android.event1", 456, 1.0)
+        journal.deleteEvents(journal.getAllEvents().take(1))
+
+        val sut = AnalyticsJournal(directory, 1024, 4)
+
+        assertEquals(listOf("android.event1"), sut.getAllEvents().map { it.name })
+        sut.insertEvent("android.event2", 789, 1.0)
+        assertEquals(
+            listOf("android.event1", "android.event2"),
+            sut.getAllEvents().map { it.name }
+        )
+    }
+
+    @Test
+    fun constructor_whenRecordIsCorrupt_truncatesSegmentAtCorruptRecord() {
+        val journal = AnalyticsJournal(directory, 1024, 4)
+        journal.insertEvent("android.event0", 123, 1.0)
+        journal.insertEvent("android.event1", 456, 1.0)
+
+        // flip the last byte of the second record's event name
+        val firstRecordLength = 8 + 18 + "android.event0".length
+        val corruptOffset = 8L + firstRecordLength + 8 + 18 + "android.event1".length - 1
+        RandomAccessFile(segmentFiles().first(), "rw").use {
+            it.seek(corruptOffset)
+            it.write('X'.code)
+        }
+
+        val sut = AnalyticsJournal(directory, 1024, 4)
+        assertEquals(listOf("android.event0"), sut.getAllEvents().map { it.name })
+
+        sut.insertEvent("android.event2", 789, 1.0)
+        assertEquals(
+            listOf("android.event0", "android.event2"),
+            sut.getAllEvents().map { it.name }
+        )
+    }
+
+    private fun segmentFiles() = directory.listFiles()!!.filter { it.name.startsWith("segment-") }
+}
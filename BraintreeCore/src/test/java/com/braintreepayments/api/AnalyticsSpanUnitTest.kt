@@ -0,0 +1,49 @@
+package com.braintreepayments.api
+
+import io.mockk.mockk
+import io.mockk.slot
+import io.mockk.verify
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class AnalyticsSpanUnitTest {
+
+    private lateinit var braintreeClient: BraintreeClient
+    private var nanoTime = 0L
+
+    @Before
+    fun beforeEach() {
+        braintreeClient = mockk(relaxed = true)
+        nanoTime = TimeUnit.SECONDS.toNanos(10)
+    }
+
+    @Test
+    fun end_sendsEventWithElapsedMilliseconds() {
+        val sut = AnalyticsSpan(braintreeClient, "graphql") { nanoTime }
+        nanoTime += TimeUnit.MILLISECONDS.toNanos(250)
+
+        sut.end("card.graphql.tokenization.success")
+
+        verify {
+            braintreeClient.sendAnalyticsEvent(
+                "card.graphql.tokenization.success", 250, "graphql", null
+            )
+        }
+    }
+
+    @Test
+    fun end_sendsAttributes() {
+        val sut = AnalyticsSpan(braintreeClient, null) { nanoTime }
+            .putAttribute("key", "value")
+            .putAttribute("ignored", null)
+
+        sut.end("event")
+
+        val attributesSlot = slot<JSONObject>()
+        verify { braintreeClient.sendAnalyticsEvent("event", 0, null, capture(attributesSlot)) }
+        assertEquals("{\"key\":\"value\"}", attributesSlot.captured.toString())
+    }
+}
@@ -62,15 +62,43 @@ class ApiClientUnitTest {
             .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
             .build()
 
-        val graphQLBodySlot = slot<String>()
-        every { braintreeClient.sendGraphQLPOST(capture(graphQLBodySlot), any()) } returns Unit
+        val graphQLPayloadSlot = slot<JSONObject>()
+        every {
+            braintreeClient.sendGraphQLPOST(
+                GraphQLOperations.TOKENIZE_CREDIT_CARD, capture(graphQLPayloadSlot), any()
+            )
+        } returns Unit
 
         val sut = ApiClient(braintreeClient)
         val card = Card()
-        sut.tokenizeGraphQL(card.buildJSONForGraphQL(), tokenizeCallback)
+        sut.tokenizeGraphQL(
+            GraphQLOperations.TOKENIZE_CREDIT_CARD, card.buildJSONForGraphQL(), tokenizeCallback
+        )
 
         verify(inverse = true) { braintreeClient.sendPOST(any(), any(), any()) }
-        assertEquals(card.buildJSONForGraphQL().toString(), graphQLBodySlot.captured)
+        assertEquals(
+            card.buildJSONForGraphQL().toString(),
+            graphQLPayloadSlot.captured.toString()
+        )
+    }
+
+    @Test
+    @Throws(BraintreeException::class, InvalidArgumentException::class, JSONException::class)
+    fun tokenizeGraphQL_withoutOperation_sendsFullPayload() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLEnabledConfig)
+            .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+            .build()
+
+        val graphQLBodySlot = slot<String>()
+        every { braintreeClient.sendGraphQLPOST(capture(graphQLBodySlot), any()) } returns Unit
+
+        val sut = ApiClient(braintreeClient)
+        val payload = JSONObject().put("query", "mutation Unregistered { field }")
+        sut.tokenizeGraphQL(payload, tokenizeCallback)
+
+        verify(inverse = true) { braintreeClient.sendGraphQLPOST(any<GraphQLOperation>(), any(), any()) }
+        assertEquals(payload.toString(), graphQLBodySlot.captured)
     }
 
     @Test
@@ -81,7 +109,9 @@ class ApiClientUnitTest {
             .build()
         val card = Card()
         val sut = ApiClient(braintreeClient)
-        sut.tokenizeGraphQL(card.buildJSONForGraphQL(), tokenizeCallback)
+        sut.tokenizeGraphQL(
+            GraphQLOperations.TOKENIZE_CREDIT_CARD, card.buildJSONForGraphQL(), tokenizeCallback
+        )
 
         verify { braintreeClient.sendAnalyticsEvent("card.graphql.tokenization.started") }
     }
@@ -110,9 +140,15 @@ class ApiClientUnitTest {
 
         val card = Card()
         val sut = ApiClient(braintreeClient)
-        sut.tokenizeGraphQL(card.buildJSONForGraphQL(), tokenizeCallback)
-
-        verify { braintreeClient.sendAnalyticsEvent("card.graphql.tokenization.success") }
+        sut.tokenizeGraphQL(
+            GraphQLOperations.TOKENIZE_CREDIT_CARD, card.buildJSONForGraphQL(), tokenizeCallback
+        )
+
+        verify {
+            braintreeClient.sendAnalyticsEvent(
+                "card.graphql.tokenization.success", any(), "graphql", null
+            )
+        }
     }
 
     @Test
@@ -124,8 +160,14 @@ class ApiClientUnitTest {
             .build()
         val card = Card()
         val sut = ApiClient(braintreeClient)
-        sut.tokenizeGraphQL(card.buildJSONForGraphQL(), tokenizeCallback)
-        verify { braintreeClient.sendAnalyticsEvent("card.graphql.tokenization.failure") }
+        sut.tokenizeGraphQL(
+            GraphQLOperations.TOKENIZE_CREDIT_CARD, card.buildJSONForGraphQL(), tokenizeCallback
+        )
+        verify {
+            braintreeClient.sendAnalyticsEvent(
+                "card.graphql.tokenization.failure", any(), "graphql", null
+            )
+        }
     }
 
     @Test
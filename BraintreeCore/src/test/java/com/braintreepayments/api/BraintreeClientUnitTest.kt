@@ -30,6 +30,7 @@ class BraintreeClientUnitTest {
     private lateinit var analyticsClient: AnalyticsClient
     private lateinit var manifestValidator: ManifestValidator
     private lateinit var browserSwitchClient: BrowserSwitchClient
+    private lateinit var browserWarmer: BrowserWarmer
 
     @Before
     fun beforeEach() {
@@ -45,6 +46,7 @@ class BraintreeClientUnitTest {
         analyticsClient = mockk(relaxed = true)
         manifestValidator = mockk(relaxed = true)
         browserSwitchClient = mockk(relaxed = true)
+        browserWarmer = mockk(relaxed = true)
 
         every { context.applicationContext } returns applicationContext
         WorkManagerTestInitHelper.initializeTestWorkManager(context)
@@ -270,6 +272,34 @@ class BraintreeClientUnitTest {
         verify { httpResponseCallback.onResult(null, exception) }
     }
 
+    @Test
+    fun sendPOST_withJsonWriter_forwardsRequestToHttpClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val body = JsonWriter()
+
+        sut.sendPOST("sample-url", body, httpResponseCallback)
+        verify {
+            braintreeHttpClient.post(
+                "sample-url",
+                body,
+                configuration,
+                authorization,
+                httpResponseCallback
+            )
+        }
+    }
+
     @Test
     fun sendGraphQLPOST_onGetConfigurationSuccess_forwardsRequestToHttpClient() {
         val authorizationLoader = MockkAuthorizationLoaderBuilder()
@@ -332,6 +362,38 @@ class BraintreeClientUnitTest {
         verify { httpResponseCallback.onResult(null, exception) }
     }
 
+    @Test
+    fun sendGraphQLPOST_withOperation_forwardsOperationToGraphQLClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val payload = JSONObject()
+
+        sut.sendGraphQLPOST(
+            GraphQLOperations.CREATE_VENMO_PAYMENT_CONTEXT,
+            payload,
+            httpResponseCallback
+        )
+        verify {
+            braintreeGraphQLClient.post(
+                GraphQLOperations.CREATE_VENMO_PAYMENT_CONTEXT,
+                payload,
+                configuration,
+                authorization,
+                httpResponseCallback
+            )
+        }
+    }
+
     @Test
     @Throws(JSONException::class)
     fun sendAnalyticsEvent_sendsEventToAnalyticsClient() {
@@ -355,6 +417,37 @@ class BraintreeClientUnitTest {
         }
     }
 
+    @Test
+    @Throws(JSONException::class)
+    fun sendAnalyticsEvent_withSpanData_sendsEventToAnalyticsClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val attributes = JSONObject()
+        sut.sendAnalyticsEvent("event.succeeded", 250, "graphql", attributes)
+
+        verify {
+            analyticsClient.sendEvent(
+                configuration,
+                "event.succeeded",
+                "session-id",
+                "custom",
+                authorization,
+                250,
+                "graphql",
+                attributes
+            )
+        }
+    }
+
     @Test
     fun sendAnalyticsEvent_whenAuthorizationLoadFails_doesNothing() {
         val authorizationLoader = MockkAuthorizationLoaderBuilder()
@@ -416,6 +509,34 @@ class BraintreeClientUnitTest {
         verify { browserSwitchClient.start(activity, browserSwitchOptions) }
     }
 
+    @Test
+    fun warmUpBrowser_forwardsInvocationToBrowserWarmer() {
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        sut.warmUpBrowser()
+        verify { browserWarmer.warmUp(applicationContext) }
+    }
+
+    @Test
+    fun mayLaunchBrowserUrl_forwardsInvocationToBrowserWarmer() {
+        val url = Uri.parse("https://example.com/approval")
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        sut.mayLaunchBrowserUrl(url)
+        verify { browserWarmer.mayLaunchUrl(applicationContext, url) }
+    }
+
+    @Test
+    fun mayLaunchBrowserUrl_whenUrlIsNull_doesNothing() {
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        sut.mayLaunchBrowserUrl(null)
+        verify(exactly = 0) { browserWarmer.mayLaunchUrl(any(), any()) }
+    }
+
     @Test
     fun browserSwitchResult_forwardsInvocationToBrowserSwitchClient() {
         val activity = mockk<FragmentActivity>(relaxed = true)
@@ -670,6 +791,7 @@ class BraintreeClientUnitTest {
             graphQLClient = braintreeGraphQLClient,
             analyticsClient = analyticsClient,
             browserSwitchClient = browserSwitchClient,
+            browserWarmer = browserWarmer,
             manifestValidator = manifestValidator,
             configurationLoader = configurationLoader,
             integrationType = IntegrationType.CUSTOM
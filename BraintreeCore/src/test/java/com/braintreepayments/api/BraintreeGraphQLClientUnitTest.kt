@@ -3,8 +3,11 @@ package com.braintreepayments.api
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.slot
+import io.mockk.verify
 import org.json.JSONException
+import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -139,4 +142,121 @@ class BraintreeGraphQLClientUnitTest {
             assertEquals("token invalid", e.message)
         }
     }
+
+    @Test
+    fun post_withOperation_whenPersistedQueriesAreDisabled_sendsDocument() {
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), any()) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        val payload = JSONObject().put("variables", JSONObject().put("key", "value"))
+        sut.post(OPERATION, payload, configuration, authorization, httpResponseCallback)
+
+        val body = JSONObject(String(httpRequestSlot.captured.data, StandardCharsets.UTF_8))
+        assertEquals(OPERATION.document, body.getString("query"))
+        assertEquals("TestOperation", body.getString("operationName"))
+        assertEquals("value", body.getJSONObject("variables").getString("key"))
+        assertFalse(body.has("extensions"))
+    }
+
+    @Test
+    fun post_withOperation_whenPersistedQueriesAreEnabled_sendsHashOnly() {
+        val configuration =
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val httpRequestSlot = slot<HttpRequest>()
+        val callbackSlot = slot<HttpResponseCallback>()
+        every {
+            httpClient.sendRequest(capture(httpRequestSlot), capture(callbackSlot))
+        } answers { callbackSlot.captured.onResult("response", null) }
+        every { httpResponseCallback.onResult("response", null) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(OPERATION, JSONObject(), configuration, authorization, httpResponseCallback)
+
+        val body = JSONObject(String(httpRequestSlot.captured.data, StandardCharsets.UTF_8))
+        assertFalse(body.has("query"))
+        val persistedQuery = body.getJSONObject("extensions").getJSONObject("persistedQuery")
+        assertEquals(1, persistedQuery.getInt("version"))
+        assertEquals(OPERATION.sha256Hash, persistedQuery.getString("sha256Hash"))
+        verify { httpResponseCallback.onResult("response", null) }
+    }
+
+    @Test
+    fun post_withOperation_whenPersistedQueryIsNotFound_resendsDocumentWithHash() {
+        val configuration =
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val requests = mutableListOf<HttpRequest>()
+        val callbackSlot = slot<HttpResponseCallback>()
+        every {
+            httpClient.sendRequest(capture(requests), capture(callbackSlot))
+        } answers {
+            if (requests.size == 1) {
+                callbackSlot.captured.onResult(null, UnexpectedException("PersistedQueryNotFound"))
+            } else {
+                callbackSlot.captured.onResult("response", null)
+            }
+        }
+        every { httpResponseCallback.onResult("response", null) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(OPERATION, JSONObject(), configuration, authorization, httpResponseCallback)
+
+        assertEquals(2, requests.size)
+        val body = JSONObject(String(requests[1].data, StandardCharsets.UTF_8))
+        assertEquals(OPERATION.document, body.getString("query"))
+        val persistedQuery = body.getJSONObject("extensions").getJSONObject("persistedQuery")
+        assertEquals(OPERATION.sha256Hash, persistedQuery.getString("sha256Hash"))
+        verify(exactly = 1) { httpResponseCallback.onResult("response", null) }
+    }
+
+    @Test
+    fun post_withOperation_whenPersistedQueriesAreNotSupported_stopsSendingHashOnly() {
+        val configuration =
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val requests = mutableListOf<HttpRequest>()
+        val callbackSlot = slot<HttpResponseCallback>()
+        every {
+            httpClient.sendRequest(capture(requests), capture(callbackSlot))
+        } answers {
+            if (requests.size == 1) {
+                val error = UnexpectedException("PersistedQueryNotSupported")
+                callbackSlot.captured.onResult(null, error)
+            } else {
+                callbackSlot.captured.onResult("response", null)
+            }
+        }
+        every { httpResponseCallback.onResult("response", null) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(OPERATION, JSONObject(), configuration, authorization, httpResponseCallback)
+        sut.post(OPERATION, JSONObject(), configuration, authorization, httpResponseCallback)
+
+        assertEquals(3, requests.size)
+        val body = JSONObject(String(requests[2].data, StandardCharsets.UTF_8))
+        assertEquals(OPERATION.document, body.getString("query"))
+        assertFalse(body.has("extensions"))
+    }
+
+    @Test
+    fun post_withOperation_whenRequestFailsForOtherReasons_forwardsError() {
+        val configuration =
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val error = UnexpectedException("An Unexpected Exception Occurred")
+        val callbackSlot = slot<HttpResponseCallback>()
+        every { httpClient.sendRequest(any(), capture(callbackSlot)) } answers {
+            callbackSlot.captured.onResult(null, error)
+        }
+        every { httpResponseCallback.onResult(null, error) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(OPERATION, JSONObject(), configuration, authorization, httpResponseCallback)
+
+        verify(exactly = 1) { httpClient.sendRequest(any(), any()) }
+        verify { httpResponseCallback.onResult(null, error) }
+    }
+
+    companion object {
+        private val OPERATION =
+            GraphQLOperation("TestOperation", "query TestOperation { clientConfiguration { } }")
+    }
 }
@@ -367,4 +367,72 @@ class BraintreeHttpClientUnitTest {
         val exception = exceptionSlot.captured
         assertEquals("token invalid", exception.message)
     }
+
+    @Test
+    @Throws(MalformedURLException::class, URISyntaxException::class)
+    fun postAsync_withJsonWriter_withClientToken_addsAuthorizationFingerprintToBody() {
+        val clientToken = Authorization.fromString(
+            FixturesHelper.base64Encode(Fixtures.CLIENT_TOKEN)
+        ) as ClientToken
+
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val callback = mockk<HttpResponseCallback>()
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), callback) } returns Unit
+
+        val body = JsonWriter().beginObject().field("key", "value").endObject()
+        val sut = BraintreeHttpClient(httpClient)
+        sut.post("sample/path", body, configuration, clientToken, callback)
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(URL("https://example.com/sample/path"), httpRequest.url)
+        val headers = httpRequest.headers
+        assertEquals("braintree/android/" + BuildConfig.VERSION_NAME, headers["User-Agent"])
+        assertEquals("POST", httpRequest.method)
+        assertSame(body, httpRequest.body)
+        assertEquals(
+            """{"key":"value","authorizationFingerprint":"${clientToken.authorizationFingerprint}"}""",
+            String(httpRequest.data, StandardCharsets.UTF_8)
+        )
+    }
+
+    @Test
+    @Throws(MalformedURLException::class, URISyntaxException::class)
+    fun postAsync_withJsonWriter_withTokenizationKey_sendsBodyAsWritten() {
+        val tokenizationKey: Authorization = TokenizationKey(Fixtures.TOKENIZATION_KEY)
+
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val callback = mockk<HttpResponseCallback>()
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), callback) } returns Unit
+
+        val body = JsonWriter().beginObject().field("key", "value").endObject()
+        val sut = BraintreeHttpClient(httpClient)
+        sut.post("sample/path", body, configuration, tokenizationKey, callback)
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(Fixtures.TOKENIZATION_KEY, httpRequest.headers["Client-Key"])
+        assertEquals("""{"key":"value"}""", String(httpRequest.data, StandardCharsets.UTF_8))
+    }
+
+    @Test
+    fun postAsync_withJsonWriter_withNullConfiguration_andRelativeUrl_postsCallbackError() {
+        val tokenizationKey: Authorization = TokenizationKey(Fixtures.TOKENIZATION_KEY)
+
+        val exceptionSlot = slot<BraintreeException>()
+        val callback = mockk<HttpResponseCallback>()
+        every { callback.onResult(null, capture(exceptionSlot)) } returns Unit
+
+        val sut = BraintreeHttpClient(httpClient)
+        sut.post("sample/path", JsonWriter(), null, tokenizationKey, callback)
+
+        assertEquals(
+            "Braintree HTTP POST request without configuration cannot have a relative path.",
+            exceptionSlot.captured.message
+        )
+    }
 }
@@ -0,0 +1,120 @@
+package com.braintreepayments.api
+
+import android.content.ComponentName
+import android.content.Context
+import android.net.Uri
+import androidx.browser.customtabs.CustomTabsClient
+import androidx.browser.customtabs.CustomTabsSession
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.unmockkStatic
+import io.mockk.verify
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class BrowserWarmerUnitTest {
+
+    private lateinit var context: Context
+    private lateinit var client: CustomTabsClient
+    private lateinit var session: CustomTabsSession
+    private lateinit var componentName: ComponentName
+    private lateinit var sut: BrowserWarmer
+
+    @Before
+    fun beforeEach() {
+        context = mockk(relaxed = true)
+        client = mockk(relaxed = true)
+        session = mockk(relaxed = true)
+        componentName = ComponentName("com.example.browser", "CustomTabsService")
+        every { context.applicationContext } returns context
+        every { client.newSession(null) } returns session
+
+        mockkStatic(CustomTabsClient::class)
+        every { CustomTabsClient.getPackageName(context, null) } returns "com.example.browser"
+        every { CustomTabsClient.bindCustomTabsService(any(), any(), any()) } returns true
+
+        sut = BrowserWarmer()
+    }
+
+    @After
+    fun afterEach() {
+        unmockkStatic(CustomTabsClient::class)
+    }
+
+    @Test
+    fun warmUp_bindsCustomTabsServiceOnce() {
+        sut.warmUp(context)
+        sut.warmUp(context)
+
+        verify(exactly = 1) {
+            CustomTabsClient.bindCustomTabsService(context, "com.example.browser", sut.connection)
+        }
+    }
+
+    @Test
+    fun warmUp_whenNoCustomTabsProvider_doesNotBind() {
+        every { CustomTabsClient.getPackageName(context, null) } returns null
+
+        sut.warmUp(context)
+
+        verify(exactly = 0) { CustomTabsClient.bindCustomTabsService(any(), any(), any()) }
+    }
+
+    @Test
+    fun warmUp_whenBindingIsNotAllowed_doesNotThrow() {
+        every {
+            CustomTabsClient.bindCustomTabsService(any(), any(), any())
+        } throws SecurityException()
+
+        sut.warmUp(context)
+    }
+
+    @Test
+    fun onCustomTabsServiceConnected_warmsUpBrowser() {
+        sut.connection.onCustomTabsServiceConnected(componentName, client)
+
+        verify { client.warmup(0) }
+    }
+
+    @Test
+    fun mayLaunchUrl_whenConnected_forwardsUrlToSession() {
+        val url = Uri.parse("https://example.com/approval")
+        sut.warmUp(context)
+        sut.connection.onCustomTabsServiceConnected(componentName, client)
+
+        sut.mayLaunchUrl(context, url)
+
+        verify { session.mayLaunchUrl(url, null, null) }
+    }
+
+    @Test
+    fun mayLaunchUrl_beforeConnected_forwardsLatestUrlOnceConnected() {
+        val firstUrl = Uri.parse("https://example.com/first")
+        val latestUrl = Uri.parse("https://example.com/latest")
+
+        sut.mayLaunchUrl(context, firstUrl)
+        sut.mayLaunchUrl(context, latestUrl)
+        sut.connection.onCustomTabsServiceConnected(componentName, client)
+
+        verify(exactly = 0) { session.mayLaunchUrl(firstUrl, any(), any()) }
+        verify(exactly = 1) { session.mayLaunchUrl(latestUrl, null, null) }
+    }
+
+    @Test
+    fun mayLaunchUrl_afterServiceDisconnected_waitsForReconnection() {
+        val url = Uri.parse("https://example.com/approval")
+        sut.connection.onCustomTabsServiceConnected(componentName, client)
+        sut.connection.onServiceDisconnected(componentName)
+
+        sut.mayLaunchUrl(context, url)
+        verify(exactly = 0) { session.mayLaunchUrl(any(), any(), any()) }
+
+        sut.connection.onCustomTabsServiceConnected(componentName, client)
+        verify(exactly = 1) { session.mayLaunchUrl(url, null, null) }
+    }
+}
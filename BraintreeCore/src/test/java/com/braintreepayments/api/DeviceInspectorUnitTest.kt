@@ -334,4 +334,52 @@ class DeviceInspectorUnitTest {
 
         assertTrue(sut.isVenmoAppSwitchAvailable(context))
     }
+
+    @Test
+    fun isVenmoAppSwitchAvailable_whenVenmoIsNotInstalled_doesNotVerifySignature() {
+        every { appHelper.isIntentAvailable(context, ofType(Intent::class)) } returns false
+
+        sut.isVenmoAppSwitchAvailable(context)
+        verify(exactly = 0) { signatureVerifier.isSignatureValid(any(), any(), any()) }
+    }
+
+    @Test
+    fun isVenmoAppSwitchAvailable_cachesResult() {
+        every { appHelper.isIntentAvailable(context, ofType(Intent::class)) } returns true
+        every {
+            signatureVerifier.isSignatureValid(
+                context,
+                "com.venmo",
+                DeviceInspector.VENMO_BASE_64_ENCODED_SIGNATURE
+            )
+        } returns true
+
+        assertTrue(sut.isVenmoAppSwitchAvailable(context))
+        assertTrue(sut.isVenmoAppSwitchAvailable(context))
+
+        verify(exactly = 1) { appHelper.isIntentAvailable(context, ofType(Intent::class)) }
+        verify(exactly = 1) { signatureVerifier.isSignatureValid(context, "com.venmo", any()) }
+    }
+
+    @Test
+    fun isPayPalInstalled_cachesResult() {
+        every { appHelper.isAppInstalled(context, "com.paypal.android.p2pmobile") } returns true
+
+        assertTrue(sut.isPayPalInstalled(context))
+        assertTrue(sut.isPayPalInstalled(context))
+
+        verify(exactly = 1) { appHelper.isAppInstalled(context, "com.paypal.android.p2pmobile") }
+    }
+
+    @Test
+    fun isVenmoInstalled_whenVenmoIsUpdated_checksAgain() {
+        val packageCheckCache = PackageCheckCache()
+        sut = DeviceInspector(appHelper, uuidHelper, signatureVerifier, packageCheckCache)
+        every { appHelper.isAppInstalled(context, "com.venmo") } returns false
+        assertFalse(sut.isVenmoInstalled(context))
+
+        packageCheckCache.invalidate("com.venmo")
+        every { appHelper.isAppInstalled(context, "com.venmo") } returns true
+        assertTrue(sut.isVenmoInstalled(context))
+    }
 }
@@ -0,0 +1,58 @@
+package com.braintreepayments.api
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.math.BigInteger
+import java.security.MessageDigest
+
+class GraphQLOperationsUnitTest {
+
+    @Test
+    fun sha256Hash_returnsLowercaseHexDigestOfDocument() {
+        val document = GraphQLOperations.CREATE_VENMO_PAYMENT_CONTEXT.document
+        val digest = MessageDigest.getInstance("SHA-256").digest(document.toByteArray())
+        val expected = String.format("%064x", BigInteger(1, digest))
+
+        assertEquals(expected, GraphQLOperations.CREATE_VENMO_PAYMENT_CONTEXT.sha256Hash)
+    }
+
+    @Test
+    fun sha256Hash_forKnownDocument_returnsExpectedHash() {
+        val sut = GraphQLOperation("Test", "abc")
+        assertEquals(
+            "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+            sut.sha256Hash
+        )
+    }
+
+    @Test
+    fun createVenmoPaymentContext_hasExpectedDocument() {
+        val expected = "mutation CreateVenmoPaymentContext(\$input: " +
+            "CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: \$input) " +
+            "{ venmoPaymentContext { id } } }"
+        assertEquals("CreateVenmoPaymentContext",
+            GraphQLOperations.CREATE_VENMO_PAYMENT_CONTEXT.name)
+        assertEquals(expected, GraphQLOperations.CREATE_VENMO_PAYMENT_CONTEXT.document)
+    }
+
+    @Test
+    fun tokenizeCreditCard_declaresOperationName() {
+        val document = GraphQLOperations.TOKENIZE_CREDIT_CARD.document
+        val expectedPrefix = "mutation TokenizeCreditCard(\$input: TokenizeCreditCardInput!)"
+        assertTrue(document.startsWith(expectedPrefix))
+        assertEquals("TokenizeCreditCard", GraphQLOperations.TOKENIZE_CREDIT_CARD.name)
+    }
+
+    @Test
+    fun vaultVenmoPaymentContext_selectsSameFieldsAsPaymentContextQuery() {
+        val paymentContextFields = GraphQLOperations.VENMO_PAYMENT_CONTEXT.document
+            .substringAfter("... on VenmoPaymentContext { ")
+            .removeSuffix(" } } }")
+        val document = GraphQLOperations.VAULT_VENMO_PAYMENT_CONTEXT.document
+
+        assertTrue(document.startsWith("mutation VaultVenmoPaymentContext("))
+        assertTrue(document.contains("venmoPaymentContext { $paymentContextFields } } }"))
+        assertEquals("VaultVenmoPaymentContext", GraphQLOperations.VAULT_VENMO_PAYMENT_CONTEXT.name)
+    }
+}
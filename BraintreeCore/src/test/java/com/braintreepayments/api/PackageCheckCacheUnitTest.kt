@@ -0,0 +1,117 @@
+package com.braintreepayments.api
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import android.content.pm.PackageInfo
+import android.content.pm.PackageManager
+import android.net.Uri
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class PackageCheckCacheUnitTest {
+
+    private lateinit var context: Context
+    private lateinit var packageManager: PackageManager
+    private lateinit var sut: PackageCheckCache
+
+    @Before
+    fun beforeEach() {
+        context = mockk(relaxed = true)
+        packageManager = mockk(relaxed = true)
+        every { context.applicationContext } returns context
+        every { context.packageManager } returns packageManager
+        sut = PackageCheckCache()
+    }
+
+    @Test
+    fun getOrCheck_returnsCachedResultWithoutCheckingAgain() {
+        var checks = 0
+        assertTrue(sut.getOrCheck(context, "com.venmo", "installed") { checks++; true })
+        assertTrue(sut.getOrCheck(context, "com.venmo", "installed") { checks++; false })
+        assertEquals(1, checks)
+    }
+
+    @Test
+    fun getOrCheck_cachesResultsPerPackageAndCheck() {
+        sut.getOrCheck(context, "com.venmo", "installed") { true }
+
+        assertFalse(sut.getOrCheck(context, "com.venmo", "app-switch-available") { false })
+        assertFalse(sut.getOrCheck(context, "com.paypal.android.p2pmobile", "installed") { false })
+    }
+
+    @Test
+    fun getOrCheck_whenPackageChanges_checksAgain() {
+        sut.getOrCheck(context, "com.venmo", "installed") { false }
+
+        val intent = Intent(Intent.ACTION_PACKAGE_ADDED, Uri.parse("package:com.venmo"))
+        sut.packageReceiver.onReceive(context, intent)
+
+        assertTrue(sut.getOrCheck(context, "com.venmo", "installed") { true })
+    }
+
+    @Test
+    fun getOrCheck_whenOtherPackageChanges_returnsCachedResult() {
+        sut.getOrCheck(context, "com.venmo", "installed") { true }
+
+        val intent = Intent(Intent.ACTION_PACKAGE_REMOVED, Uri.parse("package:com.example"))
+        sut.packageReceiver.onReceive(context, intent)
+
+        assertTrue(sut.getOrCheck(context, "com.venmo", "installed") { false })
+    }
+
+    @Test
+    fun getOrCheck_whenPackageChangesDuringCheck_doesNotCacheResult() {
+        sut.getOrCheck(context, "com.venmo", "installed") {
+            sut.invalidate("com.venmo")
+            false
+        }
+
+        assertTrue(sut.getOrCheck(context, "com.venmo", "installed") { true })
+    }
+
+    @Test
+    fun getOrCheck_registersPackageReceiverOnce() {
+        sut.getOrCheck(context, "com.venmo", "installed") { true }
+        sut.getOrCheck(context, "com.paypal.android.p2pmobile", "installed") { true }
+
+        verify(exactly = 1) {
+            context.registerReceiver(sut.packageReceiver, any<IntentFilter>())
+        }
+    }
+
+    @Test
+    fun getOrCheck_whenReceiverCannotBeRegistered_reusesResultUntilLastUpdateTimeChanges() {
+        every {
+            context.registerReceiver(any<BroadcastReceiver>(), any<IntentFilter>())
+        } throws SecurityException()
+        val packageInfo = PackageInfo().apply { lastUpdateTime = 1000 }
+        every { packageManager.getPackageInfo("com.venmo", 0) } returns packageInfo
+
+        var checks = 0
+        sut.getOrCheck(context, "com.venmo", "installed") { checks++; true }
+        sut.getOrCheck(context, "com.venmo", "installed") { checks++; true }
+        assertEquals(1, checks)
+
+        packageInfo.lastUpdateTime = 2000
+        assertFalse(sut.getOrCheck(context, "com.venmo", "installed") { checks++; false })
+        assertEquals(2, checks)
+    }
+
+    @Test
+    fun getOrCheck_whenContextIsNull_doesNotCacheResult() {
+        sut.getOrCheck(null, "com.venmo", "installed") { true }
+
+        assertFalse(sut.getOrCheck(null, "com.venmo", "installed") { false })
+    }
+}
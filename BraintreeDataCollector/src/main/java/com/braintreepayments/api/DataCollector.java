@@ -19,6 +19,7 @@ public class DataCollector {
 
     private final BraintreeClient braintreeClient;
     private final PayPalDataCollector payPalDataCollector;
+    private final Scheduler scheduler;
 
     public DataCollector(@NonNull BraintreeClient braintreeClient) {
         this(braintreeClient, new PayPalDataCollector(braintreeClient));
@@ -26,8 +27,14 @@ public class DataCollector {
 
     @VisibleForTesting
     DataCollector(BraintreeClient braintreeClient, PayPalDataCollector payPalDataCollector) {
+        this(braintreeClient, payPalDataCollector, new ThreadScheduler());
+    }
+
+    @VisibleForTesting
+    DataCollector(BraintreeClient braintreeClient, PayPalDataCollector payPalDataCollector, Scheduler scheduler) {
         this.braintreeClient = braintreeClient;
         this.payPalDataCollector = payPalDataCollector;
+        this.scheduler = scheduler;
     }
 
     /**
@@ -58,17 +65,27 @@ public class DataCollector {
         final Context appContext = context.getApplicationContext();
         braintreeClient.getConfiguration(new ConfigurationCallback() {
             @Override
-            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+            public void onResult(@Nullable final Configuration configuration, @Nullable Exception error) {
                 if (configuration != null) {
-                    final JSONObject deviceData = new JSONObject();
-                    try {
-                        String clientMetadataId = getPayPalClientMetadataId(appContext, configuration);
-                        if (!TextUtils.isEmpty(clientMetadataId)) {
-                            deviceData.put(CORRELATION_ID_KEY, clientMetadataId);
+                    scheduler.runOnBackground(new Runnable() {
+                        @Override
+                        public void run() {
+                            final JSONObject deviceData = new JSONObject();
+                            try {
+                                String clientMetadataId = getPayPalClientMetadataId(appContext, configuration);
+                                if (!TextUtils.isEmpty(clientMetadataId)) {
+                                    deviceData.put(CORRELATION_ID_KEY, clientMetadataId);
+                                }
+                            } catch (JSONException ignored) {
+                            }
+                            scheduler.runOnMain(new Runnable() {
+                                @Override
+                                public void run() {
+                                    callback.onResult(deviceData.toString(), null);
+                                }
+                            });
                         }
-                    } catch (JSONException ignored) {
-                    }
-                    callback.onResult(deviceData.toString(), null);
+                    });
                 } else {
                     callback.onResult(null, error);
                 }
@@ -1,8 +1,10 @@
 package com.braintreepayments.api;
 
 import static junit.framework.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,7 +49,7 @@ public class DataCollectorUnitTest {
                 .build();
 
         DataCollector sut = new DataCollector(
-                braintreeClient, payPalDataCollector);
+                braintreeClient, payPalDataCollector, new ImmediateScheduler());
 
         DataCollectorCallback callback = mock(DataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -64,7 +66,7 @@ public class DataCollectorUnitTest {
                 .build();
 
         DataCollector sut = new DataCollector(
-                braintreeClient, payPalDataCollector);
+                braintreeClient, payPalDataCollector, new ImmediateScheduler());
 
         DataCollectorCallback callback = mock(DataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -76,4 +78,34 @@ public class DataCollectorUnitTest {
         JSONObject json = new JSONObject(deviceData);
         assertEquals("sample_correlation_id", json.getString("correlation_id"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void collectDeviceData_collectsOnBackgroundThreadAndNotifiesOnMainThread() {
+        when(payPalDataCollector.getClientMetadataId(context, configuration)).thenReturn("sample_correlation_id");
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+
+        Scheduler scheduler = mock(Scheduler.class);
+        DataCollector sut = new DataCollector(braintreeClient, payPalDataCollector, scheduler);
+
+        DataCollectorCallback callback = mock(DataCollectorCallback.class);
+        sut.collectDeviceData(context, callback);
+
+        verify(payPalDataCollector, never()).getClientMetadataId(any(Context.class), any(Configuration.class));
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnBackground(backgroundCaptor.capture());
+        backgroundCaptor.getValue().run();
+
+        verify(payPalDataCollector).getClientMetadataId(context, configuration);
+        verify(callback, never()).onResult(any(String.class), (Exception) isNull());
+
+        ArgumentCaptor<Runnable> mainCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnMain(mainCaptor.capture());
+        mainCaptor.getValue().run();
+
+        verify(callback).onResult(any(String.class), (Exception) isNull());
+    }
+}
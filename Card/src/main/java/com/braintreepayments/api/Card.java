@@ -12,6 +12,8 @@ import com.braintreepayments.api.GraphQLConstants.Keys;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.List;
+
 /**
  * Use to construct a card tokenization request.
  */
@@ -30,26 +32,72 @@ public class Card extends BaseCard implements Parcelable {
 
     JSONObject buildJSONForGraphQL() throws BraintreeException, JSONException {
         JSONObject base = new JSONObject();
-        JSONObject input = new JSONObject();
         JSONObject variables = new JSONObject();
 
         base.put(GRAPHQL_CLIENT_SDK_METADATA_KEY, buildMetadataJSON());
+        variables.put(Keys.INPUT, buildGraphQLInput());
 
-        JSONObject optionsJson = new JSONObject();
-        optionsJson.put(VALIDATE_KEY, shouldValidate);
-        input.put(OPTIONS_KEY, optionsJson);
-        variables.put(Keys.INPUT, input);
-
-        if (TextUtils.isEmpty(merchantAccountId) && authenticationInsightRequested) {
-            throw new BraintreeException("A merchant account ID is required when authenticationInsightRequested is true.");
+        if (authenticationInsightRequested) {
+            variables.put(AUTHENTICATION_INSIGHT_INPUT_KEY, buildAuthenticationInsightInput());
         }
 
-        if (authenticationInsightRequested) {
-            variables.put(AUTHENTICATION_INSIGHT_INPUT_KEY, new JSONObject().put(MERCHANT_ACCOUNT_ID_KEY, merchantAccountId));
+        GraphQLOperation operation = getCardTokenizationGraphQLOperation();
+        base.put(Keys.QUERY, operation.getDocument());
+        base.put(OPERATION_NAME_KEY, operation.getName());
+        base.put(Keys.VARIABLES, variables);
+
+        return base;
+    }
+
+    /**
+     * Builds a single GraphQL request that tokenizes every card in {@code cards}. Each card is
+     * tokenized by its own aliased {@code tokenizeCreditCard} field; use
+     * {@link #getBatchTokenizationAlias(int)} to find a card's result in the response data.
+     */
+    static JSONObject buildBatchJSONForGraphQL(List<Card> cards) throws BraintreeException, JSONException {
+        StringBuilder variableDefinitions = new StringBuilder();
+        StringBuilder fields = new StringBuilder();
+        JSONObject variables = new JSONObject();
+
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            String inputVariable = Keys.INPUT + i;
+            variables.put(inputVariable, card.buildGraphQLInput());
+            if (i > 0) {
+                variableDefinitions.append(", ");
+            }
+            variableDefinitions.append("$").append(inputVariable).append(": TokenizeCreditCardInput!");
+
+            String authenticationInsightVariable = null;
+            if (card.authenticationInsightRequested) {
+                authenticationInsightVariable = AUTHENTICATION_INSIGHT_INPUT_KEY + i;
+                variables.put(authenticationInsightVariable, card.buildAuthenticationInsightInput());
+                variableDefinitions.append(", $").append(authenticationInsightVariable)
+                        .append(": AuthenticationInsightInput!");
+            }
+            appendTokenizeCreditCardField(fields, getBatchTokenizationAlias(i), inputVariable,
+                    authenticationInsightVariable);
         }
 
-        base.put(Keys.QUERY, getCardTokenizationGraphQLMutation());
-        base.put(OPERATION_NAME_KEY, "TokenizeCreditCard");
+        JSONObject base = new JSONObject();
+        // all cards in a batch are tokenized in the same session, so the first card's metadata applies
+        base.put(GRAPHQL_CLIENT_SDK_METADATA_KEY, cards.get(0).buildMetadataJSON());
+        base.put(Keys.QUERY, "mutation TokenizeCreditCards(" + variableDefinitions + ") {" + fields + "}");
+        base.put(OPERATION_NAME_KEY, "TokenizeCreditCards");
+        base.put(Keys.VARIABLES, variables);
+        return base;
+    }
+
+    static String getBatchTokenizationAlias(int index) {
+        return "card" + index;
+    }
+
+    private JSONObject buildGraphQLInput() throws JSONException {
+        JSONObject input = new JSONObject();
+
+        JSONObject optionsJson = new JSONObject();
+        optionsJson.put(VALIDATE_KEY, shouldValidate);
+        input.put(OPTIONS_KEY, optionsJson);
 
         JSONObject creditCard = new JSONObject()
                 .put(NUMBER_KEY, getNumber())
@@ -74,9 +122,14 @@ public class Card extends BaseCard implements Parcelable {
         }
 
         input.put(CREDIT_CARD_KEY, creditCard);
-        base.put(Keys.VARIABLES, variables);
+        return input;
+    }
 
-        return base;
+    private JSONObject buildAuthenticationInsightInput() throws BraintreeException, JSONException {
+        if (TextUtils.isEmpty(merchantAccountId)) {
+            throw new BraintreeException("A merchant account ID is required when authenticationInsightRequested is true.");
+        }
+        return new JSONObject().put(MERCHANT_ACCOUNT_ID_KEY, merchantAccountId);
     }
 
     public Card() {
@@ -175,48 +228,27 @@ public class Card extends BaseCard implements Parcelable {
         }
     };
 
-    private String getCardTokenizationGraphQLMutation() {
-        StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append("mutation TokenizeCreditCard($input: TokenizeCreditCardInput!");
-
-        if (authenticationInsightRequested) {
-            stringBuilder.append(", $authenticationInsightInput: AuthenticationInsightInput!");
-        }
+    /**
+     * @return the registered operation of the document built by {@link #buildJSONForGraphQL()}
+     */
+    GraphQLOperation getCardTokenizationGraphQLOperation() {
+        return authenticationInsightRequested
+                ? GraphQLOperations.TOKENIZE_CREDIT_CARD_WITH_AUTHENTICATION_INSIGHT
+                : GraphQLOperations.TOKENIZE_CREDIT_CARD;
+    }
 
-        stringBuilder.append(") {" +
-                "  tokenizeCreditCard(input: $input) {" +
-                "    token" +
-                "    creditCard {" +
-                "      bin" +
-                "      brand" +
-                "      expirationMonth" +
-                "      expirationYear" +
-                "      cardholderName" +
-                "      last4" +
-                "      binData {" +
-                "        prepaid" +
-                "        healthcare" +
-                "        debit" +
-                "        durbinRegulated" +
-                "        commercial" +
-                "        payroll" +
-                "        issuingBank" +
-                "        countryOfIssuance" +
-                "        productId" +
-                "      }" +
-                "    }");
+    private static void appendTokenizeCreditCardField(StringBuilder stringBuilder, String alias,
+                                                      String inputVariable,
+                                                      @Nullable String authenticationInsightVariable) {
+        stringBuilder.append("  ").append(alias).append(": ")
+                .append("tokenizeCreditCard(input: $").append(inputVariable).append(") {")
+                .append(GraphQLOperations.TOKENIZE_CREDIT_CARD_FIELDS);
 
-        if (authenticationInsightRequested) {
-            stringBuilder.append("" +
-                    "    authenticationInsight(input: $authenticationInsightInput) {" +
-                    "      customerAuthenticationRegulationEnvironment" +
-                    "    }");
+        if (authenticationInsightVariable != null) {
+            stringBuilder.append("    authenticationInsight(input: $").append(authenticationInsightVariable).append(") {")
+                    .append(GraphQLOperations.AUTHENTICATION_INSIGHT_FIELDS);
         }
 
-        stringBuilder.append("" +
-                "  }" +
-                "}");
-
-        return stringBuilder.toString();
+        stringBuilder.append("  }");
     }
 }
@@ -0,0 +1,101 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Decimal trie mapping BIN prefixes to {@link CardBrand}s. Each BIN range is stored as the
+ * smallest set of prefixes that covers it, and lookups return the brand of the longest matching
+ * prefix, so a narrower range (e.g. Discover's 622126-622925) takes precedence over a broader one
+ * (e.g. UnionPay's 62).
+ */
+class CardBinTrie {
+
+    private static final CardBinTrie DEFAULT = new CardBinTrie(CardBrand.values());
+
+    private final Node root = new Node();
+
+    CardBinTrie(CardBrand[] brands) {
+        for (CardBrand brand : brands) {
+            for (String range : brand.getBinRanges()) {
+                int separator = range.indexOf('-');
+                if (separator < 0) {
+                    insertRange(root, range, range, 0, true, true, brand);
+                } else {
+                    String low = range.substring(0, separator);
+                    String high = range.substring(separator + 1);
+                    if (low.length() != high.length()) {
+                        throw new IllegalArgumentException("BIN range bounds must have the same length: " + range);
+                    }
+                    insertRange(root, low, high, 0, true, true, brand);
+                }
+            }
+        }
+    }
+
+    static CardBinTrie getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param cardNumber a card number, or a prefix of one, containing only digits
+     * @return the brand of the longest BIN prefix matching {@code cardNumber}, or {@code null}
+     */
+    @Nullable
+    CardBrand lookup(@Nullable String cardNumber) {
+        if (cardNumber == null) {
+            return null;
+        }
+        CardBrand brand = null;
+        Node node = root;
+        for (int i = 0; i < cardNumber.length(); i++) {
+            int digit = cardNumber.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || node.children[digit] == null) {
+                break;
+            }
+            node = node.children[digit];
+            if (node.brand != null) {
+                brand = node.brand;
+            }
+        }
+        return brand;
+    }
+
+    /**
+     * Insert the prefixes between {@code low} and {@code high} below {@code node}. A child whose
+     * whole subtree lies inside the range is marked directly instead of being expanded.
+     */
+    private static void insertRange(Node node, String low, String high, int depth,
+                                    boolean onLowBound, boolean onHighBound, CardBrand brand) {
+        int first = onLowBound ? low.charAt(depth) - '0' : 0;
+        int last = onHighBound ? high.charAt(depth) - '0' : 9;
+        boolean isLastDigit = depth == low.length() - 1;
+        for (int digit = first; digit <= last; digit++) {
+            if (node.children[digit] == null) {
+                node.children[digit] = new Node();
+            }
+            Node child = node.children[digit];
+            boolean childOnLowBound = onLowBound && digit == first && !isRestAll(low, depth + 1, '0');
+            boolean childOnHighBound = onHighBound && digit == last && !isRestAll(high, depth + 1, '9');
+            if (isLastDigit || (!childOnLowBound && !childOnHighBound)) {
+                child.brand = brand;
+            } else {
+                insertRange(child, low, high, depth + 1, childOnLowBound, childOnHighBound, brand);
+            }
+        }
+    }
+
+    private static boolean isRestAll(String bound, int start, char digit) {
+        for (int i = start; i < bound.length(); i++) {
+            if (bound.charAt(i) != digit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Node {
+
+        private final Node[] children = new Node[10];
+        private CardBrand brand;
+    }
+}
@@ -0,0 +1,67 @@
+package com.braintreepayments.api;
+
+/**
+ * Card brands recognized by {@link CardValidator}, with the BIN ranges, card number lengths and
+ * CVV length the gateway accepts for each brand, and whether its card numbers must pass the Luhn
+ * check.
+ */
+enum CardBrand {
+
+    VISA("Visa", new String[]{"4"}, new int[]{13, 16, 18, 19}, 3, true),
+    MASTERCARD("MasterCard", new String[]{"51-55", "2221-2720"}, new int[]{16}, 3, true),
+    AMERICAN_EXPRESS("American Express", new String[]{"34", "37"}, new int[]{15}, 4, true),
+    DISCOVER("Discover", new String[]{"6011", "644-649", "65", "622126-622925"},
+            new int[]{16, 17, 18, 19}, 3, true),
+    JCB("JCB", new String[]{"3528-3589"}, new int[]{16, 17, 18, 19}, 3, true),
+    DINERS_CLUB("Diners Club", new String[]{"300-305", "309", "36", "38-39"},
+            new int[]{14, 15, 16, 17, 18, 19}, 3, true),
+    MAESTRO("Maestro", new String[]{"50", "56-59", "6304", "6390", "67"},
+            new int[]{12, 13, 14, 15, 16, 17, 18, 19}, 3, true),
+    // UnionPay card numbers are not required to pass the Luhn check
+    UNIONPAY("UnionPay", new String[]{"62", "81"}, new int[]{16, 17, 18, 19}, 3, false);
+
+    private final String displayName;
+    private final String[] binRanges;
+    private final int[] lengths;
+    private final int cvvLength;
+    private final boolean luhnRequired;
+
+    CardBrand(String displayName, String[] binRanges, int[] lengths, int cvvLength, boolean luhnRequired) {
+        this.displayName = displayName;
+        this.binRanges = binRanges;
+        this.lengths = lengths;
+        this.cvvLength = cvvLength;
+        this.luhnRequired = luhnRequired;
+    }
+
+    /**
+     * @return the brand name used by the gateway, e.g. "American Express"
+     */
+    String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return BIN prefixes and inclusive prefix ranges, e.g. "4" or "51-55"
+     */
+    String[] getBinRanges() {
+        return binRanges;
+    }
+
+    int getCvvLength() {
+        return cvvLength;
+    }
+
+    boolean isLuhnRequired() {
+        return luhnRequired;
+    }
+
+    boolean isValidLength(int length) {
+        for (int validLength : lengths) {
+            if (validLength == length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,14 +7,25 @@ import androidx.annotation.VisibleForTesting;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Used to tokenize credit or debit cards using a {@link Card}. For more information see the
  * <a href="https://developer.paypal.com/braintree/docs/guides/credit-cards/overview">documentation</a>
  */
 public class CardClient {
 
+    // limits the number of concurrent requests when cards are tokenized one request per card
+    private static final int MAX_CONCURRENT_TOKENIZE_REQUESTS = 4;
+
     private final BraintreeClient braintreeClient;
     private final ApiClient apiClient;
+    private final CardValidator cardValidator = new CardValidator();
+
+    private boolean localValidationEnabled = false;
 
     public CardClient(@NonNull BraintreeClient braintreeClient) {
         this(braintreeClient, new ApiClient(braintreeClient));
@@ -26,6 +37,21 @@ public class CardClient {
         this.apiClient = apiClient;
     }
 
+    /**
+     * Validate cards on the device before tokenizing them with
+     * {@link CardClient#tokenize(Card, CardTokenizeCallback)}.
+     * <p>
+     * When enabled, a card with an invalid number, CVV or expiration date fails with an
+     * {@link ErrorWithResponse} built by {@link CardValidator}, without a request being made.
+     * The error has the REST field error shape even if cards are tokenized through GraphQL.
+     * Defaults to false.
+     *
+     * @param enabled whether cards are validated before being tokenized
+     */
+    public void setLocalValidationEnabled(boolean enabled) {
+        localValidationEnabled = enabled;
+    }
+
     /**
      * Create a {@link CardNonce}.
      * <p>
@@ -37,7 +63,9 @@ public class CardClient {
      *
      * <p>
      * If creation fails validation, the {@link CardTokenizeCallback#onResult(CardNonce, Exception)}
-     * method will be invoked with an {@link ErrorWithResponse} exception.
+     * method will be invoked with an {@link ErrorWithResponse} exception. See
+     * {@link CardClient#setLocalValidationEnabled(boolean)} to validate cards before any request
+     * is made.
      *
      * <p>
      * If an error not due to validation (server error, network issue, etc.) occurs, the
@@ -47,6 +75,15 @@ public class CardClient {
      * @param callback {@link CardTokenizeCallback}
      */
     public void tokenize(@NonNull final Card card, @NonNull final CardTokenizeCallback callback) {
+        if (localValidationEnabled) {
+            ErrorWithResponse validationError = cardValidator.validate(card);
+            if (validationError != null) {
+                callback.onResult(null, validationError);
+                braintreeClient.sendAnalyticsEvent("card.local-validation.failed");
+                return;
+            }
+        }
+
         braintreeClient.getConfiguration(new ConfigurationCallback() {
             @Override
             public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
@@ -62,7 +99,8 @@ public class CardClient {
                     card.setSessionId(braintreeClient.getSessionId());
                     try {
                         JSONObject tokenizePayload = card.buildJSONForGraphQL();
-                        apiClient.tokenizeGraphQL(tokenizePayload, new TokenizeCallback() {
+                        apiClient.tokenizeGraphQL(card.getCardTokenizationGraphQLOperation(),
+                                tokenizePayload, new TokenizeCallback() {
                             @Override
                             public void onResult(JSONObject tokenizationResponse, Exception exception) {
                                 handleTokenizeResponse(tokenizationResponse, exception, callback);
@@ -83,6 +121,156 @@ public class CardClient {
         });
     }
 
+    /**
+     * Create a {@link CardNonce} for each card in {@code cards}.
+     * <p>
+     * When GraphQL tokenization is enabled, all cards are tokenized with a single request. If the
+     * batch request fails validation, each card is retried on its own so that the validation
+     * errors can be attributed to the card that caused them. Otherwise, cards are tokenized with
+     * one REST request per card, a few at a time.
+     *
+     * <p>
+     * On completion, the {@link CardTokenizeAllCallback#onResult(List, Exception)} method will be
+     * invoked with a {@link CardTokenizeResult} for each card, in the same order as {@code cards}.
+     * Each result holds either a {@link CardNonce} or the error that occurred while tokenizing
+     * that card.
+     *
+     * <p>
+     * If the configuration cannot be fetched, the
+     * {@link CardTokenizeAllCallback#onResult(List, Exception)} method will be invoked with an
+     * {@link Exception} describing the error.
+     *
+     * @param cards the cards to tokenize
+     * @param callback {@link CardTokenizeAllCallback}
+     */
+    public void tokenizeAll(@NonNull final List<Card> cards, @NonNull final CardTokenizeAllCallback callback) {
+        if (cards.isEmpty()) {
+            callback.onResult(Collections.<CardTokenizeResult>emptyList(), null);
+            return;
+        }
+
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (error != null) {
+                    callback.onResult(null, error);
+                    return;
+                }
+
+                boolean shouldTokenizeViaGraphQL =
+                    configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.TOKENIZE_CREDIT_CARDS);
+
+                TokenizeAllResults results = new TokenizeAllResults(cards.size(), callback);
+                if (shouldTokenizeViaGraphQL) {
+                    tokenizeBatchViaGraphQL(cards, results);
+                } else {
+                    tokenizeEach(cards, 0, false, results);
+                }
+            }
+        });
+    }
+
+    private void tokenizeBatchViaGraphQL(final List<Card> cards, final TokenizeAllResults results) {
+        JSONObject tokenizePayload;
+        try {
+            for (Card card : cards) {
+                card.setSessionId(braintreeClient.getSessionId());
+            }
+            tokenizePayload = Card.buildBatchJSONForGraphQL(cards);
+        } catch (BraintreeException | JSONException e) {
+            // a card is invalid; tokenize individually to report the error on that card only
+            tokenizeEach(cards, 0, true, results);
+            return;
+        }
+
+        apiClient.tokenizeGraphQL(tokenizePayload, new TokenizeCallback() {
+            @Override
+            public void onResult(JSONObject tokenizationResponse, Exception exception) {
+                if (exception instanceof ErrorWithResponse) {
+                    // GraphQL rejects the whole document if any card fails validation
+                    tokenizeEach(cards, 0, true, results);
+                    return;
+                }
+
+                for (int i = 0; i < cards.size(); i++) {
+                    JSONObject cardResponse = null;
+                    if (tokenizationResponse != null) {
+                        cardResponse = getBatchTokenizationResponse(tokenizationResponse, i);
+                    }
+                    Exception cardError = exception;
+                    if (cardResponse == null && cardError == null) {
+                        cardError = new BraintreeException("Missing tokenization result for card at index " + i);
+                    }
+                    results.set(i, parseTokenizeResponse(cardResponse, cardError));
+                }
+            }
+        });
+    }
+
+    /**
+     * Tokenize cards one request per card, starting a new group of
+     * {@link #MAX_CONCURRENT_TOKENIZE_REQUESTS} requests when the previous group completes.
+     */
+    private void tokenizeEach(final List<Card> cards, int start, final boolean viaGraphQL,
+                              final TokenizeAllResults results) {
+        final int end = Math.min(start + MAX_CONCURRENT_TOKENIZE_REQUESTS, cards.size());
+        final AtomicInteger pending = new AtomicInteger(end - start);
+        for (int i = start; i < end; i++) {
+            final int index = i;
+            TokenizeCallback tokenizeCallback = new TokenizeCallback() {
+                @Override
+                public void onResult(JSONObject tokenizationResponse, Exception exception) {
+                    results.set(index, parseTokenizeResponse(tokenizationResponse, exception));
+                    if (pending.decrementAndGet() == 0 && end < cards.size()) {
+                        tokenizeEach(cards, end, viaGraphQL, results);
+                    }
+                }
+            };
+
+            Card card = cards.get(index);
+            if (viaGraphQL) {
+                card.setSessionId(braintreeClient.getSessionId());
+                try {
+                    apiClient.tokenizeGraphQL(card.getCardTokenizationGraphQLOperation(),
+                            card.buildJSONForGraphQL(), tokenizeCallback);
+                } catch (BraintreeException | JSONException e) {
+                    tokenizeCallback.onResult(null, e);
+                }
+            } else {
+                apiClient.tokenizeREST(card, tokenizeCallback);
+            }
+        }
+    }
+
+    @Nullable
+    private static JSONObject getBatchTokenizationResponse(JSONObject tokenizationResponse, int index) {
+        JSONObject data = tokenizationResponse.optJSONObject("data");
+        JSONObject payload = data != null ? data.optJSONObject(Card.getBatchTokenizationAlias(index)) : null;
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return new JSONObject().put("data", new JSONObject().put("tokenizeCreditCard", payload));
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    private CardTokenizeResult parseTokenizeResponse(JSONObject tokenizationResponse, Exception exception) {
+        if (tokenizationResponse != null) {
+            try {
+                CardNonce cardNonce = CardNonce.fromJSON(tokenizationResponse);
+                braintreeClient.sendAnalyticsEvent("card.nonce-received");
+                return new CardTokenizeResult(cardNonce, null);
+            } catch (JSONException e) {
+                braintreeClient.sendAnalyticsEvent("card.nonce-failed");
+                return new CardTokenizeResult(null, e);
+            }
+        }
+        braintreeClient.sendAnalyticsEvent("card.nonce-failed");
+        return new CardTokenizeResult(null, exception);
+    }
+
     private void handleTokenizeResponse(JSONObject tokenizationResponse, Exception exception, CardTokenizeCallback callback) {
         if (tokenizationResponse != null) {
             try {
@@ -100,4 +288,31 @@ public class CardClient {
             braintreeClient.sendAnalyticsEvent("card.nonce-failed");
         }
     }
+
+    /**
+     * Collects per-card results and notifies the callback once every card has a result.
+     */
+    private static class TokenizeAllResults {
+
+        private final CardTokenizeResult[] results;
+        private final CardTokenizeAllCallback callback;
+        private int remaining;
+
+        TokenizeAllResults(int count, CardTokenizeAllCallback callback) {
+            this.results = new CardTokenizeResult[count];
+            this.callback = callback;
+            this.remaining = count;
+        }
+
+        void set(int index, CardTokenizeResult result) {
+            boolean isComplete;
+            synchronized (this) {
+                results[index] = result;
+                isComplete = --remaining == 0;
+            }
+            if (isComplete) {
+                callback.onResult(Arrays.asList(results), null);
+            }
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Callback for receiving result of {@link CardClient#tokenizeAll(List, CardTokenizeAllCallback)}.
+ */
+public interface CardTokenizeAllCallback {
+
+    /**
+     * @param results a {@link CardTokenizeResult} for each card, in the order the cards were given
+     * @param error an exception that prevented any card from being tokenized
+     */
+    void onResult(@Nullable List<CardTokenizeResult> results, @Nullable Exception error);
+}
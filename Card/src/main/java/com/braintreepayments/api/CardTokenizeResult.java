@@ -0,0 +1,34 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+/**
+ * The outcome of tokenizing a single card with
+ * {@link CardClient#tokenizeAll(java.util.List, CardTokenizeAllCallback)}.
+ */
+public class CardTokenizeResult {
+
+    private final CardNonce cardNonce;
+    private final Exception error;
+
+    CardTokenizeResult(@Nullable CardNonce cardNonce, @Nullable Exception error) {
+        this.cardNonce = cardNonce;
+        this.error = error;
+    }
+
+    /**
+     * @return the {@link CardNonce} for the card, or {@code null} if tokenization failed
+     */
+    @Nullable
+    public CardNonce getCardNonce() {
+        return cardNonce;
+    }
+
+    /**
+     * @return the error that occurred while tokenizing the card, or {@code null} on success
+     */
+    @Nullable
+    public Exception getError() {
+        return error;
+    }
+}
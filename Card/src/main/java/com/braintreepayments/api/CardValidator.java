@@ -0,0 +1,207 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Validates the number, CVV and expiration date of a card on the device, so that typos can be
+ * reported without a round trip to the gateway. Validation errors are returned as an
+ * {@link ErrorWithResponse} with the same fields, codes and messages the gateway returns for a
+ * card that fails validation.
+ * <p>
+ * The error always has the shape of a REST (Client API) 422 response, even when the merchant's
+ * configuration tokenizes cards through GraphQL, whose validation errors are shaped differently.
+ * <p>
+ * Only errors the gateway is known to return are checked, so a card that passes validation may
+ * still be rejected by the gateway. Expired cards are not rejected, since the gateway tokenizes
+ * them.
+ */
+public class CardValidator {
+
+    static final String NUMBER_REQUIRED_CODE = "81714";
+    static final String NUMBER_INVALID_CODE = "81715";
+    static final String NUMBER_LENGTH_CODE = "81716";
+    static final String CVV_LENGTH_CODE = "81707";
+    static final String EXPIRATION_MONTH_INVALID_CODE = "81712";
+    static final String EXPIRATION_YEAR_INVALID_CODE = "81713";
+
+    private static final int UNPROCESSABLE_ENTITY = 422;
+    private static final int MIN_NUMBER_LENGTH = 12;
+    private static final int MAX_NUMBER_LENGTH = 19;
+
+    private static final String CREDIT_CARD_FIELD = "creditCard";
+    private static final String NUMBER_FIELD = "number";
+    private static final String CVV_FIELD = "cvv";
+    private static final String EXPIRATION_MONTH_FIELD = "expirationMonth";
+    private static final String EXPIRATION_YEAR_FIELD = "expirationYear";
+
+    private final CardBinTrie binTrie;
+
+    public CardValidator() {
+        this(CardBinTrie.getDefault());
+    }
+
+    @VisibleForTesting
+    CardValidator(CardBinTrie binTrie) {
+        this.binTrie = binTrie;
+    }
+
+    /**
+     * Validate a card's number, CVV and expiration date. Spaces and dashes in the card number are
+     * ignored.
+     *
+     * @param card the card to validate
+     * @return an {@link ErrorWithResponse} describing each invalid field, or {@code null} if the
+     * card is valid
+     */
+    @Nullable
+    public ErrorWithResponse validate(@NonNull BaseCard card) {
+        JSONArray fieldErrors = new JSONArray();
+
+        String number = stripSeparators(card.getNumber());
+        CardBrand brand = null;
+        if (number == null || number.isEmpty()) {
+            addFieldError(fieldErrors, NUMBER_FIELD, "Credit card number is required.", NUMBER_REQUIRED_CODE);
+        } else if (!isDigits(number)) {
+            addFieldError(fieldErrors, NUMBER_FIELD, "Credit card number is invalid.", NUMBER_INVALID_CODE);
+        } else if (number.length() < MIN_NUMBER_LENGTH || number.length() > MAX_NUMBER_LENGTH) {
+            addFieldError(fieldErrors, NUMBER_FIELD, "Credit card number must be 12-19 digits.", NUMBER_LENGTH_CODE);
+        } else {
+            brand = binTrie.lookup(number);
+            boolean isValidBrandLength = brand == null || brand.isValidLength(number.length());
+            boolean isLuhnRequired = brand == null || brand.isLuhnRequired();
+            if (!isValidBrandLength || (isLuhnRequired && !isLuhnValid(number))) {
+                addFieldError(fieldErrors, NUMBER_FIELD, "Credit card number is invalid.", NUMBER_INVALID_CODE);
+            }
+        }
+
+        String cvv = card.getCvv();
+        if (cvv != null && !cvv.isEmpty() && !isValidCvv(cvv, brand)) {
+            addFieldError(fieldErrors, CVV_FIELD,
+                    "CVV must be 4 digits for American Express and 3 digits for other card types.",
+                    CVV_LENGTH_CODE);
+        }
+
+        validateExpiration(card.getExpirationMonth(), card.getExpirationYear(), fieldErrors);
+
+        if (fieldErrors.length() == 0) {
+            return null;
+        }
+        return buildError(fieldErrors);
+    }
+
+    private static void validateExpiration(String month, String year, JSONArray fieldErrors) {
+        if (month != null && !month.isEmpty() && parseMonth(month) == 0) {
+            addFieldError(fieldErrors, EXPIRATION_MONTH_FIELD, "Expiration month is invalid.",
+                    EXPIRATION_MONTH_INVALID_CODE);
+        }
+        if (year != null && !year.isEmpty() && parseYear(year) == 0) {
+            addFieldError(fieldErrors, EXPIRATION_YEAR_FIELD, "Expiration year is invalid.",
+                    EXPIRATION_YEAR_INVALID_CODE);
+        }
+    }
+
+    /**
+     * @return the month, or 0 if {@code month} is not a month between 1 and 12
+     */
+    private static int parseMonth(String month) {
+        if (month.length() > 2 || !isDigits(month)) {
+            return 0;
+        }
+        int value = Integer.parseInt(month);
+        return value >= 1 && value <= 12 ? value : 0;
+    }
+
+    /**
+     * @return the four digit year, or 0 if {@code year} is not a two or four digit year
+     */
+    private static int parseYear(String year) {
+        if ((year.length() != 2 && year.length() != 4) || !isDigits(year)) {
+            return 0;
+        }
+        int value = Integer.parseInt(year);
+        return year.length() == 2 ? 2000 + value : value;
+    }
+
+    private static boolean isValidCvv(String cvv, CardBrand brand) {
+        if (!isDigits(cvv)) {
+            return false;
+        }
+        if (brand == null) {
+            return cvv.length() == 3 || cvv.length() == 4;
+        }
+        return cvv.length() == brand.getCvvLength();
+    }
+
+    static boolean isLuhnValid(String number) {
+        int sum = 0;
+        boolean isDoubled = false;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            int digit = number.charAt(i) - '0';
+            if (isDoubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            isDoubled = !isDoubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    private static String stripSeparators(String number) {
+        if (number == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(number.length());
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c != ' ' && c != '-') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addFieldError(JSONArray fieldErrors, String field, String message, String code) {
+        try {
+            fieldErrors.put(new JSONObject()
+                    .put("field", field)
+                    .put("message", message)
+                    .put("code", code));
+        } catch (JSONException ignored) {
+            // names are non-null constants
+        }
+    }
+
+    private static ErrorWithResponse buildError(JSONArray fieldErrors) {
+        String errorResponse;
+        try {
+            errorResponse = new JSONObject()
+                    .put("error", new JSONObject().put("message", "Credit card is invalid"))
+                    .put("fieldErrors", new JSONArray().put(new JSONObject()
+                            .put("field", CREDIT_CARD_FIELD)
+                            .put("fieldErrors", fieldErrors)))
+                    .toString();
+        } catch (JSONException e) {
+            errorResponse = null;
+        }
+        return new ErrorWithResponse(UNPROCESSABLE_ENTITY, errorResponse);
+    }
+}
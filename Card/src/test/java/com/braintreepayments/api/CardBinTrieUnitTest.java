@@ -0,0 +1,59 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class CardBinTrieUnitTest {
+
+    private final CardBinTrie sut = CardBinTrie.getDefault();
+
+    @Test
+    public void lookup_returnsBrandForTestCardNumbers() {
+        assertEquals(CardBrand.VISA, sut.lookup(CardNumber.VISA));
+        assertEquals(CardBrand.MASTERCARD, sut.lookup("5555555555554444"));
+        assertEquals(CardBrand.AMERICAN_EXPRESS, sut.lookup(CardNumber.AMEX));
+        assertEquals(CardBrand.DISCOVER, sut.lookup("6011111111111117"));
+        assertEquals(CardBrand.JCB, sut.lookup("3530111333300000"));
+        assertEquals(CardBrand.DINERS_CLUB, sut.lookup("30569309025904"));
+        assertEquals(CardBrand.UNIONPAY, sut.lookup(CardNumber.UNIONPAY_CREDIT));
+    }
+
+    @Test
+    public void lookup_matchesBoundsOfBinRanges() {
+        assertEquals(CardBrand.MASTERCARD, sut.lookup("2221000000000009"));
+        assertEquals(CardBrand.MASTERCARD, sut.lookup("2720990000000007"));
+        assertNull(sut.lookup("2220990000000000"));
+        assertNull(sut.lookup("2721000000000000"));
+        assertEquals(CardBrand.JCB, sut.lookup("3528"));
+        assertEquals(CardBrand.JCB, sut.lookup("3589"));
+        assertNull(sut.lookup("3527"));
+        assertNull(sut.lookup("3590"));
+    }
+
+    @Test
+    public void lookup_prefersLongestMatchingPrefix() {
+        assertEquals(CardBrand.DISCOVER, sut.lookup("6221260000000000"));
+        assertEquals(CardBrand.DISCOVER, sut.lookup("6229250000000000"));
+        assertEquals(CardBrand.UNIONPAY, sut.lookup("6221250000000000"));
+        assertEquals(CardBrand.UNIONPAY, sut.lookup("6229260000000000"));
+    }
+
+    @Test
+    public void lookup_whenNumberIsTooShortOrUnknown_returnsNull() {
+        assertNull(sut.lookup("2"));
+        assertNull(sut.lookup("1234567890123"));
+        assertNull(sut.lookup(""));
+        assertNull(sut.lookup(null));
+    }
+
+    @Test
+    public void lookup_stopsAtNonDigitCharacters() {
+        assertEquals(CardBrand.VISA, sut.lookup("4x"));
+        assertNull(sut.lookup("x4"));
+    }
+}
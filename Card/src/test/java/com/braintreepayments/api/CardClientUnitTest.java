@@ -1,10 +1,16 @@
 package com.braintreepayments.api;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -18,8 +24,15 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 @RunWith(RobolectricTestRunner.class)
 public class CardClientUnitTest {
 
@@ -58,7 +71,25 @@ public class CardClientUnitTest {
 
         InOrder inOrder = Mockito.inOrder(card, apiClient);
         inOrder.verify(card).setSessionId("session-id");
-        inOrder.verify(apiClient).tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
+        inOrder.verify(apiClient).tokenizeGraphQL(same(GraphQLOperations.TOKENIZE_CREDIT_CARD),
+                any(JSONObject.class), any(TokenizeCallback.class));
+    }
+
+    @Test
+    public void tokenize_whenAuthenticationInsightRequested_tokenizesWithAuthenticationInsightOperation() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLEnabledConfig)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+
+        card.setMerchantAccountId("merchant-account-id");
+        card.setAuthenticationInsightRequested(true);
+        sut.tokenize(card, cardTokenizeCallback);
+
+        verify(apiClient).tokenizeGraphQL(
+                same(GraphQLOperations.TOKENIZE_CREDIT_CARD_WITH_AUTHENTICATION_INSIGHT),
+                any(JSONObject.class), any(TokenizeCallback.class));
     }
 
     @Test
@@ -215,4 +246,232 @@ public class CardClientUnitTest {
 
         verify(cardTokenizeCallback).onResult(null, configError);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void tokenize_whenLocalValidationEnabledAndCardIsInvalid_returnsErrorWithoutRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.setLocalValidationEnabled(true);
+
+        card.setNumber(CardNumber.INVALID_VISA);
+        sut.tokenize(card, cardTokenizeCallback);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(cardTokenizeCallback).onResult((CardNonce) isNull(), captor.capture());
+
+        ErrorWithResponse error = (ErrorWithResponse) captor.getValue();
+        assertEquals(422, error.getStatusCode());
+        assertEquals("Credit card number is invalid.", error.errorFor("number").getMessage());
+
+        verify(braintreeClient, never()).getConfiguration(any(ConfigurationCallback.class));
+        verify(apiClient, never()).tokenizeREST(any(Card.class), any(TokenizeCallback.class));
+        verify(braintreeClient).sendAnalyticsEvent("card.local-validation.failed");
+    }
+
+    @Test
+    public void tokenize_whenLocalValidationEnabledAndCardIsValid_tokenizesCard() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+
+        apiClient = new MockApiClientBuilder()
+                .tokenizeRESTSuccess(new JSONObject(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD))
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.setLocalValidationEnabled(true);
+
+        card.setNumber(CardNumber.VISA);
+        card.setCvv("123");
+        sut.tokenize(card, cardTokenizeCallback);
+
+        verify(apiClient).tokenizeREST(same(card), any(TokenizeCallback.class));
+        verify(cardTokenizeCallback).onResult(any(CardNonce.class), (Exception) isNull());
+    }
+
+    @Test
+    public void tokenize_whenLocalValidationDisabled_doesNotValidateCard() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+
+        card.setNumber(CardNumber.INVALID_VISA);
+        sut.tokenize(card, cardTokenizeCallback);
+
+        verify(apiClient).tokenizeREST(same(card), any(TokenizeCallback.class));
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLEnabled_tokenizesAllCardsWithOneRequest() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLEnabledConfig)
+                .build();
+
+        apiClient = new MockApiClientBuilder()
+                .tokenizeGraphQLSuccess(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_BATCH))
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+        sut.tokenizeAll(Arrays.asList(new Card(), new Card()), callback);
+
+        ArgumentCaptor<JSONObject> payloadCaptor = ArgumentCaptor.forClass(JSONObject.class);
+        verify(apiClient, times(1)).tokenizeGraphQL(payloadCaptor.capture(), any(TokenizeCallback.class));
+        assertEquals("TokenizeCreditCards", payloadCaptor.getValue().getString("operationName"));
+
+        ArgumentCaptor<List<CardTokenizeResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onResult(captor.capture(), isNull());
+
+        List<CardTokenizeResult> results = captor.getValue();
+        assertEquals(2, results.size());
+        assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1", results.get(0).getCardNonce().getString());
+        assertEquals("1111", results.get(0).getCardNonce().getLastFour());
+        assertEquals("8b1a2bd2-cc6e-4b45-a6b0-7ba7c5c7bb32", results.get(1).getCardNonce().getString());
+        assertEquals("4444", results.get(1).getCardNonce().getLastFour());
+        verify(braintreeClient, times(2)).sendAnalyticsEvent("card.nonce-received");
+    }
+
+    @Test
+    public void tokenizeAll_whenBatchFailsValidation_tokenizesEachCardIndividually() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLEnabledConfig)
+                .build();
+
+        final ErrorWithResponse validationError =
+                ErrorWithResponse.fromGraphQLJson(Fixtures.ERRORS_GRAPHQL_CREDIT_CARD_ERROR);
+        final JSONObject cardResponse = new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD);
+        Answer<Void> tokenizeAnswer = new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws JSONException {
+                // the payload and callback are the last arguments of both tokenizeGraphQL overloads
+                Object[] arguments = invocation.getArguments();
+                JSONObject payload = (JSONObject) arguments[arguments.length - 2];
+                TokenizeCallback callback = (TokenizeCallback) arguments[arguments.length - 1];
+                String number = payload.getJSONObject("variables").optJSONObject("input") == null
+                        ? null
+                        : payload.getJSONObject("variables").getJSONObject("input")
+                                .getJSONObject("creditCard").optString("number");
+                if ("4111111111111111".equals(number)) {
+                    callback.onResult(cardResponse, null);
+                } else {
+                    callback.onResult(null, validationError);
+                }
+                return null;
+            }
+        };
+        doAnswer(tokenizeAnswer).when(apiClient)
+                .tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
+        doAnswer(tokenizeAnswer).when(apiClient).tokenizeGraphQL(any(GraphQLOperation.class),
+                any(JSONObject.class), any(TokenizeCallback.class));
+
+        Card validCard = new Card();
+        validCard.setNumber("4111111111111111");
+        Card invalidCard = new Card();
+        invalidCard.setNumber("4111");
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+        sut.tokenizeAll(Arrays.asList(invalidCard, validCard), callback);
+
+        verify(apiClient, times(1)).tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
+        verify(apiClient, times(2)).tokenizeGraphQL(same(GraphQLOperations.TOKENIZE_CREDIT_CARD),
+                any(JSONObject.class), any(TokenizeCallback.class));
+
+        ArgumentCaptor<List<CardTokenizeResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onResult(captor.capture(), isNull());
+
+        List<CardTokenizeResult> results = captor.getValue();
+        assertSame(validationError, results.get(0).getError());
+        assertNull(results.get(0).getCardNonce());
+        assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1", results.get(1).getCardNonce().getString());
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLDisabled_tokenizesEachCardWithREST() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+
+        apiClient = new MockApiClientBuilder()
+                .tokenizeRESTSuccess(new JSONObject(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD))
+                .build();
+
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            cards.add(new Card());
+        }
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+        sut.tokenizeAll(cards, callback);
+
+        InOrder inOrder = Mockito.inOrder(apiClient);
+        for (Card card : cards) {
+            inOrder.verify(apiClient).tokenizeREST(same(card), any(TokenizeCallback.class));
+        }
+        verify(apiClient, never()).tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
+        verify(apiClient, never()).tokenizeGraphQL(any(GraphQLOperation.class),
+                any(JSONObject.class), any(TokenizeCallback.class));
+
+        ArgumentCaptor<List<CardTokenizeResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onResult(captor.capture(), isNull());
+        assertEquals(6, captor.getValue().size());
+        for (CardTokenizeResult result : captor.getValue()) {
+            assertEquals("123456-12345-12345-a-adfa", result.getCardNonce().getString());
+        }
+    }
+
+    @Test
+    public void tokenizeAll_whenRequestFails_returnsErrorForEachCard() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLEnabledConfig)
+                .build();
+
+        Exception error = new Exception("network error");
+        apiClient = new MockApiClientBuilder()
+                .tokenizeGraphQLError(error)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+        sut.tokenizeAll(Arrays.asList(new Card(), new Card()), callback);
+
+        ArgumentCaptor<List<CardTokenizeResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onResult(captor.capture(), isNull());
+        assertSame(error, captor.getValue().get(0).getError());
+        assertSame(error, captor.getValue().get(1).getError());
+    }
+
+    @Test
+    public void tokenizeAll_whenCardListIsEmpty_returnsEmptyResults() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLEnabledConfig)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+        sut.tokenizeAll(new ArrayList<Card>(), callback);
+
+        verify(callback).onResult(Collections.<CardTokenizeResult>emptyList(), null);
+        verify(braintreeClient, never()).getConfiguration(any(ConfigurationCallback.class));
+    }
+
+    @Test
+    public void tokenizeAll_propagatesConfigurationFetchError() {
+        Exception configError = new Exception("Configuration error.");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configurationError(configError)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+        sut.tokenizeAll(Collections.singletonList(card), callback);
+
+        verify(callback).onResult(null, configError);
+    }
+}
@@ -503,6 +503,39 @@ class CardUnitTest {
             json.getString(GraphQLConstants.Keys.QUERY))
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun buildBatchJSONForGraphQL_aliasesATokenizeCreditCardFieldForEachCard() {
+        val firstCard = Card()
+        firstCard.number = VISA
+        firstCard.setSessionId("test-session-id")
+        val secondCard = Card()
+        secondCard.number = "5555555555554444"
+        secondCard.merchantAccountId = "merchant-account-id"
+        secondCard.isAuthenticationInsightRequested = true
+
+        val json = Card.buildBatchJSONForGraphQL(listOf(firstCard, secondCard))
+        val query = json.getString(GraphQLConstants.Keys.QUERY)
+        val variables = json.getJSONObject(GraphQLConstants.Keys.VARIABLES)
+
+        assertEquals("TokenizeCreditCards", json.getString("operationName"))
+        assertTrue(query.startsWith("mutation TokenizeCreditCards(\$input0: TokenizeCreditCardInput!, " +
+            "\$input1: TokenizeCreditCardInput!, " +
+            "\$authenticationInsightInput1: AuthenticationInsightInput!) {"))
+        assertTrue(query.contains("  card0: tokenizeCreditCard(input: \$input0) {"))
+        assertTrue(query.contains("  card1: tokenizeCreditCard(input: \$input1) {"))
+        assertTrue(query.contains("authenticationInsight(input: \$authenticationInsightInput1)"))
+        assertEquals(VISA, variables.getJSONObject("input0")
+            .getJSONObject(CREDIT_CARD_KEY).getString("number"))
+        assertEquals("5555555555554444", variables.getJSONObject("input1")
+            .getJSONObject(CREDIT_CARD_KEY).getString("number"))
+        assertEquals("merchant-account-id", variables.getJSONObject("authenticationInsightInput1")
+            .getString("merchantAccountId"))
+        assertNull(variables.optJSONObject("authenticationInsightInput0"))
+        assertEquals("test-session-id",
+            json.getJSONObject("clientSdkMetadata").getString("sessionId"))
+    }
+
     @Test
     @Throws(Exception::class)
     fun buildJSONForGraphQL_withMerchantAccountId_andNoAuthInsightRequested_doesNotRequestInsight() {
@@ -0,0 +1,157 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class CardValidatorUnitTest {
+
+    private CardValidator sut;
+
+    @Before
+    public void beforeEach() {
+        sut = new CardValidator();
+    }
+
+    @Test
+    public void validate_whenCardIsValid_returnsNull() {
+        assertNull(sut.validate(card(CardNumber.VISA, "123", "12", "2030")));
+        assertNull(sut.validate(card(CardNumber.AMEX, "1234", "03", "24")));
+        assertNull(sut.validate(card("4111 1111-1111 1111", null, null, null)));
+    }
+
+    @Test
+    public void validate_whenNumberIsMissing_returnsRequiredError() {
+        ErrorWithResponse error = sut.validate(card(null, null, null, null));
+
+        assertFieldError(error, "number", 81714, "Credit card number is required.");
+    }
+
+    @Test
+    public void validate_whenNumberFailsLuhnCheck_returnsInvalidError() {
+        ErrorWithResponse error = sut.validate(card(CardNumber.INVALID_VISA, null, null, null));
+
+        assertFieldError(error, "number", 81715, "Credit card number is invalid.");
+    }
+
+    @Test
+    public void validate_whenUnionPayNumberFailsLuhnCheck_returnsNull() {
+        String number = "6212345678901231";
+        assertFalse(CardValidator.isLuhnValid(number));
+
+        assertNull(sut.validate(card(number, "123", "12", "2030")));
+    }
+
+    @Test
+    public void validate_whenNumberContainsLetters_returnsInvalidError() {
+        ErrorWithResponse error = sut.validate(card("4111a11111111111", null, null, null));
+
+        assertFieldError(error, "number", 81715, "Credit card number is invalid.");
+    }
+
+    @Test
+    public void validate_whenNumberIsTooShort_returnsLengthError() {
+        ErrorWithResponse error = sut.validate(card("42424242424", null, null, null));
+
+        assertFieldError(error, "number", 81716, "Credit card number must be 12-19 digits.");
+    }
+
+    @Test
+    public void validate_whenLengthIsInvalidForBrand_returnsInvalidError() {
+        // Luhn valid, but American Express numbers have 15 digits
+        ErrorWithResponse error = sut.validate(card("3782822463100005", null, null, null));
+
+        assertFieldError(error, "number", 81715, "Credit card number is invalid.");
+    }
+
+    @Test
+    public void validate_whenCvvLengthDoesNotMatchBrand_returnsCvvError() {
+        String message = "CVV must be 4 digits for American Express and 3 digits for other card types.";
+
+        assertFieldError(sut.validate(card(CardNumber.AMEX, "123", null, null)), "cvv", 81707, message);
+        assertFieldError(sut.validate(card(CardNumber.VISA, "1234", null, null)), "cvv", 81707, message);
+        assertFieldError(sut.validate(card(CardNumber.VISA, "12a", null, null)), "cvv", 81707, message);
+    }
+
+    @Test
+    public void validate_whenExpirationMonthIsInvalid_returnsMonthError() {
+        ErrorWithResponse error = sut.validate(card(CardNumber.VISA, null, "13", "2030"));
+
+        assertFieldError(error, "expirationMonth", 81712, "Expiration month is invalid.");
+    }
+
+    @Test
+    public void validate_whenExpirationYearIsInvalid_returnsYearError() {
+        ErrorWithResponse error = sut.validate(card(CardNumber.VISA, null, "12", "203"));
+
+        assertFieldError(error, "expirationYear", 81713, "Expiration year is invalid.");
+    }
+
+    @Test
+    public void validate_whenCardIsExpired_returnsNull() {
+        // the gateway tokenizes expired cards
+        assertNull(sut.validate(card(CardNumber.VISA, null, "02", "2001")));
+        assertNull(sut.validate(card(CardNumber.VISA, null, "12", "01")));
+    }
+
+    @Test
+    public void validate_setsExpirationDateFromSlashSeparatedDate() {
+        Card card = card(CardNumber.VISA, null, null, null);
+        card.setExpirationDate("13/24");
+
+        assertNotNull(sut.validate(card));
+
+        card.setExpirationDate("03/2024");
+        assertNull(sut.validate(card));
+    }
+
+    @Test
+    public void validate_returnsErrorShapedLikeGatewayResponse() {
+        ErrorWithResponse error = sut.validate(card(CardNumber.INVALID_VISA, "12", "13", "2030"));
+
+        assertEquals(422, error.getStatusCode());
+        assertEquals("Credit card is invalid", error.getMessage());
+        assertEquals(1, error.getFieldErrors().size());
+
+        BraintreeError creditCardError = error.getFieldErrors().get(0);
+        assertEquals("creditCard", creditCardError.getField());
+        assertEquals(3, creditCardError.getFieldErrors().size());
+        assertNotNull(creditCardError.errorFor("number"));
+        assertNotNull(creditCardError.errorFor("cvv"));
+        assertNotNull(creditCardError.errorFor("expirationMonth"));
+    }
+
+    @Test
+    public void isLuhnValid_validatesCheckDigit() {
+        assertTrue(CardValidator.isLuhnValid(CardNumber.VISA));
+        assertTrue(CardValidator.isLuhnValid(CardNumber.AMEX));
+        assertTrue(CardValidator.isLuhnValid(CardNumber.UNIONPAY_CREDIT));
+        assertFalse(CardValidator.isLuhnValid(CardNumber.INVALID_VISA));
+        assertFalse(CardValidator.isLuhnValid(CardNumber.INVALID_AMEX));
+    }
+
+    private static Card card(String number, String cvv, String expirationMonth, String expirationYear) {
+        Card card = new Card();
+        card.setNumber(number);
+        card.setCvv(cvv);
+        card.setExpirationMonth(expirationMonth);
+        card.setExpirationYear(expirationYear);
+        return card;
+    }
+
+    private static void assertFieldError(ErrorWithResponse error, String field, int code, String message) {
+        assertNotNull(error);
+        BraintreeError fieldError = error.errorFor(field);
+        assertNotNull(fieldError);
+        assertEquals(code, fieldError.getCode());
+        assertEquals(message, fieldError.getMessage());
+    }
+}
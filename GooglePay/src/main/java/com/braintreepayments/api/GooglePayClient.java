@@ -2,7 +2,6 @@ package com.braintreepayments.api;
 
 import android.content.Intent;
 import android.content.pm.ActivityInfo;
-import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -50,6 +49,7 @@ public class GooglePayClient {
     private final BraintreeClient braintreeClient;
     private final GooglePayInternalClient internalGooglePayClient;
     private GooglePayListener listener;
+    private GooglePayRequestTemplate requestTemplate;
     @VisibleForTesting
     GooglePayLifecycleObserver observer;
 
@@ -60,7 +60,7 @@ public class GooglePayClient {
      * @param braintreeClient a {@link BraintreeClient}
      */
     public GooglePayClient(@NonNull FragmentActivity activity, @NonNull BraintreeClient braintreeClient) {
-        this(activity, activity.getLifecycle(), braintreeClient, new GooglePayInternalClient());
+        this(activity, activity.getLifecycle(), braintreeClient, GooglePayInternalClient.getInstance());
     }
 
     /**
@@ -70,7 +70,7 @@ public class GooglePayClient {
      * @param braintreeClient a {@link BraintreeClient}
      */
     public GooglePayClient(@NonNull Fragment fragment, @NonNull BraintreeClient braintreeClient) {
-        this(fragment.requireActivity(), fragment.getLifecycle(), braintreeClient, new GooglePayInternalClient());
+        this(fragment.requireActivity(), fragment.getLifecycle(), braintreeClient, GooglePayInternalClient.getInstance());
     }
 
     /**
@@ -83,7 +83,7 @@ public class GooglePayClient {
      */
     @Deprecated
     public GooglePayClient(@NonNull BraintreeClient braintreeClient) {
-        this(null, null, braintreeClient, new GooglePayInternalClient());
+        this(null, null, braintreeClient, GooglePayInternalClient.getInstance());
     }
 
     @VisibleForTesting
@@ -158,7 +158,7 @@ public class GooglePayClient {
                 }
 
                 JSONObject json = new JSONObject();
-                JSONArray allowedCardNetworks = buildCardNetworks(configuration);
+                JSONArray allowedCardNetworks = getRequestTemplate(configuration).newCardNetworks();
 
                 try {
                     json
@@ -208,7 +208,7 @@ public class GooglePayClient {
                                 callback.onResult(null, null);
                                 return;
                             }
-                            callback.onResult(getTokenizationParameters(configuration, authorization), getAllowedCardNetworks(configuration));
+                            callback.onResult(getTokenizationParameters(configuration, authorization), getRequestTemplate(configuration).getAllowedCardNetworks());
                         }
                     });
                 } else {
@@ -453,41 +453,12 @@ public class GooglePayClient {
         return allowedNetworks;
     }
 
-    private JSONArray buildCardNetworks(Configuration configuration) {
-        JSONArray cardNetworkStrings = new JSONArray();
-
-        for (int network : getAllowedCardNetworks(configuration)) {
-            switch (network) {
-                case WalletConstants.CARD_NETWORK_AMEX:
-                    cardNetworkStrings.put("AMEX");
-                    break;
-                case WalletConstants.CARD_NETWORK_DISCOVER:
-                    cardNetworkStrings.put("DISCOVER");
-                    break;
-                case WalletConstants.CARD_NETWORK_JCB:
-                    cardNetworkStrings.put("JCB");
-                    break;
-                case WalletConstants.CARD_NETWORK_MASTERCARD:
-                    cardNetworkStrings.put("MASTERCARD");
-                    break;
-                case WalletConstants.CARD_NETWORK_VISA:
-                    cardNetworkStrings.put("VISA");
-                    break;
-                case BraintreeGooglePayWalletConstants.CARD_NETWORK_ELO:
-                    cardNetworkStrings.put("ELO");
-                    cardNetworkStrings.put("ELO_DEBIT");
-                    break;
-            }
-        }
-        return cardNetworkStrings;
-    }
-
-    private JSONObject buildCardPaymentMethodParameters(Configuration configuration, GooglePayRequest request) {
+    private JSONObject buildCardPaymentMethodParameters(GooglePayRequestTemplate requestTemplate, GooglePayRequest request) {
         JSONObject defaultParameters = new JSONObject();
 
         try {
             if (request.getAllowedCardNetworksForType(CARD_PAYMENT_TYPE) == null) {
-                JSONArray cardNetworkStrings = buildCardNetworks(configuration);
+                JSONArray cardNetworkStrings = requestTemplate.newCardNetworks();
 
                 if (request.getAllowedAuthMethodsForType(CARD_PAYMENT_TYPE) == null) {
                     request.setAllowedAuthMethods(CARD_PAYMENT_TYPE,
@@ -521,122 +492,50 @@ public class GooglePayClient {
         return defaultParameters;
     }
 
-    private JSONObject buildPayPalPaymentMethodParameters(Configuration configuration) {
-        JSONObject defaultParameters = new JSONObject();
-
-        try {
-            JSONObject purchaseContext = new JSONObject()
-                    .put("purchase_units", new JSONArray()
-                            .put(new JSONObject()
-                                    .put("payee", new JSONObject()
-                                            .put("client_id", configuration.getGooglePayPayPalClientId())
-                                    )
-                                    .put("recurring_payment", "true")
-                            )
-                    );
-
-            defaultParameters.put("purchase_context", purchaseContext);
-        } catch (JSONException ignored) {
-        }
-
-        return defaultParameters;
-
-    }
-
-    private JSONObject buildCardTokenizationSpecification(Configuration configuration, Authorization authorization) {
-        JSONObject cardJson = new JSONObject();
-        JSONObject parameters = new JSONObject();
-        String googlePayVersion = com.braintreepayments.api.googlepay.BuildConfig.VERSION_NAME;
-
-        try {
-            parameters
-                    .put("gateway", "braintree")
-                    .put("braintree:apiVersion", "v1")
-                    .put("braintree:sdkVersion", googlePayVersion)
-                    .put("braintree:merchantId", configuration.getMerchantId())
-                    .put("braintree:metadata", (new JSONObject()
-                            .put("source", "client")
-                            .put("integration", braintreeClient.getIntegrationType())
-                            .put("sessionId", braintreeClient.getSessionId())
-                            .put("version", googlePayVersion)
-                            .put("platform", "android")).toString());
-
-            if (authorization instanceof TokenizationKey) {
-                parameters
-                        .put("braintree:clientKey", authorization.toString());
-            } else {
-                String googlePayAuthFingerprint = configuration.getGooglePayAuthorizationFingerprint();
-                parameters
-                        .put("braintree:authorizationFingerprint", googlePayAuthFingerprint);
-            }
-        } catch (JSONException ignored) {
-        }
-
-        try {
-            cardJson
-                    .put("type", "PAYMENT_GATEWAY")
-                    .put("parameters", parameters);
-        } catch (JSONException ignored) {
-        }
-
-        return cardJson;
-    }
-
-    private JSONObject buildPayPalTokenizationSpecification(Configuration configuration) {
-        JSONObject json = new JSONObject();
-        String googlePayVersion = com.braintreepayments.api.googlepay.BuildConfig.VERSION_NAME;
-
-        try {
-            json.put("type", "PAYMENT_GATEWAY")
-                    .put("parameters", new JSONObject()
-                            .put("gateway", "braintree")
-                            .put("braintree:apiVersion", "v1")
-                            .put("braintree:sdkVersion", googlePayVersion)
-                            .put("braintree:merchantId", configuration.getMerchantId())
-                            .put("braintree:paypalClientId", configuration.getGooglePayPayPalClientId())
-                            .put("braintree:metadata", (new JSONObject()
-                                    .put("source", "client")
-                                    .put("integration", braintreeClient.getIntegrationType())
-                                    .put("sessionId", braintreeClient.getSessionId())
-                                    .put("version", googlePayVersion)
-                                    .put("platform", "android")).toString()));
-        } catch (JSONException ignored) {
-        }
-
-        return json;
-    }
-
     private void setGooglePayRequestDefaults(Configuration configuration, Authorization authorization, GooglePayRequest request) {
+        GooglePayRequestTemplate requestTemplate = getRequestTemplate(configuration);
 
         if (request.getAllowedPaymentMethod(CARD_PAYMENT_TYPE) == null) {
             request.setAllowedPaymentMethod(CARD_PAYMENT_TYPE,
-                    buildCardPaymentMethodParameters(configuration, request));
+                    buildCardPaymentMethodParameters(requestTemplate, request));
         }
 
         if (request.getTokenizationSpecificationForType(CARD_PAYMENT_TYPE) == null) {
             request.setTokenizationSpecificationForType("CARD",
-                    buildCardTokenizationSpecification(configuration, authorization));
+                    requestTemplate.newCardTokenizationSpecification(authorization));
         }
 
         boolean googlePayCanProcessPayPal = request.isPayPalEnabled() &&
-                !TextUtils.isEmpty(configuration.getGooglePayPayPalClientId());
+                requestTemplate.canProcessPayPal();
 
         if (googlePayCanProcessPayPal) {
             if (request.getAllowedPaymentMethod("PAYPAL") == null) {
                 request.setAllowedPaymentMethod(PAYPAL_PAYMENT_TYPE,
-                        buildPayPalPaymentMethodParameters(configuration));
+                        requestTemplate.newPayPalPaymentMethodParameters());
             }
 
 
             if (request.getTokenizationSpecificationForType(PAYPAL_PAYMENT_TYPE) == null) {
                 request.setTokenizationSpecificationForType("PAYPAL",
-                        buildPayPalTokenizationSpecification(configuration));
+                        requestTemplate.newPayPalTokenizationSpecification());
             }
         }
 
         request.setEnvironment(configuration.getGooglePayEnvironment());
     }
 
+    /**
+     * @return the {@link GooglePayRequestTemplate} for the configuration, reusing the last one if
+     * the configuration has not changed
+     */
+    synchronized GooglePayRequestTemplate getRequestTemplate(Configuration configuration) {
+        if (requestTemplate == null || !requestTemplate.isFor(configuration)) {
+            requestTemplate = new GooglePayRequestTemplate(configuration, getAllowedCardNetworks(configuration),
+                    braintreeClient.getIntegrationType(), braintreeClient.getSessionId());
+        }
+        return requestTemplate;
+    }
+
     private boolean validateManifest() {
         ActivityInfo activityInfo = braintreeClient.getManifestActivityInfo(GooglePayActivity.class);
         return activityInfo != null && activityInfo.getThemeResource() == R.style.bt_transparent_activity;
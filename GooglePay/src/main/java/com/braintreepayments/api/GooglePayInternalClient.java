@@ -1,5 +1,7 @@
 package com.braintreepayments.api;
 
+import android.content.Context;
+
 import androidx.annotation.NonNull;
 import androidx.fragment.app.FragmentActivity;
 
@@ -11,13 +13,78 @@ import com.google.android.gms.wallet.PaymentsClient;
 import com.google.android.gms.wallet.Wallet;
 import com.google.android.gms.wallet.WalletConstants;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks Google Pay readiness with the Wallet API. Readiness results are cached for a short time
+ * and concurrent checks for the same request share a single Wallet API call, so there is one
+ * instance per process that {@link GooglePayClient} instances share.
+ */
 class GooglePayInternalClient {
 
+    static final long IS_READY_TO_PAY_CACHE_DURATION_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final int IS_READY_TO_PAY_CACHE_MAX_ENTRIES = 8;
+
+    private static volatile GooglePayInternalClient INSTANCE;
+
+    static GooglePayInternalClient getInstance() {
+        if (INSTANCE == null) {
+            synchronized (GooglePayInternalClient.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new GooglePayInternalClient();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final ExpiringLruCache<Boolean> isReadyToPayCache =
+            new ExpiringLruCache<>(IS_READY_TO_PAY_CACHE_MAX_ENTRIES);
+    private final PendingCallbacks<GooglePayIsReadyToPayCallback> pendingIsReadyToPayCallbacks =
+            new PendingCallbacks<>();
+    private final Map<Integer, PaymentsClient> paymentsClients = new HashMap<>();
+
     void isReadyToPay(FragmentActivity activity, Configuration configuration, IsReadyToPayRequest isReadyToPayRequest, final GooglePayIsReadyToPayCallback callback) {
-        PaymentsClient paymentsClient = Wallet.getPaymentsClient(activity,
-                new Wallet.WalletOptions.Builder()
-                        .setEnvironment(getGooglePayEnvironment(configuration))
-                        .build());
+        int environment = getGooglePayEnvironment(configuration);
+        String isReadyToPayRequestJson = isReadyToPayRequest.toJson();
+        if (isReadyToPayRequestJson == null) {
+            fetchIsReadyToPay(activity, environment, isReadyToPayRequest, callback);
+            return;
+        }
+
+        final String cacheKey = environment + "|" + isReadyToPayRequestJson;
+        Boolean cachedIsReadyToPay = isReadyToPayCache.get(cacheKey,
+                IS_READY_TO_PAY_CACHE_DURATION_MILLIS, System.currentTimeMillis());
+        if (cachedIsReadyToPay != null) {
+            callback.onResult(cachedIsReadyToPay, null);
+            return;
+        }
+
+        final List<GooglePayIsReadyToPayCallback> callbacks = pendingIsReadyToPayCallbacks.add(cacheKey, callback);
+        if (callbacks == null) {
+            return;
+        }
+
+        fetchIsReadyToPay(activity, environment, isReadyToPayRequest, new GooglePayIsReadyToPayCallback() {
+            @Override
+            public void onResult(boolean isReadyToPay, Exception error) {
+                if (error == null) {
+                    isReadyToPayCache.put(cacheKey, isReadyToPay, System.currentTimeMillis());
+                }
+                for (GooglePayIsReadyToPayCallback pendingCallback : pendingIsReadyToPayCallbacks.complete(cacheKey, callbacks)) {
+                    pendingCallback.onResult(isReadyToPay, error);
+                }
+            }
+        });
+    }
+
+    private void fetchIsReadyToPay(FragmentActivity activity, int environment, IsReadyToPayRequest isReadyToPayRequest, final GooglePayIsReadyToPayCallback callback) {
+        PaymentsClient paymentsClient = getPaymentsClient(activity, environment);
         paymentsClient.isReadyToPay(isReadyToPayRequest).addOnCompleteListener(new OnCompleteListener<Boolean>() {
             @Override
             public void onComplete(@NonNull Task<Boolean> task) {
@@ -30,6 +97,20 @@ class GooglePayInternalClient {
         });
     }
 
+    private synchronized PaymentsClient getPaymentsClient(Context context, int environment) {
+        PaymentsClient paymentsClient = paymentsClients.get(environment);
+        if (paymentsClient == null) {
+            // the client is kept for the life of the process, so it must not hold on to an Activity
+            Context applicationContext = context.getApplicationContext();
+            paymentsClient = Wallet.getPaymentsClient(applicationContext != null ? applicationContext : context,
+                    new Wallet.WalletOptions.Builder()
+                            .setEnvironment(environment)
+                            .build());
+            paymentsClients.put(environment, paymentsClient);
+        }
+        return paymentsClient;
+    }
+
     int getGooglePayEnvironment(Configuration configuration) {
         if ("production".equals(configuration.getGooglePayEnvironment())) {
             return WalletConstants.ENVIRONMENT_PRODUCTION;
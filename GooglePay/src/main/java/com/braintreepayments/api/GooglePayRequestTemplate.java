@@ -0,0 +1,197 @@
+package com.braintreepayments.api;
+
+import android.text.TextUtils;
+
+import com.google.android.gms.wallet.WalletConstants;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a Google Pay {@code PaymentDataRequest} that only depend on a {@link Configuration}
+ * and the {@link BraintreeClient} session: card networks, PayPal payment method parameters and the
+ * tokenization specification parameters, including the metadata JSON.
+ * <p>
+ * A template is immutable. Each request gets its own copies of the JSON objects it needs, so that
+ * merchant changes to one {@link GooglePayRequest} are not seen by another.
+ */
+class GooglePayRequestTemplate {
+
+    private final Configuration configuration;
+    private final String configurationJson;
+
+    private final List<Integer> allowedCardNetworks;
+    private final List<String> cardNetworkNames;
+    private final String payPalClientId;
+    private final Map<String, String> cardTokenizationParameters;
+    private final Map<String, String> payPalTokenizationParameters;
+
+    GooglePayRequestTemplate(Configuration configuration, List<Integer> allowedCardNetworks, String integrationType, String sessionId) {
+        this.configuration = configuration;
+        this.configurationJson = configuration.toJson();
+        this.allowedCardNetworks = Collections.unmodifiableList(new ArrayList<>(allowedCardNetworks));
+        this.cardNetworkNames = Collections.unmodifiableList(buildCardNetworkNames(allowedCardNetworks));
+        this.payPalClientId = configuration.getGooglePayPayPalClientId();
+
+        String googlePayVersion = com.braintreepayments.api.googlepay.BuildConfig.VERSION_NAME;
+        String metadata = buildMetadata(integrationType, sessionId, googlePayVersion);
+
+        Map<String, String> cardParameters = new LinkedHashMap<>();
+        cardParameters.put("gateway", "braintree");
+        cardParameters.put("braintree:apiVersion", "v1");
+        cardParameters.put("braintree:sdkVersion", googlePayVersion);
+        cardParameters.put("braintree:merchantId", configuration.getMerchantId());
+        cardParameters.put("braintree:metadata", metadata);
+        this.cardTokenizationParameters = Collections.unmodifiableMap(cardParameters);
+
+        Map<String, String> payPalParameters = new LinkedHashMap<>();
+        payPalParameters.put("gateway", "braintree");
+        payPalParameters.put("braintree:apiVersion", "v1");
+        payPalParameters.put("braintree:sdkVersion", googlePayVersion);
+        payPalParameters.put("braintree:merchantId", configuration.getMerchantId());
+        payPalParameters.put("braintree:paypalClientId", payPalClientId);
+        payPalParameters.put("braintree:metadata", metadata);
+        this.payPalTokenizationParameters = Collections.unmodifiableMap(payPalParameters);
+    }
+
+    /**
+     * @return true if this template was built from the given configuration, or one with the same
+     * JSON
+     */
+    boolean isFor(Configuration configuration) {
+        if (this.configuration == configuration) {
+            return true;
+        }
+        return configurationJson != null && configurationJson.equals(configuration.toJson());
+    }
+
+    ArrayList<Integer> getAllowedCardNetworks() {
+        return new ArrayList<>(allowedCardNetworks);
+    }
+
+    JSONArray newCardNetworks() {
+        return new JSONArray(cardNetworkNames);
+    }
+
+    boolean canProcessPayPal() {
+        return !TextUtils.isEmpty(payPalClientId);
+    }
+
+    JSONObject newPayPalPaymentMethodParameters() {
+        JSONObject defaultParameters = new JSONObject();
+
+        try {
+            JSONObject purchaseContext = new JSONObject()
+                    .put("purchase_units", new JSONArray()
+                            .put(new JSONObject()
+                                    .put("payee", new JSONObject()
+                                            .put("client_id", payPalClientId)
+                                    )
+                                    .put("recurring_payment", "true")
+                            )
+                    );
+
+            defaultParameters.put("purchase_context", purchaseContext);
+        } catch (JSONException ignored) {
+        }
+
+        return defaultParameters;
+    }
+
+    JSONObject newCardTokenizationSpecification(Authorization authorization) {
+        JSONObject cardJson = new JSONObject();
+        JSONObject parameters = newParameters(cardTokenizationParameters);
+
+        try {
+            if (authorization instanceof TokenizationKey) {
+                parameters
+                        .put("braintree:clientKey", authorization.toString());
+            } else {
+                parameters
+                        .put("braintree:authorizationFingerprint", configuration.getGooglePayAuthorizationFingerprint());
+            }
+        } catch (JSONException ignored) {
+        }
+
+        try {
+            cardJson
+                    .put("type", "PAYMENT_GATEWAY")
+                    .put("parameters", parameters);
+        } catch (JSONException ignored) {
+        }
+
+        return cardJson;
+    }
+
+    JSONObject newPayPalTokenizationSpecification() {
+        JSONObject json = new JSONObject();
+
+        try {
+            json.put("type", "PAYMENT_GATEWAY")
+                    .put("parameters", newParameters(payPalTokenizationParameters));
+        } catch (JSONException ignored) {
+        }
+
+        return json;
+    }
+
+    private static JSONObject newParameters(Map<String, String> parameters) {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            try {
+                json.put(parameter.getKey(), parameter.getValue());
+            } catch (JSONException ignored) {
+            }
+        }
+        return json;
+    }
+
+    private static List<String> buildCardNetworkNames(List<Integer> allowedCardNetworks) {
+        List<String> cardNetworkNames = new ArrayList<>();
+        for (int network : allowedCardNetworks) {
+            switch (network) {
+                case WalletConstants.CARD_NETWORK_AMEX:
+                    cardNetworkNames.add("AMEX");
+                    break;
+                case WalletConstants.CARD_NETWORK_DISCOVER:
+                    cardNetworkNames.add("DISCOVER");
+                    break;
+                case WalletConstants.CARD_NETWORK_JCB:
+                    cardNetworkNames.add("JCB");
+                    break;
+                case WalletConstants.CARD_NETWORK_MASTERCARD:
+                    cardNetworkNames.add("MASTERCARD");
+                    break;
+                case WalletConstants.CARD_NETWORK_VISA:
+                    cardNetworkNames.add("VISA");
+                    break;
+                case BraintreeGooglePayWalletConstants.CARD_NETWORK_ELO:
+                    cardNetworkNames.add("ELO");
+                    cardNetworkNames.add("ELO_DEBIT");
+                    break;
+            }
+        }
+        return cardNetworkNames;
+    }
+
+    private static String buildMetadata(String integrationType, String sessionId, String googlePayVersion) {
+        try {
+            return new JSONObject()
+                    .put("source", "client")
+                    .put("integration", integrationType)
+                    .put("sessionId", sessionId)
+                    .put("version", googlePayVersion)
+                    .put("platform", "android")
+                    .toString();
+        } catch (JSONException ignored) {
+            return new JSONObject().toString();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import static com.braintreepayments.api.GooglePayClient.EXTRA_PAYMENT_DATA_REQUE
 import static junit.framework.TestCase.assertSame;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -1448,6 +1449,89 @@ public class GooglePayClientUnitTest {
 
     // endregion
 
+    // region getRequestTemplate
+
+    @Test
+    public void getRequestTemplate_withSameConfiguration_returnsSameTemplate() {
+        Configuration configuration = new TestConfigurationBuilder()
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .supportedNetworks(new String[]{"visa", "mastercard"}))
+                .buildConfiguration();
+        Configuration sameConfiguration = Configuration.fromJson(configuration.toJson());
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        GooglePayInternalClient internalGooglePayClient = new MockGooglePayInternalClientBuilder().build();
+        GooglePayClient sut = new GooglePayClient(activity, lifecycle, braintreeClient, internalGooglePayClient);
+
+        GooglePayRequestTemplate requestTemplate = sut.getRequestTemplate(configuration);
+
+        assertSame(requestTemplate, sut.getRequestTemplate(configuration));
+        assertSame(requestTemplate, sut.getRequestTemplate(sameConfiguration));
+    }
+
+    @Test
+    public void getRequestTemplate_whenConfigurationChanges_returnsNewTemplate() throws JSONException {
+        Configuration configuration = new TestConfigurationBuilder()
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .supportedNetworks(new String[]{"visa"}))
+                .buildConfiguration();
+        Configuration updatedConfiguration = new TestConfigurationBuilder()
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .supportedNetworks(new String[]{"visa", "amex"}))
+                .buildConfiguration();
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        GooglePayInternalClient internalGooglePayClient = new MockGooglePayInternalClientBuilder().build();
+        GooglePayClient sut = new GooglePayClient(activity, lifecycle, braintreeClient, internalGooglePayClient);
+
+        sut.getRequestTemplate(configuration);
+        GooglePayRequestTemplate requestTemplate = sut.getRequestTemplate(updatedConfiguration);
+
+        JSONAssert.assertEquals(new JSONArray().put("VISA").put("AMEX"), requestTemplate.newCardNetworks(), true);
+    }
+
+    @Test
+    public void requestPayment_calledTwice_doesNotShareJSONBetweenRequests() {
+        Configuration configuration = new TestConfigurationBuilder()
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .environment("sandbox")
+                        .googleAuthorizationFingerprint("google-auth-fingerprint")
+                        .paypalClientId("paypal-client-id-for-google-payment")
+                        .supportedNetworks(new String[]{"visa", "mastercard", "amex", "discover"})
+                        .enabled(true))
+                .buildConfiguration();
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(Authorization.fromString("sandbox_tokenization_string"))
+                .activityInfo(activityInfo)
+                .build();
+
+        GooglePayInternalClient internalGooglePayClient = new MockGooglePayInternalClientBuilder().build();
+        GooglePayClient sut = new GooglePayClient(null, null, braintreeClient, internalGooglePayClient);
+        sut.observer = mock(GooglePayLifecycleObserver.class);
+
+        GooglePayRequest firstRequest = new GooglePayRequest();
+        firstRequest.setTransactionInfo(baseRequest.getTransactionInfo());
+        firstRequest.setPayPalEnabled(true);
+        GooglePayRequest secondRequest = new GooglePayRequest();
+        secondRequest.setTransactionInfo(baseRequest.getTransactionInfo());
+        secondRequest.setPayPalEnabled(true);
+
+        sut.requestPayment(activity, firstRequest);
+        sut.requestPayment(activity, secondRequest);
+
+        assertEquals(firstRequest.getAllowedCardNetworksForType("CARD").toString(),
+                secondRequest.getAllowedCardNetworksForType("CARD").toString());
+        assertNotSame(firstRequest.getAllowedCardNetworksForType("CARD"), secondRequest.getAllowedCardNetworksForType("CARD"));
+        assertEquals(firstRequest.getTokenizationSpecificationForType("CARD").toString(),
+                secondRequest.getTokenizationSpecificationForType("CARD").toString());
+        assertNotSame(firstRequest.getTokenizationSpecificationForType("CARD"), secondRequest.getTokenizationSpecificationForType("CARD"));
+        assertNotSame(firstRequest.getTokenizationSpecificationForType("PAYPAL"), secondRequest.getTokenizationSpecificationForType("PAYPAL"));
+    }
+
+    // endregion
+
     // region getTokenizationParameters
 
     @Test
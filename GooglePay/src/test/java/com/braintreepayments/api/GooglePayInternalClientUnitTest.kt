@@ -1,6 +1,7 @@
 package com.braintreepayments.api
 
 import android.app.Activity
+import android.content.Context
 import androidx.fragment.app.FragmentActivity
 import com.google.android.gms.common.api.ApiException
 import com.google.android.gms.common.api.Status
@@ -13,6 +14,7 @@ import io.mockk.every
 import io.mockk.mockk
 import io.mockk.mockkStatic
 import io.mockk.slot
+import io.mockk.verify
 import junit.framework.TestCase.*
 import org.junit.Before
 import org.junit.Test
@@ -65,6 +67,24 @@ class GooglePayInternalClientUnitTest {
         }
     }
 
+    class PendingBooleanTask : MockBooleanTask() {
+        private var listener: OnCompleteListener<Boolean>? = null
+        private var result = false
+
+        override fun getResult(): Boolean = result
+        override fun <X : Throwable?> getResult(p0: Class<X>): Boolean = result
+
+        override fun addOnCompleteListener(p0: OnCompleteListener<Boolean>): Task<Boolean> {
+            listener = p0
+            return this
+        }
+
+        fun complete(result: Boolean) {
+            this.result = result
+            listener?.onComplete(this)
+        }
+    }
+
     private lateinit var activity: FragmentActivity
     private lateinit var isReadyToPayCallback: GooglePayIsReadyToPayCallback
     private lateinit var paymentsClient: PaymentsClient
@@ -85,7 +105,7 @@ class GooglePayInternalClientUnitTest {
         every { paymentsClient.isReadyToPay(isReadyToPayRequest) } returns Tasks.forResult(true)
 
         val walletOptionsSlot = slot<Wallet.WalletOptions>()
-        every { Wallet.getPaymentsClient(any(), capture(walletOptionsSlot)) } returns paymentsClient
+        every { Wallet.getPaymentsClient(any<Context>(), capture(walletOptionsSlot)) } returns paymentsClient
 
         val sut = GooglePayInternalClient()
         sut.isReadyToPay(activity, configuration, isReadyToPayRequest, isReadyToPayCallback)
@@ -100,7 +120,7 @@ class GooglePayInternalClientUnitTest {
         every { paymentsClient.isReadyToPay(isReadyToPayRequest) } returns Tasks.forResult(true)
 
         val walletOptionsSlot = slot<Wallet.WalletOptions>()
-        every { Wallet.getPaymentsClient(any(), capture(walletOptionsSlot)) } returns paymentsClient
+        every { Wallet.getPaymentsClient(any<Context>(), capture(walletOptionsSlot)) } returns paymentsClient
 
         val sut = GooglePayInternalClient()
         sut.isReadyToPay(activity, configuration, isReadyToPayRequest, isReadyToPayCallback)
@@ -112,7 +132,7 @@ class GooglePayInternalClientUnitTest {
     fun `isReadyToPay forwards success result to callback`() {
         val countDownLatch = CountDownLatch(1)
         val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)
-        every { Wallet.getPaymentsClient(any(), any()) } returns paymentsClient
+        every { Wallet.getPaymentsClient(any<Context>(), any()) } returns paymentsClient
 
         every { paymentsClient.isReadyToPay(isReadyToPayRequest) } returns SuccessfulBooleanTask(true)
 
@@ -129,7 +149,7 @@ class GooglePayInternalClientUnitTest {
     fun `isReadyToPay forwards failure result to callback`() {
         val countDownLatch = CountDownLatch(1)
         val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)
-        every { Wallet.getPaymentsClient(any(), any()) } returns paymentsClient
+        every { Wallet.getPaymentsClient(any<Context>(), any()) } returns paymentsClient
 
         val expectedError = ApiException(Status.RESULT_INTERNAL_ERROR)
         val failedTask: Task<Boolean> = FailingBooleanTask(expectedError)
@@ -143,4 +163,81 @@ class GooglePayInternalClientUnitTest {
         }
         countDownLatch.await()
     }
+
+    @Test
+    fun `isReadyToPay returns cached result for the same request`() {
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)
+        every { Wallet.getPaymentsClient(any<Context>(), any()) } returns paymentsClient
+        every { paymentsClient.isReadyToPay(any()) } returns SuccessfulBooleanTask(true)
+
+        val sut = GooglePayInternalClient()
+        sut.isReadyToPay(activity, configuration, isReadyToPayRequest, isReadyToPayCallback)
+        sut.isReadyToPay(activity, configuration, IsReadyToPayRequest.fromJson("{}"), isReadyToPayCallback)
+
+        verify(exactly = 1) { paymentsClient.isReadyToPay(any()) }
+        verify(exactly = 2) { isReadyToPayCallback.onResult(true, null) }
+    }
+
+    @Test
+    fun `isReadyToPay checks again for a different request`() {
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)
+        every { Wallet.getPaymentsClient(any<Context>(), any()) } returns paymentsClient
+        every { paymentsClient.isReadyToPay(any()) } returns SuccessfulBooleanTask(true)
+
+        val sut = GooglePayInternalClient()
+        sut.isReadyToPay(activity, configuration, isReadyToPayRequest, isReadyToPayCallback)
+        val otherRequest = IsReadyToPayRequest.fromJson("{\"existingPaymentMethodRequired\":true}")
+        sut.isReadyToPay(activity, configuration, otherRequest, isReadyToPayCallback)
+
+        verify(exactly = 2) { paymentsClient.isReadyToPay(any()) }
+    }
+
+    @Test
+    fun `isReadyToPay does not cache errors`() {
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)
+        every { Wallet.getPaymentsClient(any<Context>(), any()) } returns paymentsClient
+        val error = ApiException(Status.RESULT_INTERNAL_ERROR)
+        every { paymentsClient.isReadyToPay(any()) } returns FailingBooleanTask(error)
+
+        val sut = GooglePayInternalClient()
+        sut.isReadyToPay(activity, configuration, isReadyToPayRequest, isReadyToPayCallback)
+        sut.isReadyToPay(activity, configuration, isReadyToPayRequest, isReadyToPayCallback)
+
+        verify(exactly = 2) { paymentsClient.isReadyToPay(any()) }
+        verify(exactly = 2) { isReadyToPayCallback.onResult(false, error) }
+    }
+
+    @Test
+    fun `isReadyToPay shares an in-flight check for the same request`() {
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)
+        every { Wallet.getPaymentsClient(any<Context>(), any()) } returns paymentsClient
+        val pendingTask = PendingBooleanTask()
+        every { paymentsClient.isReadyToPay(any()) } returns pendingTask
+
+        val otherCallback = mockk<GooglePayIsReadyToPayCallback>(relaxed = true)
+        val sut = GooglePayInternalClient()
+        sut.isReadyToPay(activity, configuration, isReadyToPayRequest, isReadyToPayCallback)
+        sut.isReadyToPay(activity, configuration, isReadyToPayRequest, otherCallback)
+        verify(exactly = 0) { isReadyToPayCallback.onResult(any(), any()) }
+
+        pendingTask.complete(true)
+
+        verify(exactly = 1) { paymentsClient.isReadyToPay(any()) }
+        verify { isReadyToPayCallback.onResult(true, null) }
+        verify { otherCallback.onResult(true, null) }
+    }
+
+    @Test
+    fun `isReadyToPay reuses PaymentsClient for the same environment`() {
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)
+        every { Wallet.getPaymentsClient(any<Context>(), any()) } returns paymentsClient
+        every { paymentsClient.isReadyToPay(any()) } returns SuccessfulBooleanTask(true)
+
+        val sut = GooglePayInternalClient()
+        sut.isReadyToPay(activity, configuration, isReadyToPayRequest, isReadyToPayCallback)
+        val otherRequest = IsReadyToPayRequest.fromJson("{\"existingPaymentMethodRequired\":true}")
+        sut.isReadyToPay(activity, configuration, otherRequest, isReadyToPayCallback)
+
+        verify(exactly = 1) { Wallet.getPaymentsClient(any<Context>(), any()) }
+    }
 }
@@ -0,0 +1,81 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.gms.wallet.WalletConstants;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class GooglePayRequestTemplateUnitTest {
+
+    @Test
+    public void isFor_returnsTrueForConfigurationWithSameJSON() {
+        Configuration configuration = new TestConfigurationBuilder()
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .supportedNetworks(new String[]{"visa"}))
+                .buildConfiguration();
+        Configuration otherConfiguration = new TestConfigurationBuilder()
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .supportedNetworks(new String[]{"amex"}))
+                .buildConfiguration();
+
+        GooglePayRequestTemplate sut = new GooglePayRequestTemplate(configuration,
+                Collections.singletonList(WalletConstants.CARD_NETWORK_VISA), "custom", "session-id");
+
+        assertTrue(sut.isFor(configuration));
+        assertTrue(sut.isFor(Configuration.fromJson(configuration.toJson())));
+        assertFalse(sut.isFor(otherConfiguration));
+    }
+
+    @Test
+    public void newCardNetworks_returnsNewArrayEachTime() throws JSONException {
+        Configuration configuration = new TestConfigurationBuilder().buildConfiguration();
+        GooglePayRequestTemplate sut = new GooglePayRequestTemplate(configuration,
+                Arrays.asList(WalletConstants.CARD_NETWORK_VISA, BraintreeGooglePayWalletConstants.CARD_NETWORK_ELO),
+                "custom", "session-id");
+
+        JSONArray cardNetworks = sut.newCardNetworks();
+        cardNetworks.put("MODIFIED");
+
+        JSONAssert.assertEquals(new JSONArray().put("VISA").put("ELO").put("ELO_DEBIT"),
+                sut.newCardNetworks(), true);
+        assertNotSame(cardNetworks, sut.newCardNetworks());
+    }
+
+    @Test
+    public void newCardTokenizationSpecification_includesSessionMetadataAndAuthorization() throws JSONException {
+        Configuration configuration = new TestConfigurationBuilder()
+                .merchantId("merchant-id")
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .googleAuthorizationFingerprint("google-auth-fingerprint"))
+                .buildConfiguration();
+        GooglePayRequestTemplate sut = new GooglePayRequestTemplate(configuration,
+                Collections.<Integer>emptyList(), "custom", "session-id");
+
+        JSONObject parameters = sut.newCardTokenizationSpecification(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .getJSONObject("parameters");
+        assertEquals("merchant-id", parameters.getString("braintree:merchantId"));
+        assertEquals("google-auth-fingerprint", parameters.getString("braintree:authorizationFingerprint"));
+        JSONObject metadata = new JSONObject(parameters.getString("braintree:metadata"));
+        assertEquals("custom", metadata.getString("integration"));
+        assertEquals("session-id", metadata.getString("sessionId"));
+
+        JSONObject tokenizationKeyParameters = sut.newCardTokenizationSpecification(Authorization.fromString("sandbox_tokenization_string"))
+                .getJSONObject("parameters");
+        assertEquals("sandbox_tokenization_string", tokenizationKeyParameters.getString("braintree:clientKey"));
+        assertFalse(tokenizationKeyParameters.has("braintree:authorizationFingerprint"));
+    }
+}
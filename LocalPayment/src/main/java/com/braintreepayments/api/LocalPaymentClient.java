@@ -66,6 +66,7 @@ public class LocalPaymentClient {
         this.braintreeClient = braintreeClient;
         this.payPalDataCollector = payPalDataCollector;
         this.localPaymentApi = localPaymentApi;
+        braintreeClient.warmUpBrowser();
         if (activity != null && lifecycle != null) {
             LocalPaymentLifecycleObserver observer = new LocalPaymentLifecycleObserver(this);
             lifecycle.addObserver(observer);
@@ -121,12 +122,17 @@ public class LocalPaymentClient {
                         }
 
                         sendAnalyticsEvent(request.getPaymentType(), "local-payment.start-payment.selected");
+                        payPalDataCollector.prefetchClientMetadataId(braintreeClient.getApplicationContext(), configuration);
 
                         localPaymentApi.createPaymentMethod(request, new LocalPaymentStartCallback() {
                             @Override
                             public void onResult(@Nullable LocalPaymentResult localPaymentResult, @Nullable Exception error) {
                                 if (localPaymentResult != null) {
                                     sendAnalyticsEvent(request.getPaymentType(), "local-payment.create.succeeded");
+                                    String approvalUrl = localPaymentResult.getApprovalUrl();
+                                    if (approvalUrl != null) {
+                                        braintreeClient.mayLaunchBrowserUrl(Uri.parse(approvalUrl));
+                                    }
                                 } else if (error != null) {
                                     sendAnalyticsEvent(request.getPaymentType(), "local-payment.webswitch.initiate.failed");
                                 }
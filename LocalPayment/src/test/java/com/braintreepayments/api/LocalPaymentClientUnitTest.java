@@ -182,6 +182,20 @@ public class LocalPaymentClientUnitTest {
         verify(localPaymentApi).createPaymentMethod(same(request), any(LocalPaymentStartCallback.class));
     }
 
+    @Test
+    public void startPayment_prefetchesClientMetadataId() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(payPalEnabledConfig)
+                .build();
+        LocalPaymentApi localPaymentApi = new MockLocalPaymentApiBuilder().build();
+
+        LocalPaymentClient sut = new LocalPaymentClient(activity, lifecycle, braintreeClient, payPalDataCollector, localPaymentApi);
+        LocalPaymentRequest request = getIdealLocalPaymentRequest();
+        sut.startPayment(request, localPaymentStartCallback);
+
+        verify(payPalDataCollector).prefetchClientMetadataId(braintreeClient.getApplicationContext(), payPalEnabledConfig);
+    }
+
     @Test
     public void startPayment_success_forwardsResultToCallback() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -200,6 +214,25 @@ public class LocalPaymentClientUnitTest {
         verify(localPaymentStartCallback).onResult(same(localPaymentResult), (Exception) isNull());
     }
 
+    @Test
+    public void startPayment_success_hintsApprovalUrlToBrowser() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(payPalEnabledConfig)
+                .build();
+
+        LocalPaymentResult localPaymentResult = mock(LocalPaymentResult.class);
+        when(localPaymentResult.getApprovalUrl()).thenReturn("https://sample.com/approval?token=sample-token");
+        LocalPaymentApi localPaymentApi = new MockLocalPaymentApiBuilder()
+                .createPaymentMethodSuccess(localPaymentResult)
+                .build();
+
+        LocalPaymentClient sut = new LocalPaymentClient(activity, lifecycle, braintreeClient, payPalDataCollector, localPaymentApi);
+        LocalPaymentRequest request = getIdealLocalPaymentRequest();
+        sut.startPayment(request, localPaymentStartCallback);
+
+        verify(braintreeClient).mayLaunchBrowserUrl(Uri.parse("https://sample.com/approval?token=sample-token"));
+    }
+
     @Test
     public void startPayment_success_sendsAnalyticsEvents() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -8,10 +8,6 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
@@ -159,27 +155,29 @@ public class PayPalCheckoutRequest extends PayPalRequest implements Parcelable {
         return shouldRequestBillingAgreement;
     }
 
-    String createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws JSONException {
-        JSONObject parameters = new JSONObject()
-                .put(RETURN_URL_KEY, successUrl)
-                .put(CANCEL_URL_KEY, cancelUrl)
-                .put(OFFER_PAY_LATER_KEY, shouldOfferPayLater);
+    JsonWriter createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) {
+        JsonWriter writer = new JsonWriter()
+                .beginObject()
+                .optField(RETURN_URL_KEY, successUrl)
+                .optField(CANCEL_URL_KEY, cancelUrl)
+                .field(OFFER_PAY_LATER_KEY, shouldOfferPayLater);
 
         if (authorization instanceof ClientToken) {
-            parameters.put(AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
+            writer.optField(AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
         } else {
-            parameters.put(TOKENIZATION_KEY, authorization.getBearer());
+            writer.optField(TOKENIZATION_KEY, authorization.getBearer());
         }
 
         if (shouldRequestBillingAgreement) {
-            parameters.put(REQUEST_BILLING_AGREEMENT_KEY, true);
+            writer.field(REQUEST_BILLING_AGREEMENT_KEY, true);
         }
 
         String billingAgreementDescription = getBillingAgreementDescription();
         if (shouldRequestBillingAgreement && !TextUtils.isEmpty(billingAgreementDescription)) {
-            JSONObject details = new JSONObject()
-                    .put(DESCRIPTION_KEY, billingAgreementDescription);
-            parameters.put(BILLING_AGREEMENT_DETAILS_KEY, details);
+            writer.name(BILLING_AGREEMENT_DETAILS_KEY)
+                    .beginObject()
+                    .field(DESCRIPTION_KEY, billingAgreementDescription)
+                    .endObject();
         }
 
         String currencyCode = getCurrencyCode();
@@ -187,61 +185,58 @@ public class PayPalCheckoutRequest extends PayPalRequest implements Parcelable {
             currencyCode = configuration.getPayPalCurrencyIsoCode();
         }
 
-        parameters
-                .put(AMOUNT_KEY, amount)
-                .put(CURRENCY_ISO_CODE_KEY, currencyCode)
-                .put(INTENT_KEY, intent);
+        writer
+                .optField(AMOUNT_KEY, amount)
+                .optField(CURRENCY_ISO_CODE_KEY, currencyCode)
+                .optField(INTENT_KEY, intent);
 
         if (!getLineItems().isEmpty()) {
-            JSONArray lineItems = new JSONArray();
+            writer.name(LINE_ITEMS_KEY).beginArray();
             for (PayPalLineItem lineItem : getLineItems()) {
-                lineItems.put(lineItem.toJson());
+                lineItem.writeJson(writer);
             }
-            parameters.put(LINE_ITEMS_KEY, lineItems);
+            writer.endArray();
+        }
+
+        PostalAddress shippingAddress = getShippingAddressOverride();
+        if (shippingAddress != null) {
+            writer
+                    .optField(PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress())
+                    .optField(PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress())
+                    .optField(PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality())
+                    .optField(PostalAddressParser.REGION_KEY, shippingAddress.getRegion())
+                    .optField(PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode())
+                    .optField(PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2())
+                    .optField(PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName());
         }
 
-        JSONObject experienceProfile = new JSONObject();
-        experienceProfile.put(NO_SHIPPING_KEY, !isShippingAddressRequired());
-        experienceProfile.put(LANDING_PAGE_TYPE_KEY, getLandingPageType());
+        writer
+                .optField(MERCHANT_ACCOUNT_ID, getMerchantAccountId())
+                .optField(CORRELATION_ID_KEY, getRiskCorrelationId());
+
         String displayName = getDisplayName();
         if (TextUtils.isEmpty(displayName)) {
             displayName = configuration.getPayPalDisplayName();
         }
-        experienceProfile.put(DISPLAY_NAME_KEY, displayName);
 
-        if (getLocaleCode() != null) {
-            experienceProfile.put(LOCALE_CODE_KEY, getLocaleCode());
-        }
+        writer.name(EXPERIENCE_PROFILE_KEY)
+                .beginObject()
+                .field(NO_SHIPPING_KEY, !isShippingAddressRequired())
+                .optField(LANDING_PAGE_TYPE_KEY, getLandingPageType())
+                .optField(DISPLAY_NAME_KEY, displayName)
+                .optField(LOCALE_CODE_KEY, getLocaleCode());
 
         if (getUserAction() != USER_ACTION_DEFAULT) {
-            experienceProfile.put(USER_ACTION_KEY, getUserAction());
+            writer.optField(USER_ACTION_KEY, getUserAction());
         }
 
-        if (getShippingAddressOverride() != null) {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, !isShippingAddressEditable());
-
-            PostalAddress shippingAddress = getShippingAddressOverride();
-            parameters.put(PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress());
-            parameters.put(PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress());
-            parameters.put(PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality());
-            parameters.put(PostalAddressParser.REGION_KEY, shippingAddress.getRegion());
-            parameters.put(PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode());
-            parameters.put(PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2());
-            parameters.put(PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName());
+        if (shippingAddress != null) {
+            writer.field(ADDRESS_OVERRIDE_KEY, !isShippingAddressEditable());
         } else {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, false);
-        }
-
-        if (getMerchantAccountId() != null) {
-            parameters.put(MERCHANT_ACCOUNT_ID, getMerchantAccountId());
-        }
-
-        if (getRiskCorrelationId() != null) {
-            parameters.put(CORRELATION_ID_KEY, getRiskCorrelationId());
+            writer.field(ADDRESS_OVERRIDE_KEY, false);
         }
 
-        parameters.put(EXPERIENCE_PROFILE_KEY, experienceProfile);
-        return parameters.toString();
+        return writer.endObject().endObject();
     }
 
     PayPalCheckoutRequest(Parcel in) {
@@ -64,6 +64,7 @@ public class PayPalClient {
     PayPalClient(FragmentActivity activity, Lifecycle lifecycle, BraintreeClient braintreeClient, PayPalInternalClient internalPayPalClient) {
         this.braintreeClient = braintreeClient;
         this.internalPayPalClient = internalPayPalClient;
+        braintreeClient.warmUpBrowser();
         if (activity != null && lifecycle != null) {
             PayPalLifecycleObserver observer = new PayPalLifecycleObserver(this);
             lifecycle.addObserver(observer);
@@ -176,6 +177,31 @@ public class PayPalClient {
         }
     }
 
+    /**
+     * Create the PayPal payment resource for a request ahead of time, e.g. once the cart total is
+     * known, so that a later call to {@link #tokenizePayPalAccount(FragmentActivity, PayPalRequest)}
+     * with a request with the same fields can launch the browser without waiting for PayPal.
+     * <p>
+     * The prepared payment resource is used at most once. It is discarded when
+     * {@link #tokenizePayPalAccount(FragmentActivity, PayPalRequest)} is called with a request
+     * whose fields differ, or when it is more than 10 minutes old. Errors are not reported; the
+     * payment resource is created again when the PayPal flow is started, including a flow that
+     * was started while the payment resource was still being prepared.
+     *
+     * @param payPalRequest a {@link PayPalRequest} used to customize the request.
+     */
+    public void prepare(@NonNull final PayPalRequest payPalRequest) {
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (payPalConfigInvalid(configuration)) {
+                    return;
+                }
+                internalPayPalClient.prepareRequest(braintreeClient.getApplicationContext(), payPalRequest);
+            }
+        });
+    }
+
     /**
      * @param activity              Android FragmentActivity
      * @param payPalCheckoutRequest a {@link PayPalCheckoutRequest} used to customize the request.
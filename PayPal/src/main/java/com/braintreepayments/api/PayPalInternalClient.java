@@ -9,6 +9,8 @@ import androidx.annotation.VisibleForTesting;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.concurrent.TimeUnit;
+
 class PayPalInternalClient {
 
     private static final String CREATE_SINGLE_PAYMENT_ENDPOINT = "paypal_hermes/create_payment_resource";
@@ -21,6 +23,10 @@ class PayPalInternalClient {
     private final PayPalDataCollector payPalDataCollector;
     private final ApiClient apiClient;
 
+    // a prepared payment resource expires before the PayPal token in its approval URL does
+    private final PreparedResultHolder<PayPalResponse> preparedResponses =
+            new PreparedResultHolder<>(TimeUnit.MINUTES.toMillis(10));
+
     PayPalInternalClient(BraintreeClient braintreeClient) {
         this(braintreeClient, new PayPalDataCollector(braintreeClient), new ApiClient(braintreeClient));
     }
@@ -35,7 +41,27 @@ class PayPalInternalClient {
         this.successUrl = String.format("%s://onetouch/v1/success", braintreeClient.getReturnUrlScheme());
     }
 
-    void sendRequest(final Context context, final PayPalRequest payPalRequest, final PayPalInternalClientCallback callback) {
+    void sendRequest(Context context, PayPalRequest payPalRequest, PayPalInternalClientCallback callback) {
+        sendRequest(context, payPalRequest, false, callback);
+    }
+
+    /**
+     * Create the payment resource for {@code payPalRequest} and keep the {@link PayPalResponse},
+     * so that a later call to {@link #sendRequest(Context, PayPalRequest, PayPalInternalClientCallback)}
+     * with the same request fields returns it without another round trip. Only the most recently
+     * prepared request is kept, and it is used at most once. If preparing fails, requests waiting
+     * on it are sent again instead of receiving the error.
+     */
+    void prepareRequest(Context context, PayPalRequest payPalRequest) {
+        sendRequest(context, payPalRequest, true, new PayPalInternalClientCallback() {
+            @Override
+            public void onResult(@Nullable PayPalResponse payPalResponse, @Nullable Exception error) {
+                // the response is delivered to the request that uses it
+            }
+        });
+    }
+
+    private void sendRequest(final Context context, final PayPalRequest payPalRequest, final boolean isPrepare, final PayPalInternalClientCallback callback) {
         braintreeClient.getAuthorization(new AuthorizationCallback() {
             @Override
             public void onAuthorizationResult(@Nullable final Authorization authorization, @Nullable Exception authError) {
@@ -47,54 +73,73 @@ class PayPalInternalClient {
                                 callback.onResult(null, configError);
                                 return;
                             }
-                            try {
-                                final boolean isBillingAgreement = payPalRequest instanceof PayPalVaultRequest;
-                                String endpoint = isBillingAgreement
-                                        ? SETUP_BILLING_AGREEMENT_ENDPOINT : CREATE_SINGLE_PAYMENT_ENDPOINT;
-                                String url = String.format("/v1/%s", endpoint);
-
-                                String requestBody = payPalRequest.createRequestBody(configuration, authorization, successUrl, cancelUrl);
-
-                                braintreeClient.sendPOST(url, requestBody, new HttpResponseCallback() {
-
-                                    @Override
-                                    public void onResult(String responseBody, Exception httpError) {
-                                        if (responseBody != null) {
-                                            try {
-                                                PayPalResponse payPalResponse = new PayPalResponse(payPalRequest)
-                                                        .successUrl(successUrl);
-
-                                                PayPalPaymentResource paypalPaymentResource = PayPalPaymentResource.fromJson(responseBody);
-                                                String redirectUrl = paypalPaymentResource.getRedirectUrl();
-                                                if (redirectUrl != null) {
-                                                    Uri parsedRedirectUri = Uri.parse(redirectUrl);
-
-                                                    String pairingIdKey = isBillingAgreement ? "ba_token" : "token";
-                                                    String pairingId = parsedRedirectUri.getQueryParameter(pairingIdKey);
-                                                    String clientMetadataId = payPalRequest.getRiskCorrelationId() != null
-                                                            ? payPalRequest.getRiskCorrelationId() : payPalDataCollector.getClientMetadataId(context, configuration);
-
-                                                    if (pairingId != null) {
-                                                        payPalResponse
-                                                                .pairingId(pairingId)
-                                                                .clientMetadataId(clientMetadataId);
-                                                    }
-
-                                                    payPalResponse.approvalUrl(parsedRedirectUri.toString());
+                            final boolean isBillingAgreement = payPalRequest instanceof PayPalVaultRequest;
+                            String endpoint = isBillingAgreement
+                                    ? SETUP_BILLING_AGREEMENT_ENDPOINT : CREATE_SINGLE_PAYMENT_ENDPOINT;
+                            String url = String.format("/v1/%s", endpoint);
+
+                            JsonWriter requestBody = payPalRequest.createRequestBody(configuration, authorization, successUrl, cancelUrl);
+
+                            // the body is only copied into a comparison key when a prepared request is involved
+                            final PreparedResultHolder.PreparedResult<PayPalResponse> pendingPreparedResponse;
+                            if (isPrepare) {
+                                pendingPreparedResponse = preparedResponses.start(requestBody.toString(), System.currentTimeMillis());
+                                if (pendingPreparedResponse == null) {
+                                    // an identical request is already prepared
+                                    return;
+                                }
+                            } else {
+                                pendingPreparedResponse = null;
+                                if (joinPreparedResponse(context, payPalRequest, requestBody, callback)) {
+                                    braintreeClient.sendAnalyticsEvent("paypal.prepared-response.used");
+                                    return;
+                                }
+                            }
+                            if (payPalRequest.getRiskCorrelationId() == null) {
+                                payPalDataCollector.prefetchClientMetadataId(context, configuration);
+                            }
+
+                            final AnalyticsSpan span = new AnalyticsSpan(braintreeClient, url);
+                            braintreeClient.sendPOST(url, requestBody, new HttpResponseCallback() {
+
+                                @Override
+                                public void onResult(String responseBody, Exception httpError) {
+                                    if (responseBody != null) {
+                                        span.end("paypal.create-payment-resource.succeeded");
+                                        try {
+                                            PayPalResponse payPalResponse = new PayPalResponse(payPalRequest)
+                                                    .successUrl(successUrl);
+
+                                            PayPalPaymentResource paypalPaymentResource = PayPalPaymentResource.fromJson(responseBody);
+                                            String redirectUrl = paypalPaymentResource.getRedirectUrl();
+                                            if (redirectUrl != null) {
+                                                Uri parsedRedirectUri = Uri.parse(redirectUrl);
+
+                                                String pairingIdKey = isBillingAgreement ? "ba_token" : "token";
+                                                String pairingId = parsedRedirectUri.getQueryParameter(pairingIdKey);
+                                                String clientMetadataId = payPalRequest.getRiskCorrelationId() != null
+                                                        ? payPalRequest.getRiskCorrelationId() : payPalDataCollector.getClientMetadataId(context, configuration);
+
+                                                if (pairingId != null) {
+                                                    payPalResponse
+                                                            .pairingId(pairingId)
+                                                            .clientMetadataId(clientMetadataId);
                                                 }
-                                                callback.onResult(payPalResponse, null);
 
-                                            } catch (JSONException exception) {
-                                                callback.onResult(null, exception);
+                                                payPalResponse.approvalUrl(parsedRedirectUri.toString());
+                                                braintreeClient.mayLaunchBrowserUrl(parsedRedirectUri);
                                             }
-                                        } else {
-                                            callback.onResult(null, httpError);
+                                            notifyResult(pendingPreparedResponse, payPalResponse, null, callback);
+
+                                        } catch (JSONException exception) {
+                                            notifyResult(pendingPreparedResponse, null, exception, callback);
                                         }
+                                    } else {
+                                        span.end("paypal.create-payment-resource.failed");
+                                        notifyResult(pendingPreparedResponse, null, httpError, callback);
                                     }
-                                });
-                            } catch (JSONException exception) {
-                                callback.onResult(null, exception);
-                            }
+                                }
+                            });
                         }
                     });
                 } else {
@@ -104,6 +149,34 @@ class PayPalInternalClient {
         });
     }
 
+    /**
+     * @return true if {@code callback} receives the response prepared for the same request body
+     */
+    private boolean joinPreparedResponse(final Context context, final PayPalRequest payPalRequest, JsonWriter requestBody, final PayPalInternalClientCallback callback) {
+        PreparedResultHolder.PreparedResult<PayPalResponse> prepared = preparedResponses.take();
+        if (prepared == null || !prepared.matches(requestBody.toString(), System.currentTimeMillis())) {
+            return false;
+        }
+        return prepared.addCallback(new PreparedResultHolder.Callback<PayPalResponse>() {
+            @Override
+            public void onResult(@Nullable PayPalResponse payPalResponse) {
+                if (payPalResponse != null) {
+                    callback.onResult(payPalResponse, null);
+                } else {
+                    // the prepare failed in the background, so send the request again
+                    sendRequest(context, payPalRequest, false, callback);
+                }
+            }
+        });
+    }
+
+    private void notifyResult(PreparedResultHolder.PreparedResult<PayPalResponse> prepared, PayPalResponse payPalResponse, Exception error, PayPalInternalClientCallback callback) {
+        callback.onResult(payPalResponse, error);
+        if (prepared != null) {
+            preparedResponses.complete(prepared, payPalResponse);
+        }
+    }
+
     void tokenize(PayPalAccount payPalAccount, final PayPalBrowserSwitchResultCallback callback) {
         apiClient.tokenizeREST(payPalAccount, new TokenizeCallback() {
             @Override
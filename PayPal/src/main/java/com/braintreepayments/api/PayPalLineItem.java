@@ -263,6 +263,22 @@ public class PayPalLineItem implements Parcelable {
         return new JSONObject();
     }
 
+    void writeJson(JsonWriter writer) {
+        writer.beginObject()
+                .optField(DESCRIPTION_KEY, description)
+                .optField(IMAGE_URL_KEY, imageUrl)
+                .optField(KIND_KEY, kind)
+                .optField(NAME_KEY, name)
+                .optField(PRODUCT_CODE_KEY, productCode)
+                .optField(QUANTITY_KEY, quantity)
+                .optField(UNIT_AMOUNT_KEY, unitAmount)
+                .optField(UNIT_TAX_AMOUNT_KEY, unitTaxAmount)
+                .optField(UPC_CODE_KEY, upcCode)
+                .optField(UPC_TYPE_KEY, upcType)
+                .optField(URL_KEY, url)
+                .endObject();
+    }
+
     PayPalLineItem(Parcel in) {
         description = in.readString();
         imageUrl = in.readString();
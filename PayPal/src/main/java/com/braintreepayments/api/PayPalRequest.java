@@ -7,8 +7,6 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
-import org.json.JSONException;
-
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
@@ -254,7 +252,7 @@ public abstract class PayPalRequest implements Parcelable {
         return landingPageType;
     }
 
-    abstract String createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws JSONException;
+    abstract JsonWriter createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl);
 
     protected PayPalRequest(Parcel in) {
         localeCode = in.readString();
@@ -4,9 +4,6 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
 /**
  * Represents the parameters that are needed to start the PayPal Vault flow
  */
@@ -30,64 +27,61 @@ public class PayPalVaultRequest extends PayPalRequest implements Parcelable {
         return shouldOfferCredit;
     }
 
-    String createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws JSONException {
-        JSONObject parameters = new JSONObject()
-                .put(RETURN_URL_KEY, successUrl)
-                .put(CANCEL_URL_KEY, cancelUrl)
-                .put(OFFER_CREDIT_KEY, shouldOfferCredit);
+    JsonWriter createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) {
+        JsonWriter writer = new JsonWriter()
+                .beginObject()
+                .optField(RETURN_URL_KEY, successUrl)
+                .optField(CANCEL_URL_KEY, cancelUrl)
+                .field(OFFER_CREDIT_KEY, shouldOfferCredit);
 
         if (authorization instanceof ClientToken) {
-            parameters.put(AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
+            writer.optField(AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
         } else {
-            parameters.put(TOKENIZATION_KEY, authorization.getBearer());
+            writer.optField(TOKENIZATION_KEY, authorization.getBearer());
         }
 
         String billingAgreementDescription = getBillingAgreementDescription();
         if (!TextUtils.isEmpty(billingAgreementDescription)) {
-            parameters.put(DESCRIPTION_KEY, billingAgreementDescription);
+            writer.field(DESCRIPTION_KEY, billingAgreementDescription);
+        }
+
+        PostalAddress shippingAddress = getShippingAddressOverride();
+        if (shippingAddress != null) {
+            writer.name(SHIPPING_ADDRESS_KEY)
+                    .beginObject()
+                    .optField(PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress())
+                    .optField(PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress())
+                    .optField(PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality())
+                    .optField(PostalAddressParser.REGION_KEY, shippingAddress.getRegion())
+                    .optField(PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode())
+                    .optField(PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2())
+                    .optField(PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName())
+                    .endObject();
         }
 
-        JSONObject experienceProfile = new JSONObject();
-        experienceProfile.put(NO_SHIPPING_KEY, !isShippingAddressRequired());
-        experienceProfile.put(LANDING_PAGE_TYPE_KEY, getLandingPageType());
+        writer
+                .optField(MERCHANT_ACCOUNT_ID, getMerchantAccountId())
+                .optField(CORRELATION_ID_KEY, getRiskCorrelationId());
+
         String displayName = getDisplayName();
         if (TextUtils.isEmpty(displayName)) {
             displayName = configuration.getPayPalDisplayName();
         }
-        experienceProfile.put(DISPLAY_NAME_KEY, displayName);
-
-        if (getLocaleCode() != null) {
-            experienceProfile.put(LOCALE_CODE_KEY, getLocaleCode());
-        }
 
-        if (getShippingAddressOverride() != null) {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, !isShippingAddressEditable());
+        writer.name(EXPERIENCE_PROFILE_KEY)
+                .beginObject()
+                .field(NO_SHIPPING_KEY, !isShippingAddressRequired())
+                .optField(LANDING_PAGE_TYPE_KEY, getLandingPageType())
+                .optField(DISPLAY_NAME_KEY, displayName)
+                .optField(LOCALE_CODE_KEY, getLocaleCode());
 
-            JSONObject shippingAddressJson = new JSONObject();
-            parameters.put(SHIPPING_ADDRESS_KEY, shippingAddressJson);
-
-            PostalAddress shippingAddress = getShippingAddressOverride();
-            shippingAddressJson.put(PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress());
-            shippingAddressJson.put(PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress());
-            shippingAddressJson.put(PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality());
-            shippingAddressJson.put(PostalAddressParser.REGION_KEY, shippingAddress.getRegion());
-            shippingAddressJson.put(PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode());
-            shippingAddressJson.put(PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2());
-            shippingAddressJson.put(PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName());
+        if (shippingAddress != null) {
+            writer.field(ADDRESS_OVERRIDE_KEY, !isShippingAddressEditable());
         } else {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, false);
-        }
-
-        if (getMerchantAccountId() != null) {
-            parameters.put(MERCHANT_ACCOUNT_ID, getMerchantAccountId());
-        }
-
-        if (getRiskCorrelationId() != null) {
-            parameters.put(CORRELATION_ID_KEY, getRiskCorrelationId());
+            writer.field(ADDRESS_OVERRIDE_KEY, false);
         }
 
-        parameters.put(EXPERIENCE_PROFILE_KEY, experienceProfile);
-        return parameters.toString();
+        return writer.endObject().endObject();
     }
 
     PayPalVaultRequest(Parcel in) {
@@ -13,6 +13,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 
@@ -111,6 +112,43 @@ public class PayPalClientUnitTest {
         verify(lifecycle, never()).addObserver(captor.capture());
     }
 
+    @Test
+    public void constructor_warmsUpBrowser() {
+        PayPalInternalClient payPalInternalClient = new MockPayPalInternalClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+
+        new PayPalClient(null, null, braintreeClient, payPalInternalClient);
+
+        verify(braintreeClient).warmUpBrowser();
+    }
+
+    @Test
+    public void prepare_whenPayPalEnabled_preparesRequest() {
+        PayPalInternalClient payPalInternalClient = new MockPayPalInternalClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(payPalEnabledConfig)
+                .build();
+
+        PayPalClient sut = new PayPalClient(null, null, braintreeClient, payPalInternalClient);
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        sut.prepare(payPalRequest);
+
+        verify(payPalInternalClient).prepareRequest(braintreeClient.getApplicationContext(), payPalRequest);
+    }
+
+    @Test
+    public void prepare_whenPayPalDisabled_doesNotPrepareRequest() {
+        PayPalInternalClient payPalInternalClient = new MockPayPalInternalClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(payPalDisabledConfig)
+                .build();
+
+        PayPalClient sut = new PayPalClient(null, null, braintreeClient, payPalInternalClient);
+        sut.prepare(new PayPalCheckoutRequest("1.00"));
+
+        verify(payPalInternalClient, never()).prepareRequest(any(Context.class), any(PayPalRequest.class));
+    }
+
     @Test
     public void setListener_whenPendingBrowserSwitchResultExists_deliversResultToListener_andSetsPendingResultNull() throws JSONException {
         PayPalAccountNonce nonce = mock(PayPalAccountNonce.class);
@@ -9,11 +9,15 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
+import android.net.Uri;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -22,6 +26,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 
@@ -87,10 +92,10 @@ public class PayPalInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(eq("/v1/paypal_hermes/setup_billing_agreement"), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         JSONObject expected = new JSONObject()
@@ -161,10 +166,10 @@ public class PayPalInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(eq("/v1/paypal_hermes/create_payment_resource"), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         JSONObject expected = new JSONObject()
@@ -219,10 +224,10 @@ public class PayPalInternalClientUnitTest {
         PayPalVaultRequest payPalRequest = new PayPalVaultRequest();
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertFalse(actual.has("authorization_fingerprint"));
@@ -242,10 +247,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setDisplayName("");
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertEquals("paypal_merchant", ((JSONObject) actual.get("experience_profile")).get("brand_name"));
@@ -264,10 +269,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setLocaleCode(null);
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertFalse(((JSONObject) actual.get("experience_profile")).has("locale_code"));
@@ -286,10 +291,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setMerchantAccountId(null);
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertFalse(actual.has("merchant_account_id"));
@@ -308,10 +313,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setShippingAddressOverride(null);
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertEquals(false, ((JSONObject) actual.get("experience_profile")).get("address_override"));
@@ -333,10 +338,10 @@ public class PayPalInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(eq("/v1/paypal_hermes/setup_billing_agreement"), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertEquals(true, ((JSONObject) actual.get("experience_profile")).get("address_override"));
@@ -355,10 +360,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setBillingAgreementDescription("");
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertFalse(actual.has("description"));
@@ -376,10 +381,10 @@ public class PayPalInternalClientUnitTest {
         PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertEquals("INR", actual.get("currency_iso_code"));
@@ -398,10 +403,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setLineItems(new ArrayList<PayPalLineItem>());
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertFalse(actual.has("line_items"));
@@ -455,6 +460,159 @@ public class PayPalInternalClientUnitTest {
         assertEquals("sample-client-metadata-id", payPalResponse.getClientMetadataId());
     }
 
+    @Test
+    public void sendRequest_whenRiskCorrelationIdNull_prefetchesClientMetadataIdBeforeSendingRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+
+        InOrder inOrder = inOrder(payPalDataCollector, braintreeClient);
+        inOrder.verify(payPalDataCollector).prefetchClientMetadataId(context, configuration);
+        inOrder.verify(braintreeClient).sendPOST(anyString(), any(JsonWriter.class), any(HttpResponseCallback.class));
+        inOrder.verify(payPalDataCollector).getClientMetadataId(context, configuration);
+    }
+
+    @Test
+    public void sendRequest_whenRiskCorrelationIdNotNull_doesNotPrefetchClientMetadataId() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        payPalRequest.setRiskCorrelationId("risk-correlation-id");
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+
+        verify(payPalDataCollector, never()).prefetchClientMetadataId(any(Context.class), any(Configuration.class));
+    }
+
+    @Test
+    public void sendRequest_afterPrepareRequestWithSameRequest_returnsPreparedResponseWithoutSendingRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        sut.prepareRequest(context, payPalRequest);
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+
+        verify(braintreeClient, times(1)).sendPOST(anyString(), any(JsonWriter.class), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendAnalyticsEvent("paypal.prepared-response.used");
+
+        ArgumentCaptor<PayPalResponse> captor = ArgumentCaptor.forClass(PayPalResponse.class);
+        verify(payPalInternalClientCallback).onResult(captor.capture(), (Exception) isNull());
+        assertEquals("EC-HERMES-SANDBOX-EC-TOKEN", captor.getValue().getPairingId());
+    }
+
+    @Test
+    public void sendRequest_afterPrepareRequestWithDifferentRequest_sendsRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        sut.prepareRequest(context, new PayPalCheckoutRequest("1.00"));
+        sut.sendRequest(context, new PayPalCheckoutRequest("2.00"), payPalInternalClientCallback);
+
+        verify(braintreeClient, times(2)).sendPOST(anyString(), any(JsonWriter.class), any(HttpResponseCallback.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent("paypal.prepared-response.used");
+    }
+
+    @Test
+    public void sendRequest_afterPrepareRequest_onlyUsesPreparedResponseOnce() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        sut.prepareRequest(context, payPalRequest);
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+
+        verify(braintreeClient, times(2)).sendPOST(anyString(), any(JsonWriter.class), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void sendRequest_whenPrepareRequestFailed_sendsRequest() {
+        Exception error = new Exception("error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTErrorResponse(error)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        sut.prepareRequest(context, payPalRequest);
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+
+        verify(braintreeClient, times(2)).sendPOST(anyString(), any(JsonWriter.class), any(HttpResponseCallback.class));
+        verify(payPalInternalClientCallback).onResult(null, error);
+    }
+
+    @Test
+    public void sendRequest_whenInFlightPrepareRequestFails_sendsRequestAgain() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        sut.prepareRequest(context, payPalRequest);
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+
+        ArgumentCaptor<HttpResponseCallback> captor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendPOST(anyString(), any(JsonWriter.class), captor.capture());
+        captor.getValue().onResult(null, new Exception("prepare error"));
+
+        verify(payPalInternalClientCallback, never()).onResult((PayPalResponse) any(), (Exception) any());
+        verify(braintreeClient, times(2)).sendPOST(anyString(), any(JsonWriter.class), captor.capture());
+
+        captor.getValue().onResult(Fixtures.PAYPAL_HERMES_RESPONSE, null);
+        verify(payPalInternalClientCallback).onResult(any(PayPalResponse.class), (Exception) isNull());
+    }
+
+    @Test
+    public void prepareRequest_whenSameRequestIsAlreadyPrepared_doesNotSendRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        sut.prepareRequest(context, payPalRequest);
+        sut.prepareRequest(context, payPalRequest);
+
+        verify(braintreeClient, times(1)).sendPOST(anyString(), any(JsonWriter.class), any(HttpResponseCallback.class));
+    }
+
     @Test
     public void sendRequest_withPayPalCheckoutRequest_whenRequestBillingAgreementFalse_andBillingAgreementDescriptionSet_doesNotSettBillingAgreementDescription() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -469,10 +627,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setBillingAgreementDescription("Billing agreement description");
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonWriter> captor = ArgumentCaptor.forClass(JsonWriter.class);
         verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
+        String result = captor.getValue().toString();
         JSONObject actual = new JSONObject(result);
 
         assertFalse(actual.has("request_billing_agreement"));
@@ -544,6 +702,27 @@ public class PayPalInternalClientUnitTest {
         assertEquals(expectedUrl, payPalResponse.getApprovalUrl());
     }
 
+    @Test
+    public void sendRequest_onSuccess_hintsApprovalUrlToBrowser() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+
+        ArgumentCaptor<PayPalResponse> responseCaptor = ArgumentCaptor.forClass(PayPalResponse.class);
+        verify(payPalInternalClientCallback).onResult(responseCaptor.capture(), (Exception) isNull());
+
+        ArgumentCaptor<Uri> uriCaptor = ArgumentCaptor.forClass(Uri.class);
+        verify(braintreeClient).mayLaunchBrowserUrl(uriCaptor.capture());
+        assertEquals(responseCaptor.getValue().getApprovalUrl(), uriCaptor.getValue().toString());
+    }
+
     @Test
     public void sendRequest_propagatesHttpErrors() {
         Exception httpError = new Exception("http error");
@@ -7,6 +7,7 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 
 @RunWith(RobolectricTestRunner.class)
 public class PayPalLineItemUnitTest {
@@ -36,5 +37,19 @@ public class PayPalLineItemUnitTest {
         assertEquals("UPC-2", json.getString("upc_type"));
         assertEquals("upc-code", json.getString("upc_code"));
     }
-}
 
+    @Test
+    public void writeJson_writesSameKeysAndValuesAsToJson() throws JSONException {
+        PayPalLineItem item = new PayPalLineItem(PayPalLineItem.KIND_CREDIT, "An Item", "1", "2");
+        item.setDescription("A \"quoted\" item");
+        item.setUrl("http://example.com");
+
+        JsonWriter writer = new JsonWriter();
+        item.writeJson(writer);
+        JSONObject json = new JSONObject(writer.toString());
+
+        assertEquals(item.toJson().toString(), json.toString());
+        assertEquals("A \"quoted\" item", json.getString("description"));
+        assertFalse(json.has("upc_code"));
+    }
+}
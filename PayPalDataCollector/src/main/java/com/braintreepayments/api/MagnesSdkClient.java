@@ -0,0 +1,87 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+
+import lib.android.paypal.com.magnessdk.Environment;
+import lib.android.paypal.com.magnessdk.InvalidInputException;
+import lib.android.paypal.com.magnessdk.MagnesResult;
+import lib.android.paypal.com.magnessdk.MagnesSDK;
+import lib.android.paypal.com.magnessdk.MagnesSettings;
+import lib.android.paypal.com.magnessdk.MagnesSource;
+
+/**
+ * {@link MagnesInternalClient} backed by the Magnes SDK singleton. Magnes is only set up again
+ * when the environment, application GUID or beacon setting changes, so there is one instance per
+ * process to track the settings Magnes was last set up with.
+ */
+class MagnesSdkClient implements MagnesInternalClient {
+
+    private static volatile MagnesSdkClient INSTANCE;
+
+    static MagnesSdkClient getInstance() {
+        if (INSTANCE == null) {
+            synchronized (MagnesSdkClient.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new MagnesSdkClient(MagnesSDK.getInstance());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final MagnesSDK magnesSDK;
+
+    private Environment setUpEnvironment;
+    private String setUpApplicationGuid;
+    private boolean setUpDisableBeacon;
+
+    @VisibleForTesting
+    MagnesSdkClient(MagnesSDK magnesSDK) {
+        this.magnesSDK = magnesSDK;
+    }
+
+    @Override
+    public synchronized String getClientMetadataId(Context context, Configuration configuration, PayPalDataCollectorRequest request) {
+        if (context == null) {
+            return "";
+        }
+
+        String btEnvironment = configuration.getEnvironment();
+        Environment magnesEnvironment = btEnvironment.equalsIgnoreCase("sandbox")
+                ? Environment.SANDBOX : Environment.LIVE;
+
+        try {
+            if (!isSetUp(magnesEnvironment, request)) {
+                MagnesSettings.Builder magnesSettingsBuilder = new MagnesSettings.Builder(context.getApplicationContext())
+                        .setMagnesSource(MagnesSource.BRAINTREE)
+                        .disableBeacon(request.isDisableBeacon())
+                        .setMagnesEnvironment(magnesEnvironment)
+                        .setAppGuid(request.getApplicationGuid());
+
+                magnesSDK.setUp(magnesSettingsBuilder.build());
+
+                setUpEnvironment = magnesEnvironment;
+                setUpApplicationGuid = request.getApplicationGuid();
+                setUpDisableBeacon = request.isDisableBeacon();
+            }
+
+            MagnesResult result = magnesSDK.collectAndSubmit(context.getApplicationContext(), request.getClientMetadataId(), request.getAdditionalData());
+            return result.getPaypalClientMetaDataId();
+        } catch (InvalidInputException e) {
+            // Either clientMetadataId or appGuid exceeds their character limit
+            Log.e("Exception", "Error fetching client metadata ID. Contact Braintree Support for assistance.", e);
+            return "";
+        }
+    }
+
+    private boolean isSetUp(Environment environment, PayPalDataCollectorRequest request) {
+        String applicationGuid = request.getApplicationGuid();
+        return environment == setUpEnvironment
+                && setUpDisableBeacon == request.isDisableBeacon()
+                && (setUpApplicationGuid == null ? applicationGuid == null : setUpApplicationGuid.equals(applicationGuid));
+    }
+}
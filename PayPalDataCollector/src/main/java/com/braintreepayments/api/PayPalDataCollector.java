@@ -3,7 +3,6 @@ package com.braintreepayments.api;
 import android.content.Context;
 import android.text.TextUtils;
 
-import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
@@ -11,6 +10,10 @@ import androidx.annotation.VisibleForTesting;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
 /**
  * PayPalDataCollector is used to collect PayPal specific device information to aid in fraud detection and prevention.
  */
@@ -21,20 +24,37 @@ public class PayPalDataCollector {
     private final MagnesInternalClient magnesInternalClient;
     private final UUIDHelper uuidHelper;
     private final BraintreeClient braintreeClient;
+    private final Scheduler scheduler;
+
+    private volatile String installationGUID;
+
+    private String cachedSessionId;
+    private String cachedEnvironment;
+    private FutureTask<String> cachedClientMetadataId;
 
     public PayPalDataCollector(@NonNull BraintreeClient braintreeClient) {
-        this(braintreeClient, new MagnesInternalClient(), new UUIDHelper());
+        this(braintreeClient, MagnesSdkClient.getInstance(), new UUIDHelper());
     }
 
     @VisibleForTesting
     PayPalDataCollector(BraintreeClient braintreeClient, MagnesInternalClient magnesInternalClient, UUIDHelper uuidHelper) {
+        this(braintreeClient, magnesInternalClient, uuidHelper, new ThreadScheduler());
+    }
+
+    @VisibleForTesting
+    PayPalDataCollector(BraintreeClient braintreeClient, MagnesInternalClient magnesInternalClient, UUIDHelper uuidHelper, Scheduler scheduler) {
         this.braintreeClient = braintreeClient;
         this.magnesInternalClient = magnesInternalClient;
         this.uuidHelper = uuidHelper;
+        this.scheduler = scheduler;
     }
 
     String getPayPalInstallationGUID(Context context) {
-        return uuidHelper.getInstallationGUID(context);
+        // the installation GUID is created once and never changes, so only read it from disk once
+        if (installationGUID == null) {
+            installationGUID = uuidHelper.getInstallationGUID(context);
+        }
+        return installationGUID;
     }
 
     /**
@@ -43,19 +63,114 @@ public class PayPalDataCollector {
      * originating from a valid, user-consented device and application. This helps reduce fraud and
      * decrease declines. This method MUST be called prior to initiating a pre-consented payment (a
      * "future payment") from a mobile device. Pass the result to your server, to include in the
-     * payment request sent to PayPal. Do not otherwise cache or store this value.
+     * payment request sent to PayPal.
+     * <p>
+     * The Client Metadata ID is collected once per {@link BraintreeClient} session and environment.
+     * Call {@link #invalidateClientMetadataId()} to collect a new one.
      *
      * @param context       Android Context
      * @param configuration The merchant configuration
      */
-    @MainThread
     String getClientMetadataId(Context context, Configuration configuration) {
+        FutureTask<String> task;
+        boolean isNewTask = false;
+        synchronized (this) {
+            task = getCachedClientMetadataId(configuration);
+            if (task == null) {
+                task = createClientMetadataIdTask(context, configuration);
+                cacheClientMetadataId(configuration, task);
+                isNewTask = true;
+            }
+        }
+        if (isNewTask) {
+            task.run();
+        }
+
+        try {
+            String clientMetadataId = task.get();
+            if (TextUtils.isEmpty(clientMetadataId)) {
+                // collection failed, so try again next time
+                removeCachedClientMetadataId(task);
+            }
+            return clientMetadataId;
+        } catch (ExecutionException ignored) {
+            // fall back to collecting on the calling thread
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        removeCachedClientMetadataId(task);
+
         PayPalDataCollectorRequest request = new PayPalDataCollectorRequest()
                 .setApplicationGuid(getPayPalInstallationGUID(context));
-
         return getClientMetadataId(context, request, configuration);
     }
 
+    /**
+     * Starts collecting a Client Metadata ID on a background thread, so that the next call to
+     * {@link #getClientMetadataId(Context, Configuration)} in the same session and environment
+     * returns it without running Magnes on the calling thread. Call this before a network request
+     * whose response needs a Client Metadata ID. Does nothing if the Client Metadata ID for the
+     * session has already been collected or is being collected.
+     *
+     * @param context       Android Context
+     * @param configuration The merchant configuration
+     */
+    void prefetchClientMetadataId(Context context, Configuration configuration) {
+        FutureTask<String> task;
+        synchronized (this) {
+            if (getCachedClientMetadataId(configuration) != null) {
+                return;
+            }
+            task = createClientMetadataIdTask(context, configuration);
+            cacheClientMetadataId(configuration, task);
+        }
+        scheduler.runOnBackground(task);
+    }
+
+    /**
+     * Discard the Client Metadata ID collected for the current session, so that the next call to
+     * {@link #collectDeviceData(Context, PayPalDataCollectorCallback)} collects a new one, e.g.
+     * when the customer changes.
+     */
+    public synchronized void invalidateClientMetadataId() {
+        cachedSessionId = null;
+        cachedEnvironment = null;
+        cachedClientMetadataId = null;
+    }
+
+    private FutureTask<String> createClientMetadataIdTask(final Context context, final Configuration configuration) {
+        return new FutureTask<>(new Callable<String>() {
+            @Override
+            public String call() {
+                PayPalDataCollectorRequest request = new PayPalDataCollectorRequest()
+                        .setApplicationGuid(getPayPalInstallationGUID(context));
+                return magnesInternalClient.getClientMetadataId(context, configuration, request);
+            }
+        });
+    }
+
+    private synchronized FutureTask<String> getCachedClientMetadataId(Configuration configuration) {
+        boolean isSameSession = isEqual(cachedSessionId, braintreeClient.getSessionId())
+                && isEqual(cachedEnvironment, configuration.getEnvironment());
+        return isSameSession ? cachedClientMetadataId : null;
+    }
+
+    private synchronized void cacheClientMetadataId(Configuration configuration, FutureTask<String> task) {
+        cachedSessionId = braintreeClient.getSessionId();
+        cachedEnvironment = configuration.getEnvironment();
+        cachedClientMetadataId = task;
+    }
+
+    private synchronized void removeCachedClientMetadataId(FutureTask<String> task) {
+        if (cachedClientMetadataId == task) {
+            invalidateClientMetadataId();
+        }
+    }
+
+    private static boolean isEqual(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
     /**
      * Gets a Client Metadata ID at the time of payment activity. Once a user initiates a PayPal payment
      * from their device, PayPal uses the Client Metadata ID to verify that the payment is
@@ -68,7 +183,6 @@ public class PayPalDataCollector {
      * @param request       configures what data to collect.
      * @param configuration the merchant configuration
      */
-    @MainThread
     String getClientMetadataId(Context context, PayPalDataCollectorRequest request, Configuration configuration) {
         return magnesInternalClient.getClientMetadataId(context, configuration, request);
     }
@@ -80,6 +194,9 @@ public class PayPalDataCollector {
      * call it at the beginning of customer checkout.
      * <p>
      * Use the return value on your server, e.g. with `Transaction.sale`.
+     * <p>
+     * The Client Metadata ID is collected once per {@link BraintreeClient} session. Call
+     * {@link #invalidateClientMetadataId()} to collect a new one.
      *
      * @param context  Android Context
      * @param callback {@link PayPalDataCollectorCallback}
@@ -103,29 +220,44 @@ public class PayPalDataCollector {
     public void collectDeviceData(@NonNull final Context context, @Nullable final String riskCorrelationId, @NonNull final PayPalDataCollectorCallback callback) {
         braintreeClient.getConfiguration(new ConfigurationCallback() {
             @Override
-            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+            public void onResult(@Nullable final Configuration configuration, @Nullable Exception error) {
                 if (configuration != null) {
-                    final JSONObject deviceData = new JSONObject();
-                    try {
-                        PayPalDataCollectorRequest request = new PayPalDataCollectorRequest()
-                                .setApplicationGuid(getPayPalInstallationGUID(context));
-                        if (riskCorrelationId != null) {
-                            request.setRiskCorrelationId(riskCorrelationId);
-                        }
-
-                        String correlationId =
-                                magnesInternalClient.getClientMetadataId(context, configuration, request);
-                        if (!TextUtils.isEmpty(correlationId)) {
-                            deviceData.put(CORRELATION_ID_KEY, correlationId);
+                    scheduler.runOnBackground(new Runnable() {
+                        @Override
+                        public void run() {
+                            final String deviceData = getDeviceData(context, configuration, riskCorrelationId);
+                            scheduler.runOnMain(new Runnable() {
+                                @Override
+                                public void run() {
+                                    callback.onResult(deviceData, null);
+                                }
+                            });
                         }
-                    } catch (JSONException ignored) {
-                    }
-                    callback.onResult(deviceData.toString(), null);
-
+                    });
                 } else {
                     callback.onResult(null, error);
                 }
             }
         });
     }
+
+    private String getDeviceData(Context context, Configuration configuration, String riskCorrelationId) {
+        JSONObject deviceData = new JSONObject();
+        try {
+            String correlationId;
+            if (riskCorrelationId != null) {
+                PayPalDataCollectorRequest request = new PayPalDataCollectorRequest()
+                        .setApplicationGuid(getPayPalInstallationGUID(context))
+                        .setRiskCorrelationId(riskCorrelationId);
+                correlationId = magnesInternalClient.getClientMetadataId(context, configuration, request);
+            } else {
+                correlationId = getClientMetadataId(context, configuration);
+            }
+            if (!TextUtils.isEmpty(correlationId)) {
+                deviceData.put(CORRELATION_ID_KEY, correlationId);
+            }
+        } catch (JSONException ignored) {
+        }
+        return deviceData.toString();
+    }
 }
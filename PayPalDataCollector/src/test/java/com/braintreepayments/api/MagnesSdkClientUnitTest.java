@@ -2,7 +2,9 @@ package com.braintreepayments.api;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,7 +28,7 @@ import lib.android.paypal.com.magnessdk.MagnesSettings;
 import lib.android.paypal.com.magnessdk.MagnesSource;
 
 @RunWith(RobolectricTestRunner.class)
-public class MagnesInternalClientUnitTest {
+public class MagnesSdkClientUnitTest {
 
     private Context context;
 
@@ -69,7 +71,7 @@ public class MagnesInternalClientUnitTest {
 
     @Test
     public void getClientMetaDataId_returnsEmptyStringWhenContextIsNull() {
-        MagnesInternalClient sut = new MagnesInternalClient(magnesSDK);
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
         String result = sut.getClientMetadataId(null, sandboxConfiguration, payPalDataCollectorRequest);
         assertEquals("", result);
     }
@@ -78,7 +80,7 @@ public class MagnesInternalClientUnitTest {
     public void getClientMetaDataId_configuresMagnesSourceAsBraintree() throws InvalidInputException {
         when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
 
-        MagnesInternalClient sut = new MagnesInternalClient(magnesSDK);
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
         sut.getClientMetadataId(context, sandboxConfiguration, payPalDataCollectorRequest);
 
         ArgumentCaptor<MagnesSettings> captor = ArgumentCaptor.forClass(MagnesSettings.class);
@@ -92,7 +94,7 @@ public class MagnesInternalClientUnitTest {
     public void getClientMetaDataId_whenBraintreeEnvironmentIsSandbox_configuresMagnesEnvironmentToSandbox() throws InvalidInputException {
         when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
 
-        MagnesInternalClient sut = new MagnesInternalClient(magnesSDK);
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
         sut.getClientMetadataId(context, sandboxConfiguration, payPalDataCollectorRequest);
 
         ArgumentCaptor<MagnesSettings> captor = ArgumentCaptor.forClass(MagnesSettings.class);
@@ -106,7 +108,7 @@ public class MagnesInternalClientUnitTest {
     public void getClientMetaDataId_whenBraintreeEnvironmentIsProd_configuresMagnesEnvironmentToLive() throws InvalidInputException {
         when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
 
-        MagnesInternalClient sut = new MagnesInternalClient(magnesSDK);
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
         sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
 
         ArgumentCaptor<MagnesSettings> captor = ArgumentCaptor.forClass(MagnesSettings.class);
@@ -120,7 +122,7 @@ public class MagnesInternalClientUnitTest {
     public void getClientMetaDataId_forwardsDisableBeaconOptionToMagnes() throws InvalidInputException {
         when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
 
-        MagnesInternalClient sut = new MagnesInternalClient(magnesSDK);
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
         sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
 
         ArgumentCaptor<MagnesSettings> captor = ArgumentCaptor.forClass(MagnesSettings.class);
@@ -134,7 +136,7 @@ public class MagnesInternalClientUnitTest {
     public void getClientMetaDataId_forwardsApplicationGUIDOptionToMagnes() throws InvalidInputException {
         when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
 
-        MagnesInternalClient sut = new MagnesInternalClient(magnesSDK);
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
         sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
 
         ArgumentCaptor<MagnesSettings> captor = ArgumentCaptor.forClass(MagnesSettings.class);
@@ -149,7 +151,7 @@ public class MagnesInternalClientUnitTest {
         PayPalDataCollectorRequest requestWithInvalidGUID = new PayPalDataCollectorRequest()
                 .setApplicationGuid("invalid guid");
 
-        MagnesInternalClient sut = new MagnesInternalClient(magnesSDK);
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
         String result = sut.getClientMetadataId(context, prodConfiguration, requestWithInvalidGUID);
 
         assertEquals("", result);
@@ -159,7 +161,7 @@ public class MagnesInternalClientUnitTest {
     public void getClientMetaDataId_forwardsClientMetadataIdFromMagnesStart() throws InvalidInputException {
         when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
 
-        MagnesInternalClient sut = new MagnesInternalClient(magnesSDK);
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
         String result = sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
 
         assertEquals("magnes-client-metadata-id", result);
@@ -170,9 +172,61 @@ public class MagnesInternalClientUnitTest {
 
         when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenThrow(new InvalidInputException("invalid input"));
 
-        MagnesInternalClient sut = new MagnesInternalClient(magnesSDK);
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
         String result = sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
 
         assertEquals("", result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getClientMetaDataId_whenSettingsAreUnchanged_setsUpMagnesOnce() throws InvalidInputException {
+        when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
+
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
+        sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
+        String result = sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
+
+        assertEquals("magnes-client-metadata-id", result);
+        verify(magnesSDK, times(1)).setUp(any(MagnesSettings.class));
+        verify(magnesSDK, times(2)).collectAndSubmit(context, "sample-client-metadata-id", additionalData);
+    }
+
+    @Test
+    public void getClientMetaDataId_whenEnvironmentChanges_setsUpMagnesAgain() throws InvalidInputException {
+        when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
+
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
+        sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
+        sut.getClientMetadataId(context, sandboxConfiguration, payPalDataCollectorRequest);
+
+        ArgumentCaptor<MagnesSettings> captor = ArgumentCaptor.forClass(MagnesSettings.class);
+        verify(magnesSDK, times(2)).setUp(captor.capture());
+        assertEquals(Environment.SANDBOX, captor.getAllValues().get(1).getEnvironment());
+    }
+
+    @Test
+    public void getClientMetaDataId_whenBeaconSettingChanges_setsUpMagnesAgain() throws InvalidInputException {
+        when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
+
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
+        sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
+        payPalDataCollectorRequest.setDisableBeacon(false);
+        sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
+
+        verify(magnesSDK, times(2)).setUp(any(MagnesSettings.class));
+    }
+
+    @Test
+    public void getClientMetaDataId_whenSetUpFails_setsUpMagnesOnNextCall() throws InvalidInputException {
+        when(magnesSDK.collectAndSubmit(context, "sample-client-metadata-id", additionalData)).thenReturn(magnesResult);
+        PayPalDataCollectorRequest requestWithInvalidGUID = new PayPalDataCollectorRequest()
+                .setApplicationGuid("invalid guid");
+
+        MagnesSdkClient sut = new MagnesSdkClient(magnesSDK);
+        sut.getClientMetadataId(context, prodConfiguration, requestWithInvalidGUID);
+        String result = sut.getClientMetadataId(context, prodConfiguration, payPalDataCollectorRequest);
+
+        assertEquals("magnes-client-metadata-id", result);
+        verify(magnesSDK, times(1)).setUp(any(MagnesSettings.class));
+    }
+}
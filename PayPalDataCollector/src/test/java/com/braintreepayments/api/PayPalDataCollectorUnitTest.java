@@ -5,6 +5,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,6 +28,8 @@ public class PayPalDataCollectorUnitTest {
     private Context context;
     private String sampleInstallationGUID;
     private Configuration configuration;
+    private Configuration sandboxConfiguration;
+    private Configuration productionConfiguration;
 
     private UUIDHelper uuidHelper;
 
@@ -40,6 +44,10 @@ public class PayPalDataCollectorUnitTest {
         context = ApplicationProvider.getApplicationContext();
 
         configuration = mock(Configuration.class);
+        sandboxConfiguration = mock(Configuration.class);
+        when(sandboxConfiguration.getEnvironment()).thenReturn("sandbox");
+        productionConfiguration = mock(Configuration.class);
+        when(productionConfiguration.getEnvironment()).thenReturn("production");
 
         // this uuid has no actual meaning; magnes requires a valid guid for tests
         sampleInstallationGUID = "0665203b-16e4-4ce2-be98-d7d73ec32e8a";
@@ -106,7 +114,7 @@ public class PayPalDataCollectorUnitTest {
                 .configurationError(configError)
                 .build();
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
 
         PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -123,7 +131,7 @@ public class PayPalDataCollectorUnitTest {
         when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
 
         PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -144,7 +152,7 @@ public class PayPalDataCollectorUnitTest {
         when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
 
         PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
         sut.collectDeviceData(context, "custom-client-metadata-id", callback);
@@ -165,7 +173,7 @@ public class PayPalDataCollectorUnitTest {
 
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
 
         PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -177,4 +185,146 @@ public class PayPalDataCollectorUnitTest {
         JSONObject json = new JSONObject(deviceData);
         assertEquals("paypal-clientmetadata-id", json.getString("correlation_id"));
     }
+
+    @Test
+    public void prefetchClientMetadataId_collectsClientMetadataIdOnBackgroundThread() {
+        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
+        when(magnesInternalClient.getClientMetadataId(same(context), same(sandboxConfiguration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler);
+        sut.prefetchClientMetadataId(context, sandboxConfiguration);
+
+        verify(magnesInternalClient, never()).getClientMetadataId(any(Context.class), any(Configuration.class), any(PayPalDataCollectorRequest.class));
+
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnBackground(captor.capture());
+        captor.getValue().run();
+
+        ArgumentCaptor<PayPalDataCollectorRequest> requestCaptor = ArgumentCaptor.forClass(PayPalDataCollectorRequest.class);
+        verify(magnesInternalClient).getClientMetadataId(same(context), same(sandboxConfiguration), requestCaptor.capture());
+        assertEquals(sampleInstallationGUID, requestCaptor.getValue().getApplicationGuid());
+    }
+
+    @Test
+    public void getClientMetadataId_afterPrefetch_returnsPrefetchedClientMetadataId() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(sandboxConfiguration), any(PayPalDataCollectorRequest.class))).thenReturn("prefetched-id");
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
+        sut.prefetchClientMetadataId(context, sandboxConfiguration);
+
+        assertEquals("prefetched-id", sut.getClientMetadataId(context, sandboxConfiguration));
+        verify(magnesInternalClient, times(1)).getClientMetadataId(any(Context.class), any(Configuration.class), any(PayPalDataCollectorRequest.class));
+    }
+
+    @Test
+    public void getClientMetadataId_inSameSessionAndEnvironment_returnsCachedClientMetadataId() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(sandboxConfiguration), any(PayPalDataCollectorRequest.class)))
+                .thenReturn("first-id", "second-id");
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
+
+        assertEquals("first-id", sut.getClientMetadataId(context, sandboxConfiguration));
+        assertEquals("first-id", sut.getClientMetadataId(context, sandboxConfiguration));
+        verify(magnesInternalClient, times(1)).getClientMetadataId(any(Context.class), any(Configuration.class), any(PayPalDataCollectorRequest.class));
+    }
+
+    @Test
+    public void getClientMetadataId_afterInvalidateClientMetadataId_collectsNewClientMetadataId() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(sandboxConfiguration), any(PayPalDataCollectorRequest.class)))
+                .thenReturn("first-id", "second-id");
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
+        sut.getClientMetadataId(context, sandboxConfiguration);
+        sut.invalidateClientMetadataId();
+
+        assertEquals("second-id", sut.getClientMetadataId(context, sandboxConfiguration));
+    }
+
+    @Test
+    public void getClientMetadataId_whenSessionChanges_collectsNewClientMetadataId() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(sandboxConfiguration), any(PayPalDataCollectorRequest.class)))
+                .thenReturn("first-id", "second-id");
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        when(braintreeClient.getSessionId()).thenReturn("first-session", "second-session");
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
+        sut.getClientMetadataId(context, sandboxConfiguration);
+
+        assertEquals("second-id", sut.getClientMetadataId(context, sandboxConfiguration));
+    }
+
+    @Test
+    public void getClientMetadataId_whenCollectionFails_doesNotCacheClientMetadataId() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(sandboxConfiguration), any(PayPalDataCollectorRequest.class)))
+                .thenReturn("", "collected-id");
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
+
+        assertEquals("", sut.getClientMetadataId(context, sandboxConfiguration));
+        assertEquals("collected-id", sut.getClientMetadataId(context, sandboxConfiguration));
+    }
+
+    @Test
+    public void prefetchClientMetadataId_whenClientMetadataIdIsCached_doesNotCollectAgain() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(sandboxConfiguration), any(PayPalDataCollectorRequest.class))).thenReturn("collected-id");
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler);
+        sut.getClientMetadataId(context, sandboxConfiguration);
+        sut.prefetchClientMetadataId(context, sandboxConfiguration);
+
+        verify(scheduler, never()).runOnBackground(any(Runnable.class));
+    }
+
+    @Test
+    public void getPayPalInstallationGUID_onlyReadsInstallationGUIDOnce() {
+        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        sut.getPayPalInstallationGUID(context);
+
+        assertEquals(sampleInstallationGUID, sut.getPayPalInstallationGUID(context));
+        verify(uuidHelper, times(1)).getInstallationGUID(context);
+    }
+
+    @Test
+    public void getClientMetadataId_whenPrefetchedForDifferentEnvironment_collectsClientMetadataId() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(sandboxConfiguration), any(PayPalDataCollectorRequest.class))).thenReturn("sandbox-id");
+        when(magnesInternalClient.getClientMetadataId(same(context), same(productionConfiguration), any(PayPalDataCollectorRequest.class))).thenReturn("production-id");
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, new ImmediateScheduler());
+        sut.prefetchClientMetadataId(context, sandboxConfiguration);
+
+        assertEquals("production-id", sut.getClientMetadataId(context, productionConfiguration));
+    }
+
+    @Test
+    public void collectDeviceData_collectsOnBackgroundThreadAndNotifiesOnMainThread() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler);
+
+        PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, callback);
+
+        verify(magnesInternalClient, never()).getClientMetadataId(any(Context.class), any(Configuration.class), any(PayPalDataCollectorRequest.class));
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnBackground(backgroundCaptor.capture());
+        backgroundCaptor.getValue().run();
+
+        verify(magnesInternalClient).getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class));
+        verify(callback, never()).onResult(any(String.class), (Exception) isNull());
+
+        ArgumentCaptor<Runnable> mainCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnMain(mainCaptor.capture());
+        mainCaptor.getValue().run();
+
+        verify(callback).onResult(any(String.class), (Exception) isNull());
+    }
 }
@@ -12,12 +12,15 @@ import com.paypal.checkout.config.CheckoutConfig;
 import com.paypal.checkout.config.Environment;
 import com.paypal.checkout.config.SettingsConfig;
 import com.paypal.checkout.config.UIConfig;
+import com.paypal.checkout.createorder.CreateOrderActions;
 import com.paypal.pyplcheckout.instrumentation.constants.PEnums;
 import com.paypal.pyplcheckout.instrumentation.di.PLog;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Used to tokenize PayPal accounts. For more information see the
  * <a href="https://developer.paypal.com/braintree/docs/guides/paypal/overview/android/v4">documentation</a>
@@ -127,7 +130,7 @@ public class PayPalNativeCheckoutClient {
         }
 
         braintreeClient.getConfiguration((configuration, error) -> {
-            sendPayPalRequest(activity, payPalCheckoutRequest, configuration);
+            sendPayPalRequest(activity, payPalCheckoutRequest, configuration, error);
         });
     }
 
@@ -138,88 +141,113 @@ public class PayPalNativeCheckoutClient {
         }
 
         braintreeClient.getConfiguration((configuration, error) -> {
-            sendPayPalRequest(activity, payPalVaultRequest, configuration);
+            sendPayPalRequest(activity, payPalVaultRequest, configuration, error);
         });
     }
 
     private void sendPayPalRequest(
             final FragmentActivity activity,
             final PayPalNativeRequest payPalRequest,
-            final Configuration configuration
+            final Configuration configuration,
+            final Exception configError
     ) {
+        if (configuration == null) {
+            listener.onPayPalFailure(new Exception(configError));
+            return;
+        }
+
+        // the checkout SDK starts up while the order is created; the order ID is handed to
+        // createOrderActions once both are ready, and a failure is reported to the listener once
+        final AtomicBoolean isFailureReported = new AtomicBoolean(false);
+        final ResultJoiner<CreateOrderActions, PayPalNativeCheckoutResponse> pendingOrder = new ResultJoiner<>(
+            (createOrderActions, createOrderError, payPalResponse, orderError) -> {
+                if (orderError != null) {
+                    // the checkout sheet is canceled once it has no order to load, which must not
+                    // notify the listener a second time
+                    if (isFailureReported.compareAndSet(false, true)) {
+                        listener.onPayPalFailure(orderError);
+                    }
+                } else if (payPalRequest instanceof PayPalNativeCheckoutRequest) {
+                    createOrderActions.set(payPalResponse.getPairingId());
+                    braintreeClient.sendAnalyticsEvent("paypal-native.single-payment.succeeded");
+                } else if (payPalRequest instanceof PayPalNativeCheckoutVaultRequest) {
+                    createOrderActions.setBillingAgreementId(payPalResponse.getPairingId());
+                    braintreeClient.sendAnalyticsEvent("paypal-native.billing-agreement.succeeded");
+                }
+            }
+        );
+        startCheckout(activity, payPalRequest, configuration, pendingOrder, isFailureReported);
+
         internalPayPalClient.sendRequest(activity, payPalRequest, (payPalResponse, error) -> {
             if (payPalResponse != null) {
                 String analyticsPrefix = payPalRequest instanceof PayPalNativeCheckoutVaultRequest ? "billing-agreement" : "single-payment";
                 braintreeClient.sendAnalyticsEvent(String.format("paypal-native.%s.started", analyticsPrefix));
-
-                Environment environment;
-                if ("sandbox".equals(configuration.getEnvironment())) {
-                    environment = Environment.SANDBOX;
-                } else {
-                    environment = Environment.LIVE;
-                }
-                String email = payPalRequest.getUserAuthenticationEmail();
-                AuthConfig authConfig = null;
-                if (email != null) {
-                    authConfig = new AuthConfig(email);
-                }
-
-                // Start PayPalCheckout flow
-                PayPalCheckout.setConfig(
-                    new CheckoutConfig(
-                        activity.getApplication(),
-                        configuration.getPayPalClientId(),
-                        environment,
-                        null,
-                        null,
-                        null,
-                        new SettingsConfig(),
-                        new UIConfig(
-                            false
-                        ),
-                        payPalRequest.getReturnUrl(),
-                        authConfig
-                    )
-                );
-
-                String infoMessage = "BrainTree";
-
-                PLog.transition(
-                    PEnums.TransitionName.BRAINTREE_ROUTING,
-                    PEnums.Outcome.THIRD_PARTY,
-                    PEnums.EventCode.E233,
-                    PEnums.StateName.BRAINTREE,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    null,
-                    infoMessage
-                );
-
-                registerCallbacks(configuration, payPalRequest, payPalResponse);
-
-                PayPalCheckout.startCheckout(createOrderActions -> {
-                    if (payPalRequest instanceof PayPalNativeCheckoutRequest) {
-                        createOrderActions.set(payPalResponse.getPairingId());
-                        braintreeClient.sendAnalyticsEvent("paypal-native.single-payment.succeeded");
-                    } else if (payPalRequest instanceof PayPalNativeCheckoutVaultRequest) {
-                        createOrderActions.setBillingAgreementId(payPalResponse.getPairingId());
-                        braintreeClient.sendAnalyticsEvent("paypal-native.billing-agreement.succeeded");
-                    }
-                });
+                pendingOrder.setSecond(payPalResponse, null);
             } else {
-                listener.onPayPalFailure(new Exception(error));
+                pendingOrder.setSecond(null, new Exception(error));
             }
         });
     }
 
-    private void registerCallbacks(
-            final Configuration configuration,
+    private void startCheckout(
+            final FragmentActivity activity,
             final PayPalNativeRequest payPalRequest,
-            final PayPalNativeCheckoutResponse payPalResponse
+            final Configuration configuration,
+            final ResultJoiner<CreateOrderActions, PayPalNativeCheckoutResponse> pendingOrder,
+            final AtomicBoolean isFailureReported
     ) {
+        Environment environment;
+        if ("sandbox".equals(configuration.getEnvironment())) {
+            environment = Environment.SANDBOX;
+        } else {
+            environment = Environment.LIVE;
+        }
+        String email = payPalRequest.getUserAuthenticationEmail();
+        AuthConfig authConfig = null;
+        if (email != null) {
+            authConfig = new AuthConfig(email);
+        }
+
+        // Start PayPalCheckout flow
+        PayPalCheckout.setConfig(
+            new CheckoutConfig(
+                activity.getApplication(),
+                configuration.getPayPalClientId(),
+                environment,
+                null,
+                null,
+                null,
+                new SettingsConfig(),
+                new UIConfig(
+                    false
+                ),
+                payPalRequest.getReturnUrl(),
+                authConfig
+            )
+        );
+
+        String infoMessage = "BrainTree";
+
+        PLog.transition(
+            PEnums.TransitionName.BRAINTREE_ROUTING,
+            PEnums.Outcome.THIRD_PARTY,
+            PEnums.EventCode.E233,
+            PEnums.StateName.BRAINTREE,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            infoMessage
+        );
+
+        registerCallbacks(payPalRequest, isFailureReported);
+
+        PayPalCheckout.startCheckout(createOrderActions -> pendingOrder.setFirst(createOrderActions, null));
+    }
+
+    private void registerCallbacks(final PayPalNativeRequest payPalRequest, final AtomicBoolean isFailureReported) {
         PayPalCheckout.registerCallbacks(
                 approval -> {
                     braintreeClient.sendAnalyticsEvent("paypal-native.on-approve.started");
@@ -237,11 +265,15 @@ public class PayPalNativeCheckoutClient {
                 null,
                 () -> {
                     braintreeClient.sendAnalyticsEvent("paypal-native.canceled");
-                    listener.onPayPalFailure(new Exception("User has canceled"));
+                    if (isFailureReported.compareAndSet(false, true)) {
+                        listener.onPayPalFailure(new Exception("User has canceled"));
+                    }
                 },
                 errorInfo -> {
                     braintreeClient.sendAnalyticsEvent("paypal-native.on-error.failed");
-                    listener.onPayPalFailure(new Exception(errorInfo.getError().getMessage()));
+                    if (isFailureReported.compareAndSet(false, true)) {
+                        listener.onPayPalFailure(new Exception(errorInfo.getError().getMessage()));
+                    }
                 }
         );
     }
@@ -47,6 +47,9 @@ class PayPalNativeCheckoutInternalClient {
                         String url = String.format("/v1/%s", endpoint);
 
                         String requestBody = payPalRequest.createRequestBody(configuration, authorization, successUrl, cancelUrl);
+                        if (payPalRequest.getRiskCorrelationId() == null) {
+                            payPalDataCollector.prefetchClientMetadataId(context, configuration);
+                        }
 
                         braintreeClient.sendPOST(url, requestBody, (responseBody, httpError) -> {
                             if (responseBody != null) {
@@ -12,12 +12,16 @@ import com.paypal.checkout.config.CheckoutConfig
 import com.paypal.checkout.config.Environment
 import com.paypal.checkout.config.SettingsConfig
 import com.paypal.checkout.config.UIConfig
+import com.paypal.checkout.createorder.CreateOrder
+import com.paypal.checkout.createorder.CreateOrderActions
 import com.paypal.checkout.error.ErrorInfo
 import com.paypal.checkout.error.OnError
 import com.paypal.checkout.shipping.OnShippingChange
 import com.paypal.pyplcheckout.instrumentation.constants.PEnums
 import com.paypal.pyplcheckout.instrumentation.di.PLog
+import io.mockk.Runs
 import io.mockk.every
+import io.mockk.just
 import io.mockk.mockk
 import io.mockk.mockkStatic
 import io.mockk.slot
@@ -45,6 +49,12 @@ class PayPalNativeCheckoutClientUnitTest {
     fun beforeEach() {
         mockkStatic(PayPalCheckout::class)
         mockkStatic(PLog::class)
+        every { PayPalCheckout.setConfig(any()) } just Runs
+        every { PayPalCheckout.registerCallbacks(any(), any(), any(), any()) } just Runs
+        every { PayPalCheckout.startCheckout(any()) } just Runs
+        every {
+            PLog.transition(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any())
+        } just Runs
 
         activity = mockk(relaxed = true)
         listener = mockk(relaxed = true)
@@ -230,6 +240,140 @@ class PayPalNativeCheckoutClientUnitTest {
         verify { braintreeClient.sendAnalyticsEvent("paypal-native.single-payment.started") }
     }
 
+    @Test
+    fun launchNativeCheckout_startsCheckoutWhileOrderIsCreated() {
+        val payPalInternalClient = MockkPayPalInternalClientBuilder().build()
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(payPalEnabledConfig)
+            .build()
+
+        val sut = PayPalNativeCheckoutClient(braintreeClient, payPalInternalClient)
+        sut.setListener(listener)
+        sut.launchNativeCheckout(activity, PayPalNativeCheckoutRequest("1.00"))
+
+        verify { PayPalCheckout.setConfig(any()) }
+        verify { PayPalCheckout.registerCallbacks(any(), any(), any(), any()) }
+        verify { PayPalCheckout.startCheckout(any()) }
+        verify { payPalInternalClient.sendRequest(activity, any(), any()) }
+        verify(exactly = 0) { braintreeClient.sendAnalyticsEvent("paypal-native.single-payment.started") }
+    }
+
+    @Test
+    fun launchNativeCheckout_whenOrderIsCreatedAfterCheckoutStarts_setsOrderId() {
+        val payPalRequest = PayPalNativeCheckoutRequest("1.00")
+        val payPalResponse = PayPalNativeCheckoutResponse(payPalRequest).pairingId("order-id")
+        val payPalInternalClient = MockkPayPalInternalClientBuilder().build()
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(payPalEnabledConfig)
+            .build()
+        val createOrderSlot = slot<CreateOrder>()
+        val sendRequestCallbackSlot = slot<PayPalNativeCheckoutInternalClientCallback>()
+        val createOrderActions = mockk<CreateOrderActions>(relaxed = true)
+
+        val sut = PayPalNativeCheckoutClient(braintreeClient, payPalInternalClient)
+        sut.setListener(listener)
+        sut.launchNativeCheckout(activity, payPalRequest)
+
+        verify { PayPalCheckout.startCheckout(capture(createOrderSlot)) }
+        verify { payPalInternalClient.sendRequest(activity, payPalRequest, capture(sendRequestCallbackSlot)) }
+
+        createOrderSlot.captured.create(createOrderActions)
+        verify(exactly = 0) { createOrderActions.set(any()) }
+
+        sendRequestCallbackSlot.captured.onResult(payPalResponse, null)
+        verify(exactly = 1) { createOrderActions.set("order-id") }
+        verify { braintreeClient.sendAnalyticsEvent("paypal-native.single-payment.started") }
+        verify { braintreeClient.sendAnalyticsEvent("paypal-native.single-payment.succeeded") }
+    }
+
+    @Test
+    fun launchNativeCheckout_whenVaultOrderIsCreatedBeforeCheckoutAsksForIt_setsBillingAgreementId() {
+        val payPalRequest = PayPalNativeCheckoutVaultRequest()
+        val payPalResponse = PayPalNativeCheckoutResponse(payPalRequest).pairingId("ba-token")
+        val payPalInternalClient = MockkPayPalInternalClientBuilder()
+            .sendRequestSuccess(payPalResponse)
+            .build()
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(payPalEnabledConfig)
+            .build()
+        val createOrderSlot = slot<CreateOrder>()
+        val createOrderActions = mockk<CreateOrderActions>(relaxed = true)
+
+        val sut = PayPalNativeCheckoutClient(braintreeClient, payPalInternalClient)
+        sut.setListener(listener)
+        sut.launchNativeCheckout(activity, payPalRequest)
+
+        verify { braintreeClient.sendAnalyticsEvent("paypal-native.billing-agreement.started") }
+        verify { PayPalCheckout.startCheckout(capture(createOrderSlot)) }
+        createOrderSlot.captured.create(createOrderActions)
+
+        verify(exactly = 1) { createOrderActions.setBillingAgreementId("ba-token") }
+        verify { braintreeClient.sendAnalyticsEvent("paypal-native.billing-agreement.succeeded") }
+    }
+
+    @Test
+    fun launchNativeCheckout_whenOrderCreationFails_andCheckoutIsCanceled_notifiesListenerOnce() {
+        val payPalInternalClient = MockkPayPalInternalClientBuilder()
+            .sendRequestError(Exception("error"))
+            .build()
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(payPalEnabledConfig)
+            .build()
+        val onCancelSlot = slot<OnCancel>()
+        val createOrderSlot = slot<CreateOrder>()
+        val createOrderActions = mockk<CreateOrderActions>(relaxed = true)
+
+        val sut = PayPalNativeCheckoutClient(braintreeClient, payPalInternalClient)
+        sut.setListener(listener)
+        sut.launchNativeCheckout(activity, PayPalNativeCheckoutRequest("1.00"))
+
+        verify { PayPalCheckout.registerCallbacks(any(), any(), capture(onCancelSlot), any()) }
+        verify { PayPalCheckout.startCheckout(capture(createOrderSlot)) }
+        createOrderSlot.captured.create(createOrderActions)
+        onCancelSlot.captured.onCancel()
+
+        verify(exactly = 1) { listener.onPayPalFailure(any()) }
+        verify(exactly = 0) { listener.onPayPalSuccess(any()) }
+        verify(exactly = 0) { createOrderActions.set(any()) }
+        verify(exactly = 0) { braintreeClient.sendAnalyticsEvent("paypal-native.single-payment.started") }
+    }
+
+    @Test
+    fun launchNativeCheckout_whenCheckoutIsCanceled_notifiesListener() {
+        val payPalInternalClient = MockkPayPalInternalClientBuilder().build()
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(payPalEnabledConfig)
+            .build()
+        val onCancelSlot = slot<OnCancel>()
+        val exceptionSlot = slot<Exception>()
+
+        val sut = PayPalNativeCheckoutClient(braintreeClient, payPalInternalClient)
+        sut.setListener(listener)
+        sut.launchNativeCheckout(activity, PayPalNativeCheckoutRequest("1.00"))
+
+        verify { PayPalCheckout.registerCallbacks(any(), any(), capture(onCancelSlot), any()) }
+        onCancelSlot.captured.onCancel()
+
+        verify(exactly = 1) { listener.onPayPalFailure(capture(exceptionSlot)) }
+        assertEquals("User has canceled", exceptionSlot.captured.message)
+    }
+
+    @Test
+    fun launchNativeCheckout_whenConfigurationFails_notifiesListenerWithoutStartingCheckout() {
+        val payPalInternalClient = MockkPayPalInternalClientBuilder().build()
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationError(Exception("configuration error"))
+            .build()
+
+        val sut = PayPalNativeCheckoutClient(braintreeClient, payPalInternalClient)
+        sut.setListener(listener)
+        sut.launchNativeCheckout(activity, PayPalNativeCheckoutRequest("1.00"))
+
+        verify { listener.onPayPalFailure(any()) }
+        verify(exactly = 0) { PayPalCheckout.startCheckout(any()) }
+        verify(exactly = 0) { payPalInternalClient.sendRequest(any(), any(), any()) }
+    }
+
     @Test
     @Throws(JSONException::class)
     fun paypalAccount_isSetupCorrectly() {
@@ -367,6 +367,23 @@ public class PayPalNativeCheckoutInternalClientUnitTest {
         assertEquals("sample-client-metadata-id", payPalResponse.getClientMetadataId());
     }
 
+    @Test
+    public void sendRequest_whenRiskCorrelationIdNull_prefetchesClientMetadataId() throws Exception {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalNativeCheckoutInternalClient sut = new PayPalNativeCheckoutInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalNativeCheckoutRequest payPalRequest = new PayPalNativeCheckoutRequest("1.00");
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+
+        verify(payPalDataCollector).prefetchClientMetadataId(context, configuration);
+    }
+
     @Test
     public void sendRequest_withPayPalCheckoutRequest_whenRequestBillingAgreementFalse_andBillingAgreementDescriptionSet_doesNotSettBillingAgreementDescription() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -51,6 +51,7 @@ public class SEPADirectDebitClient {
     SEPADirectDebitClient(FragmentActivity activity, Lifecycle lifecycle, BraintreeClient braintreeClient, SEPADirectDebitApi sepaDirectDebitApi) {
         this.sepaDirectDebitApi = sepaDirectDebitApi;
         this.braintreeClient = braintreeClient;
+        braintreeClient.warmUpBrowser();
         if (activity != null && lifecycle != null) {
             SEPADirectDebitLifecycleObserver observer = new SEPADirectDebitLifecycleObserver(this);
             lifecycle.addObserver(observer);
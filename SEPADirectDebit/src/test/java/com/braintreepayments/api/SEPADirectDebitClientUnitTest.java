@@ -69,6 +69,15 @@ public class SEPADirectDebitClientUnitTest {
         assertSame(sut, observer.sepaDirectDebitClient);
     }
 
+    @Test
+    public void constructor_warmsUpBrowser() {
+        SEPADirectDebitApi sepaDirectDebitApi = new MockSEPADirectDebitApiBuilder().build();
+
+        new SEPADirectDebitClient(null, null, braintreeClient, sepaDirectDebitApi);
+
+        verify(braintreeClient).warmUpBrowser();
+    }
+
     @Test
     public void constructor_withFragment_passesFragmentLifecycleAndActivityToObserver() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
@@ -22,7 +22,7 @@ public class SamsungPayClient {
     private final BraintreeClient braintreeClient;
 
     @VisibleForTesting
-    SamsungPayInternalClient internalClient;
+    volatile SamsungPayInternalClient internalClient;
 
     public SamsungPayClient(BraintreeClient braintreeClient) {
         this.braintreeClient = braintreeClient;
@@ -77,77 +77,124 @@ public class SamsungPayClient {
      * @param callback {@link SamsungPayIsReadyToPayCallback}
      */
     public void isReadyToPay(final SamsungPayIsReadyToPayCallback callback) {
-        getSamsungPayStatus(new GetSamsungPayStatusCallback() {
+        getInternalClient(new GetSamsungPayInternalClientCallback() {
             @Override
-            public void onResult(@Nullable Integer status, @Nullable Exception samsungPayError) {
-                if (status != null) {
-                    if (status == SPAY_READY) {
-                        getAcceptedCardBrands(new GetAcceptedCardBrandsCallback() {
-                            @Override
-                            public void onResult(@Nullable List<SpaySdk.Brand> acceptedCardBrands, @Nullable Exception error) {
-                                if (acceptedCardBrands != null) {
-                                    boolean isReadyToPay = !acceptedCardBrands.isEmpty();
-
-                                    if (isReadyToPay) {
-                                        braintreeClient.sendAnalyticsEvent("samsung-pay.is-ready-to-pay.ready");
-                                        callback.onResult(true, null);
-                                    } else {
-                                        braintreeClient.sendAnalyticsEvent("samsung-pay.request-card-info.no-supported-cards-in-wallet");
-                                        Exception noCardsInWalletError =
-                                            new SamsungPayException(SamsungPayError.SAMSUNG_PAY_NO_SUPPORTED_CARDS_IN_WALLET);
-                                        callback.onResult(false, noCardsInWalletError);
-                                    }
-                                } else {
-                                    callback.onResult(false, error);
-                                }
-                            }
-                        });
-                    } else {
-                        switch (status) {
-                            case SPAY_NOT_READY:
-                                braintreeClient.sendAnalyticsEvent("samsung-pay.is-ready-to-pay.not-ready");
-                                break;
-                            case SPAY_NOT_SUPPORTED:
-                                braintreeClient.sendAnalyticsEvent("samsung-pay.is-ready-to-pay.device-not-supported");
-                                break;
-                        }
+            public void onResult(@Nullable final SamsungPayInternalClient internalClient, @Nullable Exception error) {
+                if (internalClient == null) {
+                    callback.onResult(false, error);
+                    return;
+                }
 
-                        // still callback error here; it may contain additional information about why Samsung Pay is not enabled
-                        callback.onResult(false, samsungPayError);
+                // card info is only requested alongside the status once Samsung Pay has been seen to
+                // be ready; otherwise it is requested after the status, and only if it is ready
+                final boolean requestsCardInfoEarly = internalClient.hasReadyStatus();
+                final ResultJoiner<Integer, List<SpaySdk.Brand>> pendingReadyCheck = new ResultJoiner<>(new ResultJoiner.Callback<Integer, List<SpaySdk.Brand>>() {
+                    @Override
+                    public void onResult(@Nullable Integer status, @Nullable Exception samsungPayError,
+                                         @Nullable List<SpaySdk.Brand> acceptedCardBrands, @Nullable Exception acceptedCardBrandsError) {
+                        if (acceptedCardBrandsError != null) {
+                            callback.onResult(false, acceptedCardBrandsError);
+                        } else if (status == null) {
+                            callback.onResult(false, samsungPayError);
+                        } else if (status != SPAY_READY) {
+                            notifyStatusNotReady(status, samsungPayError, callback);
+                        } else {
+                            notifyAcceptedCardBrands(acceptedCardBrands, null, callback);
+                        }
                     }
-                } else {
-                    callback.onResult(false, samsungPayError);
+                });
+                internalClient.getSamsungPayStatus(new GetSamsungPayStatusCallback() {
+                    @Override
+                    public void onResult(@Nullable Integer status, @Nullable Exception samsungPayError) {
+                        pendingReadyCheck.setFirst(status, samsungPayError);
+                        if (status == null || status != SPAY_READY) {
+                            // card info is not needed when Samsung Pay is not ready
+                            pendingReadyCheck.setSecond(null, null);
+                        } else if (!requestsCardInfoEarly) {
+                            requestAcceptedCardBrands(internalClient, pendingReadyCheck);
+                        }
+                    }
+                });
+                if (requestsCardInfoEarly) {
+                    requestAcceptedCardBrands(internalClient, pendingReadyCheck);
                 }
             }
         });
     }
 
-    private void getSamsungPayStatus(final GetSamsungPayStatusCallback callback) {
-        getInternalClient(new GetSamsungPayInternalClientCallback() {
+    private void requestAcceptedCardBrands(SamsungPayInternalClient internalClient, final ResultJoiner<Integer, List<SpaySdk.Brand>> pendingReadyCheck) {
+        internalClient.getAcceptedCardBrands(new GetAcceptedCardBrandsCallback() {
             @Override
-            public void onResult(@Nullable SamsungPayInternalClient internalClient, @Nullable Exception error) {
-                if (internalClient != null) {
-                    internalClient.getSamsungPayStatus(callback);
-                } else {
-                    callback.onResult(null, error);
-                }
+            public void onResult(@Nullable List<SpaySdk.Brand> acceptedCardBrands, @Nullable Exception error) {
+                pendingReadyCheck.setSecond(acceptedCardBrands, error);
             }
         });
     }
 
-    private void getAcceptedCardBrands(final GetAcceptedCardBrandsCallback callback) {
+    /**
+     * Create the Samsung Pay SDK clients, check the Samsung Pay status and, if Samsung Pay is
+     * ready, look up the cards in the customer's wallet ahead of time, e.g. when the checkout
+     * screen is created. A following call to
+     * {@link SamsungPayClient#isReadyToPay(SamsungPayIsReadyToPayCallback)} then looks up the
+     * status and the wallet cards in parallel, and reuses the wallet cards if they were looked up
+     * in the last 30 seconds.
+     */
+    public void prepare() {
         getInternalClient(new GetSamsungPayInternalClientCallback() {
             @Override
             public void onResult(@Nullable final SamsungPayInternalClient internalClient, @Nullable Exception error) {
-                if (internalClient != null) {
-                    internalClient.getAcceptedCardBrands(callback);
-                } else {
-                    callback.onResult(null, error);
+                if (internalClient == null) {
+                    return;
                 }
+                internalClient.getSamsungPayStatus(new GetSamsungPayStatusCallback() {
+                    @Override
+                    public void onResult(@Nullable Integer status, @Nullable Exception samsungPayError) {
+                        if (status != null && status == SPAY_READY) {
+                            internalClient.getAcceptedCardBrands(new GetAcceptedCardBrandsCallback() {
+                                @Override
+                                public void onResult(@Nullable List<SpaySdk.Brand> acceptedCardBrands, @Nullable Exception error) {
+                                    // the result is cached by the internal client
+                                }
+                            });
+                        }
+                    }
+                });
             }
         });
     }
 
+    private void notifyStatusNotReady(int status, Exception samsungPayError, SamsungPayIsReadyToPayCallback callback) {
+        switch (status) {
+            case SPAY_NOT_READY:
+                braintreeClient.sendAnalyticsEvent("samsung-pay.is-ready-to-pay.not-ready");
+                break;
+            case SPAY_NOT_SUPPORTED:
+                braintreeClient.sendAnalyticsEvent("samsung-pay.is-ready-to-pay.device-not-supported");
+                break;
+        }
+
+        // still callback error here; it may contain additional information about why Samsung Pay is not enabled
+        callback.onResult(false, samsungPayError);
+    }
+
+    private void notifyAcceptedCardBrands(List<SpaySdk.Brand> acceptedCardBrands, Exception error, SamsungPayIsReadyToPayCallback callback) {
+        if (acceptedCardBrands != null) {
+            boolean isReadyToPay = !acceptedCardBrands.isEmpty();
+
+            if (isReadyToPay) {
+                braintreeClient.sendAnalyticsEvent("samsung-pay.is-ready-to-pay.ready");
+                callback.onResult(true, null);
+            } else {
+                braintreeClient.sendAnalyticsEvent("samsung-pay.request-card-info.no-supported-cards-in-wallet");
+                Exception noCardsInWalletError =
+                    new SamsungPayException(SamsungPayError.SAMSUNG_PAY_NO_SUPPORTED_CARDS_IN_WALLET);
+                callback.onResult(false, noCardsInWalletError);
+            }
+        } else {
+            callback.onResult(false, error);
+        }
+    }
+
     /**
      * Creates a [CustomSheetPaymentInfo.Builder] with Braintree properties such as merchant ID, merchant name,
      * and allowed card brands.
@@ -216,22 +263,30 @@ public class SamsungPayClient {
 
     @VisibleForTesting
     void getInternalClient(final GetSamsungPayInternalClientCallback callback) {
-        if (internalClient != null) {
-            callback.onResult(internalClient, null);
-        } else {
-            braintreeClient.getConfiguration(new ConfigurationCallback() {
-                @Override
-                public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
-                    if (configuration != null) {
-                        internalClient =
-                            new SamsungPayInternalClient(braintreeClient, configuration);
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (configuration != null) {
+                    SamsungPayInternalClient currentInternalClient;
+                    boolean isCreated = false;
+                    synchronized (SamsungPayClient.this) {
+                        currentInternalClient = internalClient;
+                        // the internal client and its cached card brands depend on the configuration
+                        if (currentInternalClient == null || !currentInternalClient.isFor(configuration)) {
+                            currentInternalClient =
+                                new SamsungPayInternalClient(braintreeClient, configuration);
+                            internalClient = currentInternalClient;
+                            isCreated = true;
+                        }
+                    }
+                    if (isCreated) {
                         braintreeClient.sendAnalyticsEvent("samsung-pay.create-payment-manager.success");
-                        callback.onResult(internalClient, null);
-                    } else {
-                        callback.onResult(null, error);
                     }
+                    callback.onResult(currentInternalClient, null);
+                } else {
+                    callback.onResult(null, error);
                 }
-            });
-        }
+            }
+        });
     }
 }
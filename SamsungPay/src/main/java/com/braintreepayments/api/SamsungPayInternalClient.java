@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static com.braintreepayments.api.SamsungPayMapAcceptedCardBrands.mapToSamsungPayCardBrands;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.ERROR_SPAY_APP_NEED_TO_UPDATE;
@@ -31,10 +32,20 @@ import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_READY;
 
 class SamsungPayInternalClient {
 
+    static final long ACCEPTED_CARD_BRANDS_CACHE_DURATION_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
     private final SamsungPay samsungPay;
     private final PaymentManager paymentManager;
 
     private final Set<SpaySdk.Brand> braintreeAcceptedCardBrands;
+    private final String configurationJson;
+
+    // accepted card brands also depend on the cards in the customer's wallet, which can change
+    // while the app is running, so they are only cached briefly; an empty result is not cached
+    private List<SpaySdk.Brand> acceptedCardBrands;
+    private long acceptedCardBrandsTimestamp;
+
+    private volatile boolean hasReadyStatus;
 
     SamsungPayInternalClient(BraintreeClient braintreeClient, Configuration configuration) {
         this(braintreeClient.getApplicationContext(), configuration, new SamsungPayPartnerInfoBuilder()
@@ -51,10 +62,19 @@ class SamsungPayInternalClient {
     @VisibleForTesting
     SamsungPayInternalClient(Configuration configuration, SamsungPay samsungPay, PaymentManager paymentManager) {
         this.braintreeAcceptedCardBrands = mapToSamsungPayCardBrands(configuration.getSupportedCardTypes());
+        this.configurationJson = configuration.toJson();
         this.samsungPay = samsungPay;
         this.paymentManager = paymentManager;
     }
 
+    /**
+     * @return true if this client was created with the given configuration, or one with the same
+     * JSON
+     */
+    boolean isFor(Configuration configuration) {
+        return configurationJson != null && configurationJson.equals(configuration.toJson());
+    }
+
     void goToSamsungPayUpdatePage() {
         samsungPay.goToUpdatePage();
     }
@@ -67,10 +87,19 @@ class SamsungPayInternalClient {
         paymentManager.updateSheet(customSheet);
     }
 
+    /**
+     * @return true if the most recent Samsung Pay status returned by this client was
+     * {@code SPAY_READY}
+     */
+    boolean hasReadyStatus() {
+        return hasReadyStatus;
+    }
+
     void getSamsungPayStatus(final GetSamsungPayStatusCallback callback) {
         samsungPay.getSamsungPayStatus(new StatusListener() {
             @Override
             public void onSuccess(int statusCode, Bundle bundle) {
+                hasReadyStatus = statusCode == SPAY_READY;
                 Exception samsungPayError = null;
 
                 @SamsungPayError int error = SamsungPayError.SAMSUNG_PAY_ERROR_UNKNOWN;
@@ -100,6 +129,7 @@ class SamsungPayInternalClient {
 
             @Override
             public void onFail(int errorCode, Bundle bundle) {
+                hasReadyStatus = false;
                 SamsungPayException exception = new SamsungPayException(errorCode);
                 callback.onResult(null, exception);
             }
@@ -107,6 +137,17 @@ class SamsungPayInternalClient {
     }
 
     void getAcceptedCardBrands(final GetAcceptedCardBrandsCallback callback) {
+        List<SpaySdk.Brand> cachedAcceptedCardBrands;
+        synchronized (this) {
+            boolean isExpired = System.currentTimeMillis() - acceptedCardBrandsTimestamp
+                    >= ACCEPTED_CARD_BRANDS_CACHE_DURATION_MILLIS;
+            cachedAcceptedCardBrands = isExpired ? null : acceptedCardBrands;
+        }
+        if (cachedAcceptedCardBrands != null) {
+            callback.onResult(new ArrayList<>(cachedAcceptedCardBrands), null);
+            return;
+        }
+
         paymentManager.requestCardInfo(new Bundle(), new PaymentManager.CardInfoListener() {
             @Override
             public void onResult(final List<CardInfo> cardInfos) {
@@ -118,6 +159,12 @@ class SamsungPayInternalClient {
                 }
                 // equivalent to getting the intersection of both sets
                 spayAcceptedCardBrands.retainAll(braintreeAcceptedCardBrands);
+                if (!spayAcceptedCardBrands.isEmpty()) {
+                    synchronized (SamsungPayInternalClient.this) {
+                        acceptedCardBrands = new ArrayList<>(spayAcceptedCardBrands);
+                        acceptedCardBrandsTimestamp = System.currentTimeMillis();
+                    }
+                }
                 callback.onResult(new ArrayList<>(spayAcceptedCardBrands), null);
             }
 
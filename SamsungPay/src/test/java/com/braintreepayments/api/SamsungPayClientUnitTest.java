@@ -6,8 +6,11 @@ import com.samsung.android.sdk.samsungpay.v2.SpaySdk;
 import com.samsung.android.sdk.samsungpay.v2.payment.CustomSheetPaymentInfo;
 
 import org.json.JSONException;
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -18,17 +21,31 @@ import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_NOT_READY;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_NOT_SUPPORTED;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_READY;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SamsungPayClientUnitTest {
 
+    private Configuration samsungPayConfiguration;
+    private GetSamsungPayStatusCallback pendingStatusCallback;
+
+    @Before
+    public void beforeEach() throws JSONException {
+        samsungPayConfiguration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY);
+    }
+
     @Test
     public void getInternalClient_lazilyCreatesSamsungPayInternalClientFromBraintreeConfiguration() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -78,12 +95,40 @@ public class SamsungPayClientUnitTest {
                 .sendAnalyticsEvent("samsung-pay.create-payment-manager.success");
     }
 
+    @Test
+    public void getInternalClient_whenConfigurationChanges_createsNewSamsungPayInternalClient() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        Context context = mock(Context.class);
+        when(braintreeClient.getApplicationContext()).thenReturn(context);
+
+        SamsungPayInternalClient staleInternalClient = mock(SamsungPayInternalClient.class);
+        when(staleInternalClient.isFor(any(Configuration.class))).thenReturn(false);
+        sut.internalClient = staleInternalClient;
+
+        GetSamsungPayInternalClientCallback callback = mock(GetSamsungPayInternalClientCallback.class);
+        sut.getInternalClient(callback);
+
+        ArgumentCaptor<SamsungPayInternalClient> captor =
+                ArgumentCaptor.forClass(SamsungPayInternalClient.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        assertNotSame(staleInternalClient, captor.getValue());
+        assertTrue(captor.getValue().isFor(samsungPayConfiguration));
+        verify(braintreeClient).sendAnalyticsEvent("samsung-pay.create-payment-manager.success");
+    }
+
     @Test
     public void goToUpdatePage_forwardsInvocationToInternalClient_andNotifiesCompletion() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
-        SamsungPayInternalClient internalClient = mock(SamsungPayInternalClient.class);
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder().build();
         sut.internalClient = internalClient;
 
         SamsungPayUpdateCallback callback = mock(SamsungPayUpdateCallback.class);
@@ -95,10 +140,12 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void activateSamsungPay_forwardsInvocationToInternalClient_andNotifiesCompletion() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
-        SamsungPayInternalClient internalClient = mock(SamsungPayInternalClient.class);
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder().build();
         sut.internalClient = internalClient;
 
         SamsungPayActivateCallback callback = mock(SamsungPayActivateCallback.class);
@@ -110,7 +157,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsNotReady_callsBackFalseAndForwardsError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         Exception samsungPayError = new Exception("samsung error");
@@ -127,7 +176,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsNotReady_sendsAnalyticsEvent() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -142,7 +193,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsNotSupported_callsBackFalseAndForwardsError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         Exception samsungPayError = new Exception("samsung error");
@@ -159,7 +212,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsNotSupported_sendsAnalyticsEvent() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -174,7 +229,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusErrorOccurs_callsBackFalseAndPropagatesError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         SamsungPayException error = new SamsungPayException(123);
@@ -190,7 +247,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsReady_andAcceptedCardsExist_callsBackTrue() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -206,7 +265,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsReady_andAcceptedCardsExist_sendsAnalyticsEvent() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -222,7 +283,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsReady_andNoAcceptedCardsExist_callsBackFalseWithError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -242,7 +305,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsReady_andNoAcceptedCardsExist_sendsAnalyticsEvent() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -258,7 +323,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenGetAcceptedCardBrandsErrorOccurs_callsBackFalseAndPropagatesError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         SamsungPayException error = new SamsungPayException(123);
@@ -274,11 +341,172 @@ public class SamsungPayClientUnitTest {
     }
 
     @Test
-    public void startSamsungPay_forwardsInvocationToInternalClient() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+    public void isReadyToPay_whenSamsungPayWasReady_requestsAcceptedCardBrandsWithoutWaitingForSamsungPayStatus() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         SamsungPayInternalClient internalClient = mock(SamsungPayInternalClient.class);
+        when(internalClient.isFor(any(Configuration.class))).thenReturn(true);
+        when(internalClient.hasReadyStatus()).thenReturn(true);
+        sut.internalClient = internalClient;
+
+        SamsungPayIsReadyToPayCallback callback = mock(SamsungPayIsReadyToPayCallback.class);
+        sut.isReadyToPay(callback);
+
+        verify(internalClient).getSamsungPayStatus(any(GetSamsungPayStatusCallback.class));
+        verify(internalClient).getAcceptedCardBrands(any(GetAcceptedCardBrandsCallback.class));
+        verify(callback, never()).onResult(anyBoolean(), (Exception) any());
+    }
+
+    @Test
+    public void isReadyToPay_whenSamsungPayWasNotReady_requestsAcceptedCardBrandsAfterSamsungPayStatusIsReady() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder()
+                .getAcceptedCardBrandsSuccess(Collections.singletonList(SpaySdk.Brand.VISA))
+                .build();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                pendingStatusCallback = (GetSamsungPayStatusCallback) invocation.getArguments()[0];
+                return null;
+            }
+        }).when(internalClient).getSamsungPayStatus(any(GetSamsungPayStatusCallback.class));
+        sut.internalClient = internalClient;
+
+        SamsungPayIsReadyToPayCallback callback = mock(SamsungPayIsReadyToPayCallback.class);
+        sut.isReadyToPay(callback);
+        verify(internalClient, never()).getAcceptedCardBrands(any(GetAcceptedCardBrandsCallback.class));
+
+        pendingStatusCallback.onResult(SPAY_READY, null);
+        verify(internalClient).getAcceptedCardBrands(any(GetAcceptedCardBrandsCallback.class));
+        verify(callback).onResult(true, null);
+    }
+
+    @Test
+    public void isReadyToPay_whenSamsungPayStatusIsNotReady_doesNotRequestAcceptedCardBrands() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder()
+                .getSamsungPayStatusSuccess(SPAY_NOT_READY)
+                .build();
+        sut.internalClient = internalClient;
+
+        sut.isReadyToPay(mock(SamsungPayIsReadyToPayCallback.class));
+
+        verify(internalClient, never()).getAcceptedCardBrands(any(GetAcceptedCardBrandsCallback.class));
+    }
+
+    @Test
+    public void isReadyToPay_whenAcceptedCardBrandsArriveBeforeSamsungPayStatus_callsBackTrue() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder()
+                .getAcceptedCardBrandsSuccess(Collections.singletonList(SpaySdk.Brand.VISA))
+                .build();
+        when(internalClient.hasReadyStatus()).thenReturn(true);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                // hold on to the status callback so the status arrives after the accepted card brands
+                GetSamsungPayStatusCallback callback = (GetSamsungPayStatusCallback) invocation.getArguments()[0];
+                pendingStatusCallback = callback;
+                return null;
+            }
+        }).when(internalClient).getSamsungPayStatus(any(GetSamsungPayStatusCallback.class));
+        sut.internalClient = internalClient;
+
+        SamsungPayIsReadyToPayCallback callback = mock(SamsungPayIsReadyToPayCallback.class);
+        sut.isReadyToPay(callback);
+        verify(callback, never()).onResult(anyBoolean(), (Exception) any());
+
+        pendingStatusCallback.onResult(SPAY_READY, null);
+        verify(callback).onResult(true, null);
+    }
+
+    @Test
+    public void isReadyToPay_whenAcceptedCardBrandsFailBeforeSamsungPayStatus_callsBackFalseWithoutWaitingForStatus() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        SamsungPayException error = new SamsungPayException(123);
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder()
+                .getAcceptedCardBrandsError(error)
+                .build();
+        when(internalClient.hasReadyStatus()).thenReturn(true);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                pendingStatusCallback = (GetSamsungPayStatusCallback) invocation.getArguments()[0];
+                return null;
+            }
+        }).when(internalClient).getSamsungPayStatus(any(GetSamsungPayStatusCallback.class));
+        sut.internalClient = internalClient;
+
+        SamsungPayIsReadyToPayCallback callback = mock(SamsungPayIsReadyToPayCallback.class);
+        sut.isReadyToPay(callback);
+        verify(callback).onResult(false, error);
+
+        pendingStatusCallback.onResult(SPAY_READY, null);
+        verify(callback).onResult(anyBoolean(), (Exception) any());
+    }
+
+    @Test
+    public void prepare_whenSamsungPayIsReady_requestsAcceptedCardBrandsFromInternalClient() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder()
+                .getSamsungPayStatusSuccess(SPAY_READY)
+                .build();
+        sut.internalClient = internalClient;
+
+        sut.prepare();
+
+        verify(internalClient).getSamsungPayStatus(any(GetSamsungPayStatusCallback.class));
+        verify(internalClient).getAcceptedCardBrands(any(GetAcceptedCardBrandsCallback.class));
+    }
+
+    @Test
+    public void prepare_whenSamsungPayIsNotReady_doesNotRequestAcceptedCardBrands() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder()
+                .getSamsungPayStatusSuccess(SPAY_NOT_SUPPORTED)
+                .build();
+        sut.internalClient = internalClient;
+
+        sut.prepare();
+
+        verify(internalClient, never()).getAcceptedCardBrands(any(GetAcceptedCardBrandsCallback.class));
+    }
+
+    @Test
+    public void startSamsungPay_forwardsInvocationToInternalClient() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(samsungPayConfiguration)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder().build();
         sut.internalClient = internalClient;
 
         CustomSheetPaymentInfo paymentInfo = mock(CustomSheetPaymentInfo.class);
@@ -21,6 +21,7 @@ import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -34,12 +35,14 @@ import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_NOT_SUPPORTED;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_READY;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -89,6 +92,7 @@ public class SamsungPayInternalClientUnitTest {
         sut.getSamsungPayStatus(callback);
 
         verify(callback).onResult(SPAY_READY, null);
+        assertTrue(sut.hasReadyStatus());
     }
 
     @Test
@@ -108,6 +112,7 @@ public class SamsungPayInternalClientUnitTest {
 
         SamsungPayException exception = captor.getValue();
         assertEquals(SamsungPayError.SAMSUNG_PAY_NOT_READY, exception.getErrorCode());
+        assertFalse(sut.hasReadyStatus());
     }
 
     @Test
@@ -248,6 +253,53 @@ public class SamsungPayInternalClientUnitTest {
         countDownLatch.await();
     }
 
+    @Test
+    public void getAcceptedCardBrands_cachesNonEmptyResult() {
+        CardInfo visaCardInfo = mock(CardInfo.class);
+        when(visaCardInfo.getBrand()).thenReturn(SpaySdk.Brand.VISA);
+
+        PaymentManager paymentManager = new MockPaymentManagerBuilder()
+                .requestCardInfoSuccess(Collections.singletonList(visaCardInfo))
+                .build();
+
+        SamsungPay samsungPay = mock(SamsungPay.class);
+        SamsungPayInternalClient sut = new SamsungPayInternalClient(configuration, samsungPay, paymentManager);
+
+        GetAcceptedCardBrandsCallback callback0 = mock(GetAcceptedCardBrandsCallback.class);
+        GetAcceptedCardBrandsCallback callback1 = mock(GetAcceptedCardBrandsCallback.class);
+        sut.getAcceptedCardBrands(callback0);
+        sut.getAcceptedCardBrands(callback1);
+
+        verify(paymentManager, times(1)).requestCardInfo(any(Bundle.class), any(PaymentManager.CardInfoListener.class));
+        verify(callback1).onResult(cardBrandsCaptor.capture(), (Exception) isNull());
+        assertEquals(Collections.singletonList(SpaySdk.Brand.VISA), cardBrandsCaptor.getValue());
+    }
+
+    @Test
+    public void getAcceptedCardBrands_whenNoCardsAreAccepted_doesNotCacheResult() {
+        PaymentManager paymentManager = new MockPaymentManagerBuilder()
+                .requestCardInfoSuccess(Collections.<CardInfo>emptyList())
+                .build();
+
+        SamsungPay samsungPay = mock(SamsungPay.class);
+        SamsungPayInternalClient sut = new SamsungPayInternalClient(configuration, samsungPay, paymentManager);
+
+        sut.getAcceptedCardBrands(mock(GetAcceptedCardBrandsCallback.class));
+        sut.getAcceptedCardBrands(mock(GetAcceptedCardBrandsCallback.class));
+
+        verify(paymentManager, times(2)).requestCardInfo(any(Bundle.class), any(PaymentManager.CardInfoListener.class));
+    }
+
+    @Test
+    public void isFor_returnsTrueOnlyForConfigurationWithSameJSON() throws JSONException {
+        SamsungPayInternalClient sut = new SamsungPayInternalClient(configuration,
+                mock(SamsungPay.class), mock(PaymentManager.class));
+
+        assertTrue(sut.isFor(configuration));
+        assertTrue(sut.isFor(Configuration.fromJson(configuration.toJson())));
+        assertFalse(sut.isFor(Configuration.fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)));
+    }
+
     @Test
     public void startSamsungPay_onCardInfoUpdated_updatesPaymentManagerSheetAndNotifiesListener() {
         CardInfo cardInfo = mock(CardInfo.class);
@@ -0,0 +1,92 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory LRU cache whose entries expire after a time to live, e.g. for results of lookups that
+ * are repeated while a customer is on a checkout screen.
+ * <p>
+ * Removing or clearing entries starts a new generation. A value fetched before the cache was
+ * invalidated can be put with the generation read before fetching it, so that it is not stored
+ * when it arrives afterwards.
+ *
+ * @param <V> the type of the cached values
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class ExpiringLruCache<V> {
+
+    private final Map<String, Entry<V>> entries;
+
+    private long generation;
+
+    public ExpiringLruCache(final int maxEntries) {
+        entries = new LinkedHashMap<String, Entry<V>>(maxEntries, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the value cached for {@code key}, or {@code null} if there is none or it was put
+     * {@code timeToLiveMillis} or more ago
+     */
+    @Nullable
+    public synchronized V get(@NonNull String key, long timeToLiveMillis, long currentTimeMillis) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (currentTimeMillis - entry.timestamp >= timeToLiveMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public synchronized void put(@NonNull String key, @NonNull V value, long currentTimeMillis) {
+        entries.put(key, new Entry<>(value, currentTimeMillis));
+    }
+
+    /**
+     * Put {@code value} unless the cache was invalidated since {@code generation} was read with
+     * {@link #getGeneration()}.
+     */
+    public synchronized void put(@NonNull String key, @NonNull V value, long currentTimeMillis, long generation) {
+        if (generation == this.generation) {
+            put(key, value, currentTimeMillis);
+        }
+    }
+
+    public synchronized void remove(@NonNull String key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long timestamp;
+
+        Entry(V value, long timestamp) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -19,6 +19,7 @@ class HttpRequest {
     private String path;
     private String baseUrl;
     private byte[] data;
+    private JsonWriter body;
     private String method;
 
     private final int readTimeout;
@@ -52,6 +53,16 @@ class HttpRequest {
 
     HttpRequest data(String dataAsString) {
         this.data = dataAsString.getBytes(StandardCharsets.UTF_8);
+        this.body = null;
+        return this;
+    }
+
+    /**
+     * Send the bytes written to {@code body} without copying them into a new array.
+     */
+    HttpRequest data(JsonWriter body) {
+        this.body = body;
+        this.data = null;
         return this;
     }
 
@@ -70,14 +81,24 @@ class HttpRequest {
     }
 
     byte[] getData() {
+        if (body != null) {
+            return body.toByteArray();
+        }
         return data;
     }
 
+    JsonWriter getBody() {
+        return body;
+    }
+
     void dispose() {
         // overwrite data content with zeros
         if (data != null) {
             Arrays.fill(data, (byte) 0);
         }
+        if (body != null) {
+            body.clear();
+        }
     }
 
     String getMethod() {
@@ -0,0 +1,357 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes a JSON document directly into a growable UTF-8 byte buffer. Request bodies written this
+ * way are sent without building an intermediate {@link org.json.JSONObject} tree or
+ * {@link String}. Call {@link #reset()} to reuse the buffer for another document.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class JsonWriter {
+
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final int INITIAL_SCOPE_CAPACITY = 32;
+
+    private static final int EMPTY_OBJECT = 1;
+    private static final int NONEMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int EMPTY_ARRAY = 4;
+    private static final int NONEMPTY_ARRAY = 5;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer;
+    private int count;
+
+    private int[] scopes;
+    private int depth;
+    private boolean complete;
+
+    public JsonWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public JsonWriter(int initialCapacity) {
+        buffer = new byte[Math.max(initialCapacity, 1)];
+        scopes = new int[INITIAL_SCOPE_CAPACITY];
+    }
+
+    @NonNull
+    public JsonWriter beginObject() {
+        beforeValue();
+        writeByte('{');
+        pushScope(EMPTY_OBJECT);
+        return this;
+    }
+
+    @NonNull
+    public JsonWriter endObject() {
+        return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+    }
+
+    @NonNull
+    public JsonWriter beginArray() {
+        beforeValue();
+        writeByte('[');
+        pushScope(EMPTY_ARRAY);
+        return this;
+    }
+
+    @NonNull
+    public JsonWriter endArray() {
+        return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+    }
+
+    @NonNull
+    public JsonWriter name(@NonNull String name) {
+        int scope = peekScope();
+        if (scope == NONEMPTY_OBJECT) {
+            writeByte(',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw new IllegalStateException("Names are only allowed inside an object");
+        }
+        writeString(name);
+        writeByte(':');
+        scopes[depth - 1] = DANGLING_NAME;
+        return this;
+    }
+
+    @NonNull
+    public JsonWriter value(@Nullable String value) {
+        beforeValue();
+        if (value == null) {
+            writeBytes(NULL);
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    @NonNull
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+
+    @NonNull
+    public JsonWriter value(long value) {
+        beforeValue();
+        writeAscii(Long.toString(value));
+        return this;
+    }
+
+    @NonNull
+    public JsonWriter nullValue() {
+        beforeValue();
+        writeBytes(NULL);
+        return this;
+    }
+
+    /**
+     * Reopen a completed top-level object so that more fields can be written into the same buffer,
+     * e.g. fields added by the HTTP client after the caller has written the body.
+     */
+    @NonNull
+    public JsonWriter reopenObject() {
+        if (!complete || buffer[count - 1] != '}') {
+            throw new IllegalStateException("Only a completed top-level object can be reopened");
+        }
+        count--;
+        complete = false;
+        pushScope(buffer[count - 1] == '{' ? EMPTY_OBJECT : NONEMPTY_OBJECT);
+        return this;
+    }
+
+    /**
+     * Writes a name and string value, writing {@code null} if the value is null.
+     */
+    @NonNull
+    public JsonWriter field(@NonNull String name, @Nullable String value) {
+        return name(name).value(value);
+    }
+
+    @NonNull
+    public JsonWriter field(@NonNull String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    /**
+     * Writes a name and string value only if the value is non-null, matching
+     * {@link org.json.JSONObject#putOpt(String, Object)}.
+     */
+    @NonNull
+    public JsonWriter optField(@NonNull String name, @Nullable String value) {
+        if (value != null) {
+            name(name).value(value);
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return a copy of the bytes written
+     */
+    @NonNull
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Write the bytes written so far to {@code outputStream} without copying the buffer.
+     */
+    public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+        outputStream.write(buffer, 0, count);
+    }
+
+    /**
+     * Discard the written document while keeping the buffer for reuse.
+     */
+    public void reset() {
+        count = 0;
+        depth = 0;
+        complete = false;
+    }
+
+    /**
+     * Overwrite the buffer with zeros and discard the written document.
+     */
+    public void clear() {
+        Arrays.fill(buffer, (byte) 0);
+        reset();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return new String(buffer, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private JsonWriter close(int emptyScope, int nonEmptyScope, char closeBracket) {
+        int scope = peekScope();
+        if (scope != emptyScope && scope != nonEmptyScope) {
+            throw new IllegalStateException("Nesting problem");
+        }
+        depth--;
+        writeByte(closeBracket);
+        if (depth == 0) {
+            complete = true;
+        }
+        return this;
+    }
+
+    private void beforeValue() {
+        if (depth == 0) {
+            if (complete) {
+                throw new IllegalStateException("JSON must have only one top-level value");
+            }
+            return;
+        }
+        switch (scopes[depth - 1]) {
+            case DANGLING_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                writeByte(',');
+                break;
+            default:
+                throw new IllegalStateException("Values inside an object must follow a name");
+        }
+    }
+
+    private int peekScope() {
+        if (depth == 0) {
+            throw new IllegalStateException("JsonWriter is closed");
+        }
+        return scopes[depth - 1];
+    }
+
+    private void pushScope(int scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    private void writeString(String value) {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    writeByte('\\');
+                    writeByte(c);
+                    break;
+                case '\t':
+                    writeEscape('t');
+                    break;
+                case '\b':
+                    writeEscape('b');
+                    break;
+                case '\n':
+                    writeEscape('n');
+                    break;
+                case '\r':
+                    writeEscape('r');
+                    break;
+                case '\f':
+                    writeEscape('f');
+                    break;
+                default:
+                    if (c <= 0x1F) {
+                        writeUnicodeEscape(c);
+                    } else if (c < 0x80) {
+                        writeByte(c);
+                    } else if (c < 0x800) {
+                        ensureCapacity(2);
+                        buffer[count++] = (byte) (0xC0 | (c >> 6));
+                        buffer[count++] = (byte) (0x80 | (c & 0x3F));
+                    } else if (Character.isHighSurrogate(c) && i + 1 < length
+                            && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                        ensureCapacity(4);
+                        buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                        buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                        buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                        buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                    } else if (Character.isSurrogate(c)) {
+                        // unpaired surrogates are replaced, as in String#getBytes
+                        writeByte('?');
+                    } else {
+                        ensureCapacity(3);
+                        buffer[count++] = (byte) (0xE0 | (c >> 12));
+                        buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                        buffer[count++] = (byte) (0x80 | (c & 0x3F));
+                    }
+                    break;
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeEscape(char c) {
+        writeByte('\\');
+        writeByte(c);
+    }
+
+    private void writeUnicodeEscape(char c) {
+        ensureCapacity(6);
+        buffer[count++] = '\\';
+        buffer[count++] = 'u';
+        buffer[count++] = HEX_DIGITS[(c >> 12) & 0xF];
+        buffer[count++] = HEX_DIGITS[(c >> 8) & 0xF];
+        buffer[count++] = HEX_DIGITS[(c >> 4) & 0xF];
+        buffer[count++] = HEX_DIGITS[c & 0xF];
+    }
+
+    private void writeAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[count++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[count++] = (byte) b;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = count + additional;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, required));
+        }
+    }
+}
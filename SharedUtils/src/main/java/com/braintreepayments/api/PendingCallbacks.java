@@ -0,0 +1,78 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Callbacks waiting on an in flight request, keyed by the request fields, so that concurrent
+ * identical requests share a single round trip.
+ * <p>
+ * The first caller for a key receives the list of callbacks for the request it must send, and
+ * passes that list back to {@link #complete(String, List)} once the request finishes. Later
+ * callers join the list until then.
+ *
+ * @param <C> the type of the callbacks
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class PendingCallbacks<C> {
+
+    private final Map<String, List<C>> pendingCallbacks = new HashMap<>();
+
+    /**
+     * Add {@code callback} to the request in flight for {@code key}, or start a new request if
+     * there is none.
+     *
+     * @return the callbacks of the new request, which the caller must send, or {@code null} if
+     * {@code callback} joined a request that is already in flight
+     */
+    @Nullable
+    public synchronized List<C> add(@NonNull String key, @NonNull C callback) {
+        List<C> callbacks = pendingCallbacks.get(key);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return null;
+        }
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        pendingCallbacks.put(key, callbacks);
+        return callbacks;
+    }
+
+    /**
+     * Complete a request started by {@link #add(String, Object)}, so that later callers start a
+     * new request.
+     *
+     * @param callbacks the callbacks returned by {@link #add(String, Object)}
+     * @return the callbacks to notify of the result
+     */
+    @NonNull
+    public synchronized List<C> complete(@NonNull String key, @NonNull List<C> callbacks) {
+        // a newer request may have been started for the same key after this one was removed
+        if (pendingCallbacks.get(key) == callbacks) {
+            pendingCallbacks.remove(key);
+        }
+        return new ArrayList<>(callbacks);
+    }
+
+    /**
+     * Stop sharing the request in flight for {@code key}, e.g. because its result is stale. Its
+     * callbacks are still notified when it completes.
+     */
+    public synchronized void remove(@NonNull String key) {
+        pendingCallbacks.remove(key);
+    }
+
+    /**
+     * Stop sharing all requests in flight. Their callbacks are still notified when they complete.
+     */
+    public synchronized void clear() {
+        pendingCallbacks.clear();
+    }
+}
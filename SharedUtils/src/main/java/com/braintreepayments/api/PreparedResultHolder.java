@@ -0,0 +1,160 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Holds the result of a request sent ahead of time, e.g. a payment resource created while the
+ * customer is still reviewing their cart, so that a later request with the same fields can use it
+ * without another round trip.
+ * <p>
+ * A prepared result is identified by a key built from the request fields. Only the most recently
+ * prepared result is kept, it is used at most once, and it expires after a time to live. Requests
+ * that join a result that is still being prepared are notified once it completes.
+ *
+ * @param <T> the type of the prepared result
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class PreparedResultHolder<T> {
+
+    /**
+     * Notified when the prepared result a request joined is complete.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public interface Callback<T> {
+
+        /**
+         * @param result the prepared result, or {@code null} if preparing failed, in which case
+         *               the request should be sent again
+         */
+        void onResult(@Nullable T result);
+    }
+
+    private final long timeToLiveMillis;
+
+    private PreparedResult<T> preparedResult;
+
+    public PreparedResultHolder(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Start preparing a result for {@code key}.
+     *
+     * @return the result to send the request for and then {@link #complete(PreparedResult, Object)},
+     * or {@code null} if a result for {@code key} is already prepared
+     */
+    @Nullable
+    public synchronized PreparedResult<T> start(@NonNull String key, long currentTimeMillis) {
+        if (preparedResult != null && preparedResult.matches(key, currentTimeMillis)) {
+            return null;
+        }
+        preparedResult = new PreparedResult<>(key, currentTimeMillis, timeToLiveMillis);
+        return preparedResult;
+    }
+
+    /**
+     * Remove the prepared result so that it is used at most once. Any request removes it, since
+     * its fields are stale if they differ, so callers only need to build a key when this returns
+     * a result.
+     *
+     * @return the prepared result, or {@code null} if no result is prepared
+     */
+    @Nullable
+    public synchronized PreparedResult<T> take() {
+        PreparedResult<T> result = preparedResult;
+        preparedResult = null;
+        return result;
+    }
+
+    /**
+     * Complete a result returned by {@link #start(String, long)} and notify the requests that
+     * joined it.
+     *
+     * @param result the prepared result, or {@code null} if preparing failed
+     */
+    public void complete(@NonNull PreparedResult<T> preparedResult, @Nullable T result) {
+        if (result == null) {
+            synchronized (this) {
+                if (this.preparedResult == preparedResult) {
+                    this.preparedResult = null;
+                }
+            }
+        }
+        for (Callback<T> callback : preparedResult.complete(result)) {
+            callback.onResult(result);
+        }
+    }
+
+    /**
+     * A result that has been or is being prepared.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public static class PreparedResult<T> {
+
+        private final String key;
+        private final long createdAt;
+        private final long timeToLiveMillis;
+
+        private final List<Callback<T>> callbacks = new ArrayList<>();
+        private T result;
+        private boolean isComplete;
+
+        PreparedResult(String key, long createdAt, long timeToLiveMillis) {
+            this.key = key;
+            this.createdAt = createdAt;
+            this.timeToLiveMillis = timeToLiveMillis;
+        }
+
+        /**
+         * @return true if this result was prepared for {@code key} and has not expired
+         */
+        public boolean matches(@NonNull String key, long currentTimeMillis) {
+            return this.key.equals(key) && currentTimeMillis - createdAt < timeToLiveMillis;
+        }
+
+        /**
+         * Deliver the prepared result to {@code callback}, or deliver it once it is complete if
+         * the request is still in flight.
+         *
+         * @return false if preparing failed, in which case {@code callback} is not called
+         */
+        public boolean addCallback(@NonNull Callback<T> callback) {
+            T completedResult;
+            synchronized (this) {
+                if (!isComplete) {
+                    callbacks.add(callback);
+                    return true;
+                }
+                completedResult = result;
+            }
+            if (completedResult == null) {
+                return false;
+            }
+            callback.onResult(completedResult);
+            return true;
+        }
+
+        synchronized List<Callback<T>> complete(T result) {
+            if (isComplete) {
+                return Collections.emptyList();
+            }
+            isComplete = true;
+            this.result = result;
+
+            List<Callback<T>> waitingCallbacks = new ArrayList<>(callbacks);
+            callbacks.clear();
+            return waitingCallbacks;
+        }
+    }
+}
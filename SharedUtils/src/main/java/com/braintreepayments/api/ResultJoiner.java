@@ -0,0 +1,82 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Joins the results of two asynchronous steps that run at the same time, e.g. tokenizing a card
+ * while a third party SDK starts up, and notifies a callback exactly once.
+ * <p>
+ * The callback is notified once both results have arrived, or as soon as either step fails,
+ * whichever comes first. Results that arrive after that are ignored.
+ *
+ * @param <A> the type of the first result
+ * @param <B> the type of the second result
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class ResultJoiner<A, B> {
+
+    /**
+     * Notified once both steps have completed, or one of them has failed.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public interface Callback<A, B> {
+
+        /**
+         * At most one of {@code firstError} and {@code secondError} is non-null. A step that had
+         * not completed when the other one failed has neither a result nor an error.
+         */
+        void onResult(@Nullable A first, @Nullable Exception firstError,
+                      @Nullable B second, @Nullable Exception secondError);
+    }
+
+    private final Callback<A, B> callback;
+
+    private A first;
+    private B second;
+    private boolean hasFirst;
+    private boolean hasSecond;
+    private boolean isFinished;
+
+    public ResultJoiner(@NonNull Callback<A, B> callback) {
+        this.callback = callback;
+    }
+
+    public void setFirst(@Nullable A first, @Nullable Exception error) {
+        B second;
+        synchronized (this) {
+            if (isFinished) {
+                return;
+            }
+            this.first = first;
+            hasFirst = true;
+            if (error == null && !hasSecond) {
+                return;
+            }
+            isFinished = true;
+            second = this.second;
+        }
+        callback.onResult(first, error, second, null);
+    }
+
+    public void setSecond(@Nullable B second, @Nullable Exception error) {
+        A first;
+        synchronized (this) {
+            if (isFinished) {
+                return;
+            }
+            this.second = second;
+            hasSecond = true;
+            if (error == null && !hasFirst) {
+                return;
+            }
+            isFinished = true;
+            first = this.first;
+        }
+        callback.onResult(first, null, second, error);
+    }
+}
@@ -65,10 +65,20 @@ class SynchronousHttpClient {
             connection.setRequestProperty("Content-Type", "application/json");
             connection.setDoOutput(true);
 
-            OutputStream outputStream = connection.getOutputStream();
-            outputStream.write(httpRequest.getData());
-            outputStream.flush();
-            outputStream.close();
+            JsonWriter body = httpRequest.getBody();
+            if (body != null) {
+                // a fixed length lets the connection stream the body instead of buffering a copy
+                connection.setFixedLengthStreamingMode(body.size());
+                OutputStream outputStream = connection.getOutputStream();
+                body.writeTo(outputStream);
+                outputStream.flush();
+                outputStream.close();
+            } else {
+                OutputStream outputStream = connection.getOutputStream();
+                outputStream.write(httpRequest.getData());
+                outputStream.flush();
+                outputStream.close();
+            }
 
             httpRequest.dispose();
         }
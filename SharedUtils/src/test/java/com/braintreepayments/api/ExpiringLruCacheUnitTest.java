@@ -0,0 +1,82 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ExpiringLruCacheUnitTest {
+
+    @Test
+    public void get_returnsValueWithinTimeToLive() {
+        ExpiringLruCache<String> sut = new ExpiringLruCache<>(4);
+        sut.put("key", "value", 0);
+
+        assertEquals("value", sut.get("key", 1000, 999));
+    }
+
+    @Test
+    public void get_whenEntryIsExpired_returnsNullAndRemovesEntry() {
+        ExpiringLruCache<String> sut = new ExpiringLruCache<>(4);
+        sut.put("key", "value", 0);
+
+        assertNull(sut.get("key", 1000, 1000));
+        assertNull(sut.get("key", 1000, 0));
+    }
+
+    @Test
+    public void get_whenKeyIsMissing_returnsNull() {
+        ExpiringLruCache<String> sut = new ExpiringLruCache<>(4);
+        sut.put("key", "value", 0);
+
+        assertNull(sut.get("other-key", 1000, 0));
+    }
+
+    @Test
+    public void put_whenCacheIsFull_evictsLeastRecentlyUsedEntry() {
+        ExpiringLruCache<String> sut = new ExpiringLruCache<>(4);
+        for (int i = 0; i < 4; i++) {
+            sut.put("key-" + i, "value-" + i, 0);
+        }
+        // touch the eldest entry so that the second entry becomes least recently used
+        sut.get("key-0", 1000, 0);
+        sut.put("key-4", "value-4", 0);
+
+        assertEquals("value-0", sut.get("key-0", 1000, 0));
+        assertNull(sut.get("key-1", 1000, 0));
+    }
+
+    @Test
+    public void remove_removesEntry() {
+        ExpiringLruCache<String> sut = new ExpiringLruCache<>(4);
+        sut.put("key", "value", 0);
+        sut.remove("key");
+
+        assertNull(sut.get("key", 1000, 0));
+    }
+
+    @Test
+    public void put_afterEntryIsRemoved_ignoresValueFromPreviousGeneration() {
+        ExpiringLruCache<String> sut = new ExpiringLruCache<>(4);
+        long generation = sut.getGeneration();
+        sut.remove("key");
+        sut.put("key", "value", 0, generation);
+
+        assertNull(sut.get("key", 1000, 0));
+    }
+
+    @Test
+    public void put_afterClear_ignoresValueFromPreviousGeneration() {
+        ExpiringLruCache<String> sut = new ExpiringLruCache<>(4);
+        long generation = sut.getGeneration();
+        sut.clear();
+        sut.put("key", "value", 0, generation);
+        assertNull(sut.get("key", 1000, 0));
+
+        sut.put("key", "value", 0, sut.getGeneration());
+        assertEquals("value", sut.get("key", 1000, 0));
+    }
+}
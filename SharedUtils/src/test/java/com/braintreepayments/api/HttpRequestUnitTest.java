@@ -38,6 +38,26 @@ public class HttpRequestUnitTest {
             assertEquals("sample data", new String(sut.getData(), StandardCharsets.UTF_8));
         }
 
+        @Test
+        public void getData_withJsonWriter_returnsBytesWritten() {
+            JsonWriter body = new JsonWriter().beginObject().field("key", "välue").endObject();
+            HttpRequest sut = HttpRequest.newInstance()
+                    .data(body);
+
+            assertSame(body, sut.getBody());
+            assertEquals("{\"key\":\"välue\"}", new String(sut.getData(), StandardCharsets.UTF_8));
+        }
+
+        @Test
+        public void dispose_whenBodyExists_clearsBody() {
+            JsonWriter body = new JsonWriter().beginObject().field("key", "value").endObject();
+            HttpRequest sut = HttpRequest.newInstance()
+                    .data(body);
+            sut.dispose();
+
+            assertEquals(0, body.size());
+        }
+
         @Test
         public void dispose_whenDataIsNull_doesNothing() {
             HttpRequest sut = HttpRequest.newInstance();
@@ -0,0 +1,161 @@
+package com.braintreepayments.api;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+public class JsonWriterUnitTest {
+
+    @Test
+    public void writesNestedObjectsAndArrays() throws JSONException {
+        JsonWriter sut = new JsonWriter()
+                .beginObject()
+                .field("string", "value")
+                .field("boolean", true)
+                .name("number").value(42L)
+                .name("null").nullValue()
+                .name("object").beginObject().field("key", "value").endObject()
+                .name("array").beginArray().value("a").value(false).beginObject().endObject().endArray()
+                .endObject();
+
+        assertEquals("{\"string\":\"value\",\"boolean\":true,\"number\":42,\"null\":null,"
+                + "\"object\":{\"key\":\"value\"},\"array\":[\"a\",false,{}]}", sut.toString());
+
+        JSONObject json = new JSONObject(sut.toString());
+        assertEquals("value", json.getString("string"));
+        assertEquals(3, json.getJSONArray("array").length());
+    }
+
+    @Test
+    public void optField_whenValueIsNull_omitsField() {
+        JsonWriter sut = new JsonWriter()
+                .beginObject()
+                .optField("absent", null)
+                .optField("present", "value")
+                .endObject();
+
+        assertEquals("{\"present\":\"value\"}", sut.toString());
+    }
+
+    @Test
+    public void value_escapesStringsLikeJSONObject() throws JSONException {
+        String value = "quote\" backslash\\ slash/ tab\t newline\n control\u0001 line\u2028separator";
+        JsonWriter sut = new JsonWriter().beginObject().field("key", value).endObject();
+
+        assertEquals(new JSONObject().put("key", value).toString(), sut.toString());
+        assertEquals(value, new JSONObject(sut.toString()).getString("key"));
+    }
+
+    @Test
+    public void value_encodesNonAsciiCharactersAsUTF8() throws JSONException {
+        String value = "Bjärne Stroustrüp ₹ 😀";
+        JsonWriter sut = new JsonWriter(1).beginArray().value(value).endArray();
+
+        byte[] expected = ("[\"" + value + "\"]").getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, sut.toByteArray());
+        assertEquals(expected.length, sut.size());
+        assertEquals(value, new JSONArray(sut.toString()).getString(0));
+    }
+
+    @Test
+    public void writeTo_writesBytesWritten() throws IOException {
+        JsonWriter sut = new JsonWriter().beginObject().field("key", "value").endObject();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        sut.writeTo(outputStream);
+
+        assertEquals("{\"key\":\"value\"}", outputStream.toString("UTF-8"));
+    }
+
+    @Test
+    public void reset_allowsWriterToBeReused() {
+        JsonWriter sut = new JsonWriter().beginObject().field("first", true).endObject();
+        sut.reset();
+        sut.beginArray().endArray();
+
+        assertEquals("[]", sut.toString());
+    }
+
+    @Test
+    public void clear_zeroesWrittenBytes() {
+        JsonWriter sut = new JsonWriter().beginObject().field("secret", "value").endObject();
+        sut.clear();
+
+        assertEquals(0, sut.size());
+        assertFalse(sut.toString().contains("secret"));
+    }
+
+    @Test
+    public void value_whenNameIsMissing_throwsIllegalStateException() {
+        JsonWriter sut = new JsonWriter().beginObject();
+        try {
+            sut.value("value");
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("name"));
+        }
+    }
+
+    @Test
+    public void endArray_whenObjectIsOpen_throwsIllegalStateException() {
+        JsonWriter sut = new JsonWriter().beginObject();
+        try {
+            sut.endArray();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("Nesting problem", e.getMessage());
+        }
+    }
+
+    @Test
+    public void beginObject_afterDocumentIsComplete_throwsIllegalStateException() {
+        JsonWriter sut = new JsonWriter().beginObject().endObject();
+        try {
+            sut.beginObject();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("JSON must have only one top-level value", e.getMessage());
+        }
+    }
+
+    @Test
+    public void reopenObject_appendsFieldsToCompletedObject() {
+        JsonWriter sut = new JsonWriter().beginObject().field("first", "a").endObject();
+        sut.reopenObject().field("second", "b").endObject();
+
+        assertEquals("{\"first\":\"a\",\"second\":\"b\"}", sut.toString());
+    }
+
+    @Test
+    public void reopenObject_whenObjectIsEmpty_appendsFieldWithoutComma() {
+        JsonWriter sut = new JsonWriter().beginObject().endObject();
+        sut.reopenObject().field("key", "value").endObject();
+
+        assertEquals("{\"key\":\"value\"}", sut.toString());
+    }
+
+    @Test
+    public void reopenObject_whenDocumentIsNotComplete_throwsIllegalStateException() {
+        JsonWriter sut = new JsonWriter().beginObject();
+        try {
+            sut.reopenObject();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("Only a completed top-level object can be reopened", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PendingCallbacksUnitTest {
+
+    @Test
+    public void add_whenNoRequestIsInFlight_returnsCallbacksOfNewRequest() {
+        PendingCallbacks<String> sut = new PendingCallbacks<>();
+
+        List<String> callbacks = sut.add("key", "callback-1");
+
+        assertEquals(Arrays.asList("callback-1"), callbacks);
+    }
+
+    @Test
+    public void add_whenRequestIsInFlight_joinsRequest() {
+        PendingCallbacks<String> sut = new PendingCallbacks<>();
+        List<String> callbacks = sut.add("key", "callback-1");
+
+        assertNull(sut.add("key", "callback-2"));
+        assertNotNull(sut.add("other-key", "callback-3"));
+        assertEquals(Arrays.asList("callback-1", "callback-2"), sut.complete("key", callbacks));
+    }
+
+    @Test
+    public void complete_removesRequest() {
+        PendingCallbacks<String> sut = new PendingCallbacks<>();
+        List<String> callbacks = sut.add("key", "callback-1");
+        sut.complete("key", callbacks);
+
+        assertEquals(Arrays.asList("callback-2"), sut.add("key", "callback-2"));
+    }
+
+    @Test
+    public void remove_startsNewRequestAndKeepsCallbacksOfRemovedRequest() {
+        PendingCallbacks<String> sut = new PendingCallbacks<>();
+        List<String> callbacks = sut.add("key", "callback-1");
+        sut.remove("key");
+
+        List<String> newerCallbacks = sut.add("key", "callback-2");
+        assertNotSame(callbacks, newerCallbacks);
+        assertEquals(Arrays.asList("callback-1"), sut.complete("key", callbacks));
+
+        // completing the removed request does not remove the newer one
+        assertNull(sut.add("key", "callback-3"));
+        assertEquals(Arrays.asList("callback-2", "callback-3"), sut.complete("key", newerCallbacks));
+    }
+
+    @Test
+    public void clear_startsNewRequests() {
+        PendingCallbacks<String> sut = new PendingCallbacks<>();
+        List<String> callbacks = sut.add("key", "callback-1");
+        sut.clear();
+
+        assertNotNull(sut.add("key", "callback-2"));
+        assertEquals(Arrays.asList("callback-1"), sut.complete("key", callbacks));
+    }
+}
@@ -0,0 +1,150 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PreparedResultHolderUnitTest {
+
+    private static final long TIME_TO_LIVE = 1000;
+
+    @Test
+    public void matches_withSameKeyWithinTimeToLive_returnsTrue() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+
+        assertTrue(prepared.matches("key", TIME_TO_LIVE - 1));
+    }
+
+    @Test
+    public void matches_withDifferentKey_returnsFalse() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+
+        assertFalse(prepared.matches("other-key", 0));
+    }
+
+    @Test
+    public void matches_whenExpired_returnsFalse() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+
+        assertFalse(prepared.matches("key", TIME_TO_LIVE));
+    }
+
+    @Test
+    public void start_whenSameKeyIsAlreadyPrepared_returnsNull() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        sut.start("key", 0);
+
+        assertNull(sut.start("key", 0));
+        assertNotNull(sut.start("other-key", 0));
+        assertNotNull(sut.start("other-key", TIME_TO_LIVE));
+    }
+
+    @Test
+    public void take_removesPreparedResult() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+
+        assertSame(prepared, sut.take());
+        assertNull(sut.take());
+    }
+
+    @Test
+    public void addCallback_whenInFlight_deliversResultOnComplete() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+        RecordingCallback callback = new RecordingCallback();
+
+        assertTrue(prepared.addCallback(callback));
+        assertEquals(0, callback.results.size());
+
+        sut.complete(prepared, "result");
+        assertEquals(1, callback.results.size());
+        assertEquals("result", callback.results.get(0));
+    }
+
+    @Test
+    public void addCallback_whenCompleted_deliversResult() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+        sut.complete(prepared, "result");
+
+        RecordingCallback callback = new RecordingCallback();
+        assertTrue(prepared.addCallback(callback));
+
+        assertEquals(1, callback.results.size());
+        assertEquals("result", callback.results.get(0));
+    }
+
+    @Test
+    public void addCallback_whenCompletedWithoutResult_returnsFalse() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+        sut.complete(prepared, null);
+
+        RecordingCallback callback = new RecordingCallback();
+        assertFalse(prepared.addCallback(callback));
+        assertEquals(0, callback.results.size());
+    }
+
+    @Test
+    public void complete_withoutResult_notifiesWaitingCallbacksAndRemovesPreparedResult() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+        RecordingCallback callback = new RecordingCallback();
+        prepared.addCallback(callback);
+
+        sut.complete(prepared, null);
+
+        assertEquals(1, callback.results.size());
+        assertNull(callback.results.get(0));
+        assertNull(sut.take());
+    }
+
+    @Test
+    public void complete_withoutResult_keepsNewerPreparedResult() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+        PreparedResultHolder.PreparedResult<String> newerPrepared = sut.start("other-key", 0);
+
+        sut.complete(prepared, null);
+
+        assertSame(newerPrepared, sut.take());
+    }
+
+    @Test
+    public void complete_whenAlreadyCompleted_doesNotNotifyCallbacksAgain() {
+        PreparedResultHolder<String> sut = new PreparedResultHolder<>(TIME_TO_LIVE);
+        PreparedResultHolder.PreparedResult<String> prepared = sut.start("key", 0);
+        RecordingCallback callback = new RecordingCallback();
+        prepared.addCallback(callback);
+
+        sut.complete(prepared, "result");
+        sut.complete(prepared, "other-result");
+
+        assertEquals(1, callback.results.size());
+    }
+
+    private static class RecordingCallback implements PreparedResultHolder.Callback<String> {
+
+        private final List<String> results = new ArrayList<>();
+
+        @Override
+        public void onResult(String result) {
+            results.add(result);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ResultJoinerUnitTest {
+
+    @Test
+    public void setFirst_thenSetSecond_notifiesBothResults() {
+        RecordingCallback callback = new RecordingCallback();
+        ResultJoiner<String, Integer> sut = new ResultJoiner<>(callback);
+
+        sut.setFirst("first", null);
+        assertEquals(0, callback.calls);
+
+        sut.setSecond(2, null);
+        assertEquals(1, callback.calls);
+        assertEquals("first", callback.first);
+        assertEquals(Integer.valueOf(2), callback.second);
+        assertNull(callback.firstError);
+        assertNull(callback.secondError);
+    }
+
+    @Test
+    public void setSecond_thenSetFirst_notifiesBothResults() {
+        RecordingCallback callback = new RecordingCallback();
+        ResultJoiner<String, Integer> sut = new ResultJoiner<>(callback);
+
+        sut.setSecond(2, null);
+        assertEquals(0, callback.calls);
+
+        sut.setFirst("first", null);
+        assertEquals(1, callback.calls);
+        assertEquals("first", callback.first);
+        assertEquals(Integer.valueOf(2), callback.second);
+    }
+
+    @Test
+    public void setFirst_withError_notifiesWithoutWaitingForSecondResult() {
+        RecordingCallback callback = new RecordingCallback();
+        ResultJoiner<String, Integer> sut = new ResultJoiner<>(callback);
+
+        Exception error = new Exception("error");
+        sut.setFirst(null, error);
+
+        assertEquals(1, callback.calls);
+        assertSame(error, callback.firstError);
+        assertNull(callback.second);
+        assertNull(callback.secondError);
+    }
+
+    @Test
+    public void setSecond_withError_afterFirstResult_notifiesFirstResultAndError() {
+        RecordingCallback callback = new RecordingCallback();
+        ResultJoiner<String, Integer> sut = new ResultJoiner<>(callback);
+
+        Exception error = new Exception("error");
+        sut.setFirst("first", null);
+        sut.setSecond(null, error);
+
+        assertEquals(1, callback.calls);
+        assertEquals("first", callback.first);
+        assertNull(callback.firstError);
+        assertSame(error, callback.secondError);
+    }
+
+    @Test
+    public void resultsAfterFailure_areIgnored() {
+        RecordingCallback callback = new RecordingCallback();
+        ResultJoiner<String, Integer> sut = new ResultJoiner<>(callback);
+
+        sut.setSecond(null, new Exception("error"));
+        sut.setFirst("first", null);
+        sut.setFirst(null, new Exception("other error"));
+
+        assertEquals(1, callback.calls);
+        assertNull(callback.first);
+    }
+
+    private static class RecordingCallback implements ResultJoiner.Callback<String, Integer> {
+
+        private int calls;
+        private String first;
+        private Exception firstError;
+        private Integer second;
+        private Exception secondError;
+
+        @Override
+        public void onResult(String first, Exception firstError, Integer second, Exception secondError) {
+            calls++;
+            this.first = first;
+            this.firstError = firstError;
+            this.second = second;
+            this.secondError = secondError;
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.braintreepayments.api;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -12,6 +14,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.function.ThrowingRunnable;
 
+import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
@@ -340,6 +343,7 @@ public class SynchronousHttpClientUnitTest {
         sut.request(httpRequest);
 
         verify(connection).setDoOutput(true);
+        verify(connection, never()).setFixedLengthStreamingMode(anyInt());
         verify(outputStream).write(httpRequest.getData());
         verify(outputStream).flush();
         verify(outputStream).close();
@@ -376,6 +380,37 @@ public class SynchronousHttpClientUnitTest {
         verify(httpRequest).dispose();
     }
 
+    @Test
+    public void request_whenPostWithJsonWriter_streamsBodyWithFixedLength() throws Exception {
+        JsonWriter body = new JsonWriter().beginObject().field("key", "value").endObject();
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("POST")
+                .data(body)
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+
+        when(connection.getResponseCode()).thenReturn(200);
+        when(httpResponseParser.parse(200, connection)).thenReturn("http_ok");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(connection.getOutputStream()).thenReturn(outputStream);
+
+        SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        sut.request(httpRequest);
+
+        verify(connection).setDoOutput(true);
+        verify(connection).setFixedLengthStreamingMode(15);
+        assertEquals("{\"key\":\"value\"}", outputStream.toString("UTF-8"));
+        verify(httpRequest).dispose();
+        assertEquals(0, body.size());
+    }
+
     private static byte[] toByteArray(String data) {
         return data.getBytes(StandardCharsets.UTF_8);
     }
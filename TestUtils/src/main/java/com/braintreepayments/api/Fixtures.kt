@@ -687,6 +687,20 @@ object Fixtures {
         }
     """
 
+    // language=JSON
+    const val CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES = """
+        {
+          "clientApiUrl": "client_api_url",
+          "environment": "test",
+          "merchantId": "integration_merchant_id",
+          "merchantAccountId": "integration_merchant_account_id",
+          "graphQL": {
+            "url": "https://example-graphql.com/graphql",
+            "features": ["tokenize_credit_cards", "persisted_queries"]
+          }
+        }
+    """
+
     // language=JSON
     const val CONFIGURATION_WITH_GRAPHQL_WITHOUT_FEATURES = """
         {
@@ -882,6 +896,24 @@ object Fixtures {
         }
     """
 
+    const val CONFIGURATION_WITH_PAY_WITH_VENMO_AND_VAULT_PAYMENT_CONTEXT = """
+        {
+          "clientApiUrl": "client_api_url",
+          "environment": "test",
+          "merchantId": "integration_merchant_id",
+          "merchantAccountId": "integration_merchant_account_id",
+          "graphQL": {
+            "url": "https://example-graphql.com/graphql",
+            "features": ["vault_venmo_payment_context"]
+          },
+          "payWithVenmo": {
+            "accessToken": "access-token",
+            "environment": "environment",
+            "merchantId": "merchant-id"
+          }
+        }
+    """
+
     const val CONFIGURATION_WITH_PAY_WITH_VENMO_ECD_ENABLED = """
         {
           "clientApiUrl": "client_api_url",
@@ -1476,6 +1508,37 @@ object Fixtures {
         }
     """
 
+    // language=JSON
+    const val GRAPHQL_RESPONSE_CREDIT_CARD_BATCH = """
+        {
+          "data": {
+            "card0": {
+              "token": "3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1",
+              "creditCard": {
+                "brand": "Visa",
+                "expirationMonth": "01",
+                "expirationYear": "2020",
+                "cardholderName": "Joe Smith",
+                "last4": "1111"
+              }
+            },
+            "card1": {
+              "token": "8b1a2bd2-cc6e-4b45-a6b0-7ba7c5c7bb32",
+              "creditCard": {
+                "brand": "MasterCard",
+                "expirationMonth": "02",
+                "expirationYear": "2021",
+                "cardholderName": "Jane Smith",
+                "last4": "4444"
+              }
+            }
+          },
+          "extensions" : {
+            "requestId" : "2f6c8a7e-7d5a-4d0e-9b1c-7c1f6e7e2a11"
+          }
+        }
+    """
+
     // language=JSON
     const val GRAPHQL_RESPONSE_CREDIT_CARD_MISSING_VALUES = """
         {
@@ -2045,6 +2108,19 @@ object Fixtures {
         }
     """
 
+    const val VENMO_GRAPHQL_VAULT_PAYMENT_CONTEXT_RESPONSE = """
+        {
+            "data": {
+                "vaultVenmoPaymentContext": {
+                    "venmoPaymentContext": {
+                        "paymentMethodId": "vaulted-payment-method-id",
+                        "userName": "@somebody"
+                    }
+                }
+            }
+        }
+    """
+
     // language=JSON
     const val VENMO_PAYMENT_METHOD_CONTEXT_JSON = """
         {
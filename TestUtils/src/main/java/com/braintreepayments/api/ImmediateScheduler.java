@@ -0,0 +1,18 @@
+package com.braintreepayments.api;
+
+/**
+ * A {@link Scheduler} that runs main and background thread work immediately on the calling
+ * thread, so that asynchronous work can be verified synchronously in unit tests.
+ */
+public class ImmediateScheduler implements Scheduler {
+
+    @Override
+    public void runOnMain(Runnable runnable) {
+        runnable.run();
+    }
+
+    @Override
+    public void runOnBackground(Runnable runnable) {
+        runnable.run();
+    }
+}
@@ -57,6 +57,15 @@ public class MockApiClientBuilder {
             }
         }).when(apiClient).tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                TokenizeCallback listener = (TokenizeCallback) invocation.getArguments()[2];
+                listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError);
+                return null;
+            }
+        }).when(apiClient).tokenizeGraphQL(any(GraphQLOperation.class), any(JSONObject.class), any(TokenizeCallback.class));
+
         return apiClient;
     }
 }
@@ -12,6 +12,7 @@ import android.content.pm.ActivityInfo;
 
 import androidx.fragment.app.FragmentActivity;
 
+import org.json.JSONObject;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
@@ -196,6 +197,19 @@ public class MockBraintreeClientBuilder {
             }
         }).when(braintreeClient).sendPOST(anyString(), anyString(), any(HttpResponseCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[2];
+                if (sendPOSTSuccess != null) {
+                    callback.onResult(sendPOSTSuccess, null);
+                } else if (sendPOSTError != null) {
+                    callback.onResult(null, sendPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendPOST(anyString(), any(JsonWriter.class), any(HttpResponseCallback.class));
+
         doAnswer(new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) {
@@ -209,6 +223,19 @@ public class MockBraintreeClientBuilder {
             }
         }).when(braintreeClient).sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[2];
+                if (sendGraphQLPOSTSuccess != null) {
+                    callback.onResult(sendGraphQLPOSTSuccess, null);
+                } else if (sendGraphQLPOSTError != null) {
+                    callback.onResult(null, sendGraphQLPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendGraphQLPOST(any(GraphQLOperation.class), any(JSONObject.class), any(HttpResponseCallback.class));
+
         return braintreeClient;
     }
 }
@@ -44,6 +44,11 @@ class MockkApiClientBuilder {
             val listener = lastArg() as TokenizeCallback
             listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError)
         }
+
+        every { apiClient.tokenizeGraphQL(any(), any(), any()) } answers {
+            val listener = lastArg() as TokenizeCallback
+            listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError)
+        }
         return apiClient
     }
 }
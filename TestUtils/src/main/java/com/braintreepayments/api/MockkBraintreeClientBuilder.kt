@@ -11,6 +11,7 @@ class MockkBraintreeClientBuilder {
     private var sendGraphQLPOSTError: ErrorWithResponse? = null
 
     private var configurationSuccess: Configuration? = null
+    private var configurationError: Exception? = null
     private var authorizationSuccess: Authorization? = null
 
     fun configurationSuccess(configurationSuccess: Configuration): MockkBraintreeClientBuilder {
@@ -18,6 +19,11 @@ class MockkBraintreeClientBuilder {
         return this
     }
 
+    fun configurationError(configurationError: Exception): MockkBraintreeClientBuilder {
+        this.configurationError = configurationError
+        return this
+    }
+
     fun sessionId(sessionId: String): MockkBraintreeClientBuilder {
         this.sessionId = sessionId
         return this
@@ -35,6 +41,7 @@ class MockkBraintreeClientBuilder {
         every { braintreeClient.getConfiguration(any()) } answers { call ->
             val callback = call.invocation.args[0] as ConfigurationCallback
             configurationSuccess?.let { callback.onResult(it, null) }
+                ?: configurationError?.let { callback.onResult(null, it) }
         }
 
         every { braintreeClient.getAuthorization(any()) } answers { call ->
@@ -42,12 +49,20 @@ class MockkBraintreeClientBuilder {
             authorizationSuccess?.let { callback.onAuthorizationResult(it, null) }
         }
 
-        every { braintreeClient.sendGraphQLPOST(any(), any()) } answers { call ->
+        every { braintreeClient.sendGraphQLPOST(any<String>(), any()) } answers { call ->
             val callback = call.invocation.args[1] as HttpResponseCallback
             sendGraphQLPostSuccess?.let { callback.onResult(it, null) }
                 ?: sendGraphQLPOSTError?.let { callback.onResult(null, it) }
         }
 
+        every {
+            braintreeClient.sendGraphQLPOST(any<GraphQLOperation>(), any(), any())
+        } answers { call ->
+            val callback = call.invocation.args[2] as HttpResponseCallback
+            sendGraphQLPostSuccess?.let { callback.onResult(it, null) }
+                ?: sendGraphQLPOSTError?.let { callback.onResult(null, it) }
+        }
+
         return braintreeClient
     }
 
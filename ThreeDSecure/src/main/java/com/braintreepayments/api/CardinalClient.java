@@ -2,9 +2,8 @@ package com.braintreepayments.api;
 
 import android.content.Context;
 
-import androidx.fragment.app.FragmentActivity;
+import androidx.annotation.VisibleForTesting;
 
-import com.cardinalcommerce.cardinalmobilesdk.Cardinal;
 import com.cardinalcommerce.cardinalmobilesdk.enums.CardinalEnvironment;
 import com.cardinalcommerce.cardinalmobilesdk.enums.CardinalRenderType;
 import com.cardinalcommerce.cardinalmobilesdk.enums.CardinalUiType;
@@ -12,49 +11,122 @@ import com.cardinalcommerce.cardinalmobilesdk.models.CardinalChallengeObserver;
 import com.cardinalcommerce.cardinalmobilesdk.models.CardinalConfigurationParameters;
 import com.cardinalcommerce.cardinalmobilesdk.models.ValidateResponse;
 import com.cardinalcommerce.cardinalmobilesdk.services.CardinalInitService;
-import com.cardinalcommerce.cardinalmobilesdk.services.CardinalValidateReceiver;
 
 import org.json.JSONArray;
 
+import java.util.ArrayList;
+import java.util.List;
+
 class CardinalClient {
 
+    private final CardinalSdk cardinalSdk;
+    private final CardinalSession session;
+
     private String consumerSessionId;
 
-    CardinalClient () {}
+    CardinalClient () {
+        this(new CardinalMobileSdk(), CardinalSession.getInstance());
+    }
+
+    @VisibleForTesting
+    CardinalClient(CardinalSdk cardinalSdk, CardinalSession session) {
+        this.cardinalSdk = cardinalSdk;
+        this.session = session;
+    }
 
+    /**
+     * Initialize a Cardinal session for {@code request}, or reuse the current session if it was
+     * initialized with the same authentication JWT, environment and UI settings and has not
+     * expired.
+     */
     void initialize(Context context, Configuration configuration, final ThreeDSecureRequest request, final CardinalInitializeCallback callback) throws BraintreeException {
-        configureCardinal(context, configuration, request);
+        final CardinalSession.Key sessionKey = new CardinalSession.Key(configuration, request);
+        String existingSessionId = session.getConsumerSessionId(sessionKey, System.currentTimeMillis());
+        if (existingSessionId != null) {
+            consumerSessionId = existingSessionId;
+            callback.onResult(consumerSessionId, null);
+            return;
+        }
+
+        List<CardinalInitializeCallback> supersededCallbacks = new ArrayList<>();
+        boolean shouldInitialize = session.addPendingCallback(sessionKey, callback, supersededCallbacks);
+        for (CardinalInitializeCallback supersededCallback : supersededCallbacks) {
+            supersededCallback.onResult(null, new CardinalSessionSupersededException());
+        }
+        if (!shouldInitialize) {
+            // the same session is already being initialized
+            return;
+        }
 
         CardinalInitService cardinalInitService = new CardinalInitService() {
+
+            private String setupSessionId;
+
             @Override
             public void onSetupCompleted(String sessionId) {
-                consumerSessionId = sessionId;
-                callback.onResult(consumerSessionId, null);
+                setupSessionId = sessionId;
+                notifyInitialized(sessionKey, setupSessionId, null);
             }
 
             @Override
             public void onValidated(ValidateResponse validateResponse, String serverJWT) {
-                if (consumerSessionId == null) {
-                    callback.onResult(null, new BraintreeException("consumer session id not available"));
+                if (setupSessionId == null) {
+                    notifyInitialized(sessionKey, null, new BraintreeException("consumer session id not available"));
                 } else {
-                    callback.onResult(consumerSessionId, null);
+                    notifyInitialized(sessionKey, setupSessionId, null);
                 }
             }
         };
 
         try {
-            Cardinal.getInstance().init(configuration.getCardinalAuthenticationJwt(), cardinalInitService);
+            configureCardinal(context, configuration, request);
+            initCardinal(configuration.getCardinalAuthenticationJwt(), cardinalInitService);
+        } catch (BraintreeException e) {
+            List<CardinalInitializeCallback> callbacks =
+                    session.complete(sessionKey, null, System.currentTimeMillis());
+            if (callbacks != null) {
+                for (CardinalInitializeCallback pendingCallback : callbacks) {
+                    if (pendingCallback != callback) {
+                        pendingCallback.onResult(null, e);
+                    }
+                }
+            }
+            throw e;
+        }
+    }
+
+    private void initCardinal(String jwt, CardinalInitService cardinalInitService) throws BraintreeException {
+        try {
+            cardinalSdk.init(jwt, cardinalInitService);
         } catch (RuntimeException e) {
             throw new BraintreeException("Cardinal SDK init Error.", e);
         }
     }
 
+    private void notifyInitialized(CardinalSession.Key sessionKey, String sessionId, Exception error) {
+        List<CardinalInitializeCallback> callbacks =
+                session.complete(sessionKey, sessionId, System.currentTimeMillis());
+        if (callbacks == null) {
+            // a superseded or already completed initialization must not replace the session id
+            return;
+        }
+        if (sessionId != null) {
+            consumerSessionId = sessionId;
+        }
+        for (CardinalInitializeCallback pendingCallback : callbacks) {
+            pendingCallback.onResult(sessionId, error);
+        }
+    }
+
     void continueLookup(ThreeDSecureResult threeDSecureResult, CardinalChallengeObserver challengeObserver) throws BraintreeException {
         ThreeDSecureLookup lookup = threeDSecureResult.getLookup();
         String transactionId = lookup.getTransactionId();
         String paReq = lookup.getPareq();
+
+        // a challenge consumes the session, so the next verification initializes a new one
+        session.invalidate();
         try {
-            Cardinal.getInstance().cca_continue(transactionId, paReq, challengeObserver);
+            cardinalSdk.continueChallenge(transactionId, paReq, challengeObserver);
         } catch (RuntimeException e) {
             throw new BraintreeException("Cardinal SDK cca_continue Error.", e);
         }
@@ -105,7 +177,7 @@ class CardinalClient {
         }
 
         try {
-            Cardinal.getInstance().configure(context, cardinalConfigurationParameters);
+            cardinalSdk.configure(context, cardinalConfigurationParameters);
         } catch (RuntimeException e) {
             throw new BraintreeException("Cardinal SDK configure Error.", e);
         }
@@ -0,0 +1,29 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+
+import com.cardinalcommerce.cardinalmobilesdk.Cardinal;
+import com.cardinalcommerce.cardinalmobilesdk.models.CardinalChallengeObserver;
+import com.cardinalcommerce.cardinalmobilesdk.models.CardinalConfigurationParameters;
+import com.cardinalcommerce.cardinalmobilesdk.services.CardinalInitService;
+
+/**
+ * {@link CardinalSdk} backed by the Cardinal SDK singleton.
+ */
+class CardinalMobileSdk implements CardinalSdk {
+
+    @Override
+    public void configure(Context context, CardinalConfigurationParameters parameters) {
+        Cardinal.getInstance().configure(context, parameters);
+    }
+
+    @Override
+    public void init(String jwt, CardinalInitService initService) {
+        Cardinal.getInstance().init(jwt, initService);
+    }
+
+    @Override
+    public void continueChallenge(String transactionId, String payload, CardinalChallengeObserver challengeObserver) {
+        Cardinal.getInstance().cca_continue(transactionId, payload, challengeObserver);
+    }
+}
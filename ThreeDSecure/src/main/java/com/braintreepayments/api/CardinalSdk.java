@@ -0,0 +1,20 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+
+import com.cardinalcommerce.cardinalmobilesdk.models.CardinalChallengeObserver;
+import com.cardinalcommerce.cardinalmobilesdk.models.CardinalConfigurationParameters;
+import com.cardinalcommerce.cardinalmobilesdk.services.CardinalInitService;
+
+/**
+ * The calls {@link CardinalClient} makes into the Cardinal SDK, so that a fake SDK can be used in
+ * tests and benchmarks.
+ */
+interface CardinalSdk {
+
+    void configure(Context context, CardinalConfigurationParameters parameters);
+
+    void init(String jwt, CardinalInitService initService);
+
+    void continueChallenge(String transactionId, String payload, CardinalChallengeObserver challengeObserver);
+}
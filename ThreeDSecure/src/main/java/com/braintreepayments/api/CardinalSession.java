@@ -0,0 +1,172 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the Cardinal consumer session so that it can be reused across 3D Secure verifications.
+ * The Cardinal SDK is a process-wide singleton, so a single session is shared by every
+ * {@link CardinalClient}.
+ * <p>
+ * A session is reused while it is younger than its time to live and was initialized with the
+ * same {@link Key}. Callers asking for a session that is being initialized wait for that
+ * initialization instead of starting another one.
+ */
+class CardinalSession {
+
+    private static final long TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(10);
+
+    private static volatile CardinalSession INSTANCE;
+
+    private final long timeToLiveMillis;
+
+    private Key key;
+    private String consumerSessionId;
+    private long startTimeMillis;
+
+    private Key pendingKey;
+    private List<CardinalInitializeCallback> pendingCallbacks = new ArrayList<>();
+
+    static CardinalSession getInstance() {
+        if (INSTANCE == null) {
+            synchronized (CardinalSession.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new CardinalSession(TIME_TO_LIVE);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    @VisibleForTesting
+    CardinalSession(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * @return the consumer session id of the current session if it was initialized with
+     * {@code key} and has not expired, or {@code null}
+     */
+    @Nullable
+    synchronized String getConsumerSessionId(Key key, long currentTimeMillis) {
+        boolean isValid = consumerSessionId != null && key.equals(this.key)
+                && currentTimeMillis - startTimeMillis < timeToLiveMillis;
+        return isValid ? consumerSessionId : null;
+    }
+
+    /**
+     * Register {@code callback} to be notified when the session for {@code key} is initialized.
+     * <p>
+     * The Cardinal SDK holds a single configuration, so starting initialization for a different
+     * key supersedes the initialization in progress. Its callbacks are moved to
+     * {@code supersededCallbacks}, since the session they are waiting on will not be completed.
+     *
+     * @param supersededCallbacks receives the callbacks waiting on a superseded initialization
+     * @return true if the caller must start initialization, or false if initialization for
+     * {@code key} is already in progress
+     */
+    synchronized boolean addPendingCallback(Key key, CardinalInitializeCallback callback,
+                                            List<CardinalInitializeCallback> supersededCallbacks) {
+        boolean isInitializing = key.equals(pendingKey);
+        if (!isInitializing) {
+            supersededCallbacks.addAll(pendingCallbacks);
+            pendingKey = key;
+            pendingCallbacks = new ArrayList<>();
+        }
+        pendingCallbacks.add(callback);
+        return !isInitializing;
+    }
+
+    /**
+     * Complete initialization of the session for {@code key}.
+     *
+     * @param consumerSessionId the new consumer session id, or {@code null} if setup failed
+     * @return the callbacks waiting on the session, or {@code null} if initialization for
+     * {@code key} has already completed or was superseded
+     */
+    @Nullable
+    synchronized List<CardinalInitializeCallback> complete(Key key, @Nullable String consumerSessionId, long currentTimeMillis) {
+        if (!key.equals(pendingKey)) {
+            return null;
+        }
+        if (consumerSessionId != null) {
+            this.key = key;
+            this.consumerSessionId = consumerSessionId;
+            this.startTimeMillis = currentTimeMillis;
+        }
+        List<CardinalInitializeCallback> callbacks = pendingCallbacks;
+        pendingKey = null;
+        pendingCallbacks = new ArrayList<>();
+        return callbacks;
+    }
+
+    /**
+     * Discard the current session, e.g. once it has been used for a challenge.
+     */
+    synchronized void invalidate() {
+        key = null;
+        consumerSessionId = null;
+    }
+
+    /**
+     * Identifies the inputs a Cardinal session is configured and initialized with.
+     * <p>
+     * {@link ThreeDSecureV2UiCustomization} is mutable and has no value equality, so keys only match
+     * when they were created with the same customization instance. A session initialized by
+     * {@link ThreeDSecureClient#preInitialize} is therefore only reused by a verification whose
+     * request holds the same customization object.
+     */
+    static class Key {
+
+        private final String jwt;
+        private final String environment;
+        private final int uiType;
+        private final List<Integer> renderTypes;
+        private final ThreeDSecureV2UiCustomization v2UiCustomization;
+
+        Key(Configuration configuration, ThreeDSecureRequest request) {
+            this.jwt = configuration.getCardinalAuthenticationJwt();
+            this.environment = configuration.getEnvironment();
+            this.uiType = request.getUiType();
+            List<Integer> renderTypes = request.getRenderTypes();
+            this.renderTypes = renderTypes != null ? new ArrayList<>(renderTypes) : null;
+            this.v2UiCustomization = request.getV2UiCustomization();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return uiType == other.uiType
+                    && equals(jwt, other.jwt)
+                    && equals(environment, other.environment)
+                    && equals(renderTypes, other.renderTypes)
+                    // compared by instance, see the class documentation
+                    && v2UiCustomization == other.v2UiCustomization;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = jwt != null ? jwt.hashCode() : 0;
+            result = 31 * result + (environment != null ? environment.hashCode() : 0);
+            result = 31 * result + uiType;
+            result = 31 * result + (renderTypes != null ? renderTypes.hashCode() : 0);
+            result = 31 * result + System.identityHashCode(v2UiCustomization);
+            return result;
+        }
+
+        private static boolean equals(Object a, Object b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+}
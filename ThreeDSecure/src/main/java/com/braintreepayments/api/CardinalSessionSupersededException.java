@@ -0,0 +1,13 @@
+package com.braintreepayments.api;
+
+/**
+ * Error returned to callers waiting on a Cardinal session initialization that was superseded by
+ * an initialization with different settings. The session they were waiting on will never be
+ * completed.
+ */
+class CardinalSessionSupersededException extends BraintreeException {
+
+    CardinalSessionSupersededException() {
+        super("Cardinal session initialization was superseded by another 3D Secure request");
+    }
+}
@@ -5,6 +5,10 @@ import org.json.JSONObject;
 
 class ThreeDSecureAPI {
 
+    // the request urls embed the payment method nonce, so spans are tagged with a fixed endpoint
+    private static final String LOOKUP_ENDPOINT = "three_d_secure/lookup";
+    private static final String AUTHENTICATE_JWT_ENDPOINT = "three_d_secure/authenticate_from_jwt";
+
     private final BraintreeClient braintreeClient;
 
     ThreeDSecureAPI(BraintreeClient braintreeClient) {
@@ -15,11 +19,13 @@ class ThreeDSecureAPI {
         String url = ApiClient.versionedPath(ApiClient.PAYMENT_METHOD_ENDPOINT + "/" + request.getNonce() + "/three_d_secure/lookup");
         String data = request.build(cardinalConsumerSessionId);
 
+        final AnalyticsSpan span = new AnalyticsSpan(braintreeClient, LOOKUP_ENDPOINT);
         braintreeClient.sendPOST(url, data, new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
                 if (responseBody != null) {
+                    span.end("three-d-secure.lookup.succeeded");
                     try {
                         ThreeDSecureResult result = ThreeDSecureResult.fromJson(responseBody);
                         callback.onResult(result, null);
@@ -27,6 +33,7 @@ class ThreeDSecureAPI {
                         callback.onResult(null, e);
                     }
                 } else {
+                    span.end("three-d-secure.lookup.failed");
                     callback.onResult(null, httpError);
                 }
             }
@@ -50,11 +57,13 @@ class ThreeDSecureAPI {
         String url = ApiClient.versionedPath(ApiClient.PAYMENT_METHOD_ENDPOINT + "/" + lookupNonce + "/three_d_secure/authenticate_from_jwt");
         String data = body.toString();
 
+        final AnalyticsSpan span = new AnalyticsSpan(braintreeClient, AUTHENTICATE_JWT_ENDPOINT);
         braintreeClient.sendPOST(url, data, new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
                 if (responseBody != null) {
+                    span.end("three-d-secure.authenticate-jwt.succeeded");
                     try {
                         ThreeDSecureResult result = ThreeDSecureResult.fromJson(responseBody);
                         if (result.hasError()) {
@@ -66,6 +75,7 @@ class ThreeDSecureAPI {
                         callback.onResult(null, e);
                     }
                 } else {
+                    span.end("three-d-secure.authenticate-jwt.failed");
                     callback.onResult(null, httpError);
                 }
             }
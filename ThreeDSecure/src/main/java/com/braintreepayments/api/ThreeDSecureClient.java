@@ -129,6 +129,102 @@ public class ThreeDSecureClient {
             return;
         }
 
+        initializeCardinal(activity, request, new CardinalInitializeCallback() {
+            @Override
+            public void onResult(@Nullable String consumerSessionId, @Nullable Exception error) {
+                if (error != null) {
+                    callback.onResult(null, error);
+                } else {
+                    api.performLookup(request, consumerSessionId, callback);
+                }
+            }
+        });
+    }
+
+    /**
+     * Tokenizes a {@link Card} and performs 3D Secure verification on the resulting nonce.
+     * <p>
+     * The card is tokenized while the 3D Secure SDK is being initialized, and the lookup is
+     * performed as soon as both have completed. This is equivalent to calling
+     * {@link CardClient#tokenize(Card, CardTokenizeCallback)} followed by
+     * {@link ThreeDSecureClient#performVerification(FragmentActivity, ThreeDSecureRequest, ThreeDSecureResultCallback)}
+     * with the tokenized nonce, without waiting for tokenization to complete before initializing
+     * 3D Secure.
+     * <p>
+     * The nonce of {@code request} is set to the tokenized card's nonce before the lookup. If
+     * tokenization or initialization fails, the first error is passed to {@code callback}.
+     *
+     * @param activity   Android FragmentActivity
+     * @param cardClient the {@link CardClient} used to tokenize {@code card}
+     * @param card       the {@link Card} to tokenize and verify
+     * @param request    the {@link ThreeDSecureRequest} with information used for authentication.
+     * @param callback   {@link ThreeDSecureResultCallback}
+     */
+    public void tokenizeAndPerformVerification(@NonNull FragmentActivity activity, @NonNull CardClient cardClient, @NonNull Card card, @NonNull final ThreeDSecureRequest request, @NonNull final ThreeDSecureResultCallback callback) {
+        if (request.getAmount() == null) {
+            callback.onResult(null, new InvalidArgumentException("The ThreeDSecureRequest amount cannot be null"));
+            return;
+        }
+
+        // the lookup is performed once the card is tokenized and Cardinal is initialized
+        final ResultJoiner<CardNonce, String> pendingLookup = new ResultJoiner<>(new ResultJoiner.Callback<CardNonce, String>() {
+            @Override
+            public void onResult(@Nullable CardNonce cardNonce, @Nullable Exception tokenizeError,
+                                 @Nullable String consumerSessionId, @Nullable Exception cardinalError) {
+                if (tokenizeError != null) {
+                    callback.onResult(null, tokenizeError);
+                } else if (cardinalError != null) {
+                    callback.onResult(null, cardinalError);
+                } else {
+                    request.setNonce(cardNonce.getString());
+                    api.performLookup(request, consumerSessionId, callback);
+                }
+            }
+        });
+        cardClient.tokenize(card, new CardTokenizeCallback() {
+            @Override
+            public void onResult(@Nullable CardNonce cardNonce, @Nullable Exception error) {
+                pendingLookup.setFirst(cardNonce, error);
+            }
+        });
+        initializeCardinal(activity, request, new CardinalInitializeCallback() {
+            @Override
+            public void onResult(@Nullable String consumerSessionId, @Nullable Exception error) {
+                pendingLookup.setSecond(consumerSessionId, error);
+            }
+        });
+    }
+
+    /**
+     * Initializes the 3D Secure SDK ahead of a verification, e.g. right after constructing this
+     * client, so that {@link ThreeDSecureClient#performVerification(FragmentActivity, ThreeDSecureRequest, ThreeDSecureResultCallback)}
+     * does not wait on initialization.
+     * <p>
+     * The initialized session is reused by verifications made with the same UI settings as
+     * {@code request} until it expires or the merchant's 3D Secure configuration changes. The
+     * {@link ThreeDSecureV2UiCustomization} is compared by instance, so pass the same customization
+     * object to the verification request; an equal copy initializes a new session. Errors are not
+     * reported; they are returned by the verification that follows instead.
+     *
+     * @param context Android Context
+     * @param request a {@link ThreeDSecureRequest} with the UI settings that will be used for
+     *                verification. The nonce and amount are not required.
+     */
+    public void preInitialize(@NonNull Context context, @NonNull ThreeDSecureRequest request) {
+        initializeCardinal(context, request, new CardinalInitializeCallback() {
+            @Override
+            public void onResult(@Nullable String consumerSessionId, @Nullable Exception error) {
+                // the session is kept by CardinalClient for the next verification
+            }
+        });
+    }
+
+    /**
+     * Initializes the Cardinal SDK for {@code request}. {@code callback} receives the consumer
+     * session id, which is {@code null} if Cardinal setup did not complete, or an error if 3D
+     * Secure cannot be performed.
+     */
+    private void initializeCardinal(final Context context, final ThreeDSecureRequest request, final CardinalInitializeCallback callback) {
         braintreeClient.getConfiguration(new ConfigurationCallback() {
             @Override
             public void onResult(@Nullable final Configuration configuration, @Nullable Exception error) {
@@ -162,18 +258,24 @@ public class ThreeDSecureClient {
                     CardinalInitializeCallback cardinalInitializeCallback = new CardinalInitializeCallback() {
                         @Override
                         public void onResult(String consumerSessionId, Exception error) {
+                            if (error instanceof CardinalSessionSupersededException) {
+                                // the Cardinal SDK was reconfigured for another request, so a lookup
+                                // made now would not match the SDK state
+                                callback.onResult(null, error);
+                                return;
+                            }
+                            // the lookup is performed without a consumer session id if setup fails
+                            callback.onResult(consumerSessionId, null);
                             if (consumerSessionId != null) {
-                                api.performLookup(request, cardinalClient.getConsumerSessionId(), callback);
                                 braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-completed");
                             } else {
-                                api.performLookup(request, cardinalClient.getConsumerSessionId(), callback);
                                 braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-failed");
                             }
                         }
                     };
 
                     try {
-                        cardinalClient.initialize(activity, configuration, request, cardinalInitializeCallback);
+                        cardinalClient.initialize(context, configuration, request, cardinalInitializeCallback);
                     } catch (BraintreeException initializeException) {
                         braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.failed");
                         callback.onResult(null, initializeException);
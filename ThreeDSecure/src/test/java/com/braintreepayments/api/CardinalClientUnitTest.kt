@@ -30,6 +30,8 @@ class CardinalClientUnitTest {
     private lateinit var cardinalInitializeCallback: CardinalInitializeCallback
     private lateinit var cardinalValidateReceiver: CardinalValidateReceiver
     private lateinit var cardinalChallengeObserver: CardinalChallengeObserver
+    private lateinit var session: CardinalSession
+    private lateinit var fakeCardinalSdk: FakeCardinalSdk
 
     @Before
     fun beforeEach() {
@@ -42,6 +44,8 @@ class CardinalClientUnitTest {
         activity = mockk(relaxed = true)
         cardinalValidateReceiver = mockk(relaxed = true)
         cardinalChallengeObserver = mockk(relaxed = true)
+        session = CardinalSession(SESSION_TIME_TO_LIVE)
+        fakeCardinalSdk = FakeCardinalSdk()
     }
 
     @Test
@@ -49,7 +53,7 @@ class CardinalClientUnitTest {
     fun initialize_configuresDefaultCardinalConfigurationParameters() {
         every { Cardinal.getInstance() } returns cardinalInstance
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val request = ThreeDSecureRequest()
         sut.initialize(context, configuration, request, cardinalInitializeCallback)
 
@@ -67,7 +71,7 @@ class CardinalClientUnitTest {
     fun initialize_whenV2UiCustomizationNotNull_setsCardinalConfigurationParameters() {
         every { Cardinal.getInstance() } returns cardinalInstance
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val v2UiCustomization = ThreeDSecureV2UiCustomization()
         val request = ThreeDSecureRequest()
         request.v2UiCustomization = v2UiCustomization
@@ -89,7 +93,7 @@ class CardinalClientUnitTest {
         every { Cardinal.getInstance() } returns cardinalInstance
         every { configuration.environment } returns "production"
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val request = ThreeDSecureRequest()
         sut.initialize(context, configuration, request, cardinalInitializeCallback)
 
@@ -105,7 +109,7 @@ class CardinalClientUnitTest {
     fun initialize_whenUiTypeNotNull_setsCardinalConfigurationParameters() {
         every { Cardinal.getInstance() } returns cardinalInstance
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val request = ThreeDSecureRequest().apply {
             uiType = ThreeDSecureRequest.BOTH
         }
@@ -123,7 +127,7 @@ class CardinalClientUnitTest {
     fun initialize_whenRenderTypeNotNull_setsCardinalConfigurationParameters() {
         every { Cardinal.getInstance() } returns cardinalInstance
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val request = ThreeDSecureRequest().apply {
             renderTypes = listOf(
                 ThreeDSecureRequest.OTP,
@@ -148,7 +152,7 @@ class CardinalClientUnitTest {
         every { Cardinal.getInstance() } returns cardinalInstance
         every { configuration.cardinalAuthenticationJwt } returns "token"
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val request = ThreeDSecureRequest()
         sut.initialize(context, configuration, request, cardinalInitializeCallback)
 
@@ -168,7 +172,7 @@ class CardinalClientUnitTest {
         every { Cardinal.getInstance() } returns cardinalInstance
         every { configuration.cardinalAuthenticationJwt } returns "token"
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val request = ThreeDSecureRequest()
         sut.initialize(context, configuration, request, cardinalInitializeCallback)
 
@@ -188,7 +192,7 @@ class CardinalClientUnitTest {
         every { Cardinal.getInstance() } returns cardinalInstance
         every { configuration.cardinalAuthenticationJwt } returns "token"
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val runtimeException = RuntimeException("fake message")
         every { cardinalInstance.configure(any(), any()) } throws runtimeException
 
@@ -207,7 +211,7 @@ class CardinalClientUnitTest {
         every { Cardinal.getInstance() } returns cardinalInstance
         every { configuration.cardinalAuthenticationJwt } returns "token"
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val runtimeException = RuntimeException("fake message")
         every { cardinalInstance.init(any(), any()) } throws runtimeException
 
@@ -226,7 +230,7 @@ class CardinalClientUnitTest {
     fun continueLookup_continuesCardinalLookup() {
         every { Cardinal.getInstance() } returns cardinalInstance
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val threeDSecureLookup = mockk<ThreeDSecureLookup>(relaxed = true)
 
         every { threeDSecureLookup.transactionId } returns "sample-transaction-id"
@@ -252,7 +256,7 @@ class CardinalClientUnitTest {
         val runtimeException = RuntimeException("fake message")
         every { cardinalInstance.cca_continue(any(), any(), any()) } throws runtimeException
 
-        val sut = CardinalClient()
+        val sut = CardinalClient(CardinalMobileSdk(), session)
         val threeDSecureLookup = mockk<ThreeDSecureLookup>(relaxed = true)
         every { threeDSecureLookup.transactionId } returns "sample-transaction-id"
         every { threeDSecureLookup.pareq } returns "sample-payer-authentication-request"
@@ -268,4 +272,188 @@ class CardinalClientUnitTest {
             assertSame(runtimeException, e.cause)
         }
     }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenSessionIsValid_reusesConsumerSessionId() {
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+        val sut = CardinalClient(fakeCardinalSdk, session)
+        val request = ThreeDSecureRequest()
+
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+        fakeCardinalSdk.completeSetup("session-id")
+
+        val secondCallback = mockk<CardinalInitializeCallback>(relaxed = true)
+        sut.initialize(context, configuration, request, secondCallback)
+
+        assertEquals(1, fakeCardinalSdk.configureCount)
+        assertEquals(1, fakeCardinalSdk.initCount)
+        verify { secondCallback.onResult("session-id", null) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_reusesSessionAcrossClients() {
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+        val request = ThreeDSecureRequest()
+
+        CardinalClient(fakeCardinalSdk, session)
+            .initialize(context, configuration, request, cardinalInitializeCallback)
+        fakeCardinalSdk.completeSetup("session-id")
+
+        val sut = CardinalClient(fakeCardinalSdk, session)
+        val secondCallback = mockk<CardinalInitializeCallback>(relaxed = true)
+        sut.initialize(context, configuration, request, secondCallback)
+
+        assertEquals(1, fakeCardinalSdk.initCount)
+        verify { secondCallback.onResult("session-id", null) }
+        assertEquals("session-id", sut.consumerSessionId)
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenJwtChanges_initializesNewSession() {
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+        val sut = CardinalClient(fakeCardinalSdk, session)
+        val request = ThreeDSecureRequest()
+
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+        fakeCardinalSdk.completeSetup("session-id")
+
+        every { configuration.cardinalAuthenticationJwt } returns "new-token"
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+
+        assertEquals(2, fakeCardinalSdk.initCount)
+        assertEquals("new-token", fakeCardinalSdk.lastJwt)
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenUiSettingsChange_initializesNewSession() {
+        val sut = CardinalClient(fakeCardinalSdk, session)
+
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+        fakeCardinalSdk.completeSetup("session-id")
+
+        val request = ThreeDSecureRequest().apply { uiType = ThreeDSecureRequest.HTML }
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+
+        assertEquals(2, fakeCardinalSdk.configureCount)
+        assertEquals(2, fakeCardinalSdk.initCount)
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenSessionIsExpired_initializesNewSession() {
+        val sut = CardinalClient(fakeCardinalSdk, CardinalSession(0))
+        val request = ThreeDSecureRequest()
+
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+        fakeCardinalSdk.completeSetup("session-id")
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+
+        assertEquals(2, fakeCardinalSdk.initCount)
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whileSessionIsInitializing_sharesInitialization() {
+        val sut = CardinalClient(fakeCardinalSdk, session)
+        val request = ThreeDSecureRequest()
+        val secondCallback = mockk<CardinalInitializeCallback>(relaxed = true)
+
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+        sut.initialize(context, configuration, request, secondCallback)
+        fakeCardinalSdk.completeSetup("session-id")
+
+        assertEquals(1, fakeCardinalSdk.initCount)
+        verify(exactly = 1) { cardinalInitializeCallback.onResult("session-id", null) }
+        verify(exactly = 1) { secondCallback.onResult("session-id", null) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whileSessionWithDifferentSettingsIsInitializing_failsSupersededCallback() {
+        val sut = CardinalClient(fakeCardinalSdk, session)
+        val secondCallback = mockk<CardinalInitializeCallback>(relaxed = true)
+
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+        val supersededInitService = fakeCardinalSdk.initService
+
+        val request = ThreeDSecureRequest().apply { uiType = ThreeDSecureRequest.HTML }
+        sut.initialize(context, configuration, request, secondCallback)
+        verify(exactly = 1) {
+            cardinalInitializeCallback.onResult(null, ofType(BraintreeException::class))
+        }
+
+        supersededInitService?.onSetupCompleted("superseded-session-id")
+        fakeCardinalSdk.completeSetup("session-id")
+
+        assertEquals(2, fakeCardinalSdk.initCount)
+        verify(exactly = 1) { cardinalInitializeCallback.onResult(any(), any()) }
+        verify(exactly = 1) { secondCallback.onResult(any(), any()) }
+        verify(exactly = 1) { secondCallback.onResult("session-id", null) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenSupersededSetupCompletesLast_keepsCurrentConsumerSessionId() {
+        val sut = CardinalClient(fakeCardinalSdk, session)
+
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+        val supersededInitService = fakeCardinalSdk.initService
+
+        val request = ThreeDSecureRequest().apply { uiType = ThreeDSecureRequest.HTML }
+        sut.initialize(context, configuration, request, mockk(relaxed = true))
+        fakeCardinalSdk.completeSetup("session-id")
+        supersededInitService?.onSetupCompleted("superseded-session-id")
+
+        assertEquals("session-id", sut.consumerSessionId)
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenSetupFails_doesNotReuseSession() {
+        val sut = CardinalClient(fakeCardinalSdk, session)
+        val request = ThreeDSecureRequest()
+
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+        fakeCardinalSdk.failSetup()
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+
+        assertEquals(2, fakeCardinalSdk.initCount)
+        verify { cardinalInitializeCallback.onResult(null, ofType(BraintreeException::class)) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenSetupCompletesTwice_notifiesCallbackOnce() {
+        val sut = CardinalClient(fakeCardinalSdk, session)
+
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+        fakeCardinalSdk.completeSetup("session-id")
+        fakeCardinalSdk.initService?.onValidated(null, null)
+
+        verify(exactly = 1) { cardinalInitializeCallback.onResult(any(), any()) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun continueLookup_invalidatesSession() {
+        val sut = CardinalClient(fakeCardinalSdk, session)
+        val request = ThreeDSecureRequest()
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+        fakeCardinalSdk.completeSetup("session-id")
+
+        val threeDSecureResult = mockk<ThreeDSecureResult>(relaxed = true)
+        sut.continueLookup(threeDSecureResult, cardinalChallengeObserver)
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+
+        assertEquals(1, fakeCardinalSdk.continueChallengeCount)
+        assertEquals(2, fakeCardinalSdk.initCount)
+    }
+
+    companion object {
+        private const val SESSION_TIME_TO_LIVE = 60_000L
+    }
 }
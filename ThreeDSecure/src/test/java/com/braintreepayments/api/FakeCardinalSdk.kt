@@ -0,0 +1,49 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import com.cardinalcommerce.cardinalmobilesdk.models.CardinalChallengeObserver
+import com.cardinalcommerce.cardinalmobilesdk.models.CardinalConfigurationParameters
+import com.cardinalcommerce.cardinalmobilesdk.services.CardinalInitService
+
+/**
+ * [CardinalSdk] that records calls and completes setup when told to.
+ */
+class FakeCardinalSdk : CardinalSdk {
+
+    var configureCount = 0
+        private set
+    var initCount = 0
+        private set
+    var continueChallengeCount = 0
+        private set
+    var lastJwt: String? = null
+        private set
+    var initService: CardinalInitService? = null
+        private set
+
+    override fun configure(context: Context?, parameters: CardinalConfigurationParameters?) {
+        configureCount++
+    }
+
+    override fun init(jwt: String?, initService: CardinalInitService?) {
+        initCount++
+        lastJwt = jwt
+        this.initService = initService
+    }
+
+    override fun continueChallenge(
+        transactionId: String?,
+        payload: String?,
+        challengeObserver: CardinalChallengeObserver?
+    ) {
+        continueChallengeCount++
+    }
+
+    fun completeSetup(consumerSessionId: String) {
+        initService?.onSetupCompleted(consumerSessionId)
+    }
+
+    fun failSetup() {
+        initService?.onValidated(null, null)
+    }
+}
@@ -6,7 +6,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
@@ -63,6 +65,21 @@ public class ThreeDSecureAPIUnitTest {
         verify(callback).onResult(any(ThreeDSecureResult.class), isNull());
     }
 
+    @Test
+    public void performLookup_onSuccess_sendsLookupSucceededEventWithDuration() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendPOSTSuccessfulResponse(Fixtures.THREE_D_SECURE_LOOKUP_RESPONSE)
+                .build();
+        sut = new ThreeDSecureAPI(braintreeClient);
+
+        ThreeDSecureRequest threeDSecureRequest = mock(ThreeDSecureRequest.class);
+        when(threeDSecureRequest.build(anyString())).thenReturn("{}");
+
+        sut.performLookup(threeDSecureRequest, "cardinal-session-id", mock(ThreeDSecureResultCallback.class));
+
+        verify(braintreeClient).sendAnalyticsEvent(eq("three-d-secure.lookup.succeeded"), anyLong(), eq("three_d_secure/lookup"), isNull());
+    }
+
     @Test
     public void performLookup_onInvalidJSONResponse_callbackJSONException() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -94,6 +111,7 @@ public class ThreeDSecureAPIUnitTest {
         sut.performLookup(threeDSecureRequest, "cardinal-session-id", callback);
 
         verify(callback).onResult(isNull(), same(httpError));
+        verify(braintreeClient).sendAnalyticsEvent(eq("three-d-secure.lookup.failed"), anyLong(), eq("three_d_secure/lookup"), isNull());
     }
 
     @Test
@@ -10,6 +10,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -17,6 +18,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 
@@ -174,6 +176,25 @@ public class ThreeDSecureClientUnitTest {
         assertEquals("billing-given-name", additionalInfo.get("billing_given_name"));
     }
 
+    @Test
+    public void performVerification_whenCardinalInitializationIsSuperseded_forwardsErrorWithoutLookup() throws BraintreeException {
+        CardinalSessionSupersededException error = new CardinalSessionSupersededException();
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .error(error)
+                .build();
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.performVerification(activity, basicRequest, threeDSecureResultCallback);
+
+        verify(threeDSecureResultCallback).onResult(null, error);
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), (String) any(), any(ThreeDSecureResultCallback.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-failed");
+    }
+
     @Test
     public void performVerification_callsLookupListener() throws BraintreeException {
         CardinalClient cardinalClient = new MockCardinalClientBuilder()
@@ -240,6 +261,168 @@ public class ThreeDSecureClientUnitTest {
         assertEquals(expectedMessage, error.getMessage());
     }
 
+    @Test
+    public void preInitialize_initializesCardinalWithoutPerformingLookup() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("df-reference-id")
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        sut.preInitialize(activity, request);
+
+        verify(cardinalClient).initialize(same(activity), same(threeDSecureEnabledConfig), same(request), any(CardinalInitializeCallback.class));
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), any(ThreeDSecureResultCallback.class));
+    }
+
+    @Test
+    public void preInitialize_whenThreeDSecureIsDisabled_doesNotInitializeCardinal() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(new TestConfigurationBuilder().buildConfiguration())
+                .build();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.preInitialize(activity, new ThreeDSecureRequest());
+
+        verify(cardinalClient, never()).initialize(any(Context.class), any(Configuration.class), any(ThreeDSecureRequest.class), any(CardinalInitializeCallback.class));
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_initializesCardinalWhileCardIsTokenizing() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("df-reference-id")
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+        Card card = new Card();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("amount");
+        sut.tokenizeAndPerformVerification(activity, cardClient, card, request, threeDSecureResultCallback);
+
+        ArgumentCaptor<CardTokenizeCallback> tokenizeCaptor = ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        verify(cardClient).tokenize(same(card), tokenizeCaptor.capture());
+        verify(cardinalClient).initialize(same(activity), same(threeDSecureEnabledConfig), same(request), any(CardinalInitializeCallback.class));
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), any(ThreeDSecureResultCallback.class));
+
+        CardNonce cardNonce = mock(CardNonce.class);
+        when(cardNonce.getString()).thenReturn("tokenized-nonce");
+        tokenizeCaptor.getValue().onResult(cardNonce, null);
+
+        verify(threeDSecureAPI).performLookup(same(request), eq("df-reference-id"), same(threeDSecureResultCallback));
+        assertEquals("tokenized-nonce", request.getNonce());
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_whenCardIsTokenizedFirst_waitsForCardinal() throws BraintreeException {
+        CardinalClient cardinalClient = mock(CardinalClient.class);
+        when(cardinalClient.getConsumerSessionId()).thenReturn("df-reference-id");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+
+        final CardNonce cardNonce = mock(CardNonce.class);
+        when(cardNonce.getString()).thenReturn("tokenized-nonce");
+        CardClient cardClient = mock(CardClient.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                CardTokenizeCallback callback = (CardTokenizeCallback) invocation.getArguments()[1];
+                callback.onResult(cardNonce, null);
+                return null;
+            }
+        }).when(cardClient).tokenize(any(Card.class), any(CardTokenizeCallback.class));
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("amount");
+        sut.tokenizeAndPerformVerification(activity, cardClient, new Card(), request, threeDSecureResultCallback);
+
+        ArgumentCaptor<CardinalInitializeCallback> cardinalCaptor = ArgumentCaptor.forClass(CardinalInitializeCallback.class);
+        verify(cardinalClient).initialize(same(activity), same(threeDSecureEnabledConfig), same(request), cardinalCaptor.capture());
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), any(ThreeDSecureResultCallback.class));
+
+        cardinalCaptor.getValue().onResult("df-reference-id", null);
+
+        verify(threeDSecureAPI).performLookup(same(request), eq("df-reference-id"), same(threeDSecureResultCallback));
+        verify(braintreeClient).sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-completed");
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_whenTokenizationFails_returnsError() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("df-reference-id")
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+
+        final Exception tokenizeError = new Exception("tokenize error");
+        CardClient cardClient = mock(CardClient.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                CardTokenizeCallback callback = (CardTokenizeCallback) invocation.getArguments()[1];
+                callback.onResult(null, tokenizeError);
+                return null;
+            }
+        }).when(cardClient).tokenize(any(Card.class), any(CardTokenizeCallback.class));
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("amount");
+        sut.tokenizeAndPerformVerification(activity, cardClient, new Card(), request, threeDSecureResultCallback);
+
+        verify(threeDSecureResultCallback).onResult(null, tokenizeError);
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), any(ThreeDSecureResultCallback.class));
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_whenThreeDSecureIsDisabled_returnsErrorOnce() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(new TestConfigurationBuilder().buildConfiguration())
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("amount");
+        sut.tokenizeAndPerformVerification(activity, cardClient, new Card(), request, threeDSecureResultCallback);
+
+        ArgumentCaptor<CardTokenizeCallback> tokenizeCaptor = ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        verify(cardClient).tokenize(any(Card.class), tokenizeCaptor.capture());
+        tokenizeCaptor.getValue().onResult(mock(CardNonce.class), null);
+
+        ArgumentCaptor<BraintreeException> captor = ArgumentCaptor.forClass(BraintreeException.class);
+        verify(threeDSecureResultCallback).onResult(isNull(), captor.capture());
+        assertEquals("Three D Secure is not enabled for this account. Please contact Braintree Support for assistance.",
+                captor.getValue().getMessage());
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), any(ThreeDSecureResultCallback.class));
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_whenAmountIsNull_returnsError() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        CardClient cardClient = mock(CardClient.class);
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.tokenizeAndPerformVerification(activity, cardClient, new Card(), new ThreeDSecureRequest(), threeDSecureResultCallback);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(threeDSecureResultCallback).onResult(isNull(), captor.capture());
+        assertEquals("The ThreeDSecureRequest amount cannot be null", captor.getValue().getMessage());
+        verify(cardClient, never()).tokenize(any(Card.class), any(CardTokenizeCallback.class));
+    }
+
     @Test
     public void onActivityResult_whenResultNotOk_postsExceptionToCallback() throws BraintreeException {
         CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
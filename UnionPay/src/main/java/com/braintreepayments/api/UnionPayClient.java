@@ -1,6 +1,8 @@
 package com.braintreepayments.api;
 
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -9,6 +11,10 @@ import androidx.annotation.VisibleForTesting;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Used to check, enroll, and tokenize UnionPay cards. For more information see the
  * <a href="https://developer.paypal.com/braintree/docs/guides/unionpay/overview">documentation</a>
@@ -24,8 +30,25 @@ public class UnionPayClient {
     private static final String UNIONPAY_CAPABILITIES_PATH =
         ApiClient.versionedPath("payment_methods/credit_cards/capabilities");
 
+    static final int BIN_PREFIX_LENGTH = 8;
+
+    private static final int CAPABILITIES_CACHE_MAX_ENTRIES = 32;
+    private static final long CAPABILITIES_CACHE_DURATION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    // lookups made on behalf of a UnionPayEnrollmentFlow are never debounced or superseded
+    private static final int UNDEBOUNCED_LOOKUP_ID = -1;
+
     private final BraintreeClient braintreeClient;
     private final ApiClient apiClient;
+    private final ExpiringLruCache<UnionPayCapabilities> capabilitiesCache;
+
+    // lookups waiting on an in flight capabilities request, keyed by BIN prefix
+    private final PendingCallbacks<CapabilitiesLookup> pendingCapabilitiesLookups = new PendingCallbacks<>();
+
+    private Handler debounceHandler;
+    private Runnable debouncedCapabilitiesLookup;
+    private long capabilitiesDebounceMillis = 0;
+    private int latestCapabilitiesLookupId = 0;
 
     public UnionPayClient(@NonNull BraintreeClient braintreeClient) {
         this(braintreeClient, new ApiClient(braintreeClient));
@@ -33,8 +56,30 @@ public class UnionPayClient {
 
     @VisibleForTesting
     UnionPayClient(BraintreeClient braintreeClient, ApiClient apiClient) {
+        this(braintreeClient, apiClient, new ExpiringLruCache<UnionPayCapabilities>(CAPABILITIES_CACHE_MAX_ENTRIES), null);
+    }
+
+    @VisibleForTesting
+    UnionPayClient(BraintreeClient braintreeClient, ApiClient apiClient,
+                   ExpiringLruCache<UnionPayCapabilities> capabilitiesCache, Handler debounceHandler) {
         this.braintreeClient = braintreeClient;
         this.apiClient = apiClient;
+        this.capabilitiesCache = capabilitiesCache;
+        this.debounceHandler = debounceHandler;
+    }
+
+    /**
+     * Debounce calls to {@link UnionPayClient#fetchCapabilities(String, UnionPayFetchCapabilitiesCallback)},
+     * e.g. when checking capabilities as the user types a card number.
+     * <p>
+     * When set, a capabilities lookup is only started once no newer call has been made for
+     * {@code delayMillis}, and only the callback of the most recent call is invoked. Callbacks of
+     * superseded calls are dropped. Defaults to 0, which disables debouncing.
+     *
+     * @param delayMillis the debounce delay in milliseconds
+     */
+    public void setFetchCapabilitiesDebounceDelay(long delayMillis) {
+        capabilitiesDebounceMillis = Math.max(delayMillis, 0);
     }
 
     /**
@@ -46,19 +91,66 @@ public class UnionPayClient {
      * <p>
      * On error, an exception will be passed back to
      * {@link UnionPayFetchCapabilitiesCallback#onResult(UnionPayCapabilities, Exception)}
+     * <p>
+     * Capabilities are cached in memory by BIN prefix, so at most one request is made for cards
+     * in the same BIN range. The full card number is never cached.
      *
      * @param cardNumber The card number to check for Union Pay capabilities.
      * @param callback {@link UnionPayFetchCapabilitiesCallback}
      */
     public void fetchCapabilities(@NonNull final String cardNumber, @NonNull final UnionPayFetchCapabilitiesCallback callback) {
+        final CapabilitiesLookup lookup = new CapabilitiesLookup(++latestCapabilitiesLookupId, callback);
+        if (capabilitiesDebounceMillis <= 0) {
+            fetchCapabilities(cardNumber, lookup);
+            return;
+        }
+
+        Handler handler = getDebounceHandler();
+        if (debouncedCapabilitiesLookup != null) {
+            handler.removeCallbacks(debouncedCapabilitiesLookup);
+        }
+        debouncedCapabilitiesLookup = new Runnable() {
+            @Override
+            public void run() {
+                debouncedCapabilitiesLookup = null;
+                fetchCapabilities(cardNumber, lookup);
+            }
+        };
+        handler.postDelayed(debouncedCapabilitiesLookup, capabilitiesDebounceMillis);
+    }
+
+    void fetchCapabilitiesWithoutDebounce(String cardNumber, UnionPayFetchCapabilitiesCallback callback) {
+        fetchCapabilities(cardNumber, new CapabilitiesLookup(UNDEBOUNCED_LOOKUP_ID, callback));
+    }
+
+    private void fetchCapabilities(final String cardNumber, final CapabilitiesLookup lookup) {
         braintreeClient.getConfiguration(new ConfigurationCallback() {
             @Override
             public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
                 if (!configuration.isUnionPayEnabled()) {
-                    callback.onResult(null, new ConfigurationException("UnionPay is not enabled"));
+                    notifyCapabilitiesResult(lookup, null, new ConfigurationException("UnionPay is not enabled"));
                     return;
                 }
 
+                // capabilities depend only on the BIN range, so lookups are cached and shared per BIN prefix
+                final String binPrefix = getBinPrefix(cardNumber);
+                final List<CapabilitiesLookup> lookups;
+                if (binPrefix != null) {
+                    UnionPayCapabilities cachedCapabilities = capabilitiesCache.get(binPrefix,
+                            CAPABILITIES_CACHE_DURATION_MILLIS, System.currentTimeMillis());
+                    if (cachedCapabilities != null) {
+                        notifyCapabilitiesResult(lookup, cachedCapabilities, null);
+                        return;
+                    }
+
+                    lookups = pendingCapabilitiesLookups.add(binPrefix, lookup);
+                    if (lookups == null) {
+                        return;
+                    }
+                } else {
+                    lookups = Collections.singletonList(lookup);
+                }
+
                 String fetchCapabilitiesUrl = Uri.parse(UNIONPAY_CAPABILITIES_PATH)
                         .buildUpon()
                         .appendQueryParameter("creditCard[number]", cardNumber)
@@ -68,11 +160,23 @@ public class UnionPayClient {
 
                     @Override
                     public void onResult(String responseBody, Exception httpError) {
+                        UnionPayCapabilities capabilities = null;
                         if (responseBody != null) {
-                            callback.onResult(UnionPayCapabilities.fromJson(responseBody), null);
+                            capabilities = UnionPayCapabilities.fromJson(responseBody);
+                            if (binPrefix != null) {
+                                capabilitiesCache.put(binPrefix, capabilities, System.currentTimeMillis());
+                            }
+                        }
+
+                        List<CapabilitiesLookup> completedLookups = binPrefix != null
+                                ? pendingCapabilitiesLookups.complete(binPrefix, lookups) : lookups;
+                        for (CapabilitiesLookup pendingLookup : completedLookups) {
+                            notifyCapabilitiesResult(pendingLookup, capabilities, httpError);
+                        }
+
+                        if (capabilities != null) {
                             braintreeClient.sendAnalyticsEvent("union-pay.capabilities-received");
                         } else {
-                            callback.onResult(null, httpError);
                             braintreeClient.sendAnalyticsEvent("union-pay.capabilities-failed");
                         }
                     }
@@ -81,6 +185,40 @@ public class UnionPayClient {
         });
     }
 
+    /**
+     * @return the first {@link #BIN_PREFIX_LENGTH} digits of {@code cardNumber}, ignoring
+     * separators, or {@code null} if the card number does not have that many digits yet
+     */
+    @Nullable
+    static String getBinPrefix(@Nullable String cardNumber) {
+        if (cardNumber == null) {
+            return null;
+        }
+        StringBuilder binPrefix = new StringBuilder(BIN_PREFIX_LENGTH);
+        for (int i = 0; i < cardNumber.length() && binPrefix.length() < BIN_PREFIX_LENGTH; i++) {
+            char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                binPrefix.append(c);
+            }
+        }
+        return binPrefix.length() == BIN_PREFIX_LENGTH ? binPrefix.toString() : null;
+    }
+
+    private void notifyCapabilitiesResult(CapabilitiesLookup lookup, UnionPayCapabilities capabilities, Exception error) {
+        boolean isSuperseded = capabilitiesDebounceMillis > 0
+                && lookup.id != UNDEBOUNCED_LOOKUP_ID && lookup.id != latestCapabilitiesLookupId;
+        if (!isSuperseded) {
+            lookup.callback.onResult(capabilities, error);
+        }
+    }
+
+    private Handler getDebounceHandler() {
+        if (debounceHandler == null) {
+            debounceHandler = new Handler(Looper.getMainLooper());
+        }
+        return debounceHandler;
+    }
+
     /**
      * Enrolls a Union Pay card. Only call this method if the card needs to be enrolled. Check {@link
      * UnionPayClient#fetchCapabilities(String, UnionPayFetchCapabilitiesCallback)} if your card needs to be enrolled.
@@ -133,6 +271,30 @@ public class UnionPayClient {
         });
     }
 
+    /**
+     * Starts a {@link UnionPayEnrollmentFlow} for a Union Pay card. The card's capabilities are
+     * checked and the card is enrolled right away, so the flow is ready to tokenize by the time the
+     * customer has received the SMS code.
+     * <p>
+     * On completion of enrollment, returns the {@link UnionPayEnrollment} to
+     * {@link UnionPayEnrollCallback#onResult(UnionPayEnrollment, Exception)}. Once the customer
+     * enters the SMS code, pass it to
+     * {@link UnionPayEnrollmentFlow#submitSmsCode(String, UnionPayTokenizeCallback)} to tokenize the
+     * card.
+     * <p>
+     * On error, an exception will be passed back to {@link UnionPayEnrollCallback#onResult(UnionPayEnrollment, Exception)}
+     *
+     * @param unionPayCard {@link UnionPayCard}
+     * @param callback {@link UnionPayEnrollCallback}
+     * @return the {@link UnionPayEnrollmentFlow} to submit the SMS code to
+     */
+    @NonNull
+    public UnionPayEnrollmentFlow startEnrollment(@NonNull UnionPayCard unionPayCard, @NonNull UnionPayEnrollCallback callback) {
+        UnionPayEnrollmentFlow enrollmentFlow = new UnionPayEnrollmentFlow(this, unionPayCard);
+        enrollmentFlow.start(callback);
+        return enrollmentFlow;
+    }
+
     /**
      * Create a {@link CardNonce}. Note that if the card is a UnionPay card,
      * {@link UnionPayCard#setEnrollmentId(String)} and {@link UnionPayCard#setSmsCode(String)}
@@ -169,4 +331,15 @@ public class UnionPayClient {
             }
         });
     }
+
+    private static class CapabilitiesLookup {
+
+        private final int id;
+        private final UnionPayFetchCapabilitiesCallback callback;
+
+        CapabilitiesLookup(int id, UnionPayFetchCapabilitiesCallback callback) {
+            this.id = id;
+            this.callback = callback;
+        }
+    }
 }
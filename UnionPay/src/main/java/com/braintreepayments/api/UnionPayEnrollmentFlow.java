@@ -0,0 +1,128 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Enrolls a UnionPay card and tokenizes it once the customer has entered the SMS code. Create one
+ * with {@link UnionPayClient#startEnrollment(UnionPayCard, UnionPayEnrollCallback)}.
+ * <p>
+ * The card's capabilities are checked and the card is enrolled as soon as the flow is started.
+ * Once enrollment completes, the enrollment ID is applied to the card, so that
+ * {@link UnionPayEnrollmentFlow#submitSmsCode(String, UnionPayTokenizeCallback)} only has to send
+ * the tokenize request. An SMS code submitted before enrollment completes is held until it does.
+ * If the capabilities lookup fails, the card is enrolled anyway and the gateway reports any
+ * problem with it.
+ */
+public class UnionPayEnrollmentFlow {
+
+    private final UnionPayClient unionPayClient;
+    private final UnionPayCard unionPayCard;
+
+    private boolean isEnrollmentFinished;
+    private Exception enrollmentError;
+    private UnionPayTokenizeCallback pendingTokenizeCallback;
+
+    UnionPayEnrollmentFlow(UnionPayClient unionPayClient, UnionPayCard unionPayCard) {
+        this.unionPayClient = unionPayClient;
+        this.unionPayCard = unionPayCard;
+    }
+
+    void start(final UnionPayEnrollCallback callback) {
+        String cardNumber = unionPayCard.getNumber();
+        if (cardNumber == null) {
+            // let the gateway report the missing card number
+            enroll(callback);
+            return;
+        }
+
+        unionPayClient.fetchCapabilitiesWithoutDebounce(cardNumber, new UnionPayFetchCapabilitiesCallback() {
+            @Override
+            public void onResult(@Nullable UnionPayCapabilities capabilities, @Nullable Exception error) {
+                if (capabilities != null && capabilities.isUnionPay() && !capabilities.isSupported()) {
+                    onEnrollmentResult(null, new BraintreeException("UnionPay card is not supported"), callback);
+                } else {
+                    // capabilities only let unsupported cards fail early; a failed lookup must not
+                    // block enrollment
+                    enroll(callback);
+                }
+            }
+        });
+    }
+
+    private void enroll(final UnionPayEnrollCallback callback) {
+        unionPayClient.enroll(unionPayCard, new UnionPayEnrollCallback() {
+            @Override
+            public void onResult(@Nullable UnionPayEnrollment enrollment, @Nullable Exception error) {
+                onEnrollmentResult(enrollment, error, callback);
+            }
+        });
+    }
+
+    private void onEnrollmentResult(UnionPayEnrollment enrollment, Exception error, UnionPayEnrollCallback callback) {
+        UnionPayTokenizeCallback tokenizeCallback;
+        synchronized (this) {
+            isEnrollmentFinished = true;
+            if (enrollment != null) {
+                unionPayCard.setEnrollmentId(enrollment.getId());
+            } else {
+                enrollmentError = error;
+            }
+            tokenizeCallback = pendingTokenizeCallback;
+            pendingTokenizeCallback = null;
+        }
+
+        callback.onResult(enrollment, error);
+        if (tokenizeCallback != null) {
+            tokenize(tokenizeCallback);
+        }
+    }
+
+    /**
+     * Tokenize the enrolled card with the SMS code the customer received.
+     * <p>
+     * If enrollment is still in progress, the card is tokenized as soon as it completes. Only one
+     * SMS code can be held this way; submitting another one before enrollment completes passes a
+     * {@link BraintreeException} back to its callback. If enrollment failed, the enrollment error
+     * is passed back to {@link UnionPayTokenizeCallback#onResult(CardNonce, Exception)}.
+     *
+     * @param smsCode the SMS code sent to the customer, or null if
+     *                {@link UnionPayEnrollment#isSmsCodeRequired()} is false
+     * @param callback {@link UnionPayTokenizeCallback}
+     */
+    public void submitSmsCode(@Nullable String smsCode, @NonNull UnionPayTokenizeCallback callback) {
+        boolean isAlreadyPending = false;
+        synchronized (this) {
+            if (!isEnrollmentFinished) {
+                if (pendingTokenizeCallback == null) {
+                    unionPayCard.setSmsCode(smsCode);
+                    pendingTokenizeCallback = callback;
+                    return;
+                }
+                isAlreadyPending = true;
+            } else {
+                unionPayCard.setSmsCode(smsCode);
+            }
+        }
+
+        if (isAlreadyPending) {
+            callback.onResult(null, new BraintreeException(
+                    "An SMS code was already submitted and is waiting for enrollment to complete"));
+        } else {
+            tokenize(callback);
+        }
+    }
+
+    private void tokenize(UnionPayTokenizeCallback callback) {
+        Exception error;
+        synchronized (this) {
+            error = enrollmentError;
+        }
+
+        if (error != null) {
+            callback.onResult(null, error);
+        } else {
+            unionPayClient.tokenize(unionPayCard, callback);
+        }
+    }
+}
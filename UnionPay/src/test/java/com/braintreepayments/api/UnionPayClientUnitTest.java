@@ -1,16 +1,23 @@
 package com.braintreepayments.api;
 
+import static android.os.Looper.getMainLooper;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.net.Uri;
 
@@ -22,6 +29,8 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricTestRunner;
 
+import java.time.Duration;
+
 @RunWith(RobolectricTestRunner.class)
 public class UnionPayClientUnitTest {
 
@@ -288,4 +297,217 @@ public class UnionPayClientUnitTest {
         assertTrue(exception instanceof ConfigurationException);
         assertEquals("UnionPay is not enabled", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fetchCapabilities_whenBinPrefixIsCached_doesNotSendRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+
+        UnionPayFetchCapabilitiesCallback secondCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_DEBIT, secondCallback);
+
+        verify(braintreeClient, times(1)).sendGET(anyString(), any(HttpResponseCallback.class));
+        ArgumentCaptor<UnionPayCapabilities> capabilitiesCaptor = ArgumentCaptor.forClass(UnionPayCapabilities.class);
+        verify(secondCallback).onResult(capabilitiesCaptor.capture(), (Exception) isNull());
+        assertTrue(capabilitiesCaptor.getValue().isUnionPay());
+    }
+
+    @Test
+    public void fetchCapabilities_whenBinPrefixIsNotCached_sendsRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_INTEGRATION_CREDIT, unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void fetchCapabilities_whenCardNumberIsShorterThanBinPrefix_doesNotCache() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities("621234", unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities("621234", unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(unionPayFetchCapabilitiesCallback, times(2)).onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+    }
+
+    @Test
+    public void fetchCapabilities_whenRequestForBinPrefixIsInFlight_sharesResponse() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        UnionPayFetchCapabilitiesCallback secondCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_DEBIT, secondCallback);
+
+        ArgumentCaptor<HttpResponseCallback> captor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient, times(1)).sendGET(anyString(), captor.capture());
+        captor.getValue().onResult(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE, null);
+
+        verify(unionPayFetchCapabilitiesCallback).onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+        verify(secondCallback).onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+        verify(braintreeClient, times(1)).sendAnalyticsEvent("union-pay.capabilities-received");
+    }
+
+    @Test
+    public void fetchCapabilities_whenRequestFails_doesNotCacheError() {
+        Exception error = new Exception("error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETErrorResponse(error)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(unionPayFetchCapabilitiesCallback, times(2)).onResult((UnionPayCapabilities) isNull(), same(error));
+    }
+
+    @Test
+    public void fetchCapabilities_withDebounceDelay_onlyLooksUpLatestCardNumber() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.setFetchCapabilitiesDebounceDelay(300);
+
+        UnionPayFetchCapabilitiesCallback latestCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_INTEGRATION_CREDIT, latestCallback);
+
+        verify(braintreeClient, never()).sendGET(anyString(), any(HttpResponseCallback.class));
+        shadowOf(getMainLooper()).idleFor(Duration.ofMillis(300));
+
+        String expectedUrl = Uri.parse("/v1/payment_methods/credit_cards/capabilities")
+                .buildUpon()
+                .appendQueryParameter("creditCard[number]", CardNumber.UNIONPAY_INTEGRATION_CREDIT)
+                .build()
+                .toString();
+        verify(braintreeClient, times(1)).sendGET(eq(expectedUrl), any(HttpResponseCallback.class));
+        verify(latestCallback).onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+        verifyNoInteractions(unionPayFetchCapabilitiesCallback);
+    }
+
+    @Test
+    public void fetchCapabilities_withDebounceDelay_dropsResponseOfSupersededLookup() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.setFetchCapabilitiesDebounceDelay(300);
+
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        shadowOf(getMainLooper()).idleFor(Duration.ofMillis(300));
+
+        ArgumentCaptor<HttpResponseCallback> captor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendGET(anyString(), captor.capture());
+
+        UnionPayFetchCapabilitiesCallback latestCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_INTEGRATION_CREDIT, latestCallback);
+        captor.getValue().onResult(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE, null);
+
+        verifyNoInteractions(unionPayFetchCapabilitiesCallback);
+    }
+
+    @Test
+    public void fetchCapabilitiesWithoutDebounce_whenDebounceDelayIsSet_sendsRequestImmediately() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.setFetchCapabilitiesDebounceDelay(300);
+        sut.fetchCapabilitiesWithoutDebounce(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(unionPayFetchCapabilitiesCallback).onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+    }
+
+    @Test
+    public void fetchCapabilitiesWithoutDebounce_isNotSupersededByDebouncedLookup() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.setFetchCapabilitiesDebounceDelay(300);
+
+        sut.fetchCapabilitiesWithoutDebounce(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        ArgumentCaptor<HttpResponseCallback> captor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendGET(anyString(), captor.capture());
+
+        sut.fetchCapabilities(CardNumber.UNIONPAY_INTEGRATION_CREDIT, mock(UnionPayFetchCapabilitiesCallback.class));
+        captor.getValue().onResult(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE, null);
+
+        verify(unionPayFetchCapabilitiesCallback).onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+    }
+
+    @Test
+    public void startEnrollment_fetchesCapabilitiesAndEnrollsCard() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .sendPOSTSuccessfulResponse(new JSONObject()
+                        .put("unionPayEnrollmentId", "enrollment-id")
+                        .put("smsCodeRequired", true)
+                        .toString())
+                .build();
+
+        UnionPayCard unionPayCard = new UnionPayCard();
+        unionPayCard.setNumber(CardNumber.UNIONPAY_CREDIT);
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        UnionPayEnrollmentFlow enrollmentFlow = sut.startEnrollment(unionPayCard, unionPayEnrollCallback);
+
+        verify(braintreeClient).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendPOST(eq("/v1/union_pay_enrollments"), anyString(), any(HttpResponseCallback.class));
+
+        ArgumentCaptor<UnionPayEnrollment> captor = ArgumentCaptor.forClass(UnionPayEnrollment.class);
+        verify(unionPayEnrollCallback).onResult(captor.capture(), (Exception) isNull());
+        assertEquals("enrollment-id", captor.getValue().getId());
+
+        enrollmentFlow.submitSmsCode("12345", unionPayTokenizeCallback);
+        verify(apiClient).tokenizeREST(same(unionPayCard), any(TokenizeCallback.class));
+        assertEquals("enrollment-id", unionPayCard.getEnrollmentId());
+        assertEquals("12345", unionPayCard.getSmsCode());
+    }
+
+    @Test
+    public void getBinPrefix_returnsFirstEightDigits() {
+        assertEquals("62123456", UnionPayClient.getBinPrefix(CardNumber.UNIONPAY_CREDIT));
+    }
+
+    @Test
+    public void getBinPrefix_ignoresSeparators() {
+        assertEquals("62123456", UnionPayClient.getBinPrefix("6212 3456 7890 1232"));
+    }
+
+    @Test
+    public void getBinPrefix_whenCardNumberIsTooShort_returnsNull() {
+        assertNull(UnionPayClient.getBinPrefix("6212 345"));
+        assertNull(UnionPayClient.getBinPrefix(null));
+    }
+}
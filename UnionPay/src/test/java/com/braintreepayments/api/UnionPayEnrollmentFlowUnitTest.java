@@ -0,0 +1,167 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class UnionPayEnrollmentFlowUnitTest {
+
+    private UnionPayClient unionPayClient;
+    private UnionPayCard unionPayCard;
+    private UnionPayEnrollCallback enrollCallback;
+    private UnionPayTokenizeCallback tokenizeCallback;
+
+    @Before
+    public void beforeEach() {
+        unionPayClient = mock(UnionPayClient.class);
+        enrollCallback = mock(UnionPayEnrollCallback.class);
+        tokenizeCallback = mock(UnionPayTokenizeCallback.class);
+
+        unionPayCard = new UnionPayCard();
+        unionPayCard.setNumber("6212345678901232");
+    }
+
+    @Test
+    public void start_fetchesCapabilitiesWithoutDebounce_thenEnrolls() {
+        UnionPayEnrollmentFlow sut = new UnionPayEnrollmentFlow(unionPayClient, unionPayCard);
+        sut.start(enrollCallback);
+
+        verify(unionPayClient, never()).enroll(any(UnionPayCard.class), any(UnionPayEnrollCallback.class));
+
+        completeCapabilities(UnionPayCapabilities.fromJson(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE), null);
+        verify(unionPayClient).enroll(same(unionPayCard), any(UnionPayEnrollCallback.class));
+    }
+
+    @Test
+    public void start_whenCardIsNotSupported_callsBackErrorWithoutEnrolling() {
+        UnionPayEnrollmentFlow sut = new UnionPayEnrollmentFlow(unionPayClient, unionPayCard);
+        sut.start(enrollCallback);
+
+        completeCapabilities(UnionPayCapabilities.fromJson("{\"isUnionPay\": true, \"unionPay\": {\"isSupported\": false}}"), null);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(enrollCallback).onResult((UnionPayEnrollment) isNull(), captor.capture());
+        assertEquals("UnionPay card is not supported", captor.getValue().getMessage());
+        verify(unionPayClient, never()).enroll(any(UnionPayCard.class), any(UnionPayEnrollCallback.class));
+    }
+
+    @Test
+    public void start_whenCapabilitiesLookupFails_enrollsCardAnyway() {
+        UnionPayEnrollmentFlow sut = new UnionPayEnrollmentFlow(unionPayClient, unionPayCard);
+        sut.start(enrollCallback);
+
+        completeCapabilities(null, new Exception("capabilities error"));
+
+        verify(unionPayClient).enroll(same(unionPayCard), any(UnionPayEnrollCallback.class));
+        verify(enrollCallback, never()).onResult(any(UnionPayEnrollment.class), (Exception) any());
+    }
+
+    @Test
+    public void start_onEnrollmentSuccess_appliesEnrollmentIdToCard() {
+        UnionPayEnrollmentFlow sut = new UnionPayEnrollmentFlow(unionPayClient, unionPayCard);
+        sut.start(enrollCallback);
+
+        UnionPayEnrollment enrollment = new UnionPayEnrollment("enrollment-id", true);
+        completeEnrollment(enrollment, null);
+
+        verify(enrollCallback).onResult(enrollment, null);
+        assertEquals("enrollment-id", unionPayCard.getEnrollmentId());
+    }
+
+    @Test
+    public void submitSmsCode_afterEnrollment_tokenizesCardWithSmsCode() {
+        UnionPayEnrollmentFlow sut = new UnionPayEnrollmentFlow(unionPayClient, unionPayCard);
+        sut.start(enrollCallback);
+        completeEnrollment(new UnionPayEnrollment("enrollment-id", true), null);
+
+        sut.submitSmsCode("12345", tokenizeCallback);
+
+        verify(unionPayClient).tokenize(same(unionPayCard), same(tokenizeCallback));
+        assertEquals("12345", unionPayCard.getSmsCode());
+        assertEquals("enrollment-id", unionPayCard.getEnrollmentId());
+    }
+
+    @Test
+    public void submitSmsCode_beforeEnrollmentCompletes_tokenizesOnceEnrolled() {
+        UnionPayEnrollmentFlow sut = new UnionPayEnrollmentFlow(unionPayClient, unionPayCard);
+        sut.start(enrollCallback);
+        completeCapabilities(UnionPayCapabilities.fromJson(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE), null);
+
+        sut.submitSmsCode("12345", tokenizeCallback);
+        verify(unionPayClient, never()).tokenize(any(UnionPayCard.class), any(UnionPayTokenizeCallback.class));
+
+        ArgumentCaptor<UnionPayEnrollCallback> captor = ArgumentCaptor.forClass(UnionPayEnrollCallback.class);
+        verify(unionPayClient).enroll(same(unionPayCard), captor.capture());
+        captor.getValue().onResult(new UnionPayEnrollment("enrollment-id", true), null);
+
+        verify(unionPayClient).tokenize(same(unionPayCard), same(tokenizeCallback));
+        assertEquals("12345", unionPayCard.getSmsCode());
+    }
+
+    @Test
+    public void submitSmsCode_whenSmsCodeIsAlreadyWaitingOnEnrollment_callsBackErrorAndKeepsFirstSmsCode() {
+        UnionPayEnrollmentFlow sut = new UnionPayEnrollmentFlow(unionPayClient, unionPayCard);
+        sut.start(enrollCallback);
+        completeCapabilities(UnionPayCapabilities.fromJson(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE), null);
+
+        UnionPayTokenizeCallback secondTokenizeCallback = mock(UnionPayTokenizeCallback.class);
+        sut.submitSmsCode("12345", tokenizeCallback);
+        sut.submitSmsCode("67890", secondTokenizeCallback);
+
+        ArgumentCaptor<Exception> errorCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(secondTokenizeCallback).onResult((CardNonce) isNull(), errorCaptor.capture());
+        assertTrue(errorCaptor.getValue() instanceof BraintreeException);
+
+        ArgumentCaptor<UnionPayEnrollCallback> captor = ArgumentCaptor.forClass(UnionPayEnrollCallback.class);
+        verify(unionPayClient).enroll(same(unionPayCard), captor.capture());
+        captor.getValue().onResult(new UnionPayEnrollment("enrollment-id", true), null);
+
+        verify(unionPayClient).tokenize(same(unionPayCard), same(tokenizeCallback));
+        verify(unionPayClient, never()).tokenize(any(UnionPayCard.class), same(secondTokenizeCallback));
+        assertEquals("12345", unionPayCard.getSmsCode());
+    }
+
+    @Test
+    public void submitSmsCode_whenEnrollmentFailed_forwardsEnrollmentError() {
+        UnionPayEnrollmentFlow sut = new UnionPayEnrollmentFlow(unionPayClient, unionPayCard);
+        sut.start(enrollCallback);
+
+        Exception error = new Exception("enrollment error");
+        completeEnrollment(null, error);
+
+        sut.submitSmsCode("12345", tokenizeCallback);
+
+        verify(tokenizeCallback).onResult(null, error);
+        verify(unionPayClient, never()).tokenize(any(UnionPayCard.class), any(UnionPayTokenizeCallback.class));
+        assertNull(unionPayCard.getEnrollmentId());
+    }
+
+    private void completeCapabilities(UnionPayCapabilities capabilities, Exception error) {
+        ArgumentCaptor<UnionPayFetchCapabilitiesCallback> captor =
+                ArgumentCaptor.forClass(UnionPayFetchCapabilitiesCallback.class);
+        verify(unionPayClient).fetchCapabilitiesWithoutDebounce(eq("6212345678901232"), captor.capture());
+        captor.getValue().onResult(capabilities, error);
+    }
+
+    private void completeEnrollment(UnionPayEnrollment enrollment, Exception error) {
+        completeCapabilities(UnionPayCapabilities.fromJson(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE), null);
+
+        ArgumentCaptor<UnionPayEnrollCallback> captor = ArgumentCaptor.forClass(UnionPayEnrollCallback.class);
+        verify(unionPayClient).enroll(same(unionPayCard), captor.capture());
+        captor.getValue().onResult(enrollment, error);
+    }
+}
@@ -3,25 +3,52 @@ package com.braintreepayments.api;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONArray;
 
+import java.util.concurrent.TimeUnit;
+
 class VenmoApi {
 
+    private static final String GRAPHQL_ENDPOINT = "graphql";
+
     private final BraintreeClient braintreeClient;
     private final ApiClient apiClient;
 
+    private final PreparedResultHolder<String> preparedPaymentContextIds =
+            new PreparedResultHolder<>(TimeUnit.MINUTES.toMillis(10));
+
     VenmoApi(BraintreeClient braintreeClient, ApiClient apiClient) {
         this.braintreeClient = braintreeClient;
         this.apiClient = apiClient;
     }
 
-    void createPaymentContext(@NonNull final VenmoRequest request, String venmoProfileId, final VenmoApiCallback callback) {
+    void createPaymentContext(@NonNull VenmoRequest request, String venmoProfileId, VenmoApiCallback callback) {
+        createPaymentContext(request, venmoProfileId, false, callback);
+    }
+
+    /**
+     * Create the payment context for {@code request} and keep its ID, so that a later call to
+     * {@link #createPaymentContext(VenmoRequest, String, VenmoApiCallback)} with the same request
+     * fields and profile ID returns it without another round trip. Only the most recently
+     * prepared payment context is kept, and it is used at most once. If preparing fails, requests
+     * waiting on it are sent again instead of receiving the error.
+     */
+    void preparePaymentContext(@NonNull VenmoRequest request, String venmoProfileId) {
+        createPaymentContext(request, venmoProfileId, true, new VenmoApiCallback() {
+            @Override
+            public void onResult(@Nullable String paymentContextId, @Nullable Exception exception) {
+                // the payment context ID is delivered to the request that uses it
+            }
+        });
+    }
+
+    private void createPaymentContext(@NonNull final VenmoRequest request, final String venmoProfileId, boolean isPrepare, final VenmoApiCallback callback) {
         JSONObject params = new JSONObject();
         try {
-            params.put("query", "mutation CreateVenmoPaymentContext($input: CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: $input) { venmoPaymentContext { id } } }");
             JSONObject input = new JSONObject();
             input.put("paymentMethodUsage", request.getPaymentMethodUsageAsString());
             input.put("merchantProfileId", venmoProfileId);
@@ -63,38 +90,86 @@ class VenmoApi {
             callback.onResult(null, new BraintreeException("unexpected error"));
         }
 
-        braintreeClient.sendGraphQLPOST(params.toString(), new HttpResponseCallback() {
+        String requestBody = params.toString();
+        final PreparedResultHolder.PreparedResult<String> pendingPreparedContext;
+        if (isPrepare) {
+            pendingPreparedContext = preparedPaymentContextIds.start(requestBody, System.currentTimeMillis());
+            if (pendingPreparedContext == null) {
+                // an identical payment context is already prepared
+                return;
+            }
+        } else {
+            pendingPreparedContext = null;
+            if (joinPreparedPaymentContext(request, venmoProfileId, requestBody, callback)) {
+                braintreeClient.sendAnalyticsEvent("pay-with-venmo.prepared-payment-context.used");
+                return;
+            }
+        }
+
+        final AnalyticsSpan span = new AnalyticsSpan(braintreeClient, GRAPHQL_ENDPOINT)
+                .putAttribute("payment_method_usage", request.getPaymentMethodUsageAsString());
+        braintreeClient.sendGraphQLPOST(GraphQLOperations.CREATE_VENMO_PAYMENT_CONTEXT, params, new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
                 if (responseBody != null) {
+                    span.end("pay-with-venmo.create-payment-context.succeeded");
                     String paymentContextId = parsePaymentContextId(responseBody);
                     if (TextUtils.isEmpty(paymentContextId)) {
-                        callback.onResult(null, new BraintreeException("Failed to fetch a Venmo paymentContextId while constructing the requestURL."));
+                        notifyResult(pendingPreparedContext, null, new BraintreeException("Failed to fetch a Venmo paymentContextId while constructing the requestURL."), callback);
                         return;
                     }
-                    callback.onResult(paymentContextId,null);
+                    notifyResult(pendingPreparedContext, paymentContextId, null, callback);
                 } else {
-                    callback.onResult(null, httpError);
+                    span.end("pay-with-venmo.create-payment-context.failed");
+                    notifyResult(pendingPreparedContext, null, httpError, callback);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return true if {@code callback} receives the payment context prepared for the same request
+     */
+    private boolean joinPreparedPaymentContext(final VenmoRequest request, final String venmoProfileId, String requestBody, final VenmoApiCallback callback) {
+        PreparedResultHolder.PreparedResult<String> prepared = preparedPaymentContextIds.take();
+        if (prepared == null || !prepared.matches(requestBody, System.currentTimeMillis())) {
+            return false;
+        }
+        return prepared.addCallback(new PreparedResultHolder.Callback<String>() {
+            @Override
+            public void onResult(@Nullable String paymentContextId) {
+                if (paymentContextId != null) {
+                    callback.onResult(paymentContextId, null);
+                } else {
+                    // the prepare failed in the background, so create the payment context again
+                    createPaymentContext(request, venmoProfileId, false, callback);
                 }
             }
         });
     }
 
+    private void notifyResult(PreparedResultHolder.PreparedResult<String> prepared, String paymentContextId, Exception error, VenmoApiCallback callback) {
+        callback.onResult(paymentContextId, error);
+        if (prepared != null) {
+            preparedPaymentContextIds.complete(prepared, paymentContextId);
+        }
+    }
+
     void createNonceFromPaymentContext(String paymentContextId, final VenmoOnActivityResultCallback callback) {
         JSONObject params = new JSONObject();
         try {
-            params.put("query", "query PaymentContext($id: ID!) { node(id: $id) { ... on VenmoPaymentContext { paymentMethodId userName payerInfo { firstName lastName phoneNumber email externalId userName " +
-                    "shippingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } billingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } } } } }");
             JSONObject variables = new JSONObject();
             variables.put("id", paymentContextId);
             params.put("variables", variables);
 
-            braintreeClient.sendGraphQLPOST(params.toString(), new HttpResponseCallback() {
+            final AnalyticsSpan span = new AnalyticsSpan(braintreeClient, GRAPHQL_ENDPOINT);
+            braintreeClient.sendGraphQLPOST(GraphQLOperations.VENMO_PAYMENT_CONTEXT, params, new HttpResponseCallback() {
 
                 @Override
                 public void onResult(String responseBody, Exception httpError) {
                     if (responseBody != null) {
+                        span.end("pay-with-venmo.payment-context-query.succeeded");
                         try {
                             JSONObject data = new JSONObject(responseBody).getJSONObject("data");
                             VenmoAccountNonce nonce = VenmoAccountNonce.fromJSON(data.getJSONObject("node"));
@@ -104,6 +179,7 @@ class VenmoApi {
                             callback.onResult(null, exception);
                         }
                     } else {
+                        span.end("pay-with-venmo.payment-context-query.failed");
                         callback.onResult(null, httpError);
                     }
                 }
@@ -114,6 +190,47 @@ class VenmoApi {
         }
     }
 
+    /**
+     * Vault the payment method of a payment context and return its vaulted nonce in a single
+     * GraphQL request. A {@link JSONException} is only returned when the mutation succeeded but
+     * its response could not be parsed.
+     */
+    void createVaultedNonceFromPaymentContext(String paymentContextId, final VenmoOnActivityResultCallback callback) {
+        JSONObject params = new JSONObject();
+        try {
+            JSONObject input = new JSONObject();
+            input.put("paymentContextId", paymentContextId);
+            JSONObject variables = new JSONObject();
+            variables.put("input", input);
+            params.put("variables", variables);
+        } catch (JSONException exception) {
+            callback.onResult(null, new BraintreeException("Failed to build the vault Venmo payment context request", exception));
+            return;
+        }
+
+        final AnalyticsSpan span = new AnalyticsSpan(braintreeClient, GRAPHQL_ENDPOINT);
+        braintreeClient.sendGraphQLPOST(GraphQLOperations.VAULT_VENMO_PAYMENT_CONTEXT, params, new HttpResponseCallback() {
+
+            @Override
+            public void onResult(String responseBody, Exception httpError) {
+                if (responseBody != null) {
+                    span.end("pay-with-venmo.vault-payment-context.succeeded");
+                    try {
+                        JSONObject data = new JSONObject(responseBody).getJSONObject("data");
+                        JSONObject paymentContext = data.getJSONObject("vaultVenmoPaymentContext")
+                                .getJSONObject("venmoPaymentContext");
+                        callback.onResult(VenmoAccountNonce.fromJSON(paymentContext), null);
+                    } catch (JSONException exception) {
+                        callback.onResult(null, exception);
+                    }
+                } else {
+                    span.end("pay-with-venmo.vault-payment-context.failed");
+                    callback.onResult(null, httpError);
+                }
+            }
+        });
+    }
+
     void vaultVenmoAccountNonce(String nonce, final VenmoOnActivityResultCallback callback) {
         VenmoAccount venmoAccount = new VenmoAccount();
         venmoAccount.setNonce(nonce);
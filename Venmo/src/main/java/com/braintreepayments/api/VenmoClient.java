@@ -182,32 +182,73 @@ public class VenmoClient {
                     return;
                 }
 
-                String venmoProfileId = request.getProfileId();
-                if (TextUtils.isEmpty(venmoProfileId)) {
-                    venmoProfileId = configuration.getVenmoMerchantId();
+                String profileId = request.getProfileId();
+                if (TextUtils.isEmpty(profileId)) {
+                    profileId = configuration.getVenmoMerchantId();
                 }
+                final String venmoProfileId = profileId;
 
-                final String finalVenmoProfileId = venmoProfileId;
-                venmoApi.createPaymentContext(request, venmoProfileId, new VenmoApiCallback() {
+                // the authorization is looked up while the payment context is created, and the
+                // Venmo app is switched to once both are available
+                final ResultJoiner<Authorization, String> pendingAppSwitch = new ResultJoiner<>(new ResultJoiner.Callback<Authorization, String>() {
                     @Override
-                    public void onResult(@Nullable final String paymentContextId, @Nullable Exception exception) {
-                        if (exception == null) {
-                            braintreeClient.getAuthorization(new AuthorizationCallback() {
-                                @Override
-                                public void onAuthorizationResult(@Nullable Authorization authorization, @Nullable Exception authError) {
-                                    if (authorization != null) {
-                                        startVenmoActivityForResult(activity, request, configuration, authorization, finalVenmoProfileId, paymentContextId);
-                                    } else {
-                                        callback.onResult(authError);
-                                    }
-                                }
-                            });
-                        } else {
-                            callback.onResult(exception);
+                    public void onResult(@Nullable Authorization authorization, @Nullable Exception authError,
+                                         @Nullable String paymentContextId, @Nullable Exception paymentContextError) {
+                        if (authError != null) {
+                            callback.onResult(authError);
+                        } else if (paymentContextError != null) {
+                            callback.onResult(paymentContextError);
                             braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failed");
+                        } else {
+                            startVenmoActivityForResult(activity, request, configuration, authorization, venmoProfileId, paymentContextId);
                         }
                     }
                 });
+                braintreeClient.getAuthorization(new AuthorizationCallback() {
+                    @Override
+                    public void onAuthorizationResult(@Nullable Authorization authorization, @Nullable Exception authError) {
+                        pendingAppSwitch.setFirst(authorization, authError);
+                    }
+                });
+                venmoApi.createPaymentContext(request, venmoProfileId, new VenmoApiCallback() {
+                    @Override
+                    public void onResult(@Nullable String paymentContextId, @Nullable Exception exception) {
+                        pendingAppSwitch.setSecond(paymentContextId, exception);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Create the Venmo payment context for a request ahead of time, e.g. while the user reviews
+     * their cart, so that a later call to {@link #tokenizeVenmoAccount(FragmentActivity, VenmoRequest)}
+     * with a request with the same fields can switch to the Venmo app without waiting for it.
+     * <p>
+     * The prepared payment context is used at most once. It is discarded when
+     * {@link #tokenizeVenmoAccount(FragmentActivity, VenmoRequest)} is called with a request whose
+     * fields differ, or when it is more than 10 minutes old. Errors are not reported; the payment
+     * context is created again when the Venmo flow is started.
+     *
+     * @param request {@link VenmoRequest}
+     */
+    public void prepare(@NonNull final VenmoRequest request) {
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (configuration == null || !configuration.isVenmoEnabled()
+                        || !deviceInspector.isVenmoAppSwitchAvailable(braintreeClient.getApplicationContext())) {
+                    return;
+                }
+                if ((request.getCollectCustomerShippingAddress() || request.getCollectCustomerBillingAddress()) && !configuration.getVenmoEnrichedCustomerDataEnabled()) {
+                    return;
+                }
+
+                String venmoProfileId = request.getProfileId();
+                if (TextUtils.isEmpty(venmoProfileId)) {
+                    venmoProfileId = configuration.getVenmoMerchantId();
+                }
+                venmoApi.preparePaymentContext(request, venmoProfileId);
             }
         });
     }
@@ -245,32 +286,31 @@ public class VenmoClient {
 
                         String paymentContextId = venmoResult.getPaymentContextId();
                         if (paymentContextId != null) {
-                            venmoApi.createNonceFromPaymentContext(paymentContextId, new VenmoOnActivityResultCallback() {
-                                @Override
-                                public void onResult(@Nullable VenmoAccountNonce nonce, @Nullable Exception error) {
-                                    if (nonce != null) {
-                                        boolean shouldVault = sharedPrefsWriter.getVenmoVaultOption(braintreeClient.getApplicationContext());
-                                        if (shouldVault && isClientTokenAuth) {
-                                            vaultVenmoAccountNonce(nonce.getString(), new VenmoOnActivityResultCallback() {
-                                                @Override
-                                                public void onResult(@Nullable VenmoAccountNonce venmoAccountNonce, @Nullable Exception error) {
-                                                    if (venmoAccountNonce != null) {
-                                                        deliverVenmoSuccess(venmoAccountNonce);
-                                                    } else if (error != null) {
-                                                        deliverVenmoFailure(error);
-                                                    }
-                                                }
-                                            });
-                                        } else {
-                                            braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failure");
-                                            deliverVenmoSuccess(nonce);
+                            boolean shouldVault = sharedPrefsWriter.getVenmoVaultOption(braintreeClient.getApplicationContext());
+                            if (shouldVault && isClientTokenAuth) {
+                                createVaultedNonceFromPaymentContext(paymentContextId, new VenmoOnActivityResultCallback() {
+                                    @Override
+                                    public void onResult(@Nullable VenmoAccountNonce venmoAccountNonce, @Nullable Exception error) {
+                                        if (venmoAccountNonce != null) {
+                                            deliverVenmoSuccess(venmoAccountNonce);
+                                        } else if (error != null) {
+                                            deliverVenmoFailure(error);
                                         }
-                                    } else {
+                                    }
+                                });
+                            } else {
+                                venmoApi.createNonceFromPaymentContext(paymentContextId, new VenmoOnActivityResultCallback() {
+                                    @Override
+                                    public void onResult(@Nullable VenmoAccountNonce nonce, @Nullable Exception error) {
                                         braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failure");
-                                        deliverVenmoFailure(error);
+                                        if (nonce != null) {
+                                            deliverVenmoSuccess(nonce);
+                                        } else {
+                                            deliverVenmoFailure(error);
+                                        }
                                     }
-                                }
-                            });
+                                });
+                            }
                         } else {
                             String nonce = venmoResult.getVenmoAccountNonce();
 
@@ -341,24 +381,18 @@ public class VenmoClient {
 
                         String paymentContextId = data.getStringExtra(EXTRA_RESOURCE_ID);
                         if (paymentContextId != null) {
-                            venmoApi.createNonceFromPaymentContext(paymentContextId, new VenmoOnActivityResultCallback() {
-                                @Override
-                                public void onResult(@Nullable VenmoAccountNonce nonce, @Nullable Exception error) {
-                                    if (nonce != null) {
-                                        boolean shouldVault = sharedPrefsWriter.getVenmoVaultOption(context);
-                                        if (shouldVault && isClientTokenAuth) {
-                                            vaultVenmoAccountNonce(nonce.getString(), callback);
-                                        } else {
-                                            braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failure");
-                                            callback.onResult(nonce, null);
-                                        }
-
-                                    } else {
+                            boolean shouldVault = sharedPrefsWriter.getVenmoVaultOption(context);
+                            if (shouldVault && isClientTokenAuth) {
+                                createVaultedNonceFromPaymentContext(paymentContextId, callback);
+                            } else {
+                                venmoApi.createNonceFromPaymentContext(paymentContextId, new VenmoOnActivityResultCallback() {
+                                    @Override
+                                    public void onResult(@Nullable VenmoAccountNonce nonce, @Nullable Exception error) {
                                         braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failure");
-                                        callback.onResult(null, error);
+                                        callback.onResult(nonce, error);
                                     }
-                                }
-                            });
+                                });
+                            }
                         } else {
                             String nonce = data.getStringExtra(EXTRA_PAYMENT_METHOD_NONCE);
 
@@ -383,6 +417,61 @@ public class VenmoClient {
         }
     }
 
+    /**
+     * Fetch the nonce for a payment context and vault it. When the gateway supports it, this is
+     * done in a single GraphQL request. Otherwise, or if the gateway rejects that request before
+     * vaulting the payment method, the nonce is fetched and then vaulted in separate requests.
+     */
+    private void createVaultedNonceFromPaymentContext(final String paymentContextId, final VenmoOnActivityResultCallback callback) {
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (configuration == null || !configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.VAULT_VENMO_PAYMENT_CONTEXT)) {
+                    createNonceFromPaymentContextAndVault(paymentContextId, callback);
+                    return;
+                }
+                venmoApi.createVaultedNonceFromPaymentContext(paymentContextId, new VenmoOnActivityResultCallback() {
+                    @Override
+                    public void onResult(@Nullable VenmoAccountNonce venmoAccountNonce, @Nullable Exception error) {
+                        if (venmoAccountNonce != null) {
+                            braintreeClient.sendAnalyticsEvent("pay-with-venmo.vault.success");
+                            callback.onResult(venmoAccountNonce, null);
+                        } else if (isRejectedBeforeVaulting(error)) {
+                            createNonceFromPaymentContextAndVault(paymentContextId, callback);
+                        } else {
+                            // the mutation may have run, so vaulting again could vault the payment method twice
+                            braintreeClient.sendAnalyticsEvent("pay-with-venmo.vault.failed");
+                            callback.onResult(null, error);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * GraphQL validation errors and operations the current authorization is not allowed to run are
+     * reported before the mutation runs. Any other error, e.g. a timeout, may arrive after the
+     * payment method was vaulted.
+     */
+    private static boolean isRejectedBeforeVaulting(Exception error) {
+        return error instanceof ErrorWithResponse || error instanceof AuthorizationException;
+    }
+
+    private void createNonceFromPaymentContextAndVault(String paymentContextId, final VenmoOnActivityResultCallback callback) {
+        venmoApi.createNonceFromPaymentContext(paymentContextId, new VenmoOnActivityResultCallback() {
+            @Override
+            public void onResult(@Nullable VenmoAccountNonce nonce, @Nullable Exception error) {
+                if (nonce != null) {
+                    vaultVenmoAccountNonce(nonce.getString(), callback);
+                } else {
+                    braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failure");
+                    callback.onResult(null, error);
+                }
+            }
+        });
+    }
+
     private void vaultVenmoAccountNonce(String nonce, final VenmoOnActivityResultCallback callback) {
         venmoApi.vaultVenmoAccountNonce(nonce, new VenmoOnActivityResultCallback() {
             @Override
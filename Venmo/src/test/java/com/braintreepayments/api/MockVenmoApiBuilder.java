@@ -16,6 +16,8 @@ public class MockVenmoApiBuilder {
     private Exception createPaymentContextError;
     private Exception createNonceFromPaymentContextError;
     private Exception vaultVenmoAccountNonceError;
+    private VenmoAccountNonce createVaultedNonceFromPaymentContextSuccess;
+    private Exception createVaultedNonceFromPaymentContextError;
 
     public MockVenmoApiBuilder createPaymentContextSuccess(String venmoPaymentContextId) {
         this.venmoPaymentContextId = venmoPaymentContextId;
@@ -47,6 +49,16 @@ public class MockVenmoApiBuilder {
         return this;
     }
 
+    public MockVenmoApiBuilder createVaultedNonceFromPaymentContextSuccess(VenmoAccountNonce createVaultedNonceFromPaymentContextSuccess) {
+        this.createVaultedNonceFromPaymentContextSuccess = createVaultedNonceFromPaymentContextSuccess;
+        return this;
+    }
+
+    public MockVenmoApiBuilder createVaultedNonceFromPaymentContextError(Exception createVaultedNonceFromPaymentContextError) {
+        this.createVaultedNonceFromPaymentContextError = createVaultedNonceFromPaymentContextError;
+        return this;
+    }
+
     public VenmoApi build() {
         VenmoApi venmoApi = mock(VenmoApi.class);
 
@@ -92,6 +104,20 @@ public class MockVenmoApiBuilder {
             }
         }).when(venmoApi).vaultVenmoAccountNonce(anyString(), any(VenmoOnActivityResultCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                VenmoOnActivityResultCallback callback = (VenmoOnActivityResultCallback) invocation.getArguments()[1];
+                if (createVaultedNonceFromPaymentContextSuccess != null) {
+                    callback.onResult(createVaultedNonceFromPaymentContextSuccess, null);
+                } else if(createVaultedNonceFromPaymentContextError != null) {
+                    callback.onResult(null, createVaultedNonceFromPaymentContextError);
+                }
+
+                return null;
+            }
+        }).when(venmoApi).createVaultedNonceFromPaymentContext(anyString(), any(VenmoOnActivityResultCallback.class));
+
         return venmoApi;
     }
 }
@@ -4,10 +4,14 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import org.json.JSONArray;
@@ -52,13 +56,13 @@ public class VenmoApiUnitTest {
 
         venmoAPI.createPaymentContext(request, request.getProfileId(), mock(VenmoApiCallback.class));
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<GraphQLOperation> operationCaptor = ArgumentCaptor.forClass(GraphQLOperation.class);
+        ArgumentCaptor<JSONObject> captor = ArgumentCaptor.forClass(JSONObject.class);
+        verify(braintreeClient).sendGraphQLPOST(operationCaptor.capture(), captor.capture(), any(HttpResponseCallback.class));
 
-        String graphQLBody = captor.getValue();
-        JSONObject graphQLJSON = new JSONObject(graphQLBody);
+        JSONObject graphQLJSON = captor.getValue();
         String expectedQuery = "mutation CreateVenmoPaymentContext($input: CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: $input) { venmoPaymentContext { id } } }";
-        assertEquals(expectedQuery, graphQLJSON.getString("query"));
+        assertEquals(expectedQuery, operationCaptor.getValue().getDocument());
 
         JSONObject variables = graphQLJSON.getJSONObject("variables");
         JSONObject input = variables.getJSONObject("input");
@@ -94,13 +98,13 @@ public class VenmoApiUnitTest {
 
         venmoAPI.createPaymentContext(request, request.getProfileId(), mock(VenmoApiCallback.class));
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<GraphQLOperation> operationCaptor = ArgumentCaptor.forClass(GraphQLOperation.class);
+        ArgumentCaptor<JSONObject> captor = ArgumentCaptor.forClass(JSONObject.class);
+        verify(braintreeClient).sendGraphQLPOST(operationCaptor.capture(), captor.capture(), any(HttpResponseCallback.class));
 
-        String graphQLBody = captor.getValue();
-        JSONObject graphQLJSON = new JSONObject(graphQLBody);
+        JSONObject graphQLJSON = captor.getValue();
         String expectedQuery = "mutation CreateVenmoPaymentContext($input: CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: $input) { venmoPaymentContext { id } } }";
-        assertEquals(expectedQuery, graphQLJSON.getString("query"));
+        assertEquals(expectedQuery, operationCaptor.getValue().getDocument());
 
         JSONObject variables = graphQLJSON.getJSONObject("variables");
         JSONObject input = variables.getJSONObject("input");
@@ -130,6 +134,23 @@ public class VenmoApiUnitTest {
         verify(callback).onResult(anyString(), (Exception) isNull());
     }
 
+    @Test
+    public void createPaymentContext_whenGraphQLPostSuccess_sendsSucceededEventWithDuration() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_CREATE_PAYMENT_METHOD_CONTEXT_RESPONSE)
+                .build();
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.MULTI_USE);
+        request.setProfileId("sample-venmo-merchant");
+
+        venmoAPI.createPaymentContext(request, request.getProfileId(), mock(VenmoApiCallback.class));
+
+        ArgumentCaptor<JSONObject> attributesCaptor = ArgumentCaptor.forClass(JSONObject.class);
+        verify(braintreeClient).sendAnalyticsEvent(eq("pay-with-venmo.create-payment-context.succeeded"), anyLong(), eq("graphql"), attributesCaptor.capture());
+        assertEquals("MULTI_USE", attributesCaptor.getValue().getString("payment_method_usage"));
+    }
+
     @Test
     public void createPaymentContext_whenGraphQLPostSuccess_missingPaymentContextID_callsBackError() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -168,19 +189,128 @@ public class VenmoApiUnitTest {
         verify(callback).onResult(null, error);
     }
 
+    @Test
+    public void createPaymentContext_whenPaymentContextIsPrepared_callsBackPreparedIdWithoutGraphQLPost() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_CREATE_PAYMENT_METHOD_CONTEXT_RESPONSE)
+                .build();
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        request.setTotalAmount("100");
+        venmoAPI.preparePaymentContext(request, "sample-venmo-merchant");
+
+        VenmoApiCallback callback = mock(VenmoApiCallback.class);
+        venmoAPI.createPaymentContext(request, "sample-venmo-merchant", callback);
+
+        verify(callback).onResult("venmo-payment-context-id", null);
+        verify(braintreeClient, times(1)).sendGraphQLPOST(any(GraphQLOperation.class), any(JSONObject.class), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendAnalyticsEvent("pay-with-venmo.prepared-payment-context.used");
+    }
+
+    @Test
+    public void createPaymentContext_whenPreparedRequestDiffers_createsNewPaymentContext() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_CREATE_PAYMENT_METHOD_CONTEXT_RESPONSE)
+                .build();
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+
+        VenmoRequest preparedRequest = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        preparedRequest.setTotalAmount("100");
+        venmoAPI.preparePaymentContext(preparedRequest, "sample-venmo-merchant");
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        request.setTotalAmount("200");
+        VenmoApiCallback callback = mock(VenmoApiCallback.class);
+        venmoAPI.createPaymentContext(request, "sample-venmo-merchant", callback);
+
+        verify(callback).onResult("venmo-payment-context-id", null);
+        verify(braintreeClient, times(2)).sendGraphQLPOST(any(GraphQLOperation.class), any(JSONObject.class), any(HttpResponseCallback.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent("pay-with-venmo.prepared-payment-context.used");
+    }
+
+    @Test
+    public void createPaymentContext_usesPreparedPaymentContextOnce() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_CREATE_PAYMENT_METHOD_CONTEXT_RESPONSE)
+                .build();
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        venmoAPI.preparePaymentContext(request, "sample-venmo-merchant");
+        venmoAPI.createPaymentContext(request, "sample-venmo-merchant", mock(VenmoApiCallback.class));
+        venmoAPI.createPaymentContext(request, "sample-venmo-merchant", mock(VenmoApiCallback.class));
+
+        verify(braintreeClient, times(2)).sendGraphQLPOST(any(GraphQLOperation.class), any(JSONObject.class), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void createPaymentContext_whenPrepareFailed_createsNewPaymentContext() {
+        Exception error = new Exception("error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGraphQLPOSTErrorResponse(error)
+                .build();
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        venmoAPI.preparePaymentContext(request, "sample-venmo-merchant");
+
+        VenmoApiCallback callback = mock(VenmoApiCallback.class);
+        venmoAPI.createPaymentContext(request, "sample-venmo-merchant", callback);
+
+        verify(callback).onResult(null, error);
+        verify(braintreeClient, times(2)).sendGraphQLPOST(any(GraphQLOperation.class), any(JSONObject.class), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void createPaymentContext_whenInFlightPrepareFails_createsPaymentContextAgain() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        venmoAPI.preparePaymentContext(request, "sample-venmo-merchant");
+
+        VenmoApiCallback callback = mock(VenmoApiCallback.class);
+        venmoAPI.createPaymentContext(request, "sample-venmo-merchant", callback);
+
+        ArgumentCaptor<HttpResponseCallback> captor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendGraphQLPOST(any(GraphQLOperation.class), any(JSONObject.class), captor.capture());
+        captor.getValue().onResult(null, new Exception("prepare error"));
+
+        verify(callback, never()).onResult((String) any(), (Exception) any());
+        verify(braintreeClient, times(2)).sendGraphQLPOST(any(GraphQLOperation.class), any(JSONObject.class), captor.capture());
+
+        captor.getValue().onResult(Fixtures.VENMO_GRAPHQL_CREATE_PAYMENT_METHOD_CONTEXT_RESPONSE, null);
+        verify(callback).onResult("venmo-payment-context-id", null);
+    }
+
+    @Test
+    public void preparePaymentContext_whenSameRequestIsAlreadyPrepared_doesNotCreateAnotherPaymentContext() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_CREATE_PAYMENT_METHOD_CONTEXT_RESPONSE)
+                .build();
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        venmoAPI.preparePaymentContext(request, "sample-venmo-merchant");
+        venmoAPI.preparePaymentContext(request, "sample-venmo-merchant");
+
+        verify(braintreeClient, times(1)).sendGraphQLPOST(any(GraphQLOperation.class), any(JSONObject.class), any(HttpResponseCallback.class));
+    }
+
     @Test
     public void createNonceFromPaymentContext_queriesGraphQLPaymentContext() throws JSONException {
         VenmoApi sut = new VenmoApi(braintreeClient, apiClient);
         sut.createNonceFromPaymentContext("payment-context-id", mock(VenmoOnActivityResultCallback.class));
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<GraphQLOperation> operationCaptor = ArgumentCaptor.forClass(GraphQLOperation.class);
+        ArgumentCaptor<JSONObject> captor = ArgumentCaptor.forClass(JSONObject.class);
+        verify(braintreeClient).sendGraphQLPOST(operationCaptor.capture(), captor.capture(), any(HttpResponseCallback.class));
 
-        String payload = captor.getValue();
-        JSONObject jsonPayload = new JSONObject(payload);
+        JSONObject jsonPayload = captor.getValue();
         String expectedQuery = "query PaymentContext($id: ID!) { node(id: $id) { ... on VenmoPaymentContext { paymentMethodId userName payerInfo { firstName lastName phoneNumber email externalId userName " +
                 "shippingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } billingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } } } } }";
-        assertEquals(expectedQuery, jsonPayload.get("query"));
+        assertEquals(expectedQuery, operationCaptor.getValue().getDocument());
         assertEquals("payment-context-id", jsonPayload.getJSONObject("variables").get("id"));
     }
 
@@ -232,6 +362,49 @@ public class VenmoApiUnitTest {
         verify(callback).onResult((VenmoAccountNonce) isNull(), same(error));
     }
 
+    @Test
+    public void createVaultedNonceFromPaymentContext_sendsVaultPaymentContextMutation() throws JSONException {
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+        venmoAPI.createVaultedNonceFromPaymentContext("payment-context-id", mock(VenmoOnActivityResultCallback.class));
+
+        ArgumentCaptor<JSONObject> captor = ArgumentCaptor.forClass(JSONObject.class);
+        verify(braintreeClient).sendGraphQLPOST(same(GraphQLOperations.VAULT_VENMO_PAYMENT_CONTEXT), captor.capture(), any(HttpResponseCallback.class));
+
+        JSONObject input = captor.getValue().getJSONObject("variables").getJSONObject("input");
+        assertEquals("payment-context-id", input.getString("paymentContextId"));
+    }
+
+    @Test
+    public void createVaultedNonceFromPaymentContext_whenGraphQLPostSuccess_forwardsVaultedNonceToCallback() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_VAULT_PAYMENT_CONTEXT_RESPONSE)
+                .build();
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+
+        VenmoOnActivityResultCallback callback = mock(VenmoOnActivityResultCallback.class);
+        venmoAPI.createVaultedNonceFromPaymentContext("payment-context-id", callback);
+
+        ArgumentCaptor<VenmoAccountNonce> captor = ArgumentCaptor.forClass(VenmoAccountNonce.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+        assertEquals("vaulted-payment-method-id", captor.getValue().getString());
+        assertEquals("@somebody", captor.getValue().getUsername());
+        verify(braintreeClient).sendAnalyticsEvent(eq("pay-with-venmo.vault-payment-context.succeeded"), anyLong(), eq("graphql"), (JSONObject) isNull());
+    }
+
+    @Test
+    public void createVaultedNonceFromPaymentContext_whenGraphQLPostError_forwardsErrorToCallback() {
+        Exception error = new Exception("error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGraphQLPOSTErrorResponse(error)
+                .build();
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
+
+        VenmoOnActivityResultCallback callback = mock(VenmoOnActivityResultCallback.class);
+        venmoAPI.createVaultedNonceFromPaymentContext("payment-context-id", callback);
+
+        verify(callback).onResult(null, error);
+    }
+
     @Test
     public void vaultVenmoAccountNonce_performsVaultRequest() throws JSONException {
         VenmoApi sut = new VenmoApi(braintreeClient, apiClient);
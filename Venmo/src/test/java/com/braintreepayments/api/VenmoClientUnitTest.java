@@ -48,6 +48,8 @@ import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 
+import java.net.SocketTimeoutException;
+
 @RunWith(RobolectricTestRunner.class)
 public class VenmoClientUnitTest {
 
@@ -775,6 +777,98 @@ public class VenmoClientUnitTest {
         verify(braintreeClient).sendAnalyticsEvent("pay-with-venmo.app-switch.failed");
     }
 
+    @Test
+    public void tokenizeVenmoAccount_looksUpAuthorizationWhilePaymentContextIsCreated() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
+                .build();
+
+        when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        request.setProfileId("sample-venmo-merchant");
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        VenmoLifecycleObserver observer = mock(VenmoLifecycleObserver.class);
+        sut.observer = observer;
+        sut.tokenizeVenmoAccount(activity, request);
+
+        verify(braintreeClient).getAuthorization(any(AuthorizationCallback.class));
+        verify(venmoApi).createPaymentContext(same(request), eq("sample-venmo-merchant"), any(VenmoApiCallback.class));
+        verify(observer, never()).launch(any(VenmoIntentData.class));
+    }
+
+    @Test
+    public void tokenizeVenmoAccount_whenAuthorizationFails_forwardsErrorToListener() {
+        Exception authError = new Exception("auth error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
+                .authorizationError(authError)
+                .build();
+
+        VenmoApi venmoApi = new MockVenmoApiBuilder()
+                .createPaymentContextSuccess("venmo-payment-context-id")
+                .build();
+
+        when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        VenmoLifecycleObserver observer = mock(VenmoLifecycleObserver.class);
+        sut.observer = observer;
+        sut.setListener(listener);
+        sut.tokenizeVenmoAccount(activity, request);
+
+        verify(listener).onVenmoFailure(authError);
+        verify(observer, never()).launch(any(VenmoIntentData.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent("pay-with-venmo.app-switch.started");
+    }
+
+    @Test
+    public void prepare_whenVenmoIsAvailable_preparesPaymentContextWithMerchantProfileId() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
+                .build();
+        when(braintreeClient.getApplicationContext()).thenReturn(activity);
+        when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.prepare(request);
+
+        verify(venmoApi).preparePaymentContext(request, "merchant-id");
+    }
+
+    @Test
+    public void prepare_whenVenmoIsNotInstalled_doesNotPreparePaymentContext() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
+                .build();
+        when(braintreeClient.getApplicationContext()).thenReturn(activity);
+        when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(false);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.prepare(new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE));
+
+        verify(venmoApi, never()).preparePaymentContext(any(VenmoRequest.class), anyString());
+    }
+
+    @Test
+    public void prepare_whenVenmoIsDisabled_doesNotPreparePaymentContext() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoDisabledConfiguration)
+                .build();
+        when(braintreeClient.getApplicationContext()).thenReturn(activity);
+        when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.prepare(new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE));
+
+        verify(venmoApi, never()).preparePaymentContext(any(VenmoRequest.class), anyString());
+    }
+
     @Test
     public void onActivityResult_withPaymentContextId_requestFromVenmoApi() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -999,6 +1093,7 @@ public class VenmoClientUnitTest {
     @Test
     public void onActivityResult_withPaymentContext_withSuccessfulVaultCall_forwardsNonceToCallback_andSendsAnalytics() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
                 .sessionId("session-id")
                 .authorizationSuccess(clientToken)
                 .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_GET_PAYMENT_CONTEXT_RESPONSE)
@@ -1077,6 +1172,7 @@ public class VenmoClientUnitTest {
     @Test
     public void onActivityResult_withPaymentContext_withFailedVaultCall_forwardsErrorToCallback_andSendsAnalytics() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
                 .sessionId("session-id")
                 .authorizationSuccess(clientToken)
                 .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_GET_PAYMENT_CONTEXT_RESPONSE)
@@ -1103,6 +1199,33 @@ public class VenmoClientUnitTest {
         verify(braintreeClient).sendAnalyticsEvent(endsWith("pay-with-venmo.vault.failed"));
     }
 
+    @Test
+    public void onActivityResult_withPaymentContext_whenVaultPaymentContextIsEnabled_vaultsInSingleRequest() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO_AND_VAULT_PAYMENT_CONTEXT))
+                .authorizationSuccess(clientToken)
+                .build();
+
+        VenmoAccountNonce venmoAccountNonce = VenmoAccountNonce.fromJSON(new JSONObject(Fixtures.PAYMENT_METHODS_VENMO_ACCOUNT_RESPONSE));
+        VenmoApi venmoApi = new MockVenmoApiBuilder()
+                .createVaultedNonceFromPaymentContextSuccess(venmoAccountNonce)
+                .build();
+
+        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+
+        Intent intent = new Intent();
+        intent.putExtra("com.braintreepayments.api.EXTRA_RESOURCE_ID", "payment-context-id");
+        sut.onActivityResult(activity, AppCompatActivity.RESULT_OK, intent, onActivityResultCallback);
+
+        verify(venmoApi).createVaultedNonceFromPaymentContext(eq("payment-context-id"), any(VenmoOnActivityResultCallback.class));
+        verify(venmoApi, never()).createNonceFromPaymentContext(anyString(), any(VenmoOnActivityResultCallback.class));
+        verify(venmoApi, never()).vaultVenmoAccountNonce(anyString(), any(VenmoOnActivityResultCallback.class));
+        verify(onActivityResultCallback).onResult(venmoAccountNonce, null);
+        verify(braintreeClient).sendAnalyticsEvent("pay-with-venmo.vault.success");
+    }
+
     @Test
     public void onActivityResult_withFailedVaultCall_sendsAnalyticsEvent() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -1414,6 +1537,7 @@ public class VenmoClientUnitTest {
     @Test
     public void onVenmoResult_withPaymentContext_withSuccessfulVaultCall_forwardsNonceToCallback_andSendsAnalytics() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
                 .sessionId("session-id")
                 .authorizationSuccess(clientToken)
                 .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_GET_PAYMENT_CONTEXT_RESPONSE)
@@ -1470,6 +1594,7 @@ public class VenmoClientUnitTest {
     @Test
     public void onVenmoResult_withPaymentContext_withFailedVaultCall_forwardsErrorToCallback_andSendsAnalytics() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
                 .sessionId("session-id")
                 .authorizationSuccess(clientToken)
                 .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_GET_PAYMENT_CONTEXT_RESPONSE)
@@ -1496,4 +1621,168 @@ public class VenmoClientUnitTest {
         verify(listener).onVenmoFailure(error);
         verify(braintreeClient).sendAnalyticsEvent(endsWith("pay-with-venmo.vault.failed"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void onVenmoResult_withPaymentContext_whenVaultPaymentContextIsEnabled_vaultsInSingleRequest() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO_AND_VAULT_PAYMENT_CONTEXT))
+                .authorizationSuccess(clientToken)
+                .build();
+        when(braintreeClient.getApplicationContext()).thenReturn(activity);
+
+        VenmoAccountNonce venmoAccountNonce = VenmoAccountNonce.fromJSON(new JSONObject(Fixtures.PAYMENT_METHODS_VENMO_ACCOUNT_RESPONSE));
+        VenmoApi venmoApi = new MockVenmoApiBuilder()
+                .createVaultedNonceFromPaymentContextSuccess(venmoAccountNonce)
+                .build();
+
+        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.setListener(listener);
+
+        VenmoResult venmoResult = new VenmoResult("payment-context-id", null, null, null);
+        sut.onVenmoResult(venmoResult);
+
+        verify(venmoApi, never()).createNonceFromPaymentContext(anyString(), any(VenmoOnActivityResultCallback.class));
+        verify(venmoApi, never()).vaultVenmoAccountNonce(anyString(), any(VenmoOnActivityResultCallback.class));
+        verify(listener).onVenmoSuccess(venmoAccountNonce);
+        verify(braintreeClient).sendAnalyticsEvent("pay-with-venmo.vault.success");
+    }
+
+    @Test
+    public void onVenmoResult_withPaymentContext_whenVaultPaymentContextRequestIsRejected_fetchesNonceAndVaultsSeparately() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO_AND_VAULT_PAYMENT_CONTEXT))
+                .authorizationSuccess(clientToken)
+                .build();
+        when(braintreeClient.getApplicationContext()).thenReturn(activity);
+
+        VenmoAccountNonce nonce = mock(VenmoAccountNonce.class);
+        when(nonce.getString()).thenReturn("some-nonce");
+        VenmoAccountNonce vaultedNonce = VenmoAccountNonce.fromJSON(new JSONObject(Fixtures.PAYMENT_METHODS_VENMO_ACCOUNT_RESPONSE));
+        VenmoApi venmoApi = new MockVenmoApiBuilder()
+                .createVaultedNonceFromPaymentContextError(new ErrorWithResponse(422, "{}"))
+                .createNonceFromPaymentContextSuccess(nonce)
+                .vaultVenmoAccountNonceSuccess(vaultedNonce)
+                .build();
+
+        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.setListener(listener);
+
+        VenmoResult venmoResult = new VenmoResult("payment-context-id", null, null, null);
+        sut.onVenmoResult(venmoResult);
+
+        verify(venmoApi).createNonceFromPaymentContext(eq("payment-context-id"), any(VenmoOnActivityResultCallback.class));
+        verify(venmoApi).vaultVenmoAccountNonce(eq("some-nonce"), any(VenmoOnActivityResultCallback.class));
+        verify(listener).onVenmoSuccess(vaultedNonce);
+        verify(listener, never()).onVenmoFailure(any(Exception.class));
+    }
+
+    @Test
+    public void onVenmoResult_withPaymentContext_whenVaultPaymentContextIsNotAllowed_fetchesNonceAndVaultsSeparately() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO_AND_VAULT_PAYMENT_CONTEXT))
+                .authorizationSuccess(clientToken)
+                .build();
+        when(braintreeClient.getApplicationContext()).thenReturn(activity);
+
+        VenmoAccountNonce nonce = mock(VenmoAccountNonce.class);
+        when(nonce.getString()).thenReturn("some-nonce");
+        VenmoApi venmoApi = new MockVenmoApiBuilder()
+                .createVaultedNonceFromPaymentContextError(new AuthorizationException("not allowed"))
+                .createNonceFromPaymentContextSuccess(nonce)
+                .build();
+
+        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.setListener(listener);
+
+        VenmoResult venmoResult = new VenmoResult("payment-context-id", null, null, null);
+        sut.onVenmoResult(venmoResult);
+
+        verify(venmoApi).vaultVenmoAccountNonce(eq("some-nonce"), any(VenmoOnActivityResultCallback.class));
+    }
+
+    @Test
+    public void onVenmoResult_withPaymentContext_whenVaultPaymentContextRequestTimesOut_forwardsErrorWithoutVaultingAgain() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO_AND_VAULT_PAYMENT_CONTEXT))
+                .authorizationSuccess(clientToken)
+                .build();
+        when(braintreeClient.getApplicationContext()).thenReturn(activity);
+
+        SocketTimeoutException error = new SocketTimeoutException("timeout");
+        VenmoApi venmoApi = new MockVenmoApiBuilder()
+                .createVaultedNonceFromPaymentContextError(error)
+                .build();
+
+        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.setListener(listener);
+
+        VenmoResult venmoResult = new VenmoResult("payment-context-id", null, null, null);
+        sut.onVenmoResult(venmoResult);
+
+        verify(venmoApi, never()).createNonceFromPaymentContext(anyString(), any(VenmoOnActivityResultCallback.class));
+        verify(venmoApi, never()).vaultVenmoAccountNonce(anyString(), any(VenmoOnActivityResultCallback.class));
+        verify(listener).onVenmoFailure(error);
+        verify(braintreeClient).sendAnalyticsEvent("pay-with-venmo.vault.failed");
+    }
+
+    @Test
+    public void onVenmoResult_withPaymentContext_whenVaultPaymentContextResponseIsMalformed_doesNotVaultAgain() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO_AND_VAULT_PAYMENT_CONTEXT))
+                .authorizationSuccess(clientToken)
+                .build();
+        when(braintreeClient.getApplicationContext()).thenReturn(activity);
+
+        JSONException error = new JSONException("malformed response");
+        VenmoApi venmoApi = new MockVenmoApiBuilder()
+                .createVaultedNonceFromPaymentContextError(error)
+                .build();
+
+        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.setListener(listener);
+
+        VenmoResult venmoResult = new VenmoResult("payment-context-id", null, null, null);
+        sut.onVenmoResult(venmoResult);
+
+        verify(venmoApi, never()).createNonceFromPaymentContext(anyString(), any(VenmoOnActivityResultCallback.class));
+        verify(venmoApi, never()).vaultVenmoAccountNonce(anyString(), any(VenmoOnActivityResultCallback.class));
+        verify(listener).onVenmoFailure(error);
+        verify(braintreeClient).sendAnalyticsEvent("pay-with-venmo.vault.failed");
+    }
+
+    @Test
+    public void onVenmoResult_withPaymentContext_whenVaultPaymentContextIsDisabled_fetchesNonceAndVaultsSeparately() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
+                .authorizationSuccess(clientToken)
+                .build();
+        when(braintreeClient.getApplicationContext()).thenReturn(activity);
+
+        VenmoAccountNonce nonce = mock(VenmoAccountNonce.class);
+        when(nonce.getString()).thenReturn("some-nonce");
+        VenmoApi venmoApi = new MockVenmoApiBuilder()
+                .createNonceFromPaymentContextSuccess(nonce)
+                .build();
+
+        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.setListener(listener);
+
+        VenmoResult venmoResult = new VenmoResult("payment-context-id", null, null, null);
+        sut.onVenmoResult(venmoResult);
+
+        verify(venmoApi, never()).createVaultedNonceFromPaymentContext(anyString(), any(VenmoOnActivityResultCallback.class));
+        verify(venmoApi).vaultVenmoAccountNonce(eq("some-nonce"), any(VenmoOnActivityResultCallback.class));
+    }
+}